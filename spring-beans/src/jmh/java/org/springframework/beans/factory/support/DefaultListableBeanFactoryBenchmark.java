@@ -0,0 +1,102 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.core.ResolvableType;
+import org.springframework.tests.sample.beans.ITestBean;
+import org.springframework.tests.sample.beans.NestedTestBean;
+import org.springframework.tests.sample.beans.TestBean;
+
+/**
+ * Benchmarks for bean retrieval and type lookups on {@link DefaultListableBeanFactory}.
+ *
+ * @since 5.0.11
+ */
+@BenchmarkMode(Mode.Throughput)
+public class DefaultListableBeanFactoryBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"100", "1000"})
+		public int beanCount;
+
+		@Param({"default", "frozen", "sealed"})
+		public String configuration;
+
+		public DefaultListableBeanFactory beanFactory;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.beanFactory = new DefaultListableBeanFactory();
+			this.beanFactory.setSealedConfiguration("sealed".equals(this.configuration));
+			for (int i = 0; i < this.beanCount; i++) {
+				this.beanFactory.registerBeanDefinition("nested" + i, new RootBeanDefinition(NestedTestBean.class));
+			}
+			RootBeanDefinition singleton = new RootBeanDefinition(TestBean.class);
+			singleton.getPropertyValues().add("name", "singleton");
+			this.beanFactory.registerBeanDefinition("singleton", singleton);
+			RootBeanDefinition prototype = new RootBeanDefinition(TestBean.class);
+			prototype.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+			prototype.getPropertyValues().add("name", "prototype");
+			this.beanFactory.registerBeanDefinition("prototype", prototype);
+			if (!"default".equals(this.configuration)) {
+				this.beanFactory.freezeConfiguration();
+			}
+			this.beanFactory.preInstantiateSingletons();
+		}
+	}
+
+
+	@Benchmark
+	public Object getSingletonByName(BenchmarkState state) {
+		return state.beanFactory.getBean("singleton");
+	}
+
+	@Benchmark
+	public Object getPrototypeByName(BenchmarkState state) {
+		return state.beanFactory.getBean("prototype");
+	}
+
+	@Benchmark
+	public Object getNestedByType(BenchmarkState state) {
+		return state.beanFactory.getBean("nested0", NestedTestBean.class);
+	}
+
+	@Benchmark
+	public void getBeanNamesForClass(BenchmarkState state, Blackhole bh) {
+		bh.consume(state.beanFactory.getBeanNamesForType(ITestBean.class));
+		bh.consume(state.beanFactory.getBeanNamesForType(NestedTestBean.class, true, false));
+	}
+
+	@Benchmark
+	public String[] getBeanNamesForResolvableType(BenchmarkState state) {
+		return state.beanFactory.getBeanNamesForType(ResolvableType.forClass(ITestBean.class));
+	}
+
+}
@@ -42,6 +42,7 @@ import org.springframework.core.convert.ConverterNotFoundException;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
@@ -76,6 +77,13 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
 	 */
 	private static final Log logger = LogFactory.getLog(AbstractNestablePropertyAccessor.class);
 
+	/** Maximum number of entries in the nested property path cache */
+	private static final int NESTED_PATH_CACHE_LIMIT = 1024;
+
+	/** Nested property paths split into their individual nested properties, in LRU order */
+	private static final ConcurrentLruCache<String, String[]> nestedPathCache =
+			new ConcurrentLruCache<>(NESTED_PATH_CACHE_LIMIT, AbstractNestablePropertyAccessor::splitNestedProperties);
+
 	private int autoGrowCollectionLimit = Integer.MAX_VALUE;
 
 	@Nullable
@@ -808,17 +816,34 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
 	 */
 	@SuppressWarnings("unchecked")  // avoid nested generic
 	protected AbstractNestablePropertyAccessor getPropertyAccessorForPropertyPath(String propertyPath) {
-		int pos = PropertyAccessorUtils.getFirstNestedPropertySeparatorIndex(propertyPath);
-		// Handle nested properties recursively.
-		if (pos > -1) {
-			String nestedProperty = propertyPath.substring(0, pos);
-			String nestedPath = propertyPath.substring(pos + 1);
-			AbstractNestablePropertyAccessor nestedPa = getNestedPropertyAccessor(nestedProperty);
-			return nestedPa.getPropertyAccessorForPropertyPath(nestedPath);
+		String[] nestedProperties = getNestedProperties(propertyPath);
+		AbstractNestablePropertyAccessor nestedPa = this;
+		for (String nestedProperty : nestedProperties) {
+			nestedPa = nestedPa.getNestedPropertyAccessor(nestedProperty);
 		}
-		else {
-			return this;
+		return nestedPa;
+	}
+
+	/**
+	 * Split the given property path into the nested properties leading to its
+	 * final property, caching the result for the most recently used paths.
+	 * @param propertyPath property path, which may be nested
+	 * @return the nested properties (an empty array for a non-nested path)
+	 */
+	private static String[] getNestedProperties(String propertyPath) {
+		return nestedPathCache.get(propertyPath);
+	}
+
+	private static String[] splitNestedProperties(String propertyPath) {
+		List<String> result = new ArrayList<>(2);
+		String remainingPath = propertyPath;
+		int pos = PropertyAccessorUtils.getFirstNestedPropertySeparatorIndex(remainingPath);
+		while (pos > -1) {
+			result.add(remainingPath.substring(0, pos));
+			remainingPath = remainingPath.substring(pos + 1);
+			pos = PropertyAccessorUtils.getFirstNestedPropertySeparatorIndex(remainingPath);
 		}
+		return StringUtils.toStringArray(result);
 	}
 
 	/**
@@ -926,6 +951,10 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
 	 * @return representation of the parsed property tokens
 	 */
 	private PropertyTokenHolder getPropertyNameTokens(String propertyName) {
+		if (propertyName.indexOf(PROPERTY_KEY_PREFIX_CHAR) == -1) {
+			// Common case: a plain property name without keys...
+			return new PropertyTokenHolder(propertyName);
+		}
 		String actualName = null;
 		List<String> keys = new ArrayList<>(2);
 		int searchIndex = 0;
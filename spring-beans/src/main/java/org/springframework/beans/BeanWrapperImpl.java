@@ -17,12 +17,15 @@
 package org.springframework.beans;
 
 import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.security.AccessControlContext;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 import org.springframework.core.ResolvableType;
 import org.springframework.core.convert.Property;
@@ -277,7 +280,12 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 
 		@Override
 		public TypeDescriptor toTypeDescriptor() {
-			return new TypeDescriptor(property(this.pd));
+			CachedIntrospectionResults cachedIntrospectionResults = getCachedIntrospectionResults();
+			TypeDescriptor td = cachedIntrospectionResults.getTypeDescriptor(this.pd);
+			if (td == null) {
+				td = cachedIntrospectionResults.addTypeDescriptor(this.pd, new TypeDescriptor(property(this.pd)));
+			}
+			return td;
 		}
 
 		@Override
@@ -304,6 +312,18 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 				}
 			}
 			else {
+				if (this.pd instanceof GenericTypeAwarePropertyDescriptor) {
+					Function<Object, Object> getter =
+							((GenericTypeAwarePropertyDescriptor) this.pd).getGeneratedAccessor().getGetter();
+					if (getter != null) {
+						try {
+							return getter.apply(getWrappedInstance());
+						}
+						catch (Throwable ex) {
+							throw new InvocationTargetException(ex);
+						}
+					}
+				}
 				ReflectionUtils.makeAccessible(readMethod);
 				return readMethod.invoke(getWrappedInstance(), (Object[]) null);
 			}
@@ -328,6 +348,19 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 				}
 			}
 			else {
+				if (this.pd instanceof GenericTypeAwarePropertyDescriptor) {
+					BiConsumer<Object, Object> setter =
+							((GenericTypeAwarePropertyDescriptor) this.pd).getGeneratedAccessor().getSetter(value);
+					if (setter != null) {
+						try {
+							setter.accept(getWrappedInstance(), value);
+						}
+						catch (Throwable ex) {
+							throw new InvocationTargetException(ex);
+						}
+						return;
+					}
+				}
 				ReflectionUtils.makeAccessible(writeMethod);
 				writeMethod.invoke(getWrappedInstance(), value);
 			}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.LambdaFactoryUtils;
+
+/**
+ * Direct invoker for the read and write method of a bean property, calling them
+ * through {@link LambdaFactoryUtils generated} functions instead of reflection.
+ * Held by {@link GenericTypeAwarePropertyDescriptor} and therefore shared by all
+ * {@link BeanWrapperImpl} instances for the same bean class.
+ *
+ * <p>A function only gets generated once its method has been invoked reflectively
+ * {@link LambdaFactoryUtils#GENERATION_THRESHOLD} times, in order to not slow down
+ * one-off access such as bean property population at container startup.
+ *
+ * @since 5.0.11
+ * @see BeanWrapperImpl
+ */
+final class GeneratedPropertyAccessor {
+
+	@Nullable
+	private final Method readMethod;
+
+	@Nullable
+	private final Method writeMethod;
+
+	@Nullable
+	private volatile Function<Object, Object> getter;
+
+	@Nullable
+	private volatile BiConsumer<Object, Object> setter;
+
+	private volatile boolean getterUnsupported;
+
+	private volatile boolean setterUnsupported;
+
+	/** Racy invocation counters: approximate counts are good enough */
+	private volatile int readCount;
+
+	private volatile int writeCount;
+
+
+	GeneratedPropertyAccessor(@Nullable Method readMethod, @Nullable Method writeMethod) {
+		this.readMethod = readMethod;
+		this.writeMethod = writeMethod;
+		this.getterUnsupported = (readMethod == null);
+		this.setterUnsupported = (writeMethod == null);
+	}
+
+
+	/**
+	 * Return the generated getter for the read method, generating it once
+	 * the read method has been invoked often enough.
+	 * @return the getter, or {@code null} if reflection has to be used
+	 */
+	@Nullable
+	Function<Object, Object> getGetter() {
+		Function<Object, Object> getter = this.getter;
+		if (getter == null && !this.getterUnsupported && this.readCount++ >= LambdaFactoryUtils.GENERATION_THRESHOLD) {
+			getter = generateGetter();
+			if (getter != null) {
+				this.getter = getter;
+			}
+			else {
+				this.getterUnsupported = true;
+			}
+		}
+		return getter;
+	}
+
+	/**
+	 * Return the generated setter for the write method, generating it once
+	 * the write method has been invoked often enough.
+	 * @param value the value to be set, which the setter needs to be able to
+	 * accept without a type mismatch (e.g. {@code null} for a primitive type)
+	 * @return the setter, or {@code null} if reflection has to be used
+	 */
+	@Nullable
+	BiConsumer<Object, Object> getSetter(@Nullable Object value) {
+		if (this.setterUnsupported || this.writeMethod == null ||
+				!ClassUtils.isAssignableValue(this.writeMethod.getParameterTypes()[0], value)) {
+			return null;
+		}
+		BiConsumer<Object, Object> setter = this.setter;
+		if (setter == null && this.writeCount++ >= LambdaFactoryUtils.GENERATION_THRESHOLD) {
+			setter = generateSetter();
+			if (setter != null) {
+				this.setter = setter;
+			}
+			else {
+				this.setterUnsupported = true;
+			}
+		}
+		return setter;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Nullable
+	private Function<Object, Object> generateGetter() {
+		Method method = this.readMethod;
+		return (method != null && !Modifier.isStatic(method.getModifiers()) ?
+				LambdaFactoryUtils.generateFunction(method, Function.class) : null);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Nullable
+	private BiConsumer<Object, Object> generateSetter() {
+		Method method = this.writeMethod;
+		return (method != null && !Modifier.isStatic(method.getModifiers()) ?
+				LambdaFactoryUtils.generateFunction(method, BiConsumer.class) : null);
+	}
+
+}
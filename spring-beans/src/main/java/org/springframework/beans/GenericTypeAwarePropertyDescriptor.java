@@ -62,6 +62,9 @@ final class GenericTypeAwarePropertyDescriptor extends PropertyDescriptor {
 
 	private final Class<?> propertyEditorClass;
 
+	@Nullable
+	private volatile GeneratedPropertyAccessor generatedAccessor;
+
 
 	public GenericTypeAwarePropertyDescriptor(Class<?> beanClass, String propertyName,
 			@Nullable Method readMethod, @Nullable Method writeMethod, Class<?> propertyEditorClass)
@@ -145,6 +148,15 @@ final class GenericTypeAwarePropertyDescriptor extends PropertyDescriptor {
 		return this.writeMethod;
 	}
 
+	public GeneratedPropertyAccessor getGeneratedAccessor() {
+		GeneratedPropertyAccessor accessor = this.generatedAccessor;
+		if (accessor == null) {
+			accessor = new GeneratedPropertyAccessor(this.readMethod, this.writeMethod);
+			this.generatedAccessor = accessor;
+		}
+		return accessor;
+	}
+
 	public MethodParameter getWriteMethodParameter() {
 		Assert.state(this.writeMethodParameter != null, "No write method available");
 		return this.writeMethodParameter;
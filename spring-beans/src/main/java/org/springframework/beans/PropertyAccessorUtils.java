@@ -143,6 +143,9 @@ public abstract class PropertyAccessorUtils {
 		if (propertyName == null) {
 			return "";
 		}
+		if (propertyName.indexOf(PropertyAccessor.PROPERTY_KEY_PREFIX_CHAR) == -1) {
+			return propertyName;
+		}
 
 		StringBuilder sb = new StringBuilder(propertyName);
 		int searchIndex = 0;
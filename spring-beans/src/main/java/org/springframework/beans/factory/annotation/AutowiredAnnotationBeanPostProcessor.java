@@ -22,9 +22,11 @@ import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
@@ -231,6 +233,25 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 		metadata.checkConfigMembers(beanDefinition);
 	}
 
+	@Override
+	public Collection<InjectionPoint> determineInjectionPoints(Class<?> beanClass, String beanName) {
+		InjectionMetadata metadata = findAutowiringMetadata(beanName, beanClass, null);
+		List<InjectionPoint> injectionPoints = new ArrayList<>();
+		for (InjectionMetadata.InjectedElement element : metadata.getInjectedElements()) {
+			Member member = element.getMember();
+			if (member instanceof Field) {
+				injectionPoints.add(new InjectionPoint((Field) member));
+			}
+			else if (member instanceof Method) {
+				Method method = (Method) member;
+				for (int i = 0; i < method.getParameterCount(); i++) {
+					injectionPoints.add(new InjectionPoint(new MethodParameter(method, i)));
+				}
+			}
+		}
+		return injectionPoints;
+	}
+
 	@Override
 	@Nullable
 	public Constructor<?>[] determineCandidateConstructors(Class<?> beanClass, final String beanName)
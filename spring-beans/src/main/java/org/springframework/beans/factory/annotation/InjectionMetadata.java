@@ -63,6 +63,14 @@ public class InjectionMetadata {
 	}
 
 
+	/**
+	 * Return all elements to be injected, including externally managed ones.
+	 * @since 5.0.11
+	 */
+	Collection<InjectedElement> getInjectedElements() {
+		return this.injectedElements;
+	}
+
 	public void checkConfigMembers(RootBeanDefinition beanDefinition) {
 		Set<InjectedElement> checkedElements = new LinkedHashSet<>(this.injectedElements.size());
 		for (InjectedElement element : this.injectedElements) {
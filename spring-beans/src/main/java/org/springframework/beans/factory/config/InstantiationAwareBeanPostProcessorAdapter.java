@@ -18,9 +18,12 @@ package org.springframework.beans.factory.config;
 
 import java.beans.PropertyDescriptor;
 import java.lang.reflect.Constructor;
+import java.util.Collection;
+import java.util.Collections;
 
 import org.springframework.beans.BeansException;
 import org.springframework.beans.PropertyValues;
+import org.springframework.beans.factory.InjectionPoint;
 import org.springframework.lang.Nullable;
 
 /**
@@ -52,6 +55,13 @@ public abstract class InstantiationAwareBeanPostProcessorAdapter implements Smar
 		return null;
 	}
 
+	@Override
+	public Collection<InjectionPoint> determineInjectionPoints(Class<?> beanClass, String beanName)
+			throws BeansException {
+
+		return Collections.emptyList();
+	}
+
 	@Override
 	public Object getEarlyBeanReference(Object bean, String beanName) throws BeansException {
 		return bean;
@@ -17,8 +17,11 @@
 package org.springframework.beans.factory.config;
 
 import java.lang.reflect.Constructor;
+import java.util.Collection;
+import java.util.Collections;
 
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.InjectionPoint;
 import org.springframework.lang.Nullable;
 
 /**
@@ -68,6 +71,26 @@ public interface SmartInstantiationAwareBeanPostProcessor extends InstantiationA
 		return null;
 	}
 
+	/**
+	 * Determine the injection points that this processor is going to populate
+	 * on instances of the given bean, e.g. annotation-driven fields and methods.
+	 * <p>Used for deriving the dependency graph of a bean ahead of its creation,
+	 * for example for parallel singleton pre-instantiation.
+	 * <p>The default implementation returns an empty collection.
+	 * @param beanClass the raw class of the bean (never {@code null})
+	 * @param beanName the name of the bean
+	 * @return the injection points (fields or method parameters), or {@code null}
+	 * if this processor cannot determine its injection points upfront
+	 * @throws org.springframework.beans.BeansException in case of errors
+	 * @since 5.0.11
+	 */
+	@Nullable
+	default Collection<InjectionPoint> determineInjectionPoints(Class<?> beanClass, String beanName)
+			throws BeansException {
+
+		return Collections.emptyList();
+	}
+
 	/**
 	 * Obtain a reference for early access to the specified bean,
 	 * typically for the purpose of resolving a circular reference.
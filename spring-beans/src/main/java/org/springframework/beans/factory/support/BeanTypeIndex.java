@@ -0,0 +1,339 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.config.DependencyDescriptor;
+import org.springframework.core.ResolvableType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Precomputed index from bean types to the names of the bean definitions that
+ * may match them, as built by a {@link DefaultListableBeanFactory} in sealed mode
+ * once its configuration has been frozen.
+ *
+ * <p>Every bean definition is registered under the class of its singleton instance
+ * (if already created) or its predicted bean type, including all superclasses and
+ * interfaces. Bean definitions whose type cannot be determined upfront (e.g.
+ * FactoryBeans) are considered as candidates for every type. By-type lookups then
+ * only need to check the candidates for the raw class of the requested type, with
+ * {@link ResolvableType} results and autowire candidate names cached on top.
+ *
+ * <p>The index itself is immutable: it has to be rebuilt whenever the set of
+ * bean definitions changes. Singletons turning out to be of a different type
+ * than predicted (e.g. proxies) are moved to the unpredictable set at runtime.
+ *
+ * @since 5.0.11
+ * @see DefaultListableBeanFactory#setSealedConfiguration
+ */
+final class BeanTypeIndex {
+
+	private static final int[] NO_POSITIONS = new int[0];
+
+
+	/** Bean definition names in registration order, as frozen */
+	private final String[] beanDefinitionNames;
+
+	/** Map from bean name to position in the frozen bean definition names */
+	private final Map<String, Integer> positionsByName;
+
+	/** Indexed type per position, or {@code null} if not indexed by type */
+	private final Class<?>[] indexedTypes;
+
+	/** Map from any indexed type (including supertypes) to ascending positions */
+	private final Map<Class<?>, int[]> positionsByType;
+
+	/** Ascending positions of bean definitions to be considered for any type, copied on write */
+	private volatile int[] unpredictablePositions;
+
+	/** Cache of bean names for generic type lookups */
+	private final Map<ResolvableType, String[]> beanNamesByResolvableType = new ConcurrentHashMap<>(64);
+
+	/** Cache of the bean names that passed the primary autowire candidate check */
+	private final Map<AutowireCandidateKey, String[]> autowireCandidateNames = new ConcurrentHashMap<>(64);
+
+
+	/**
+	 * Build a new type index for the given bean definitions.
+	 * @param beanFactory the bean factory that holds the bean definitions
+	 * @param beanDefinitionNames the frozen bean definition names
+	 */
+	BeanTypeIndex(DefaultListableBeanFactory beanFactory, String[] beanDefinitionNames) {
+		this.beanDefinitionNames = beanDefinitionNames;
+		this.positionsByName = new HashMap<>(beanDefinitionNames.length * 2);
+		this.indexedTypes = new Class<?>[beanDefinitionNames.length];
+		Map<Class<?>, List<Integer>> positionLists = new HashMap<>(beanDefinitionNames.length * 2);
+		List<Integer> unpredictable = new ArrayList<>();
+
+		for (int i = 0; i < beanDefinitionNames.length; i++) {
+			String beanName = beanDefinitionNames[i];
+			this.positionsByName.put(beanName, i);
+			// Aliases and abstract bean definitions never match any type.
+			if (beanFactory.isAlias(beanName)) {
+				continue;
+			}
+			try {
+				RootBeanDefinition mbd = beanFactory.getMergedLocalBeanDefinition(beanName);
+				if (mbd.isAbstract()) {
+					continue;
+				}
+				Class<?> beanType = determineIndexType(beanFactory, beanName, mbd);
+				if (beanType != null) {
+					this.indexedTypes[i] = beanType;
+					for (Class<?> type : getTypeHierarchy(beanType)) {
+						positionLists.computeIfAbsent(type, key -> new ArrayList<>()).add(i);
+					}
+					continue;
+				}
+			}
+			catch (BeansException ex) {
+				// Unresolvable bean class or metadata: let the regular type check deal with it.
+			}
+			unpredictable.add(i);
+		}
+		this.unpredictablePositions = toArray(unpredictable);
+
+		this.positionsByType = new HashMap<>(positionLists.size() * 2);
+		positionLists.forEach((type, positions) -> this.positionsByType.put(type, toArray(positions)));
+	}
+
+	private static int[] toArray(List<Integer> positions) {
+		int[] array = new int[positions.size()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = positions.get(i);
+		}
+		return array;
+	}
+
+	@Nullable
+	private static Class<?> determineIndexType(
+			DefaultListableBeanFactory beanFactory, String beanName, RootBeanDefinition mbd) {
+
+		Object singletonInstance = beanFactory.getSingleton(beanName, false);
+		if (singletonInstance != null) {
+			return (singletonInstance instanceof FactoryBean || singletonInstance instanceof NullBean ?
+					null : singletonInstance.getClass());
+		}
+		String factoryBeanName = mbd.getFactoryBeanName();
+		if (factoryBeanName != null && beanFactory.isFactoryBean(factoryBeanName) &&
+				!beanFactory.containsSingleton(factoryBeanName)) {
+			// Would require eager initialization of the factory bean...
+			return null;
+		}
+		if (beanFactory.isFactoryBean(beanName, mbd)) {
+			return null;
+		}
+		return beanFactory.predictBeanType(beanName, mbd);
+	}
+
+	private static Set<Class<?>> getTypeHierarchy(Class<?> beanType) {
+		Set<Class<?>> hierarchy = ClassUtils.getAllInterfacesForClassAsSet(beanType);
+		Class<?> current = beanType;
+		while (current != null) {
+			hierarchy.add(current);
+			current = current.getSuperclass();
+		}
+		hierarchy.add(Object.class);
+		return hierarchy;
+	}
+
+
+	/**
+	 * Return the names of all bean definitions that may match the given type,
+	 * in registration order. Each of them still needs to be checked against
+	 * the actual type; all other bean definitions are guaranteed not to match.
+	 * @param type the raw type to match, or {@code null} for all bean definitions
+	 */
+	List<String> getCandidateNames(@Nullable Class<?> type) {
+		if (type == null || type.isArray()) {
+			// Array covariance is not reflected in the type hierarchy...
+			return Arrays.asList(this.beanDefinitionNames);
+		}
+		int[] typedPositions = this.positionsByType.getOrDefault(type, NO_POSITIONS);
+		int[] unpredictable = this.unpredictablePositions;
+		int[] positions = (unpredictable.length > 0 ? merge(typedPositions, unpredictable) : typedPositions);
+		List<String> candidateNames = new ArrayList<>(positions.length);
+		for (int position : positions) {
+			candidateNames.add(this.beanDefinitionNames[position]);
+		}
+		return candidateNames;
+	}
+
+	private static int[] merge(int[] first, int[] second) {
+		int[] result = new int[first.length + second.length];
+		int i = 0;
+		int j = 0;
+		int count = 0;
+		while (i < first.length || j < second.length) {
+			int next;
+			if (j >= second.length || (i < first.length && first[i] < second[j])) {
+				next = first[i++];
+			}
+			else if (i >= first.length || second[j] < first[i]) {
+				next = second[j++];
+			}
+			else {
+				next = first[i++];
+				j++;
+			}
+			result[count++] = next;
+		}
+		return (count == result.length ? result : Arrays.copyOf(result, count));
+	}
+
+	/**
+	 * Notify this index of a newly created singleton instance, moving its bean
+	 * definition to the unpredictable set if its class does not match the type
+	 * that it has been indexed with.
+	 * @return {@code true} if previous lookup results may have become stale
+	 */
+	boolean registerSingletonType(String beanName, Class<?> singletonType) {
+		Integer position = this.positionsByName.get(beanName);
+		if (position != null) {
+			Class<?> indexedType = this.indexedTypes[position];
+			if (indexedType != null && indexedType != singletonType && addUnpredictablePosition(position)) {
+				this.beanNamesByResolvableType.clear();
+				this.autowireCandidateNames.clear();
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private synchronized boolean addUnpredictablePosition(int position) {
+		int[] positions = this.unpredictablePositions;
+		int index = Arrays.binarySearch(positions, position);
+		if (index >= 0) {
+			return false;
+		}
+		int insertionPoint = -index - 1;
+		int[] updatedPositions = new int[positions.length + 1];
+		System.arraycopy(positions, 0, updatedPositions, 0, insertionPoint);
+		updatedPositions[insertionPoint] = position;
+		System.arraycopy(positions, insertionPoint, updatedPositions, insertionPoint + 1, positions.length - insertionPoint);
+		this.unpredictablePositions = updatedPositions;
+		return true;
+	}
+
+	/**
+	 * Return the cached bean names for the given generic type, if any.
+	 */
+	@Nullable
+	String[] getBeanNamesForType(ResolvableType type) {
+		return this.beanNamesByResolvableType.get(type);
+	}
+
+	/**
+	 * Cache the bean names for the given generic type, provided that all of
+	 * the classes involved are cache-safe for the given ClassLoader.
+	 */
+	void cacheBeanNamesForType(ResolvableType type, String[] beanNames, @Nullable ClassLoader classLoader) {
+		if (isCacheSafe(type, classLoader)) {
+			this.beanNamesByResolvableType.put(type, beanNames);
+		}
+	}
+
+	private static boolean isCacheSafe(ResolvableType type, @Nullable ClassLoader classLoader) {
+		Class<?> resolved = type.resolve();
+		if (resolved == null || !ClassUtils.isCacheSafe(resolved, classLoader)) {
+			return false;
+		}
+		for (ResolvableType generic : type.getGenerics()) {
+			if (!isCacheSafe(generic, classLoader)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Return the cached names of the beans that passed the primary autowire
+	 * candidate check for the given injection point, if any.
+	 */
+	@Nullable
+	String[] getAutowireCandidateNames(
+			@Nullable String beanName, Class<?> requiredType, DependencyDescriptor descriptor) {
+
+		return this.autowireCandidateNames.get(new AutowireCandidateKey(beanName, requiredType, descriptor));
+	}
+
+	/**
+	 * Cache the names of the beans that passed the primary autowire candidate
+	 * check for the given injection point.
+	 */
+	void cacheAutowireCandidateNames(@Nullable String beanName, Class<?> requiredType,
+			DependencyDescriptor descriptor, String[] candidateNames, @Nullable ClassLoader classLoader) {
+
+		if (ClassUtils.isCacheSafe(requiredType, classLoader) &&
+				ClassUtils.isCacheSafe(descriptor.getMember().getDeclaringClass(), classLoader)) {
+			this.autowireCandidateNames.put(
+					new AutowireCandidateKey(beanName, requiredType, descriptor), candidateNames);
+		}
+	}
+
+
+	/**
+	 * Cache key for autowire candidate names: the requesting bean (relevant for
+	 * self references) plus the required type and the injection point.
+	 */
+	private static final class AutowireCandidateKey {
+
+		@Nullable
+		private final String beanName;
+
+		private final Class<?> requiredType;
+
+		private final DependencyDescriptor descriptor;
+
+		AutowireCandidateKey(@Nullable String beanName, Class<?> requiredType, DependencyDescriptor descriptor) {
+			this.beanName = beanName;
+			this.requiredType = requiredType;
+			this.descriptor = descriptor;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof AutowireCandidateKey)) {
+				return false;
+			}
+			AutowireCandidateKey otherKey = (AutowireCandidateKey) other;
+			return (ObjectUtils.nullSafeEquals(this.beanName, otherKey.beanName) &&
+					this.requiredType == otherKey.requiredType && this.descriptor.equals(otherKey.descriptor));
+		}
+
+		@Override
+		public int hashCode() {
+			return (ObjectUtils.nullSafeHashCode(this.beanName) * 29 + this.requiredType.hashCode()) * 29 +
+					this.descriptor.hashCode();
+		}
+	}
+
+}
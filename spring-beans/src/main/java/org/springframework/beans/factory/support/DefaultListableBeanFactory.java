@@ -40,6 +40,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.inject.Provider;
 
 import org.springframework.beans.BeanUtils;
@@ -143,6 +145,13 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	/** Whether to allow eager class loading even for lazy-init beans */
 	private boolean allowEagerClassLoading = true;
 
+	/** Whether to precompute a type index once the configuration has been frozen */
+	private boolean sealedConfiguration = false;
+
+	/** Optional Executor for creating independent singletons in parallel */
+	@Nullable
+	private Executor bootstrapExecutor;
+
 	/** Optional OrderComparator for dependency Lists and arrays */
 	@Nullable
 	private Comparator<Object> dependencyComparator;
@@ -175,6 +184,16 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	/** Whether bean definition metadata may be cached for all beans */
 	private volatile boolean configurationFrozen = false;
 
+	/** Precomputed type index in case of sealed and frozen configuration */
+	@Nullable
+	private volatile BeanTypeIndex sealedTypeIndex;
+
+	/** Whether the type index is currently being built */
+	private volatile boolean sealedTypeIndexInCreation = false;
+
+	/** Number of type index invalidations, for detecting stale indexes built concurrently */
+	private final AtomicLong sealedTypeIndexInvalidations = new AtomicLong();
+
 
 	/**
 	 * Create a new DefaultListableBeanFactory.
@@ -264,6 +283,60 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return this.allowEagerClassLoading;
 	}
 
+	/**
+	 * Set whether this factory should be sealed once its configuration has been
+	 * frozen, i.e. whether to precompute an index from bean types to candidate
+	 * bean names at that point instead of scanning all bean definitions for
+	 * every by-type lookup and autowiring request.
+	 * <p>Default is "false". Switch this flag on for large, effectively immutable
+	 * configurations with many by-type lookups at runtime; note that this implies
+	 * eager type prediction (including bean class loading) for all bean definitions
+	 * on {@link #freezeConfiguration()}. Any subsequent bean definition or singleton
+	 * registration discards the index, with the next lookup rebuilding it.
+	 * @since 5.0.11
+	 * @see #freezeConfiguration()
+	 */
+	public void setSealedConfiguration(boolean sealedConfiguration) {
+		this.sealedConfiguration = sealedConfiguration;
+	}
+
+	/**
+	 * Return whether this factory should be sealed once its configuration
+	 * has been frozen.
+	 * @since 5.0.11
+	 */
+	public boolean isSealedConfiguration() {
+		return this.sealedConfiguration;
+	}
+
+	/**
+	 * Specify an {@link Executor} for creating independent singletons in parallel
+	 * during {@link #preInstantiateSingletons()}, e.g. a
+	 * {@link java.util.concurrent.ForkJoinPool}.
+	 * <p>Default is none, creating all singletons one after another on the calling
+	 * thread. If specified, a dependency graph is derived from each singleton's
+	 * "depends-on" declarations, constructor arguments, property values and
+	 * autowired injection points, with singletons submitted to the Executor once
+	 * all of their dependencies have been created. Beans whose dependencies cannot
+	 * be determined upfront (e.g. FactoryBeans, instance suppliers, by-name/by-type
+	 * autowiring or circular references) are created serially afterwards, in
+	 * registration order.
+	 * @since 5.0.11
+	 * @see org.springframework.beans.factory.config.SmartInstantiationAwareBeanPostProcessor#determineInjectionPoints
+	 */
+	public void setBootstrapExecutor(@Nullable Executor bootstrapExecutor) {
+		this.bootstrapExecutor = bootstrapExecutor;
+	}
+
+	/**
+	 * Return the Executor for creating independent singletons in parallel, if any.
+	 * @since 5.0.11
+	 */
+	@Nullable
+	public Executor getBootstrapExecutor() {
+		return this.bootstrapExecutor;
+	}
+
 	/**
 	 * Set a {@link java.util.Comparator} for dependency Lists and arrays.
 	 * @since 4.0
@@ -319,6 +392,8 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			DefaultListableBeanFactory otherListableFactory = (DefaultListableBeanFactory) otherFactory;
 			this.allowBeanDefinitionOverriding = otherListableFactory.allowBeanDefinitionOverriding;
 			this.allowEagerClassLoading = otherListableFactory.allowEagerClassLoading;
+			this.sealedConfiguration = otherListableFactory.sealedConfiguration;
+			this.bootstrapExecutor = otherListableFactory.bootstrapExecutor;
 			this.dependencyComparator = otherListableFactory.dependencyComparator;
 			// A clone of the AutowireCandidateResolver since it is potentially BeanFactoryAware...
 			setAutowireCandidateResolver(BeanUtils.instantiateClass(getAutowireCandidateResolver().getClass()));
@@ -392,7 +467,17 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 
 	@Override
 	public String[] getBeanNamesForType(ResolvableType type) {
-		return doGetBeanNamesForType(type, true, true);
+		BeanTypeIndex typeIndex = getSealedTypeIndex();
+		if (typeIndex == null) {
+			return doGetBeanNamesForType(type, true, true);
+		}
+		String[] resolvedBeanNames = typeIndex.getBeanNamesForType(type);
+		if (resolvedBeanNames != null) {
+			return resolvedBeanNames;
+		}
+		resolvedBeanNames = doGetBeanNamesForType(type, true, true);
+		typeIndex.cacheBeanNamesForType(type, resolvedBeanNames, getBeanClassLoader());
+		return resolvedBeanNames;
 	}
 
 	@Override
@@ -423,8 +508,11 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	private String[] doGetBeanNamesForType(ResolvableType type, boolean includeNonSingletons, boolean allowEagerInit) {
 		List<String> result = new ArrayList<>();
 
-		// Check all bean definitions.
-		for (String beanName : this.beanDefinitionNames) {
+		// Check all bean definitions, or just the indexed candidates in case of a sealed factory.
+		BeanTypeIndex typeIndex = getSealedTypeIndex();
+		List<String> candidateNames =
+				(typeIndex != null ? typeIndex.getCandidateNames(type.resolve()) : this.beanDefinitionNames);
+		for (String beanName : candidateNames) {
 			// Only consider bean as eligible if the bean name
 			// is not defined as alias for some other bean.
 			if (!isAlias(beanName)) {
@@ -721,6 +809,10 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	public void freezeConfiguration() {
 		this.configurationFrozen = true;
 		this.frozenBeanDefinitionNames = StringUtils.toStringArray(this.beanDefinitionNames);
+		if (this.sealedConfiguration) {
+			invalidateSealedTypeIndex();
+			getSealedTypeIndex();
+		}
 	}
 
 	@Override
@@ -749,6 +841,11 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		// 拿到所有bean的名字
 		List<String> beanNames = new ArrayList<>(this.beanDefinitionNames);
 
+		// Create independent singletons in parallel first, if demanded...
+		if (this.bootstrapExecutor != null) {
+			new ParallelSingletonInstantiator(this, this.bootstrapExecutor).instantiateSingletons(beanNames);
+		}
+
 		// Trigger initialization of all non-lazy singleton beans...
 		// 触发所有非延迟加载单例beans的初始化, 主要步骤为调用getBean
 		for (String beanName : beanNames) {
@@ -805,6 +902,9 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 				}
 			}
 		}
+
+		// Re-index by actual singleton types on next lookup...
+		invalidateSealedTypeIndex();
 	}
 
 
@@ -882,6 +982,9 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		if (existingDefinition != null || containsSingleton(beanName)) {
 			resetBeanDefinition(beanName);
 		}
+		else if (isConfigurationFrozen()) {
+			clearByTypeCache();
+		}
 	}
 
 	@Override
@@ -985,12 +1088,64 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		clearByTypeCache();
 	}
 
+	@Override
+	protected void addSingleton(String beanName, Object singletonObject) {
+		super.addSingleton(beanName, singletonObject);
+		BeanTypeIndex typeIndex = this.sealedTypeIndex;
+		if (typeIndex != null && typeIndex.registerSingletonType(beanName, singletonObject.getClass())) {
+			this.allBeanNamesByType.clear();
+			this.singletonBeanNamesByType.clear();
+		}
+	}
+
 	/**
 	 * Remove any assumptions about by-type mappings.
 	 */
 	private void clearByTypeCache() {
 		this.allBeanNamesByType.clear();
 		this.singletonBeanNamesByType.clear();
+		invalidateSealedTypeIndex();
+	}
+
+	/**
+	 * Discard the current type index, if any, as well as any index
+	 * that is concurrently being built.
+	 */
+	private void invalidateSealedTypeIndex() {
+		this.sealedTypeIndexInvalidations.incrementAndGet();
+		this.sealedTypeIndex = null;
+	}
+
+	/**
+	 * Return the precomputed type index for this factory, building it on demand.
+	 * @return the type index, or {@code null} if this factory is not sealed and frozen
+	 * (or if the index is currently being built, with lookups falling back to a full scan)
+	 * @see #setSealedConfiguration
+	 */
+	@Nullable
+	private BeanTypeIndex getSealedTypeIndex() {
+		if (!this.sealedConfiguration || !this.configurationFrozen) {
+			return null;
+		}
+		BeanTypeIndex typeIndex = this.sealedTypeIndex;
+		if (typeIndex == null && !this.sealedTypeIndexInCreation) {
+			// Type prediction may trigger nested by-type lookups: scan all bean definitions for those.
+			this.sealedTypeIndexInCreation = true;
+			try {
+				long invalidations = this.sealedTypeIndexInvalidations.get();
+				typeIndex = new BeanTypeIndex(this, StringUtils.toStringArray(this.beanDefinitionNames));
+				// Withdraw the index again if it has been invalidated in the meantime: an invalidation
+				// after this check will in turn discard the published index.
+				this.sealedTypeIndex = typeIndex;
+				if (this.sealedTypeIndexInvalidations.get() != invalidations) {
+					this.sealedTypeIndex = null;
+				}
+			}
+			finally {
+				this.sealedTypeIndexInCreation = false;
+			}
+		}
+		return typeIndex;
 	}
 
 
@@ -1295,8 +1450,12 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	protected Map<String, Object> findAutowireCandidates(
 			@Nullable String beanName, Class<?> requiredType, DependencyDescriptor descriptor) {
 
-		String[] candidateNames = BeanFactoryUtils.beanNamesForTypeIncludingAncestors(
-				this, requiredType, true, descriptor.isEager());
+		// In case of a sealed factory without parent, the primary candidate check is cached per injection point.
+		BeanTypeIndex typeIndex = (getParentBeanFactory() == null ? getSealedTypeIndex() : null);
+		String[] cachedCandidateNames =
+				(typeIndex != null ? typeIndex.getAutowireCandidateNames(beanName, requiredType, descriptor) : null);
+		String[] candidateNames = (cachedCandidateNames != null ? cachedCandidateNames :
+				BeanFactoryUtils.beanNamesForTypeIncludingAncestors(this, requiredType, true, descriptor.isEager()));
 		Map<String, Object> result = new LinkedHashMap<>(candidateNames.length);
 		for (Class<?> autowiringType : this.resolvableDependencies.keySet()) {
 			if (autowiringType.isAssignableFrom(requiredType)) {
@@ -1308,11 +1467,23 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 				}
 			}
 		}
+		if (cachedCandidateNames != null) {
+			for (String candidate : cachedCandidateNames) {
+				addCandidateEntry(result, candidate, descriptor, requiredType);
+			}
+			return result;
+		}
+		List<String> primaryCandidateNames = new ArrayList<>(candidateNames.length);
 		for (String candidate : candidateNames) {
 			if (!isSelfReference(beanName, candidate) && isAutowireCandidate(candidate, descriptor)) {
 				addCandidateEntry(result, candidate, descriptor, requiredType);
+				primaryCandidateNames.add(candidate);
 			}
 		}
+		if (typeIndex != null && !primaryCandidateNames.isEmpty()) {
+			typeIndex.cacheAutowireCandidateNames(beanName, requiredType, descriptor,
+					StringUtils.toStringArray(primaryCandidateNames), getBeanClassLoader());
+		}
 		if (result.isEmpty() && !indicatesMultipleBeans(requiredType)) {
 			// Consider fallback matches if the first pass failed to find anything...
 			DependencyDescriptor fallbackDescriptor = descriptor.forFallbackMatch();
@@ -32,6 +32,7 @@ import org.springframework.beans.factory.BeanCurrentlyInCreationException;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.config.SingletonBeanRegistry;
+import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.SimpleAliasRegistry;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -94,6 +95,15 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	private final Set<String> singletonsCurrentlyInCreation =
 			Collections.newSetFromMap(new ConcurrentHashMap<>(16));
 
+	/** Threads creating singletons in parallel creation mode: bean name --> creating thread */
+	private final Map<String, Thread> singletonCreationThreads = new ConcurrentHashMap<>(16);
+
+	/** Singletons waited for in parallel creation mode: waiting thread --> bean name */
+	private final Map<Thread, String> singletonWaitingThreads = new ConcurrentHashMap<>(16);
+
+	/** Whether singletons may currently be created by several threads in parallel */
+	private volatile boolean parallelSingletonCreation = false;
+
 	/** Names of beans currently excluded from in creation checks */
 	/** 当前在创建检查中排除的bean名称 */
 	private final Set<String> inCreationCheckExclusions =
@@ -104,6 +114,10 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	@Nullable
 	private Set<Exception> suppressedExceptions;
 
+	/** Suppressed Exceptions of the current thread in parallel creation mode */
+	private final ThreadLocal<Set<Exception>> parallelSuppressedExceptions =
+			new NamedThreadLocal<>("Suppressed exceptions of singletons created in parallel");
+
 	/** Flag that indicates whether we're currently within destroySingletons */
 	/** 标识当前是否在destroySingletons中 */
 	private boolean singletonsCurrentlyInDestruction = false;
@@ -204,6 +218,11 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		Object singletonObject = this.singletonObjects.get(beanName);
 		// 如果单例池里没有 且 这个bean正在创建中(在singletonsCurrentlyInCreation Set里则表明正在创建中)
 		if (singletonObject == null && isSingletonCurrentlyInCreation(beanName)) {
+			if (this.parallelSingletonCreation &&
+					this.singletonCreationThreads.get(beanName) != Thread.currentThread()) {
+				// Never expose an early reference to a bean that another thread is creating.
+				return null;
+			}
 			synchronized (this.singletonObjects) {
 				// 获取提前曝光的bean。earlySingletonObjects存放原始的bean对象（没填充属性），用于解决循环依赖
 				singletonObject = this.earlySingletonObjects.get(beanName);
@@ -240,6 +259,9 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 */
 	public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
 		Assert.notNull(beanName, "Bean name must not be null");
+		if (this.parallelSingletonCreation) {
+			return getSingletonWithBeanLock(beanName, singletonFactory);
+		}
 		synchronized (this.singletonObjects) {
 			// 从单例池中获取对象
 			Object singletonObject = this.singletonObjects.get(beanName);
@@ -297,12 +319,157 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		}
 	}
 
+	/**
+	 * Variant of {@link #getSingleton(String, ObjectFactory)} for parallel creation mode:
+	 * only locks the given bean for the duration of its creation instead of the entire
+	 * registry, waiting for another thread to finish if it is creating the same bean.
+	 * @param beanName the name of the bean
+	 * @param singletonFactory the ObjectFactory to lazily create the singleton with
+	 * @return the registered singleton object
+	 * @throws BeanCurrentlyInCreationException if waiting for the other thread would
+	 * result in a deadlock, i.e. in case of a circular reference across threads
+	 * @see #setParallelSingletonCreation
+	 */
+	private Object getSingletonWithBeanLock(String beanName, ObjectFactory<?> singletonFactory) {
+		Thread currentThread = Thread.currentThread();
+		synchronized (this.singletonObjects) {
+			Object singletonObject = this.singletonObjects.get(beanName);
+			Thread creatingThread = this.singletonCreationThreads.get(beanName);
+			while (singletonObject == null && creatingThread != null) {
+				if (creatingThread == currentThread || isWaitingFor(creatingThread, currentThread)) {
+					throw new BeanCurrentlyInCreationException(beanName, "Requested bean is currently in creation " +
+							"in another thread which is waiting for a bean created by this thread: " +
+							"Is there an unresolvable circular reference between beans created in parallel?");
+				}
+				this.singletonWaitingThreads.put(currentThread, beanName);
+				try {
+					this.singletonObjects.wait();
+				}
+				catch (InterruptedException ex) {
+					currentThread.interrupt();
+					throw new BeanCreationException(beanName,
+							"Interrupted while waiting for singleton creation in another thread", ex);
+				}
+				finally {
+					this.singletonWaitingThreads.remove(currentThread);
+				}
+				singletonObject = this.singletonObjects.get(beanName);
+				creatingThread = this.singletonCreationThreads.get(beanName);
+			}
+			if (singletonObject != null) {
+				return singletonObject;
+			}
+			if (this.singletonsCurrentlyInDestruction) {
+				throw new BeanCreationNotAllowedException(beanName,
+						"Singleton bean creation not allowed while singletons of this factory are in destruction " +
+						"(Do not request a bean from a BeanFactory in a destroy method implementation!)");
+			}
+			this.singletonCreationThreads.put(beanName, currentThread);
+		}
+
+		try {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Creating shared instance of singleton bean '" + beanName + "' in parallel");
+			}
+			Object singletonObject;
+			boolean newSingleton = false;
+			beforeSingletonCreation(beanName);
+			Set<Exception> suppressedExceptions = this.parallelSuppressedExceptions.get();
+			boolean recordSuppressedExceptions = (suppressedExceptions == null);
+			if (recordSuppressedExceptions) {
+				suppressedExceptions = new LinkedHashSet<>();
+				this.parallelSuppressedExceptions.set(suppressedExceptions);
+			}
+			try {
+				singletonObject = singletonFactory.getObject();
+				newSingleton = true;
+			}
+			catch (IllegalStateException ex) {
+				// Has the singleton object implicitly appeared in the meantime ->
+				// if yes, proceed with it since the exception indicates that state.
+				singletonObject = this.singletonObjects.get(beanName);
+				if (singletonObject == null) {
+					throw ex;
+				}
+			}
+			catch (BeanCreationException ex) {
+				if (recordSuppressedExceptions) {
+					for (Exception suppressedException : suppressedExceptions) {
+						ex.addRelatedCause(suppressedException);
+					}
+				}
+				throw ex;
+			}
+			finally {
+				if (recordSuppressedExceptions) {
+					this.parallelSuppressedExceptions.remove();
+				}
+				afterSingletonCreation(beanName);
+			}
+			if (newSingleton) {
+				addSingleton(beanName, singletonObject);
+			}
+			return singletonObject;
+		}
+		finally {
+			synchronized (this.singletonObjects) {
+				this.singletonCreationThreads.remove(beanName);
+				this.singletonObjects.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Determine whether the given thread is (transitively) waiting for a bean
+	 * that the specified creating thread is currently creating.
+	 */
+	private boolean isWaitingFor(Thread thread, Thread creatingThread) {
+		Set<Thread> checkedThreads = new HashSet<>();
+		Thread current = thread;
+		while (current != null && checkedThreads.add(current)) {
+			String awaitedBean = this.singletonWaitingThreads.get(current);
+			if (awaitedBean == null) {
+				return false;
+			}
+			current = this.singletonCreationThreads.get(awaitedBean);
+			if (current == creatingThread) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Specify whether singletons may be created by several threads in parallel
+	 * from now on, locking individual beans during their creation rather than
+	 * the entire registry. Also restricts early singleton references (for
+	 * circular reference resolution) to the creating thread.
+	 * <p>Only to be switched while no singleton is currently in creation.
+	 * @since 5.0.11
+	 */
+	protected void setParallelSingletonCreation(boolean parallelSingletonCreation) {
+		this.parallelSingletonCreation = parallelSingletonCreation;
+	}
+
+	/**
+	 * Return whether singletons may currently be created by several threads in parallel.
+	 * @since 5.0.11
+	 */
+	protected boolean isParallelSingletonCreation() {
+		return this.parallelSingletonCreation;
+	}
+
 	/**
 	 * Register an Exception that happened to get suppressed during the creation of a
 	 * singleton bean instance, e.g. a temporary circular reference resolution problem.
 	 * @param ex the Exception to register
 	 */
 	protected void onSuppressedException(Exception ex) {
+		Set<Exception> parallelSuppressedExceptions = this.parallelSuppressedExceptions.get();
+		if (parallelSuppressedExceptions != null) {
+			parallelSuppressedExceptions.add(ex);
+			return;
+		}
 		synchronized (this.singletonObjects) {
 			if (this.suppressedExceptions != null) {
 				this.suppressedExceptions.add(ex);
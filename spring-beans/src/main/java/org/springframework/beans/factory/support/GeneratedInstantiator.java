@@ -0,0 +1,117 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.core.KotlinDetector;
+import org.springframework.lang.Nullable;
+import org.springframework.util.LambdaFactoryUtils;
+
+/**
+ * Instantiator for a no-arg constructor or factory method, invoking it through
+ * a {@link LambdaFactoryUtils generated} {@link Supplier} or {@link Function}
+ * instead of reflection. Used by {@link SimpleInstantiationStrategy} for beans
+ * that get instantiated repeatedly, i.e. non-singletons.
+ *
+ * <p>Any constructor or factory method that no function can be generated for
+ * is represented by an unsupported instantiator, indicating that reflection
+ * has to be used.
+ *
+ * @since 5.0.11
+ * @see RootBeanDefinition#generatedInstantiator
+ */
+final class GeneratedInstantiator {
+
+	private final Executable executable;
+
+	/** Invoker for constructors and static factory methods */
+	@Nullable
+	private final Supplier<?> supplier;
+
+	/** Invoker for instance factory methods, taking the factory bean */
+	@Nullable
+	private final Function<Object, ?> function;
+
+
+	private GeneratedInstantiator(Executable executable,
+			@Nullable Supplier<?> supplier, @Nullable Function<Object, ?> function) {
+
+		this.executable = executable;
+		this.supplier = supplier;
+		this.function = function;
+	}
+
+
+	/**
+	 * Return whether this instantiator has been created for the given
+	 * constructor or factory method.
+	 */
+	boolean isFor(Executable executable) {
+		return this.executable.equals(executable);
+	}
+
+	/**
+	 * Return whether this instantiator is able to invoke its constructor or factory
+	 * method without reflection; if not, the caller needs to fall back to reflection.
+	 */
+	boolean isSupported() {
+		return (this.supplier != null || this.function != null);
+	}
+
+	/**
+	 * Invoke the constructor or factory method.
+	 * @param target the factory bean to invoke an instance factory method on
+	 * @return the created object (may be {@code null} for a factory method)
+	 * @throws Throwable any exception thrown by the constructor or factory method
+	 */
+	@Nullable
+	Object invoke(@Nullable Object target) throws Throwable {
+		if (this.supplier != null) {
+			return this.supplier.get();
+		}
+		if (this.function != null) {
+			return this.function.apply(target);
+		}
+		throw new IllegalStateException("Unsupported instantiator for " + this.executable);
+	}
+
+
+	/**
+	 * Create an instantiator for the given constructor or factory method.
+	 * @param executable the resolved constructor or factory method
+	 * @return the instantiator (never {@code null} but possibly
+	 * {@link #isSupported() unsupported})
+	 */
+	@SuppressWarnings("unchecked")
+	static GeneratedInstantiator forExecutable(Executable executable) {
+		if (executable.getParameterCount() != 0 || KotlinDetector.isKotlinType(executable.getDeclaringClass())) {
+			return new GeneratedInstantiator(executable, null, null);
+		}
+		if (executable instanceof Method && !Modifier.isStatic(executable.getModifiers())) {
+			return new GeneratedInstantiator(executable, null,
+					LambdaFactoryUtils.generateFunction(executable, Function.class));
+		}
+		return new GeneratedInstantiator(executable,
+				LambdaFactoryUtils.generateFunction(executable, Supplier.class), null);
+	}
+
+}
@@ -0,0 +1,570 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.BeanCurrentlyInCreationException;
+import org.springframework.beans.factory.BeanFactoryUtils;
+import org.springframework.beans.factory.InjectionPoint;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.SmartInstantiationAwareBeanPostProcessor;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Helper for {@link DefaultListableBeanFactory#preInstantiateSingletons()} that
+ * creates independent singletons in parallel on a given {@link Executor}.
+ *
+ * <p>Derives a dependency graph from the statically known dependencies of each
+ * bean definition: "depends-on" declarations, bean references in constructor
+ * arguments and property values, autowired constructor and factory method
+ * parameters, as well as the injection points reported by
+ * {@link SmartInstantiationAwareBeanPostProcessor#determineInjectionPoints}.
+ * A singleton gets submitted once all singletons that it transitively depends on
+ * have been created. Singletons with undeterminable dependencies, singletons in
+ * a dependency cycle and all singletons depending on them are left for serial
+ * creation; the same applies to singletons whose parallel creation ran into a
+ * circular reference with a bean created by another thread.
+ *
+ * <p>While the parallel phase is running, the factory locks individual singletons
+ * during their creation instead of its entire singleton registry.
+ *
+ * @since 5.0.11
+ * @see DefaultListableBeanFactory#setBootstrapExecutor
+ * @see DefaultSingletonBeanRegistry#setParallelSingletonCreation
+ */
+final class ParallelSingletonInstantiator {
+
+	private static final Log logger = LogFactory.getLog(ParallelSingletonInstantiator.class);
+
+
+	private final DefaultListableBeanFactory beanFactory;
+
+	private final Executor executor;
+
+	/** Direct dependencies per bean name; {@code null} values for undeterminable ones */
+	private final Map<String, Set<String>> dependencies = new HashMap<>();
+
+	/** Cache of bean names per injection type */
+	private final Map<Class<?>, String[]> beanNamesByType = new HashMap<>();
+
+	/** Number of dependencies yet to be created per bean scheduled for parallel creation */
+	private final Map<String, Integer> pendingDependencies = new HashMap<>();
+
+	/** Beans scheduled for parallel creation that wait for a given bean */
+	private final Map<String, List<String>> dependentBeans = new HashMap<>();
+
+	/** Beans left for serial creation after the parallel phase */
+	private final Set<String> deferredBeans = new HashSet<>();
+
+	/** Number of beans that have been submitted but not completed yet */
+	private int beansInProgress = 0;
+
+	/** The first creation failure in the parallel phase, if any */
+	@Nullable
+	private Throwable failure;
+
+	/** The context ClassLoader of the bootstrap thread, to be applied to worker threads */
+	@Nullable
+	private ClassLoader contextClassLoader;
+
+
+	ParallelSingletonInstantiator(DefaultListableBeanFactory beanFactory, Executor executor) {
+		this.beanFactory = beanFactory;
+		this.executor = executor;
+	}
+
+
+	/**
+	 * Create all independent non-lazy singletons among the given beans in parallel,
+	 * returning once all of them have been created. The remaining singletons are
+	 * left for regular serial creation by the caller.
+	 * @param beanNames the names of all bean definitions, in registration order
+	 * @throws BeansException if the creation of any singleton failed
+	 */
+	void instantiateSingletons(List<String> beanNames) throws BeansException {
+		Map<String, Set<String>> parallelBeans = determineParallelBeans(beanNames);
+		if (parallelBeans.isEmpty()) {
+			return;
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Creating " + parallelBeans.size() + " singletons in parallel: " + parallelBeans.keySet());
+		}
+
+		this.contextClassLoader = Thread.currentThread().getContextClassLoader();
+		this.beanFactory.setParallelSingletonCreation(true);
+		try {
+			synchronized (this) {
+				for (Map.Entry<String, Set<String>> entry : parallelBeans.entrySet()) {
+					this.pendingDependencies.put(entry.getKey(), entry.getValue().size());
+					for (String dependency : entry.getValue()) {
+						this.dependentBeans.computeIfAbsent(dependency, key -> new ArrayList<>()).add(entry.getKey());
+					}
+				}
+				for (Map.Entry<String, Set<String>> entry : parallelBeans.entrySet()) {
+					if (entry.getValue().isEmpty()) {
+						submit(entry.getKey());
+					}
+				}
+				boolean interrupted = false;
+				while (this.beansInProgress > 0) {
+					try {
+						wait();
+					}
+					catch (InterruptedException ex) {
+						// Singletons in creation need to complete before we may proceed...
+						interrupted = true;
+					}
+				}
+				if (interrupted) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+		finally {
+			this.beanFactory.setParallelSingletonCreation(false);
+		}
+
+		if (this.failure != null) {
+			ReflectionUtils.rethrowRuntimeException(this.failure);
+		}
+		if (!this.deferredBeans.isEmpty() && logger.isDebugEnabled()) {
+			logger.debug("Deferred singletons to serial creation: " + this.deferredBeans);
+		}
+	}
+
+	/**
+	 * Determine the singletons eligible for parallel creation.
+	 * @return a Map from bean name to the names of the eligible singletons
+	 * that it transitively depends on, in registration order
+	 */
+	private Map<String, Set<String>> determineParallelBeans(List<String> beanNames) {
+		Set<String> candidates = new LinkedHashSet<>();
+		for (String beanName : beanNames) {
+			if (isCandidate(beanName)) {
+				candidates.add(beanName);
+			}
+		}
+
+		Map<String, Set<String>> transitiveDependencies = new LinkedHashMap<>();
+		Set<String> serialBeans = new HashSet<>();
+		for (String beanName : candidates) {
+			Set<String> closure = new LinkedHashSet<>();
+			if (!collectDependencies(beanName, closure) || closure.contains(beanName)) {
+				serialBeans.add(beanName);
+			}
+			closure.retainAll(candidates);
+			transitiveDependencies.put(beanName, closure);
+		}
+
+		Map<String, Set<String>> parallelBeans = new LinkedHashMap<>();
+		transitiveDependencies.forEach((beanName, closure) -> {
+			if (!serialBeans.contains(beanName) && closure.stream().noneMatch(serialBeans::contains)) {
+				parallelBeans.put(beanName, closure);
+			}
+		});
+		return parallelBeans;
+	}
+
+	private boolean isCandidate(String beanName) {
+		try {
+			RootBeanDefinition mbd = this.beanFactory.getMergedLocalBeanDefinition(beanName);
+			return (!mbd.isAbstract() && mbd.isSingleton() && !mbd.isLazyInit() &&
+					!this.beanFactory.containsSingleton(beanName) && !this.beanFactory.isFactoryBean(beanName));
+		}
+		catch (BeansException ex) {
+			// Let serial creation report the problem...
+			return false;
+		}
+	}
+
+	/**
+	 * Collect the transitive dependencies of the given bean into the given set.
+	 * @return {@code false} if a dependency of the bean is a candidate for
+	 * parallel creation but its own dependencies cannot be determined
+	 */
+	private boolean collectDependencies(String beanName, Set<String> closure) {
+		Set<String> directDependencies = getDependencies(beanName);
+		if (directDependencies == null) {
+			// Non-singleton or lazy dependencies get created on demand, by whichever thread needs them.
+			return !isCandidate(beanName);
+		}
+		for (String dependency : directDependencies) {
+			if (closure.add(dependency) && !collectDependencies(dependency, closure)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Nullable
+	private Set<String> getDependencies(String beanName) {
+		if (!this.dependencies.containsKey(beanName)) {
+			Set<String> result = null;
+			if (this.beanFactory.containsBeanDefinition(beanName) && !this.beanFactory.containsSingleton(beanName)) {
+				try {
+					result = determineDependencies(beanName, this.beanFactory.getMergedLocalBeanDefinition(beanName));
+				}
+				catch (BeansException ex) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Could not determine dependencies of bean '" + beanName + "'", ex);
+					}
+				}
+			}
+			else {
+				result = new HashSet<>();
+			}
+			this.dependencies.put(beanName, result);
+		}
+		return this.dependencies.get(beanName);
+	}
+
+	/**
+	 * Determine the direct dependencies of the given bean, as far as they are
+	 * known upfront.
+	 * @return the canonical names of the beans that the given bean depends on,
+	 * or {@code null} if they cannot be determined statically
+	 */
+	@Nullable
+	private Set<String> determineDependencies(String beanName, RootBeanDefinition mbd) {
+		if (mbd.getInstanceSupplier() != null) {
+			return null;
+		}
+		int autowireMode = mbd.getResolvedAutowireMode();
+		if (autowireMode == AutowireCapableBeanFactory.AUTOWIRE_BY_NAME ||
+				autowireMode == AutowireCapableBeanFactory.AUTOWIRE_BY_TYPE) {
+			return null;
+		}
+
+		Set<String> result = new LinkedHashSet<>();
+		if (!addDefinitionDependencies(mbd, result)) {
+			return null;
+		}
+
+		boolean autowireParameters = (autowireMode == AutowireCapableBeanFactory.AUTOWIRE_CONSTRUCTOR);
+		Class<?> beanClass;
+		if (mbd.getFactoryMethodName() != null) {
+			String factoryBeanName = mbd.getFactoryBeanName();
+			Class<?> factoryClass;
+			if (factoryBeanName != null) {
+				result.add(this.beanFactory.canonicalName(factoryBeanName));
+				factoryClass = this.beanFactory.getType(factoryBeanName);
+			}
+			else {
+				factoryClass = this.beanFactory.resolveBeanClass(mbd, beanName);
+			}
+			if (factoryClass == null) {
+				return null;
+			}
+			if (autowireParameters) {
+				for (Method method : ReflectionUtils.getUniqueDeclaredMethods(factoryClass)) {
+					if (mbd.isFactoryMethod(method)) {
+						addParameterDependencies(method, result);
+					}
+				}
+			}
+			beanClass = this.beanFactory.predictBeanType(beanName, mbd);
+		}
+		else {
+			beanClass = this.beanFactory.resolveBeanClass(mbd, beanName);
+			if (beanClass == null) {
+				return null;
+			}
+			Constructor<?>[] ctors = this.beanFactory.determineConstructorsFromBeanPostProcessors(beanClass, beanName);
+			if (ctors == null && autowireParameters) {
+				ctors = (mbd.isNonPublicAccessAllowed() ? beanClass.getDeclaredConstructors() : beanClass.getConstructors());
+			}
+			if (ctors != null) {
+				for (Constructor<?> ctor : ctors) {
+					addParameterDependencies(ctor, result);
+				}
+			}
+		}
+
+		if (beanClass != null && !mbd.isSynthetic()) {
+			for (BeanPostProcessor bp : this.beanFactory.getBeanPostProcessors()) {
+				if (bp instanceof SmartInstantiationAwareBeanPostProcessor) {
+					Collection<InjectionPoint> injectionPoints =
+							((SmartInstantiationAwareBeanPostProcessor) bp).determineInjectionPoints(beanClass, beanName);
+					if (injectionPoints == null) {
+						return null;
+					}
+					for (InjectionPoint injectionPoint : injectionPoints) {
+						ResolvableType type = (injectionPoint.getField() != null ?
+								ResolvableType.forField(injectionPoint.getField(), beanClass) :
+								ResolvableType.forMethodParameter(injectionPoint.getMethodParameter(), beanClass));
+						addTypeDependencies(type, result);
+					}
+				}
+			}
+		}
+
+		result.remove(beanName);
+		return result;
+	}
+
+	/**
+	 * Add the beans referenced by constructor arguments and property values of
+	 * the given bean definition, including nested inner bean definitions.
+	 * @return {@code false} if the dependencies cannot be determined
+	 */
+	private boolean addDefinitionDependencies(BeanDefinition bd, Set<String> result) {
+		ConstructorArgumentValues args = bd.getConstructorArgumentValues();
+		for (ConstructorArgumentValues.ValueHolder valueHolder : args.getIndexedArgumentValues().values()) {
+			if (!addValueDependencies(valueHolder.getValue(), result)) {
+				return false;
+			}
+		}
+		for (ConstructorArgumentValues.ValueHolder valueHolder : args.getGenericArgumentValues()) {
+			if (!addValueDependencies(valueHolder.getValue(), result)) {
+				return false;
+			}
+		}
+		for (PropertyValue pv : bd.getPropertyValues().getPropertyValues()) {
+			if (!addValueDependencies(pv.getValue(), result)) {
+				return false;
+			}
+		}
+		String[] dependsOn = bd.getDependsOn();
+		if (dependsOn != null) {
+			for (String dependency : dependsOn) {
+				result.add(this.beanFactory.canonicalName(dependency));
+			}
+		}
+		return true;
+	}
+
+	private boolean addValueDependencies(@Nullable Object value, Set<String> result) {
+		if (value instanceof RuntimeBeanReference) {
+			RuntimeBeanReference ref = (RuntimeBeanReference) value;
+			if (!ref.isToParent()) {
+				result.add(this.beanFactory.canonicalName(BeanFactoryUtils.transformedBeanName(ref.getBeanName())));
+			}
+			return true;
+		}
+		else if (value instanceof BeanDefinitionHolder) {
+			return addInnerBeanDependencies(((BeanDefinitionHolder) value).getBeanDefinition(), result);
+		}
+		else if (value instanceof BeanDefinition) {
+			return addInnerBeanDependencies((BeanDefinition) value, result);
+		}
+		else if (value instanceof TypedStringValue) {
+			return isStaticValue(((TypedStringValue) value).getValue());
+		}
+		else if (value instanceof String) {
+			return isStaticValue((String) value);
+		}
+		else if (value instanceof Collection) {
+			for (Object element : (Collection<?>) value) {
+				if (!addValueDependencies(element, result)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		else if (value instanceof Map) {
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				if (!addValueDependencies(entry.getKey(), result) || !addValueDependencies(entry.getValue(), result)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		else if (value instanceof Object[]) {
+			for (Object element : (Object[]) value) {
+				if (!addValueDependencies(element, result)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		return true;
+	}
+
+	private boolean addInnerBeanDependencies(BeanDefinition innerBd, Set<String> result) {
+		// Inner beans only contribute their explicitly declared dependencies.
+		if (innerBd instanceof AbstractBeanDefinition) {
+			AbstractBeanDefinition abd = (AbstractBeanDefinition) innerBd;
+			if (abd.getInstanceSupplier() != null ||
+					abd.getResolvedAutowireMode() != AutowireCapableBeanFactory.AUTOWIRE_NO) {
+				return false;
+			}
+		}
+		if (innerBd.getParentName() != null || innerBd.getFactoryMethodName() != null) {
+			return false;
+		}
+		return addDefinitionDependencies(innerBd, result);
+	}
+
+	/**
+	 * Check whether the given String value may be evaluated as an expression,
+	 * potentially referring to other beans.
+	 */
+	private boolean isStaticValue(@Nullable String value) {
+		return (value == null || this.beanFactory.getBeanExpressionResolver() == null || !value.contains("#{"));
+	}
+
+	private void addParameterDependencies(Executable executable, Set<String> result) {
+		for (int i = 0; i < executable.getParameterCount(); i++) {
+			addTypeDependencies(ResolvableType.forMethodParameter(MethodParameter.forExecutable(executable, i)), result);
+		}
+	}
+
+	/**
+	 * Add all beans matching the given injection type, unwrapping arrays,
+	 * collections, maps, {@link Optional} and {@link ObjectFactory} declarations.
+	 */
+	private void addTypeDependencies(ResolvableType type, Set<String> result) {
+		ResolvableType elementType = type;
+		Class<?> rawType = type.resolve();
+		if (rawType != null) {
+			if (rawType.isArray()) {
+				elementType = type.getComponentType();
+			}
+			else if (Collection.class.isAssignableFrom(rawType) || Optional.class == rawType ||
+					ObjectFactory.class.isAssignableFrom(rawType)) {
+				elementType = type.getGeneric(0);
+			}
+			else if (Map.class.isAssignableFrom(rawType)) {
+				elementType = type.getGeneric(1);
+			}
+		}
+		Class<?> dependencyType = elementType.resolve();
+		if (dependencyType == null || dependencyType.isPrimitive()) {
+			return;
+		}
+		String[] candidates = this.beanNamesByType.computeIfAbsent(dependencyType,
+				key -> this.beanFactory.getBeanNamesForType(key, true, false));
+		for (String candidate : candidates) {
+			result.add(BeanFactoryUtils.transformedBeanName(candidate));
+		}
+	}
+
+	private void submit(String beanName) {
+		this.beansInProgress++;
+		try {
+			this.executor.execute(() -> instantiateSingleton(beanName));
+		}
+		catch (RejectedExecutionException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Executor rejected parallel creation of singleton '" + beanName + "'", ex);
+			}
+			this.beansInProgress--;
+			completed(beanName, false);
+		}
+	}
+
+	private void instantiateSingleton(String beanName) {
+		Thread currentThread = Thread.currentThread();
+		ClassLoader previousClassLoader = currentThread.getContextClassLoader();
+		currentThread.setContextClassLoader(this.contextClassLoader);
+		boolean created = false;
+		try {
+			this.beanFactory.getBean(beanName);
+			created = true;
+		}
+		catch (BeansException ex) {
+			if (ex.contains(BeanCurrentlyInCreationException.class)) {
+				// Circular reference across threads: retry after the parallel phase.
+				if (logger.isDebugEnabled()) {
+					logger.debug("Deferring creation of singleton '" + beanName + "': " + ex.getMessage());
+				}
+			}
+			else {
+				failed(ex);
+			}
+		}
+		catch (Throwable ex) {
+			failed(ex);
+		}
+		finally {
+			currentThread.setContextClassLoader(previousClassLoader);
+			synchronized (this) {
+				this.beansInProgress--;
+				completed(beanName, created);
+				notifyAll();
+			}
+		}
+	}
+
+	private synchronized void failed(Throwable ex) {
+		if (this.failure == null) {
+			this.failure = ex;
+		}
+	}
+
+	/**
+	 * Release the beans waiting for the given bean, submitting the ones that do
+	 * not wait for any other beans anymore. Guarded by this instance's monitor.
+	 * @param beanName the name of the completed bean
+	 * @param created whether the bean has been created, as opposed to being
+	 * deferred to serial creation along with all of its dependent beans
+	 */
+	private void completed(String beanName, boolean created) {
+		if (!created) {
+			this.deferredBeans.add(beanName);
+		}
+		List<String> dependents = this.dependentBeans.get(beanName);
+		if (dependents == null) {
+			return;
+		}
+		for (String dependent : dependents) {
+			if (!created) {
+				this.deferredBeans.add(dependent);
+			}
+			int pending = this.pendingDependencies.merge(dependent, -1, Integer::sum);
+			if (pending == 0) {
+				if (this.failure != null || this.deferredBeans.contains(dependent)) {
+					completed(dependent, false);
+				}
+				else {
+					submit(dependent);
+				}
+			}
+		}
+	}
+
+}
@@ -17,6 +17,7 @@
 package org.springframework.beans.factory.support;
 
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.security.AccessController;
@@ -28,6 +29,7 @@ import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
@@ -83,7 +85,9 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 					}
 				}
 			}
-			return BeanUtils.instantiateClass(constructorToUse);
+			GeneratedInstantiator instantiator = obtainGeneratedInstantiator(bd, constructorToUse);
+			return (instantiator != null ? instantiateClass(constructorToUse, instantiator) :
+					BeanUtils.instantiateClass(constructorToUse));
 		} else {
 			// Must generate CGLIB subclass.
 			return instantiateWithMethodInjection(bd, beanName, owner);
@@ -112,6 +116,10 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 					return null;
 				});
 			}
+			GeneratedInstantiator instantiator = obtainGeneratedInstantiator(bd, ctor);
+			if (instantiator != null) {
+				return instantiateClass(ctor, instantiator);
+			}
 			return (args != null ? BeanUtils.instantiateClass(ctor, args) : BeanUtils.instantiateClass(ctor));
 		}
 		else {
@@ -146,10 +154,23 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 				ReflectionUtils.makeAccessible(factoryMethod);
 			}
 
+			GeneratedInstantiator instantiator = obtainGeneratedInstantiator(bd, factoryMethod);
 			Method priorInvokedFactoryMethod = currentlyInvokedFactoryMethod.get();
 			try {
 				currentlyInvokedFactoryMethod.set(factoryMethod);
-				Object result = factoryMethod.invoke(factoryBean, args);
+				Object result;
+				if (instantiator != null) {
+					try {
+						result = instantiator.invoke(factoryBean);
+					}
+					catch (Throwable ex) {
+						throw new BeanInstantiationException(factoryMethod,
+								getFactoryMethodExceptionMessage(bd, owner, factoryMethod), ex);
+					}
+				}
+				else {
+					result = factoryMethod.invoke(factoryBean, args);
+				}
 				if (result == null) {
 					result = new NullBean();
 				}
@@ -174,14 +195,50 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 					"Cannot access factory method '" + factoryMethod.getName() + "'; is it public?", ex);
 		}
 		catch (InvocationTargetException ex) {
-			String msg = "Factory method '" + factoryMethod.getName() + "' threw exception";
-			if (bd.getFactoryBeanName() != null && owner instanceof ConfigurableBeanFactory &&
-					((ConfigurableBeanFactory) owner).isCurrentlyInCreation(bd.getFactoryBeanName())) {
-				msg = "Circular reference involving containing bean '" + bd.getFactoryBeanName() + "' - consider " +
-						"declaring the factory method as static for independence from its containing instance. " + msg;
-			}
-			throw new BeanInstantiationException(factoryMethod, msg, ex.getTargetException());
+			throw new BeanInstantiationException(factoryMethod,
+					getFactoryMethodExceptionMessage(bd, owner, factoryMethod), ex.getTargetException());
+		}
+	}
+
+	private String getFactoryMethodExceptionMessage(RootBeanDefinition bd, BeanFactory owner, Method factoryMethod) {
+		String msg = "Factory method '" + factoryMethod.getName() + "' threw exception";
+		if (bd.getFactoryBeanName() != null && owner instanceof ConfigurableBeanFactory &&
+				((ConfigurableBeanFactory) owner).isCurrentlyInCreation(bd.getFactoryBeanName())) {
+			msg = "Circular reference involving containing bean '" + bd.getFactoryBeanName() + "' - consider " +
+					"declaring the factory method as static for independence from its containing instance. " + msg;
+		}
+		return msg;
+	}
+
+	/**
+	 * Obtain a generated instantiator for the given constructor or factory method,
+	 * avoiding reflection for beans that are instantiated repeatedly. Singletons
+	 * are instantiated once, so they are not worth generating a class for.
+	 * @return the instantiator, or {@code null} if reflection has to be used
+	 */
+	@Nullable
+	private GeneratedInstantiator obtainGeneratedInstantiator(RootBeanDefinition bd, Executable executable) {
+		if (bd.isSingleton() || System.getSecurityManager() != null) {
+			return null;
+		}
+		GeneratedInstantiator instantiator = bd.generatedInstantiator;
+		if (instantiator == null || !instantiator.isFor(executable)) {
+			instantiator = GeneratedInstantiator.forExecutable(executable);
+			bd.generatedInstantiator = instantiator;
+		}
+		return (instantiator.isSupported() ? instantiator : null);
+	}
+
+	private Object instantiateClass(Constructor<?> ctor, GeneratedInstantiator instantiator) {
+		Object instance;
+		try {
+			instance = instantiator.invoke(null);
+		}
+		catch (Throwable ex) {
+			throw new BeanInstantiationException(ctor, "Constructor threw exception", ex);
 		}
+		Assert.state(instance != null, "Constructor returned null");
+		return instance;
 	}
 
 }
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.springframework.util.LambdaFactoryUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the use of {@link GeneratedPropertyAccessor} by {@link BeanWrapperImpl}.
+ *
+ * @since 5.0.11
+ */
+public class GeneratedPropertyAccessorTests {
+
+	private static final int INVOCATIONS = LambdaFactoryUtils.GENERATION_THRESHOLD * 2;
+
+
+	@Test
+	public void getterAndSetterGenerated() {
+		SimpleBean bean = new SimpleBean();
+		BeanWrapper bw = new BeanWrapperImpl(bean);
+		for (int i = 0; i < INVOCATIONS; i++) {
+			bw.setPropertyValue("name", "name" + i);
+			bw.setPropertyValue("age", String.valueOf(i));
+			assertEquals("name" + i, bw.getPropertyValue("name"));
+			assertEquals(i, bw.getPropertyValue("age"));
+		}
+		assertEquals("name" + (INVOCATIONS - 1), bean.getName());
+		assertNotNull(getAccessor(bw, "name").getGetter());
+		assertNotNull(getAccessor(bw, "name").getSetter("value"));
+		assertNotNull(getAccessor(bw, "age").getGetter());
+		assertNotNull(getAccessor(bw, "age").getSetter(1));
+	}
+
+	@Test
+	public void setterNotUsedForIncompatibleValue() {
+		BeanWrapper bw = new BeanWrapperImpl(new SimpleBean());
+		for (int i = 0; i < INVOCATIONS; i++) {
+			bw.setPropertyValue("age", i);
+		}
+		assertNotNull(getAccessor(bw, "age").getSetter(1));
+		assertNull(getAccessor(bw, "age").getSetter(null));
+		assertNull(getAccessor(bw, "age").getSetter("1"));
+	}
+
+	@Test
+	public void setterExceptionAfterGeneration() {
+		BeanWrapper bw = new BeanWrapperImpl(new SimpleBean());
+		for (int i = 0; i < INVOCATIONS; i++) {
+			bw.setPropertyValue("failing", "value");
+		}
+		assertNotNull(getAccessor(bw, "failing").getSetter("value"));
+		try {
+			bw.setPropertyValue("failing", "fail");
+			fail("Should have thrown MethodInvocationException");
+		}
+		catch (MethodInvocationException ex) {
+			assertTrue(ex.getCause() instanceof IllegalArgumentException);
+		}
+	}
+
+	@Test
+	public void getterExceptionAfterGeneration() {
+		SimpleBean bean = new SimpleBean();
+		BeanWrapper bw = new BeanWrapperImpl(bean);
+		for (int i = 0; i < INVOCATIONS; i++) {
+			bw.getPropertyValue("failing");
+		}
+		assertNotNull(getAccessor(bw, "failing").getGetter());
+		bean.failing = "fail";
+		try {
+			bw.getPropertyValue("failing");
+			fail("Should have thrown InvalidPropertyException");
+		}
+		catch (InvalidPropertyException ex) {
+			assertTrue(ex.getMostSpecificCause() instanceof IllegalStateException);
+		}
+	}
+
+	@Test
+	public void nonPublicClassFallsBackToReflection() {
+		NonPublicBean bean = new NonPublicBean();
+		BeanWrapper bw = new BeanWrapperImpl(bean);
+		for (int i = 0; i < INVOCATIONS; i++) {
+			bw.setPropertyValue("name", "name" + i);
+			assertEquals("name" + i, bw.getPropertyValue("name"));
+		}
+		assertNull(getAccessor(bw, "name").getGetter());
+		assertNull(getAccessor(bw, "name").getSetter("value"));
+	}
+
+	@Test
+	public void nestedAndIndexedPaths() {
+		SimpleBean bean = new SimpleBean();
+		bean.setSpouse(new SimpleBean());
+		bean.getSpouse().setSpouse(new SimpleBean());
+		bean.getFriends().add(new SimpleBean());
+		BeanWrapper bw = new BeanWrapperImpl(bean);
+		for (int i = 0; i < INVOCATIONS; i++) {
+			bw.setPropertyValue("spouse.spouse.name", "nested" + i);
+			bw.setPropertyValue("friends[0].name", "indexed" + i);
+			bw.setPropertyValue("spouse.friends[0]", bean);
+			assertEquals("nested" + i, bw.getPropertyValue("spouse.spouse.name"));
+			assertEquals("indexed" + i, bw.getPropertyValue("friends[0].name"));
+			assertEquals("indexed" + i, bw.getPropertyValue("spouse.friends[0].friends[0].name"));
+		}
+		assertEquals("nested" + (INVOCATIONS - 1), bean.getSpouse().getSpouse().getName());
+		assertSame(bean, bean.getSpouse().getFriends().get(0));
+	}
+
+
+	private static GeneratedPropertyAccessor getAccessor(BeanWrapper bw, String propertyName) {
+		return ((GenericTypeAwarePropertyDescriptor) bw.getPropertyDescriptor(propertyName)).getGeneratedAccessor();
+	}
+
+
+	public static class SimpleBean {
+
+		private String name;
+
+		private int age;
+
+		private SimpleBean spouse;
+
+		private final List<SimpleBean> friends = new ArrayList<>();
+
+		String failing;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+
+		public SimpleBean getSpouse() {
+			return this.spouse;
+		}
+
+		public void setSpouse(SimpleBean spouse) {
+			this.spouse = spouse;
+		}
+
+		public List<SimpleBean> getFriends() {
+			return this.friends;
+		}
+
+		public String getFailing() {
+			if ("fail".equals(this.failing)) {
+				throw new IllegalStateException("Expected failure");
+			}
+			return this.failing;
+		}
+
+		public void setFailing(String failing) {
+			if ("fail".equals(failing)) {
+				throw new IllegalArgumentException("Expected failure");
+			}
+			this.failing = failing;
+		}
+	}
+
+
+	static class NonPublicBean {
+
+		private String name;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+	}
+
+}
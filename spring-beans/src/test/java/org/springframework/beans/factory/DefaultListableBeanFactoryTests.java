@@ -64,6 +64,7 @@ import org.springframework.beans.factory.config.ConstructorArgumentValues;
 import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessorAdapter;
 import org.springframework.beans.factory.config.PropertiesFactoryBean;
 import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.SmartInstantiationAwareBeanPostProcessor;
 import org.springframework.beans.factory.config.TypedStringValue;
 import org.springframework.beans.factory.support.AbstractBeanDefinition;
 import org.springframework.beans.factory.support.AbstractBeanFactory;
@@ -2767,6 +2768,128 @@ public class DefaultListableBeanFactoryTests {
 		assertEquals(NonPublicEnum.VALUE_1, holder.getNonPublicEnum());
 	}
 
+	@Test
+	public void testSealedConfigurationByTypeLookup() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		lbf.setSealedConfiguration(true);
+		lbf.registerBeanDefinition("tb", new RootBeanDefinition(TestBean.class));
+		lbf.registerBeanDefinition("ntb", new RootBeanDefinition(NestedTestBean.class));
+		lbf.registerBeanDefinition("factory", new RootBeanDefinition(DummyFactory.class));
+		lbf.registerBeanDefinition("dtb", new RootBeanDefinition(DerivedTestBean.class));
+		RootBeanDefinition abstractDefinition = new RootBeanDefinition(TestBean.class);
+		abstractDefinition.setAbstract(true);
+		lbf.registerBeanDefinition("abstract", abstractDefinition);
+		lbf.freezeConfiguration();
+
+		assertArrayEquals(new String[] {"tb", "factory", "dtb"}, lbf.getBeanNamesForType(ITestBean.class));
+		assertArrayEquals(new String[] {"dtb"}, lbf.getBeanNamesForType(DerivedTestBean.class));
+		assertArrayEquals(new String[] {"ntb"}, lbf.getBeanNamesForType(NestedTestBean.class));
+		assertArrayEquals(new String[] {"&factory"}, lbf.getBeanNamesForType(DummyFactory.class));
+		assertArrayEquals(new String[] {"tb", "factory", "dtb"},
+				lbf.getBeanNamesForType(ResolvableType.forClass(ITestBean.class)));
+		assertArrayEquals(new String[0], lbf.getBeanNamesForType(Runnable.class));
+		assertEquals(4, lbf.getBeanNamesForType(Object.class).length);
+	}
+
+	@Test
+	public void testSealedConfigurationWithRegistrationAfterFreeze() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		lbf.setSealedConfiguration(true);
+		lbf.registerBeanDefinition("tb", new RootBeanDefinition(TestBean.class));
+		lbf.freezeConfiguration();
+		assertArrayEquals(new String[] {"tb"}, lbf.getBeanNamesForType(ResolvableType.forClass(TestBean.class)));
+
+		lbf.registerBeanDefinition("dtb", new RootBeanDefinition(DerivedTestBean.class));
+		assertArrayEquals(new String[] {"tb", "dtb"}, lbf.getBeanNamesForType(TestBean.class));
+		assertArrayEquals(new String[] {"tb", "dtb"}, lbf.getBeanNamesForType(ResolvableType.forClass(TestBean.class)));
+
+		lbf.registerSingleton("singleton", new TestBean());
+		assertArrayEquals(new String[] {"tb", "dtb", "singleton"}, lbf.getBeanNamesForType(TestBean.class));
+	}
+
+	@Test
+	public void testSealedConfigurationWithSingletonOfDifferentType() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		lbf.setSealedConfiguration(true);
+		lbf.registerBeanDefinition("tb", new RootBeanDefinition(TestBean.class));
+		lbf.addBeanPostProcessor(new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				return (bean instanceof TestBean ? new NestedTestBean(beanName) : bean);
+			}
+		});
+		lbf.freezeConfiguration();
+		assertArrayEquals(new String[0], lbf.getBeanNamesForType(NestedTestBean.class));
+
+		assertTrue(lbf.getBean("tb") instanceof NestedTestBean);
+		assertArrayEquals(new String[] {"tb"}, lbf.getBeanNamesForType(NestedTestBean.class));
+		assertArrayEquals(new String[0], lbf.getBeanNamesForType(TestBean.class));
+	}
+
+	@Test
+	public void testSealedConfigurationWithSingletonsOfDifferentTypeInRegistrationOrder() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		lbf.setSealedConfiguration(true);
+		lbf.registerBeanDefinition("tb1", new RootBeanDefinition(TestBean.class));
+		lbf.registerBeanDefinition("ntb", new RootBeanDefinition(NestedTestBean.class));
+		lbf.registerBeanDefinition("tb2", new RootBeanDefinition(TestBean.class));
+		lbf.addBeanPostProcessor(new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				return (bean instanceof TestBean ? new NestedTestBean(beanName) : bean);
+			}
+		});
+		lbf.freezeConfiguration();
+		assertArrayEquals(new String[] {"ntb"}, lbf.getBeanNamesForType(NestedTestBean.class));
+
+		lbf.getBean("tb2");
+		assertArrayEquals(new String[] {"ntb", "tb2"}, lbf.getBeanNamesForType(NestedTestBean.class));
+		lbf.getBean("tb1");
+		assertArrayEquals(new String[] {"tb1", "ntb", "tb2"}, lbf.getBeanNamesForType(NestedTestBean.class));
+	}
+
+	@Test
+	public void testSealedConfigurationWithRegistrationDuringIndexing() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		lbf.setSealedConfiguration(true);
+		lbf.registerBeanDefinition("tb", new RootBeanDefinition(TestBean.class));
+		lbf.addBeanPostProcessor(new SmartInstantiationAwareBeanPostProcessor() {
+			@Override
+			public Class<?> predictBeanType(Class<?> beanClass, String beanName) {
+				if (!lbf.containsBeanDefinition("dtb")) {
+					lbf.registerBeanDefinition("dtb", new RootBeanDefinition(DerivedTestBean.class));
+				}
+				return null;
+			}
+		});
+		lbf.freezeConfiguration();
+
+		assertArrayEquals(new String[] {"tb", "dtb"}, lbf.getBeanNamesForType(TestBean.class));
+	}
+
+	@Test
+	public void testSealedConfigurationWithAutowiring() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		lbf.setSealedConfiguration(true);
+		lbf.registerBeanDefinition("spouse", new RootBeanDefinition(TestBean.class));
+		lbf.registerBeanDefinition("other", new RootBeanDefinition(NestedTestBean.class));
+		RootBeanDefinition bd = new RootBeanDefinition(TestBeanRecipient.class);
+		bd.setAutowireMode(RootBeanDefinition.AUTOWIRE_CONSTRUCTOR);
+		bd.setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
+		lbf.registerBeanDefinition("recipient", bd);
+		lbf.freezeConfiguration();
+		lbf.preInstantiateSingletons();
+
+		TestBean spouse = lbf.getBean("spouse", TestBean.class);
+		assertSame(spouse, lbf.getBean("recipient", TestBeanRecipient.class).testBean);
+		assertSame(spouse, lbf.getBean("recipient", TestBeanRecipient.class).testBean);
+
+		RootBeanDefinition primary = new RootBeanDefinition(TestBean.class);
+		primary.setPrimary(true);
+		lbf.registerBeanDefinition("primary", primary);
+		assertSame(lbf.getBean("primary"), lbf.getBean("recipient", TestBeanRecipient.class).testBean);
+	}
+
 	/**
 	 * Test that by-type bean lookup caching is working effectively by searching for a
 	 * bean of type B 10K times within a container having 1K additional beans of type A.
@@ -16,9 +16,13 @@
 
 package org.springframework.beans.factory.support;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.Test;
 
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.tests.sample.beans.DerivedTestBean;
 import org.springframework.tests.sample.beans.TestBean;
@@ -101,4 +105,50 @@ public class DefaultSingletonBeanRegistryTests {
 		assertTrue(beanRegistry.isDependent("c", "c"));
 	}
 
+	@Test
+	public void testSuppressedExceptionsInParallelCreation() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		beanRegistry.setParallelSingletonCreation(true);
+		Exception suppressed = new IllegalStateException("suppressed");
+		Exception otherThreadSuppressed = new IllegalStateException("other thread");
+		CountDownLatch inCreation = new CountDownLatch(1);
+		CountDownLatch otherThreadDone = new CountDownLatch(1);
+		Thread otherThread = new Thread(() -> {
+			try {
+				inCreation.await(5, TimeUnit.SECONDS);
+				beanRegistry.getSingleton("b", () -> {
+					beanRegistry.onSuppressedException(otherThreadSuppressed);
+					return new TestBean();
+				});
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			finally {
+				otherThreadDone.countDown();
+			}
+		});
+		otherThread.start();
+
+		try {
+			beanRegistry.getSingleton("a", () -> {
+				beanRegistry.onSuppressedException(suppressed);
+				inCreation.countDown();
+				try {
+					otherThreadDone.await(5, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				throw new BeanCreationException("a", "Expected");
+			});
+			fail("Should have thrown BeanCreationException");
+		}
+		catch (BeanCreationException ex) {
+			assertArrayEquals(new Throwable[] {suppressed}, ex.getRelatedCauses());
+		}
+		otherThread.join(5000);
+		assertNotNull(beanRegistry.getSingleton("b"));
+	}
+
 }
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the use of {@link GeneratedInstantiator} by
+ * {@link SimpleInstantiationStrategy}.
+ *
+ * @since 5.0.11
+ */
+public class GeneratedInstantiatorTests {
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+
+	@Test
+	public void prototypeWithDefaultConstructor() {
+		registerPrototype("bean", new RootBeanDefinition(TestBean.class));
+
+		Object bean1 = this.beanFactory.getBean("bean");
+		Object bean2 = this.beanFactory.getBean("bean");
+		assertTrue(bean1 instanceof TestBean);
+		assertNotSame(bean1, bean2);
+		assertGeneratedInstantiator("bean", true);
+	}
+
+	@Test
+	public void prototypeWithStaticFactoryMethod() {
+		RootBeanDefinition bd = new RootBeanDefinition(Factory.class);
+		bd.setFactoryMethodName("createStatic");
+		registerPrototype("bean", bd);
+
+		assertEquals("static", this.beanFactory.getBean("bean", TestBean.class).getName());
+		assertEquals("static", this.beanFactory.getBean("bean", TestBean.class).getName());
+		assertGeneratedInstantiator("bean", true);
+	}
+
+	@Test
+	public void prototypeWithInstanceFactoryMethod() {
+		this.beanFactory.registerBeanDefinition("factory", new RootBeanDefinition(Factory.class));
+		RootBeanDefinition bd = new RootBeanDefinition();
+		bd.setFactoryBeanName("factory");
+		bd.setFactoryMethodName("create");
+		registerPrototype("bean", bd);
+
+		assertEquals("instance1", this.beanFactory.getBean("bean", TestBean.class).getName());
+		assertEquals("instance2", this.beanFactory.getBean("bean", TestBean.class).getName());
+		assertGeneratedInstantiator("bean", true);
+	}
+
+	@Test
+	public void prototypeWithFactoryMethodReturningNull() {
+		RootBeanDefinition bd = new RootBeanDefinition(Factory.class);
+		bd.setFactoryMethodName("createNull");
+		registerPrototype("bean", bd);
+
+		assertTrue(this.beanFactory.getBean("bean") instanceof NullBean);
+		assertGeneratedInstantiator("bean", true);
+	}
+
+	@Test
+	public void prototypeWithNonPublicClass() {
+		registerPrototype("bean", new RootBeanDefinition(NonPublicBean.class));
+
+		assertTrue(this.beanFactory.getBean("bean") instanceof NonPublicBean);
+		assertGeneratedInstantiator("bean", false);
+	}
+
+	@Test
+	public void singletonNotGenerated() {
+		this.beanFactory.registerBeanDefinition("bean", new RootBeanDefinition(TestBean.class));
+
+		assertTrue(this.beanFactory.getBean("bean") instanceof TestBean);
+		assertNull(((RootBeanDefinition) this.beanFactory.getMergedBeanDefinition("bean")).generatedInstantiator);
+	}
+
+	@Test
+	public void constructorException() {
+		registerPrototype("bean", new RootBeanDefinition(FailingBean.class));
+
+		try {
+			this.beanFactory.getBean("bean");
+			fail("Should have thrown BeanCreationException");
+		}
+		catch (BeanCreationException ex) {
+			assertTrue(ex.getCause() instanceof BeanInstantiationException);
+			assertTrue(ex.getMostSpecificCause() instanceof IOException);
+		}
+		assertGeneratedInstantiator("bean", true);
+	}
+
+	@Test
+	public void factoryMethodException() {
+		RootBeanDefinition bd = new RootBeanDefinition(Factory.class);
+		bd.setFactoryMethodName("createFailing");
+		registerPrototype("bean", bd);
+
+		try {
+			this.beanFactory.getBean("bean");
+			fail("Should have thrown BeanCreationException");
+		}
+		catch (BeanCreationException ex) {
+			assertTrue(ex.getCause() instanceof BeanInstantiationException);
+			assertTrue(ex.getMostSpecificCause() instanceof IllegalStateException);
+		}
+	}
+
+
+	private void registerPrototype(String beanName, RootBeanDefinition bd) {
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		this.beanFactory.registerBeanDefinition(beanName, bd);
+	}
+
+	private void assertGeneratedInstantiator(String beanName, boolean supported) {
+		RootBeanDefinition mbd = (RootBeanDefinition) this.beanFactory.getMergedBeanDefinition(beanName);
+		assertNotNull(mbd.generatedInstantiator);
+		assertEquals(supported, mbd.generatedInstantiator.isSupported());
+	}
+
+
+	public static class Factory {
+
+		private int count;
+
+		public static TestBean createStatic() {
+			return new TestBean("static");
+		}
+
+		public static TestBean createNull() {
+			return null;
+		}
+
+		public static TestBean createFailing() {
+			throw new IllegalStateException("Expected failure");
+		}
+
+		public TestBean create() {
+			return new TestBean("instance" + (++this.count));
+		}
+	}
+
+
+	static class NonPublicBean {
+	}
+
+
+	public static class FailingBean {
+
+		public FailingBean() throws IOException {
+			throw new IOException("Expected failure");
+		}
+	}
+
+}
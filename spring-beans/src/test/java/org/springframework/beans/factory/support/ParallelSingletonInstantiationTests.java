@@ -0,0 +1,238 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.AutowiredAnnotationBeanPostProcessor;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.tests.sample.beans.factory.DummyFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for parallel singleton pre-instantiation in {@link DefaultListableBeanFactory}.
+ *
+ * @since 5.0.11
+ */
+public class ParallelSingletonInstantiationTests {
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+
+	@Before
+	public void setup() {
+		this.beanFactory.setBootstrapExecutor(this.executor);
+		AutowiredAnnotationBeanPostProcessor bpp = new AutowiredAnnotationBeanPostProcessor();
+		bpp.setBeanFactory(this.beanFactory);
+		this.beanFactory.addBeanPostProcessor(bpp);
+	}
+
+	@After
+	public void shutdown() {
+		this.executor.shutdownNow();
+	}
+
+
+	@Test
+	public void independentSingletonsOnExecutorThreads() {
+		for (int i = 0; i < 8; i++) {
+			this.beanFactory.registerBeanDefinition("bean" + i, new RootBeanDefinition(SlowBean.class));
+		}
+		this.beanFactory.preInstantiateSingletons();
+
+		for (int i = 0; i < 8; i++) {
+			SlowBean bean = this.beanFactory.getBean("bean" + i, SlowBean.class);
+			assertTrue(bean.initialized);
+			assertNotSame(Thread.currentThread(), bean.creationThread);
+		}
+	}
+
+	@Test
+	public void dependenciesCreatedFirst() {
+		this.beanFactory.registerBeanDefinition("slow", new RootBeanDefinition(SlowBean.class));
+		RootBeanDefinition byReference = new RootBeanDefinition(DependentBean.class);
+		byReference.getConstructorArgumentValues().addGenericArgumentValue(new RuntimeBeanReference("slow"));
+		this.beanFactory.registerBeanDefinition("byReference", byReference);
+		RootBeanDefinition byDependsOn = new RootBeanDefinition(DependentBean.class);
+		byDependsOn.setDependsOn("slow");
+		this.beanFactory.registerBeanDefinition("byDependsOn", byDependsOn);
+		this.beanFactory.registerBeanDefinition("byAutowiring", new RootBeanDefinition(AutowiredBean.class));
+		this.beanFactory.preInstantiateSingletons();
+
+		SlowBean slow = this.beanFactory.getBean("slow", SlowBean.class);
+		assertSame(slow, this.beanFactory.getBean("byReference", DependentBean.class).slowBean);
+		assertTrue(this.beanFactory.getBean("byReference", DependentBean.class).initializedDependency);
+		assertSame(slow, this.beanFactory.getBean("byAutowiring", AutowiredBean.class).slowBean);
+		assertTrue(this.beanFactory.getBean("byAutowiring", AutowiredBean.class).initializedDependency);
+		assertTrue(this.beanFactory.getBean("byDependsOn", DependentBean.class).creationTime >= slow.initializationTime);
+	}
+
+	@Test
+	public void circularReferencesCreatedSerially() {
+		RootBeanDefinition first = new RootBeanDefinition(DependentBean.class);
+		first.getPropertyValues().add("dependency", new RuntimeBeanReference("second"));
+		this.beanFactory.registerBeanDefinition("first", first);
+		RootBeanDefinition second = new RootBeanDefinition(DependentBean.class);
+		second.getPropertyValues().add("dependency", new RuntimeBeanReference("first"));
+		this.beanFactory.registerBeanDefinition("second", second);
+		this.beanFactory.preInstantiateSingletons();
+
+		DependentBean firstBean = this.beanFactory.getBean("first", DependentBean.class);
+		DependentBean secondBean = this.beanFactory.getBean("second", DependentBean.class);
+		assertSame(secondBean, firstBean.dependency);
+		assertSame(firstBean, secondBean.dependency);
+		assertSame(Thread.currentThread(), firstBean.creationThread);
+		assertSame(Thread.currentThread(), secondBean.creationThread);
+	}
+
+	@Test
+	public void factoryBeanCreatedSerially() {
+		this.beanFactory.registerBeanDefinition("factory", new RootBeanDefinition(DummyFactory.class));
+		this.beanFactory.registerBeanDefinition("slow", new RootBeanDefinition(SlowBean.class));
+		this.beanFactory.preInstantiateSingletons();
+
+		assertTrue(this.beanFactory.containsSingleton("factory"));
+		assertTrue(this.beanFactory.getBean("slow", SlowBean.class).initialized);
+	}
+
+	@Test
+	public void sharedLazyDependencyCreatedOnce() {
+		RootBeanDefinition lazy = new RootBeanDefinition(CountingBean.class);
+		lazy.setLazyInit(true);
+		this.beanFactory.registerBeanDefinition("lazy", lazy);
+		for (int i = 0; i < 8; i++) {
+			this.beanFactory.registerBeanDefinition("lookup" + i, new RootBeanDefinition(LookupBean.class));
+		}
+		CountingBean.instances.set(0);
+		this.beanFactory.preInstantiateSingletons();
+
+		assertEquals(1, CountingBean.instances.get());
+		Object lazyBean = this.beanFactory.getBean("lazy");
+		for (int i = 0; i < 8; i++) {
+			assertSame(lazyBean, this.beanFactory.getBean("lookup" + i, LookupBean.class).lookedUp);
+		}
+	}
+
+	@Test(expected = BeanCreationException.class)
+	public void creationFailurePropagated() {
+		this.beanFactory.registerBeanDefinition("slow", new RootBeanDefinition(SlowBean.class));
+		this.beanFactory.registerBeanDefinition("failing", new RootBeanDefinition(FailingBean.class));
+		this.beanFactory.preInstantiateSingletons();
+	}
+
+
+	public static class SlowBean implements InitializingBean {
+
+		final Thread creationThread = Thread.currentThread();
+
+		volatile boolean initialized;
+
+		volatile long initializationTime;
+
+		@Override
+		public void afterPropertiesSet() throws InterruptedException {
+			Thread.sleep(20);
+			this.initialized = true;
+			this.initializationTime = System.nanoTime();
+		}
+	}
+
+
+	public static class DependentBean {
+
+		final Thread creationThread = Thread.currentThread();
+
+		final long creationTime = System.nanoTime();
+
+		SlowBean slowBean;
+
+		boolean initializedDependency;
+
+		DependentBean dependency;
+
+		public DependentBean() {
+		}
+
+		public DependentBean(SlowBean slowBean) {
+			this.slowBean = slowBean;
+			this.initializedDependency = slowBean.initialized;
+		}
+
+		public void setDependency(DependentBean dependency) {
+			this.dependency = dependency;
+		}
+	}
+
+
+	public static class AutowiredBean implements InitializingBean {
+
+		@Autowired
+		SlowBean slowBean;
+
+		boolean initializedDependency;
+
+		@Override
+		public void afterPropertiesSet() {
+			this.initializedDependency = this.slowBean.initialized;
+		}
+	}
+
+
+	public static class CountingBean {
+
+		static final AtomicInteger instances = new AtomicInteger();
+
+		public CountingBean() throws InterruptedException {
+			instances.incrementAndGet();
+			Thread.sleep(20);
+		}
+	}
+
+
+	public static class LookupBean implements BeanFactoryAware {
+
+		Object lookedUp;
+
+		@Override
+		public void setBeanFactory(BeanFactory beanFactory) {
+			this.lookedUp = beanFactory.getBean("lazy");
+		}
+	}
+
+
+	public static class FailingBean {
+
+		public FailingBean() {
+			throw new IllegalStateException("Expected failure");
+		}
+	}
+
+}
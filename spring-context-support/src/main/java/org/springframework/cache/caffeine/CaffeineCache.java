@@ -16,8 +16,13 @@
 
 package org.springframework.cache.caffeine;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import com.github.benmanes.caffeine.cache.LoadingCache;
 
@@ -99,6 +104,18 @@ public class CaffeineCache extends AbstractValueAdaptingCache {
 		return (T) fromStoreValue(this.cache.get(key, new LoadFunction(valueLoader)));
 	}
 
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(keys.size());
+		this.cache.getAllPresent(keys).forEach((key, storeValue) -> result.put(key, toValueWrapper(storeValue)));
+		return result;
+	}
+
+	@Override
+	public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+		return retrieveCoalesced(key, valueLoader);
+	}
+
 	@Override
 	@Nullable
 	protected Object lookup(Object key) {
@@ -110,6 +127,13 @@ public class CaffeineCache extends AbstractValueAdaptingCache {
 		this.cache.put(key, toStoreValue(value));
 	}
 
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		Map<Object, Object> storeEntries = new LinkedHashMap<>(entries.size());
+		entries.forEach((key, value) -> storeEntries.put(key, toStoreValue(value)));
+		this.cache.putAll(storeEntries);
+	}
+
 	@Override
 	@Nullable
 	public ValueWrapper putIfAbsent(Object key, @Nullable final Object value) {
@@ -16,6 +16,10 @@
 
 package org.springframework.cache.jcache;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import javax.cache.Cache;
 import javax.cache.processor.EntryProcessor;
@@ -88,11 +92,26 @@ public class JCacheCache extends AbstractValueAdaptingCache {
 		}
 	}
 
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(keys.size());
+		this.cache.getAll(new LinkedHashSet<>(keys)).forEach((key, storeValue) ->
+				result.put(key, toValueWrapper(storeValue)));
+		return result;
+	}
+
 	@Override
 	public void put(Object key, @Nullable Object value) {
 		this.cache.put(key, toStoreValue(value));
 	}
 
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		Map<Object, Object> storeEntries = new LinkedHashMap<>(entries.size());
+		entries.forEach((key, value) -> storeEntries.put(key, toStoreValue(value)));
+		this.cache.putAll(storeEntries);
+	}
+
 	@Override
 	@Nullable
 	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import java.util.function.Consumer;
+
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ApplicationEventMulticaster;
+import org.springframework.util.Assert;
+
+/**
+ * {@link CacheInvalidationBus} implementation on top of an
+ * {@link ApplicationEventMulticaster}, delivering invalidations within the
+ * current JVM. Useful for several cache managers in the same process and
+ * for testing, or as a starting point for a multicaster which relays
+ * events to other JVMs.
+ *
+ * @since 5.0.11
+ * @see org.springframework.context.event.SimpleApplicationEventMulticaster
+ */
+public class ApplicationEventCacheInvalidationBus implements CacheInvalidationBus {
+
+	private final ApplicationEventMulticaster eventMulticaster;
+
+
+	/**
+	 * Create a new {@code ApplicationEventCacheInvalidationBus} for the given multicaster.
+	 * @param eventMulticaster the multicaster to publish events and register listeners with
+	 */
+	public ApplicationEventCacheInvalidationBus(ApplicationEventMulticaster eventMulticaster) {
+		Assert.notNull(eventMulticaster, "ApplicationEventMulticaster must not be null");
+		this.eventMulticaster = eventMulticaster;
+	}
+
+
+	@Override
+	public void publish(CacheInvalidationEvent event) {
+		this.eventMulticaster.multicastEvent(event);
+	}
+
+	@Override
+	public void subscribe(Consumer<CacheInvalidationEvent> listener) {
+		this.eventMulticaster.addApplicationListener(new InvalidationListener(listener));
+	}
+
+
+	/**
+	 * Adapter for a listener, declaring the event type for the multicaster.
+	 */
+	private static class InvalidationListener implements ApplicationListener<CacheInvalidationEvent> {
+
+		private final Consumer<CacheInvalidationEvent> listener;
+
+		public InvalidationListener(Consumer<CacheInvalidationEvent> listener) {
+			this.listener = listener;
+		}
+
+		@Override
+		public void onApplicationEvent(CacheInvalidationEvent event) {
+			this.listener.accept(event);
+		}
+	}
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import java.util.function.Consumer;
+
+/**
+ * Strategy for broadcasting {@link CacheInvalidationEvent CacheInvalidationEvents}
+ * between {@link TieredCacheManager} instances sharing the same second-level
+ * caches, typically across JVMs through a messaging system.
+ *
+ * @since 5.0.11
+ * @see ApplicationEventCacheInvalidationBus
+ * @see TieredCacheManager#setInvalidationBus
+ */
+public interface CacheInvalidationBus {
+
+	/**
+	 * Publish the given event to all subscribers, including subscribers
+	 * of the publishing cache manager itself.
+	 * @param event the event to publish
+	 */
+	void publish(CacheInvalidationEvent event);
+
+	/**
+	 * Register a listener for events published through this bus.
+	 * @param listener the listener to notify of each event
+	 */
+	void subscribe(Consumer<CacheInvalidationEvent> listener);
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.lang.Nullable;
+
+/**
+ * Event signalling that an entry, or all entries, of a shared cache have
+ * changed, so that local copies held by {@link TieredCache} instances
+ * need to be invalidated.
+ *
+ * @since 5.0.11
+ * @see CacheInvalidationBus
+ */
+@SuppressWarnings("serial")
+public class CacheInvalidationEvent extends ApplicationEvent {
+
+	private final String originId;
+
+	private final String cacheName;
+
+	@Nullable
+	private final Object key;
+
+
+	/**
+	 * Create a new {@code CacheInvalidationEvent}.
+	 * @param source the object on which the event initially occurred
+	 * @param originId the identifier of the cache manager which performed
+	 * the change (and which does not need to invalidate its local cache)
+	 * @param cacheName the name of the affected cache
+	 * @param key the affected key, or {@code null} for all entries
+	 */
+	public CacheInvalidationEvent(Object source, String originId, String cacheName, @Nullable Object key) {
+		super(source);
+		this.originId = originId;
+		this.cacheName = cacheName;
+		this.key = key;
+	}
+
+
+	/**
+	 * Return the identifier of the cache manager which performed the change.
+	 */
+	public String getOriginId() {
+		return this.originId;
+	}
+
+	/**
+	 * Return the name of the affected cache.
+	 */
+	public String getCacheName() {
+		return this.cacheName;
+	}
+
+	/**
+	 * Return the affected key, or {@code null} if all entries are affected.
+	 */
+	@Nullable
+	public Object getKey() {
+		return this.key;
+	}
+
+	/**
+	 * Return whether all entries of the cache are affected.
+	 */
+	public boolean isCacheWide() {
+		return (this.key == null);
+	}
+
+	@Override
+	public String toString() {
+		return "CacheInvalidationEvent: cache '" + this.cacheName + "', " +
+				(this.key != null ? "key [" + this.key + "]" : "all entries");
+	}
+
+}
@@ -0,0 +1,433 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cache.Cache;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link Cache} implementation which combines a local first-level cache with a
+ * shared second-level cache, reading through the local cache and populating it
+ * with values found in the shared cache.
+ *
+ * <p>Updates are written to the shared cache, either synchronously along with
+ * the local cache ("write-through") or asynchronously after updating the local
+ * cache ("write-behind"), and are then published as a
+ * {@link CacheInvalidationEvent} so that other cache managers drop their local
+ * copies of the affected entries. {@link #putIfAbsent}, {@link #evict} and
+ * {@link #clear} always operate synchronously on the shared cache.
+ *
+ * <p>Write-behind updates of the same key are applied to the shared cache in
+ * the order of the {@link #put} calls, and an {@link #evict} is applied after
+ * any updates of the key that are still pending; {@link #putIfAbsent} waits
+ * for them. Pending updates issued before a {@link #clear} are dropped.
+ * The local cache is only populated from a shared cache lookup if the entry
+ * has not been invalidated locally in the meantime, so that a concurrent
+ * update, eviction or {@link #invalidateLocal invalidation} is not overridden
+ * with a stale value. Across cache managers, local copies are only eventually
+ * consistent, depending on the delivery of invalidations.
+ *
+ * <p>The local cache needs to accept {@code null} values if the shared cache
+ * does, and should expire its entries after a while in order to bound the
+ * staleness in case of lost invalidations.
+ *
+ * @since 5.0.11
+ * @see TieredCacheManager
+ */
+public class TieredCache implements Cache {
+
+	private static final int LOCAL_VERSION_STRIPES = 64;
+
+	private static final CompletableFuture<Void> NO_PENDING_WRITE = CompletableFuture.completedFuture(null);
+
+	private static final Log logger = LogFactory.getLog(TieredCache.class);
+
+	private final Cache localCache;
+
+	private final Cache sharedCache;
+
+	@Nullable
+	private final Executor writeBehindExecutor;
+
+	@Nullable
+	private final CacheInvalidationBus invalidationBus;
+
+	private final String originId;
+
+	/** Counters of local invalidations, striped by key hash */
+	private final AtomicLongArray localVersions = new AtomicLongArray(LOCAL_VERSION_STRIPES);
+
+	/** Latest pending write-behind operation per key, for the next one to be chained to */
+	private final ConcurrentMap<Object, CompletableFuture<Void>> pendingWrites = new ConcurrentHashMap<>();
+
+	/** Held for writing by {@link #clear}, excluding concurrent write-behind updates */
+	private final ReadWriteLock clearLock = new ReentrantReadWriteLock();
+
+	private volatile long clearCount;
+
+	private final LongAdder localHitCount = new LongAdder();
+
+	private final LongAdder sharedHitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+
+	/**
+	 * Create a new write-through {@code TieredCache} without invalidation
+	 * of the local caches of other cache managers.
+	 * @param localCache the local first-level cache
+	 * @param sharedCache the shared second-level cache
+	 */
+	public TieredCache(Cache localCache, Cache sharedCache) {
+		this(localCache, sharedCache, null, null, "");
+	}
+
+	/**
+	 * Create a new {@code TieredCache}.
+	 * @param localCache the local first-level cache
+	 * @param sharedCache the shared second-level cache
+	 * @param writeBehindExecutor the executor to write updates to the shared
+	 * cache with, or {@code null} for synchronous write-through
+	 * @param invalidationBus the bus to publish invalidations through,
+	 * or {@code null} for none
+	 * @param originId the identifier of the owning cache manager
+	 * @see CacheInvalidationEvent#getOriginId()
+	 */
+	public TieredCache(Cache localCache, Cache sharedCache, @Nullable Executor writeBehindExecutor,
+			@Nullable CacheInvalidationBus invalidationBus, String originId) {
+
+		Assert.notNull(localCache, "Local Cache must not be null");
+		Assert.notNull(sharedCache, "Shared Cache must not be null");
+		Assert.notNull(originId, "Origin id must not be null");
+		this.localCache = localCache;
+		this.sharedCache = sharedCache;
+		this.writeBehindExecutor = writeBehindExecutor;
+		this.invalidationBus = invalidationBus;
+		this.originId = originId;
+	}
+
+
+	/**
+	 * Return the local first-level cache.
+	 */
+	public Cache getLocalCache() {
+		return this.localCache;
+	}
+
+	/**
+	 * Return the shared second-level cache.
+	 */
+	public Cache getSharedCache() {
+		return this.sharedCache;
+	}
+
+	@Override
+	public String getName() {
+		return this.sharedCache.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return this.sharedCache.getNativeCache();
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper get(Object key) {
+		ValueWrapper wrapper = this.localCache.get(key);
+		if (wrapper != null) {
+			this.localHitCount.increment();
+			return wrapper;
+		}
+		long version = getLocalVersion(key);
+		wrapper = this.sharedCache.get(key);
+		recordSharedLookup(key, wrapper, version);
+		return wrapper;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T get(Object key, @Nullable Class<T> type) {
+		ValueWrapper wrapper = get(key);
+		Object value = (wrapper != null ? wrapper.get() : null);
+		if (value != null && type != null && !type.isInstance(value)) {
+			throw new IllegalStateException(
+					"Cached value is not of required type [" + type.getName() + "]: " + value);
+		}
+		return (T) value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		ValueWrapper wrapper = this.localCache.get(key);
+		if (wrapper != null) {
+			this.localHitCount.increment();
+			return (T) wrapper.get();
+		}
+		long version = getLocalVersion(key);
+		T value = this.sharedCache.get(key, valueLoader);
+		populateLocal(key, value, version);
+		return value;
+	}
+
+	@Override
+	public CompletableFuture<ValueWrapper> retrieve(Object key) {
+		return this.localCache.retrieve(key).thenCompose(wrapper -> {
+			if (wrapper != null) {
+				this.localHitCount.increment();
+				return CompletableFuture.completedFuture(wrapper);
+			}
+			long version = getLocalVersion(key);
+			return this.sharedCache.retrieve(key).thenApply(sharedWrapper -> {
+				recordSharedLookup(key, sharedWrapper, version);
+				return sharedWrapper;
+			});
+		});
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+		return this.localCache.retrieve(key).thenCompose(wrapper -> {
+			if (wrapper != null) {
+				this.localHitCount.increment();
+				return CompletableFuture.completedFuture((T) wrapper.get());
+			}
+			long version = getLocalVersion(key);
+			return this.sharedCache.retrieve(key, valueLoader).thenApply(value -> {
+				populateLocal(key, value, version);
+				return value;
+			});
+		});
+	}
+
+	private void recordSharedLookup(Object key, @Nullable ValueWrapper wrapper, long version) {
+		if (wrapper != null) {
+			this.sharedHitCount.increment();
+			populateLocal(key, wrapper.get(), version);
+		}
+		else {
+			this.missCount.increment();
+		}
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		if (this.writeBehindExecutor != null) {
+			long clearCount = this.clearCount;
+			writeLocal(key, value);
+			writeBehind(key, () -> {
+				this.clearLock.readLock().lock();
+				try {
+					if (this.clearCount != clearCount) {
+						// Cleared in the meantime: drop the update along with its local copy
+						invalidateLocalCopy(key);
+						return;
+					}
+					this.sharedCache.put(key, value);
+				}
+				finally {
+					this.clearLock.readLock().unlock();
+				}
+				publishInvalidation(key);
+			});
+		}
+		else {
+			this.sharedCache.put(key, value);
+			writeLocal(key, value);
+			publishInvalidation(key);
+		}
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+		CompletableFuture<Void> pendingWrite = this.pendingWrites.get(key);
+		if (pendingWrite != null) {
+			pendingWrite.exceptionally(ex -> null).join();
+		}
+		long version = getLocalVersion(key);
+		ValueWrapper existing = this.sharedCache.putIfAbsent(key, value);
+		if (existing != null) {
+			populateLocal(key, existing.get(), version);
+		}
+		else {
+			writeLocal(key, value);
+			publishInvalidation(key);
+		}
+		return existing;
+	}
+
+	@Override
+	public void evict(Object key) {
+		Runnable eviction = () -> {
+			this.sharedCache.evict(key);
+			invalidateLocalCopy(key);
+			publishInvalidation(key);
+		};
+		invalidateLocalCopy(key);
+		CompletableFuture<Void> chained = this.pendingWrites.computeIfPresent(key,
+				(k, pendingWrite) -> pendingWrite.exceptionally(ex -> null).thenRun(eviction));
+		if (chained != null) {
+			completePendingWrite(key, chained);
+		}
+		else {
+			eviction.run();
+		}
+	}
+
+	@Override
+	public void clear() {
+		this.clearLock.writeLock().lock();
+		try {
+			this.clearCount++;
+			this.sharedCache.clear();
+		}
+		finally {
+			this.clearLock.writeLock().unlock();
+		}
+		invalidateLocalCopies();
+		publishInvalidation(null);
+	}
+
+	/**
+	 * Invalidate the local copy of the given entry, or of all entries,
+	 * leaving the shared cache untouched.
+	 * @param key the key to invalidate, or {@code null} for all entries
+	 */
+	public void invalidateLocal(@Nullable Object key) {
+		if (key != null) {
+			invalidateLocalCopy(key);
+		}
+		else {
+			invalidateLocalCopies();
+		}
+	}
+
+	private int getLocalVersionIndex(Object key) {
+		int hash = key.hashCode();
+		return (hash ^ (hash >>> 16)) & (LOCAL_VERSION_STRIPES - 1);
+	}
+
+	private long getLocalVersion(Object key) {
+		return this.localVersions.get(getLocalVersionIndex(key));
+	}
+
+	/**
+	 * Populate the local cache with a value read from the shared cache,
+	 * unless the entry has been invalidated locally since the given version.
+	 */
+	private void populateLocal(Object key, @Nullable Object value, long version) {
+		int index = getLocalVersionIndex(key);
+		if (this.localVersions.get(index) == version) {
+			this.localCache.put(key, value);
+			if (this.localVersions.get(index) != version) {
+				// Invalidated concurrently: do not keep a potentially stale copy
+				this.localCache.evict(key);
+			}
+		}
+	}
+
+	private void writeLocal(Object key, @Nullable Object value) {
+		this.localVersions.incrementAndGet(getLocalVersionIndex(key));
+		this.localCache.put(key, value);
+	}
+
+	private void invalidateLocalCopy(Object key) {
+		this.localVersions.incrementAndGet(getLocalVersionIndex(key));
+		this.localCache.evict(key);
+	}
+
+	private void invalidateLocalCopies() {
+		for (int i = 0; i < LOCAL_VERSION_STRIPES; i++) {
+			this.localVersions.incrementAndGet(i);
+		}
+		this.localCache.clear();
+	}
+
+	/**
+	 * Apply the given write-behind update through the write-behind executor,
+	 * after any pending write-behind operations for the same key.
+	 */
+	private void writeBehind(Object key, Runnable write) {
+		Assert.state(this.writeBehindExecutor != null, "No write-behind executor");
+		Executor executor = this.writeBehindExecutor;
+		CompletableFuture<Void> chained = this.pendingWrites.compute(key, (k, pendingWrite) ->
+				(pendingWrite != null ? pendingWrite : NO_PENDING_WRITE)
+						.exceptionally(ex -> null).thenRunAsync(write, executor));
+		completePendingWrite(key, chained);
+	}
+
+	private void completePendingWrite(Object key, CompletableFuture<Void> pendingWrite) {
+		pendingWrite.whenComplete((result, ex) -> {
+			this.pendingWrites.remove(key, pendingWrite);
+			if (ex != null) {
+				// Drop the local copy which could not be written to the shared cache
+				invalidateLocalCopy(key);
+				logger.warn("Failed to write entry with key [" + key + "] to cache '" + getName() + "'",
+						(ex.getCause() != null ? ex.getCause() : ex));
+			}
+		});
+	}
+
+	private void publishInvalidation(@Nullable Object key) {
+		if (this.invalidationBus != null) {
+			this.invalidationBus.publish(new CacheInvalidationEvent(this, this.originId, getName(), key));
+		}
+	}
+
+
+	/**
+	 * Return the number of lookups served by the local cache.
+	 */
+	public long getLocalHitCount() {
+		return this.localHitCount.sum();
+	}
+
+	/**
+	 * Return the number of lookups served by the shared cache.
+	 */
+	public long getSharedHitCount() {
+		return this.sharedHitCount.sum();
+	}
+
+	/**
+	 * Return the number of lookups which found no value in either cache.
+	 */
+	public long getMissCount() {
+		return this.missCount.sum();
+	}
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link CacheManager} implementation which puts a local {@link CaffeineCache}
+ * in front of each cache of a shared {@link CacheManager}, e.g. a
+ * {@link org.springframework.cache.jcache.JCacheCacheManager} for a distributed
+ * cache, in order to serve hot keys without a round-trip to the shared cache.
+ * See {@link TieredCache} for the semantics of the combined caches.
+ *
+ * <p>For local caches to stay coherent with the shared caches across several
+ * processes, all cache managers need to be connected through the same
+ * {@link #setInvalidationBus CacheInvalidationBus}, dropping local copies of
+ * entries updated through any other cache manager. In addition, local entries
+ * expire 10 minutes after they have been written by default.
+ *
+ * @since 5.0.11
+ * @see TieredCache
+ * @see CacheInvalidationBus
+ */
+public class TieredCacheManager extends AbstractTransactionSupportingCacheManager {
+
+	private final CacheManager sharedCacheManager;
+
+	private final String id = UUID.randomUUID().toString();
+
+	private final Map<String, TieredCache> tieredCaches = new ConcurrentHashMap<>(16);
+
+	private Caffeine<Object, Object> localCacheBuilder =
+			Caffeine.newBuilder().maximumSize(10000).expireAfterWrite(10, TimeUnit.MINUTES);
+
+	@Nullable
+	private Executor writeBehindExecutor;
+
+	@Nullable
+	private CacheInvalidationBus invalidationBus;
+
+
+	/**
+	 * Create a new {@code TieredCacheManager} for the given shared cache manager.
+	 * @param sharedCacheManager the cache manager providing the second-level caches
+	 */
+	public TieredCacheManager(CacheManager sharedCacheManager) {
+		Assert.notNull(sharedCacheManager, "Shared CacheManager must not be null");
+		this.sharedCacheManager = sharedCacheManager;
+	}
+
+
+	/**
+	 * Set the Caffeine to use for building each local cache.
+	 * <p>Default is a maximum of 10000 entries per cache, expiring 10 minutes
+	 * after they have been written.
+	 * @see com.github.benmanes.caffeine.cache.Caffeine#build()
+	 */
+	public void setCaffeine(Caffeine<Object, Object> caffeine) {
+		Assert.notNull(caffeine, "Caffeine must not be null");
+		this.localCacheBuilder = caffeine;
+	}
+
+	/**
+	 * Set the Caffeine cache specification String to use for building each
+	 * local cache. The given value needs to comply with Caffeine's
+	 * {@link com.github.benmanes.caffeine.cache.CaffeineSpec} (see its javadoc).
+	 * @see com.github.benmanes.caffeine.cache.Caffeine#from(String)
+	 */
+	public void setCacheSpecification(String cacheSpecification) {
+		this.localCacheBuilder = Caffeine.from(cacheSpecification);
+	}
+
+	/**
+	 * Set the executor to write updates to the shared caches with ("write-behind").
+	 * <p>Default is none: updates are written to the shared caches synchronously
+	 * ("write-through").
+	 */
+	public void setWriteBehindExecutor(@Nullable Executor writeBehindExecutor) {
+		this.writeBehindExecutor = writeBehindExecutor;
+	}
+
+	/**
+	 * Set the bus to publish invalidations through and to receive invalidations
+	 * from other cache managers with.
+	 * <p>Default is none, which is only appropriate if this cache manager is the
+	 * only one accessing the shared caches.
+	 */
+	public void setInvalidationBus(@Nullable CacheInvalidationBus invalidationBus) {
+		this.invalidationBus = invalidationBus;
+	}
+
+	/**
+	 * Return the identifier of this cache manager, as exposed by the
+	 * {@link CacheInvalidationEvent CacheInvalidationEvents} it publishes.
+	 */
+	public String getId() {
+		return this.id;
+	}
+
+
+	@Override
+	public void afterPropertiesSet() {
+		if (this.invalidationBus != null) {
+			this.invalidationBus.subscribe(this::onInvalidation);
+		}
+		super.afterPropertiesSet();
+	}
+
+	@Override
+	protected Collection<Cache> loadCaches() {
+		Collection<Cache> caches = new LinkedHashSet<>();
+		for (String name : this.sharedCacheManager.getCacheNames()) {
+			Cache sharedCache = this.sharedCacheManager.getCache(name);
+			if (sharedCache != null) {
+				caches.add(createTieredCache(sharedCache));
+			}
+		}
+		return caches;
+	}
+
+	@Override
+	@Nullable
+	protected Cache getMissingCache(String name) {
+		Cache sharedCache = this.sharedCacheManager.getCache(name);
+		return (sharedCache != null ? createTieredCache(sharedCache) : null);
+	}
+
+	/**
+	 * Create a new {@link TieredCache} for the given shared cache.
+	 * @param sharedCache the shared second-level cache
+	 * @return the combined cache
+	 */
+	protected TieredCache createTieredCache(Cache sharedCache) {
+		String name = sharedCache.getName();
+		CaffeineCache localCache = new CaffeineCache(name, this.localCacheBuilder.build(), true);
+		TieredCache tieredCache = new TieredCache(
+				localCache, sharedCache, this.writeBehindExecutor, this.invalidationBus, this.id);
+		this.tieredCaches.put(name, tieredCache);
+		return tieredCache;
+	}
+
+	private void onInvalidation(CacheInvalidationEvent event) {
+		if (!this.id.equals(event.getOriginId())) {
+			TieredCache cache = this.tieredCaches.get(event.getCacheName());
+			if (cache != null) {
+				cache.invalidateLocal(event.getKey());
+			}
+		}
+	}
+
+}
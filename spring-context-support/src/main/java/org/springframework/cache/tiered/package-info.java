@@ -0,0 +1,11 @@
+/**
+ * Support classes for two-level caches, combining a local Caffeine cache with
+ * a shared cache such as a JCache provider, with invalidation of the local
+ * caches of all participating cache managers on updates.
+ */
+@NonNullApi
+@NonNullFields
+package org.springframework.cache.tiered;
+
+import org.springframework.lang.NonNullApi;
+import org.springframework.lang.NonNullFields;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,10 @@
 
 package org.springframework.cache.caffeine;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
 import com.github.benmanes.caffeine.cache.Caffeine;
 import org.junit.Before;
 import org.junit.Test;
@@ -77,4 +81,26 @@ public class CaffeineCacheTests extends AbstractValueAdaptingCacheTests<Caffeine
 		assertEquals(value, cache.get(key).get()); // not changed
 	}
 
+	@Test
+	public void testCacheRetrieveCoalesced() throws Exception {
+		CaffeineCache cache = getCache();
+		String key = createRandomKey();
+		AtomicInteger invocations = new AtomicInteger();
+		CompletableFuture<String> loading = new CompletableFuture<>();
+		Supplier<CompletableFuture<String>> valueLoader = () -> {
+			invocations.incrementAndGet();
+			return loading;
+		};
+
+		CompletableFuture<String> first = cache.retrieve(key, valueLoader);
+		CompletableFuture<String> second = cache.retrieve(key, valueLoader);
+		assertEquals(1, invocations.get());
+
+		loading.complete("value");
+		assertEquals("value", first.get());
+		assertEquals("value", second.get());
+		assertEquals("value", cache.retrieve(key, valueLoader).get());
+		assertEquals(1, invocations.get());
+	}
+
 }
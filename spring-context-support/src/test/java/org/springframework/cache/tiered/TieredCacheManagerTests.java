@@ -0,0 +1,275 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.event.SimpleApplicationEventMulticaster;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link TieredCacheManager}.
+ */
+public class TieredCacheManagerTests {
+
+	private final ConcurrentMapCacheManager sharedCacheManager = new ConcurrentMapCacheManager();
+
+	private final CacheInvalidationBus invalidationBus =
+			new ApplicationEventCacheInvalidationBus(new SimpleApplicationEventMulticaster());
+
+	private final List<Runnable> pendingWrites = new ArrayList<>();
+
+	private Cache sharedCache;
+
+	private TieredCache cache1;
+
+	private TieredCache cache2;
+
+
+	@Before
+	public void setUp() {
+		this.sharedCache = this.sharedCacheManager.getCache("testCache");
+		this.cache1 = (TieredCache) createCacheManager().getCache("testCache");
+		this.cache2 = (TieredCache) createCacheManager().getCache("testCache");
+	}
+
+	private TieredCacheManager createCacheManager() {
+		TieredCacheManager cacheManager = new TieredCacheManager(this.sharedCacheManager);
+		cacheManager.setInvalidationBus(this.invalidationBus);
+		cacheManager.afterPropertiesSet();
+		return cacheManager;
+	}
+
+	private TieredCache createWriteBehindCache() {
+		TieredCacheManager cacheManager = new TieredCacheManager(this.sharedCacheManager);
+		cacheManager.setInvalidationBus(this.invalidationBus);
+		cacheManager.setWriteBehindExecutor(this.pendingWrites::add);
+		cacheManager.afterPropertiesSet();
+		return (TieredCache) cacheManager.getCache("testCache");
+	}
+
+
+	@Test
+	public void cachesOfSharedCacheManager() {
+		TieredCacheManager cacheManager = createCacheManager();
+		assertTrue(cacheManager.getCacheNames().contains("testCache"));
+		assertNotNull(cacheManager.getCache("otherCache"));
+		assertSame(this.sharedCacheManager.getCache("otherCache").getNativeCache(),
+				cacheManager.getCache("otherCache").getNativeCache());
+	}
+
+	@Test
+	public void readThrough() {
+		this.sharedCache.put("key", "value");
+
+		assertEquals("value", this.cache1.get("key").get());
+		assertEquals("value", this.cache1.getLocalCache().get("key").get());
+		assertEquals("value", this.cache1.get("key", String.class));
+		assertNull(this.cache1.get("other"));
+
+		assertEquals(1, this.cache1.getLocalHitCount());
+		assertEquals(1, this.cache1.getSharedHitCount());
+		assertEquals(1, this.cache1.getMissCount());
+	}
+
+	@Test
+	public void readThroughNullValue() {
+		this.sharedCache.put("key", null);
+
+		assertNull(this.cache1.get("key").get());
+		assertNull(this.cache1.get("key").get());
+		assertEquals(1, this.cache1.getLocalHitCount());
+	}
+
+	@Test
+	public void readThroughWithValueLoader() {
+		assertEquals("value", this.cache1.get("key", () -> "value"));
+		assertEquals("value", this.sharedCache.get("key").get());
+		assertEquals("value", this.cache1.getLocalCache().get("key").get());
+		assertEquals("value", this.cache2.get("key", () -> "other"));
+	}
+
+	@Test
+	public void retrieveReadThrough() throws Exception {
+		this.sharedCache.put("key", "value");
+
+		assertEquals("value", this.cache1.retrieve("key").get().get());
+		assertEquals("value", this.cache1.getLocalCache().get("key").get());
+		assertNull(this.cache1.retrieve("other").get());
+		assertEquals("loaded", this.cache1.retrieve("other", () ->
+				CompletableFuture.completedFuture("loaded")).get());
+		assertEquals("loaded", this.sharedCache.get("other").get());
+	}
+
+	@Test
+	public void writeThroughInvalidatesOtherLocalCaches() {
+		this.cache1.put("key", "value1");
+		assertEquals("value1", this.sharedCache.get("key").get());
+		assertEquals("value1", this.cache2.get("key").get());
+
+		this.cache1.put("key", "value2");
+		assertEquals("value2", this.cache1.getLocalCache().get("key").get());
+		assertNull(this.cache2.getLocalCache().get("key"));
+		assertEquals("value2", this.cache2.get("key").get());
+	}
+
+	@Test
+	public void putIfAbsent() {
+		assertNull(this.cache1.putIfAbsent("key", "value1"));
+		assertEquals("value1", this.cache2.putIfAbsent("key", "value2").get());
+		assertEquals("value1", this.cache2.getLocalCache().get("key").get());
+		assertEquals("value1", this.sharedCache.get("key").get());
+	}
+
+	@Test
+	public void evictInvalidatesOtherLocalCaches() {
+		this.cache1.put("key", "value");
+		assertEquals("value", this.cache2.get("key").get());
+
+		this.cache1.evict("key");
+		assertNull(this.sharedCache.get("key"));
+		assertNull(this.cache2.get("key"));
+	}
+
+	@Test
+	public void clearInvalidatesOtherLocalCaches() {
+		this.cache1.put("key1", "value1");
+		this.cache1.put("key2", "value2");
+		assertEquals("value1", this.cache2.get("key1").get());
+		assertEquals("value2", this.cache2.get("key2").get());
+
+		this.cache1.clear();
+		assertNull(this.cache2.get("key1"));
+		assertNull(this.cache2.get("key2"));
+	}
+
+	@Test
+	public void writeBehind() {
+		TieredCacheManager cacheManager = new TieredCacheManager(this.sharedCacheManager);
+		cacheManager.setInvalidationBus(this.invalidationBus);
+		cacheManager.setWriteBehindExecutor(this.pendingWrites::add);
+		cacheManager.afterPropertiesSet();
+		TieredCache cache = (TieredCache) cacheManager.getCache("testCache");
+		this.sharedCache.put("key", "value1");
+		assertEquals("value1", this.cache2.get("key").get());
+
+		cache.put("key", "value2");
+		assertEquals("value2", cache.get("key").get());
+		assertEquals("value1", this.sharedCache.get("key").get());
+		assertEquals("value1", this.cache2.get("key").get());
+
+		assertEquals(1, this.pendingWrites.size());
+		this.pendingWrites.get(0).run();
+		assertEquals("value2", this.sharedCache.get("key").get());
+		assertEquals("value2", this.cache2.get("key").get());
+	}
+
+	@Test
+	public void writeBehindInOrderPerKey() {
+		TieredCache cache = createWriteBehindCache();
+		cache.put("key", "value1");
+		cache.put("key", "value2");
+		assertEquals(1, this.pendingWrites.size());
+
+		this.pendingWrites.remove(0).run();
+		assertEquals("value1", this.sharedCache.get("key").get());
+		assertEquals(1, this.pendingWrites.size());
+		this.pendingWrites.remove(0).run();
+		assertEquals("value2", this.sharedCache.get("key").get());
+		assertEquals("value2", cache.get("key").get());
+	}
+
+	@Test
+	public void evictAfterPendingWriteBehind() {
+		TieredCache cache = createWriteBehindCache();
+		cache.put("key", "value");
+		cache.evict("key");
+		assertNull(cache.getLocalCache().get("key"));
+
+		this.pendingWrites.remove(0).run();
+		assertNull(this.sharedCache.get("key"));
+		assertNull(cache.get("key"));
+	}
+
+	@Test
+	public void clearDropsPendingWriteBehind() {
+		TieredCache cache = createWriteBehindCache();
+		cache.put("key", "value");
+		cache.clear();
+		cache.put("other", "value");
+
+		this.pendingWrites.forEach(Runnable::run);
+		assertNull(this.sharedCache.get("key"));
+		assertNull(cache.get("key"));
+		assertEquals("value", this.sharedCache.get("other").get());
+	}
+
+	@Test
+	public void failedWriteBehindDropsLocalCopy() {
+		TieredCacheManager cacheManager = new TieredCacheManager(this.sharedCacheManager);
+		cacheManager.setWriteBehindExecutor(task -> {
+			throw new RejectedExecutionException("Expected exception");
+		});
+		cacheManager.afterPropertiesSet();
+		Cache cache = cacheManager.getCache("testCache");
+
+		cache.put("key", "value");
+		assertNull(cache.get("key"));
+	}
+
+	@Test
+	public void invalidationDuringSharedLookup() {
+		Cache localCache = new ConcurrentMapCache("local", true);
+		AtomicReference<TieredCache> tieredCache = new AtomicReference<>();
+		Cache sharedCache = new ConcurrentMapCache("shared", true) {
+			@Override
+			public ValueWrapper get(Object key) {
+				ValueWrapper wrapper = super.get(key);
+				// Concurrent invalidation after reading the current value
+				tieredCache.get().invalidateLocal(key);
+				return wrapper;
+			}
+		};
+		tieredCache.set(new TieredCache(localCache, sharedCache));
+		sharedCache.put("key", "value");
+
+		assertEquals("value", tieredCache.get().get("key").get());
+		assertNull(localCache.get("key"));
+	}
+
+	@Test
+	public void hotKeysServedLocally() {
+		this.cache1.put("key", "value");
+		for (int i = 0; i < 100; i++) {
+			assertEquals("value", this.cache2.get("key").get());
+		}
+		assertEquals(1, this.cache2.getSharedHitCount());
+		assertEquals(99, this.cache2.getLocalHitCount());
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,12 @@
 
 package org.springframework.cache;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import org.springframework.lang.Nullable;
 
@@ -98,6 +103,88 @@ public interface Cache {
 	@Nullable
 	<T> T get(Object key, Callable<T> valueLoader);
 
+	/**
+	 * Return the values to which this cache maps the specified keys.
+	 * <p>The default implementation performs a {@link #get(Object)} call
+	 * for each key. Implementations should override this method if the
+	 * underlying store supports bulk lookups.
+	 * @param keys the keys whose associated values are to be returned
+	 * @return a map from each key found in the cache to its value, contained
+	 * within a {@link ValueWrapper} which may also hold a cached {@code null}
+	 * value; keys for which the cache contains no mapping are not included
+	 * @since 5.0.11
+	 * @see #get(Object)
+	 */
+	default Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(keys.size());
+		for (Object key : keys) {
+			ValueWrapper wrapper = get(key);
+			if (wrapper != null) {
+				result.put(key, wrapper);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Return the value to which this cache maps the specified key, wrapped in a
+	 * {@link CompletableFuture}. This operation must not block but is allowed to
+	 * return a completed future if the value is immediately available.
+	 * <p>The default implementation delegates to {@link #get(Object)} in the
+	 * calling thread, which is appropriate for local in-memory caches only.
+	 * Implementations backed by a remote store should override this method.
+	 * @param key the key whose associated value is to be returned
+	 * @return a future which completes with the value in a {@link ValueWrapper}
+	 * (which may also hold a cached {@code null} value), or with {@code null}
+	 * if the cache contains no mapping for this key
+	 * @since 5.0.11
+	 * @see #retrieve(Object, Supplier)
+	 */
+	default CompletableFuture<ValueWrapper> retrieve(Object key) {
+		try {
+			return CompletableFuture.completedFuture(get(key));
+		}
+		catch (RuntimeException ex) {
+			CompletableFuture<ValueWrapper> future = new CompletableFuture<>();
+			future.completeExceptionally(ex);
+			return future;
+		}
+	}
+
+	/**
+	 * Return the value to which this cache maps the specified key, obtaining
+	 * that value from the future provided by {@code valueLoader} if necessary
+	 * and caching it once the future has completed successfully. This operation
+	 * must not block, neither for retrieving the value nor for loading it.
+	 * <p>If possible, implementations should ensure that concurrent retrievals
+	 * of the same key share a single in-flight loading operation, with the
+	 * {@code valueLoader} being called only once.
+	 * <p>The default implementation checks {@link #retrieve(Object)} first and
+	 * then calls the {@code valueLoader}, without any coordination between
+	 * concurrent retrievals.
+	 * @param key the key whose associated value is to be returned
+	 * @param valueLoader the supplier of a future for the value to cache if
+	 * there is no mapping for this key yet
+	 * @return a future which completes with the value to which this cache
+	 * maps the specified key (which may be {@code null} itself), or
+	 * exceptionally in case of a failure of the loading future
+	 * @since 5.0.11
+	 * @see #get(Object, Callable)
+	 */
+	default <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+		return retrieve(key).thenCompose(wrapper -> {
+			if (wrapper != null) {
+				@SuppressWarnings("unchecked")
+				T value = (T) wrapper.get();
+				return CompletableFuture.completedFuture(value);
+			}
+			return valueLoader.get().thenApply(value -> {
+				put(key, value);
+				return value;
+			});
+		});
+	}
+
 	/**
 	 * Associate the specified value with the specified key in this cache.
 	 * <p>If the cache previously contained a mapping for this key, the old
@@ -107,6 +194,20 @@ public interface Cache {
 	 */
 	void put(Object key, @Nullable Object value);
 
+	/**
+	 * Associate the specified values with their keys in this cache, replacing
+	 * any previous mappings for these keys.
+	 * <p>The default implementation performs a {@link #put(Object, Object)}
+	 * call for each entry. Implementations should override this method if the
+	 * underlying store supports bulk updates.
+	 * @param entries the keys and values (which may be {@code null}) to store
+	 * @since 5.0.11
+	 * @see #put(Object, Object)
+	 */
+	default void putAll(Map<?, ?> entries) {
+		entries.forEach(this::put);
+	}
+
 	/**
 	 * Atomically associate the specified value with the specified key in this cache
 	 * if it is not set already.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -179,4 +179,32 @@ public @interface Cacheable {
 	 */
 	boolean sync() default false;
 
+	/**
+	 * Cache the result per key for a method taking a collection of keys, e.g.
+	 * {@code List<Product> findAll(Collection<Long> ids)}, rather than caching the
+	 * result as a whole. The elements of the first {@link java.util.Collection}
+	 * parameter are used as cache keys as-is, consistent with the default keys of
+	 * single-argument methods such as {@code Product findById(Long id)}: cached
+	 * values are looked up for all keys, the method is invoked for the missing
+	 * keys only, and the values it returns are cached individually.
+	 * <p>The method needs to return either a {@link java.util.Map} from keys to
+	 * values, with keys not found being omitted, or a {@link java.util.List}
+	 * with one value per distinct requested key, in the order of the requested keys.
+	 * The result returned from the cache contains an entry per distinct key.
+	 * Batch caching leads to a couple of limitations:
+	 * <ol>
+	 * <li>{@link #key()}, {@link #keyGenerator()} and {@link #unless()} are not supported</li>
+	 * <li>{@link #sync()} is not supported</li>
+	 * <li>No other cache-related operation can be combined</li>
+	 * </ol>
+	 * <p>Invoking the method for the missing keys only requires the caching
+	 * interceptor to be able to change the method arguments, as is the case
+	 * with Spring AOP proxies; otherwise the method is invoked for all keys
+	 * if any key is missing.
+	 * @since 5.0.11
+	 * @see org.springframework.cache.Cache#getAll(java.util.Collection)
+	 * @see org.springframework.cache.Cache#putAll(java.util.Map)
+	 */
+	boolean batch() default false;
+
 }
@@ -0,0 +1,649 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.concurrent;
+
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongBiFunction;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * {@link ConcurrentMap} implementation with a maximum number of entries or a
+ * maximum total weight, evicting the least recently used entries once the limit
+ * is exceeded, and with optional expiration of entries after a fixed time since
+ * they were written ("time to live") or last read ("time to idle"). Meant to be
+ * used as the store of a {@link ConcurrentMapCache}, turning it into a bounded
+ * cache without the need for a third-party caching library.
+ *
+ * <p>Entries are distributed across lock-striped segments, each holding its
+ * share of the limit and maintaining its own access order, so that eviction is
+ * least-recently-used per segment (and exact for maps with a small maximum
+ * size, which use a single segment). Maps with a weigher always use a single
+ * segment, so that an individual entry may take up the entire maximum weight.
+ * Expired entries are removed on access, and a few of them on every write as
+ * well, without scanning the segment: entries are tracked in write and access
+ * order, which is their order of expiration. {@link #size()} and the statistics
+ * never include expired entries.
+ * Only {@link #get} and the write operations count as access: checks such as
+ * {@link #containsKey} do not affect the eviction order.
+ *
+ * <p>{@link #computeIfAbsent} computes the value outside of any lock, so that
+ * other keys remain accessible, while concurrent callers for the same key wait
+ * for the single ongoing computation, as required for
+ * {@link org.springframework.cache.Cache#get(Object, java.util.concurrent.Callable)}.
+ * A mapping function must not compute the value for the same key again, which
+ * gets rejected with an {@link IllegalStateException}.
+ *
+ * <p>Hit, miss, eviction and expiration statistics are available through the
+ * {@link BoundedConcurrentMapMXBean} interface, allowing for the map to be
+ * registered as an MXBean with an MBean server.
+ *
+ * <p>Like {@link ConcurrentHashMap}, this map does not allow {@code null} keys
+ * or values. Views as returned by {@link #entrySet()} are snapshots which do
+ * not reflect subsequent changes and do not support modifications.
+ *
+ * @since 5.0.11
+ * @param <K> the key type
+ * @param <V> the value type
+ * @see ConcurrentMapCacheManager#setMaximumSize
+ * @see ConcurrentMapCacheFactoryBean#setStore
+ */
+public class BoundedConcurrentMap<K, V> extends AbstractMap<K, V>
+		implements ConcurrentMap<K, V>, BoundedConcurrentMapMXBean {
+
+	private static final int MAX_SEGMENTS = 16;
+
+	// Minimum share of the limit per segment, below which fewer segments are used
+	private static final int MIN_SEGMENT_LIMIT = 16;
+
+	// Maximum number of expired entries to remove per write, in addition to the written key
+	private static final int PURGE_BATCH_SIZE = 4;
+
+
+	private final long limit;
+
+	@Nullable
+	private final ToLongBiFunction<? super K, ? super V> weigher;
+
+	private final Segment<K, V>[] segments;
+
+	private final ConcurrentMap<Object, Loading<V>> loading = new ConcurrentHashMap<>(16);
+
+	private volatile long timeToLiveNanos;
+
+	private volatile long timeToIdleNanos;
+
+	private LongSupplier ticker = System::nanoTime;
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+	private final LongAdder expirationCount = new LongAdder();
+
+
+	/**
+	 * Create a new map holding up to the given number of entries.
+	 * @param maximumSize the maximum number of entries
+	 */
+	public BoundedConcurrentMap(long maximumSize) {
+		this(maximumSize, null);
+	}
+
+	/**
+	 * Create a new map holding entries up to the given total weight,
+	 * as determined by the given weigher for each entry.
+	 * @param maximumWeight the maximum total weight of all entries
+	 * @param weigher the function to determine the (non-negative) weight of
+	 * an entry, e.g. based on the size of its value
+	 */
+	public BoundedConcurrentMap(long maximumWeight, @Nullable ToLongBiFunction<? super K, ? super V> weigher) {
+		Assert.isTrue(maximumWeight > 0, "Maximum size/weight must be greater than 0");
+		this.limit = maximumWeight;
+		this.weigher = weigher;
+		int segmentCount = 1;
+		while (weigher == null && segmentCount < MAX_SEGMENTS &&
+				maximumWeight / (segmentCount * 2) >= MIN_SEGMENT_LIMIT) {
+			segmentCount *= 2;
+		}
+		@SuppressWarnings("unchecked")
+		Segment<K, V>[] segments = (Segment<K, V>[]) new Segment<?, ?>[segmentCount];
+		for (int i = 0; i < segmentCount; i++) {
+			long segmentLimit = maximumWeight / segmentCount + (i < maximumWeight % segmentCount ? 1 : 0);
+			segments[i] = new Segment<>(this, segmentLimit);
+		}
+		this.segments = segments;
+	}
+
+
+	/**
+	 * Specify the time after which an entry expires once it has been written.
+	 * <p>Default is none: entries do not expire based on their age.
+	 * @param timeToLive the time to live, or {@code null} for no expiration
+	 */
+	public void setTimeToLive(@Nullable Duration timeToLive) {
+		this.timeToLiveNanos = toNanos(timeToLive);
+	}
+
+	/**
+	 * Specify the time after which an entry expires if it has not been read
+	 * or written.
+	 * <p>Default is none: entries do not expire based on their last access.
+	 * @param timeToIdle the time to idle, or {@code null} for no expiration
+	 */
+	public void setTimeToIdle(@Nullable Duration timeToIdle) {
+		this.timeToIdleNanos = toNanos(timeToIdle);
+	}
+
+	private static long toNanos(@Nullable Duration duration) {
+		if (duration == null) {
+			return 0;
+		}
+		Assert.isTrue(!duration.isNegative() && !duration.isZero(), "Duration must be positive");
+		return duration.toNanos();
+	}
+
+	/**
+	 * Specify the source of the current time in nanoseconds, for testing purposes.
+	 */
+	void setTicker(LongSupplier ticker) {
+		this.ticker = ticker;
+	}
+
+
+	// Map implementation
+
+	@Override
+	@Nullable
+	public V get(Object key) {
+		V value = getSegment(key).get(key, true);
+		if (value != null) {
+			this.hitCount.increment();
+		}
+		else {
+			this.missCount.increment();
+		}
+		return value;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return (getSegment(key).get(key, false) != null);
+	}
+
+	@Override
+	@Nullable
+	public V put(K key, V value) {
+		Assert.notNull(key, "Key must not be null");
+		Assert.notNull(value, "Value must not be null");
+		return getSegment(key).put(key, value, false);
+	}
+
+	@Override
+	@Nullable
+	public V putIfAbsent(K key, V value) {
+		Assert.notNull(key, "Key must not be null");
+		Assert.notNull(value, "Value must not be null");
+		return getSegment(key).put(key, value, true);
+	}
+
+	@Override
+	@Nullable
+	public V remove(Object key) {
+		return getSegment(key).removeValue(key, null);
+	}
+
+	@Override
+	public boolean remove(Object key, Object value) {
+		return (value != null && getSegment(key).removeValue(key, value) != null);
+	}
+
+	@Override
+	public boolean replace(K key, V oldValue, V newValue) {
+		Assert.notNull(newValue, "Value must not be null");
+		return (getSegment(key).replaceValue(key, oldValue, newValue) != null);
+	}
+
+	@Override
+	@Nullable
+	public V replace(K key, V value) {
+		Assert.notNull(value, "Value must not be null");
+		return getSegment(key).replaceValue(key, null, value);
+	}
+
+	/**
+	 * Return the value for the given key, computing it with the given function
+	 * if absent. The function is invoked without holding a lock, with other
+	 * callers for the same key waiting for its result rather than computing
+	 * the value themselves. Exceptions thrown by the function are propagated
+	 * to all of them.
+	 * @throws IllegalStateException if the function attempts to compute the
+	 * value for the same key again
+	 */
+	@Override
+	@Nullable
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+		V value = get(key);
+		if (value != null) {
+			return value;
+		}
+		Loading<V> future = new Loading<>();
+		Loading<V> existing = this.loading.putIfAbsent(key, future);
+		if (existing != null) {
+			if (existing.thread == Thread.currentThread()) {
+				throw new IllegalStateException("Recursive computation of value for key '" + key + "'");
+			}
+			return awaitLoading(existing);
+		}
+		try {
+			// Possibly loaded by another thread in the meantime
+			value = getSegment(key).get(key, false);
+			if (value == null) {
+				value = mappingFunction.apply(key);
+				if (value != null) {
+					put(key, value);
+				}
+			}
+			future.complete(value);
+			return value;
+		}
+		catch (Throwable ex) {
+			future.completeExceptionally(ex);
+			throw ex;
+		}
+		finally {
+			this.loading.remove(key, future);
+		}
+	}
+
+	@Nullable
+	private V awaitLoading(CompletableFuture<V> future) {
+		try {
+			return future.join();
+		}
+		catch (CompletionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw ex;
+		}
+	}
+
+	@Override
+	public int size() {
+		long size = 0;
+		for (Segment<K, V> segment : this.segments) {
+			size += segment.size();
+		}
+		return (int) Math.min(size, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public void clear() {
+		for (Segment<K, V> segment : this.segments) {
+			segment.clear();
+		}
+	}
+
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		Map<K, V> snapshot = new LinkedHashMap<>();
+		for (Segment<K, V> segment : this.segments) {
+			segment.copyTo(snapshot);
+		}
+		return Collections.unmodifiableMap(snapshot).entrySet();
+	}
+
+
+	// BoundedConcurrentMapMXBean implementation
+
+	@Override
+	public long getLimit() {
+		return this.limit;
+	}
+
+	@Override
+	public int getSize() {
+		return size();
+	}
+
+	@Override
+	public long getWeight() {
+		long weight = 0;
+		for (Segment<K, V> segment : this.segments) {
+			weight += segment.getWeight();
+		}
+		return weight;
+	}
+
+	@Override
+	public long getHitCount() {
+		return this.hitCount.sum();
+	}
+
+	@Override
+	public long getMissCount() {
+		return this.missCount.sum();
+	}
+
+	@Override
+	public double getHitRatio() {
+		long hits = getHitCount();
+		long requests = hits + getMissCount();
+		return (requests > 0 ? (double) hits / requests : 0);
+	}
+
+	@Override
+	public long getEvictionCount() {
+		return this.evictionCount.sum();
+	}
+
+	@Override
+	public long getExpirationCount() {
+		return this.expirationCount.sum();
+	}
+
+	@Override
+	public void resetStatistics() {
+		this.hitCount.reset();
+		this.missCount.reset();
+		this.evictionCount.reset();
+		this.expirationCount.reset();
+	}
+
+
+	private Segment<K, V> getSegment(Object key) {
+		int hash = key.hashCode();
+		hash ^= (hash >>> 16);
+		return this.segments[hash & (this.segments.length - 1)];
+	}
+
+	private long weigh(K key, V value) {
+		if (this.weigher == null) {
+			return 1;
+		}
+		long weight = this.weigher.applyAsLong(key, value);
+		Assert.state(weight >= 0, "Weigher returned negative weight");
+		return weight;
+	}
+
+
+	/**
+	 * An ongoing computation of a value, along with the computing thread.
+	 */
+	private static final class Loading<V> extends CompletableFuture<V> {
+
+		final Thread thread = Thread.currentThread();
+	}
+
+
+	/**
+	 * An entry in a segment, holding the value along with its weight and timestamps,
+	 * linked into the segment's list of entries in write order.
+	 */
+	private static final class Node<V> {
+
+		final Object key;
+
+		final V value;
+
+		final long weight;
+
+		final long writeTime;
+
+		long accessTime;
+
+		@Nullable
+		Node<V> previousWritten;
+
+		@Nullable
+		Node<V> nextWritten;
+
+		Node(Object key, V value, long weight, long now) {
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+			this.writeTime = now;
+			this.accessTime = now;
+		}
+	}
+
+
+	/**
+	 * A segment of the map with its share of the limit, guarded by its own lock.
+	 * Entries are kept in access order by explicitly moving them to the end when
+	 * accessed, since an access-ordered {@link LinkedHashMap} would also reorder
+	 * them for mere lookups. In addition, entries are linked in write order.
+	 * Both orders are also the order in which entries expire (by time to idle
+	 * and time to live, respectively), so expired entries are always found at
+	 * the head of either list.
+	 */
+	@SuppressWarnings("serial")
+	private static final class Segment<K, V> extends LinkedHashMap<Object, Node<V>> {
+
+		private final BoundedConcurrentMap<K, V> map;
+
+		private final long segmentLimit;
+
+		private long weight;
+
+		@Nullable
+		private Node<V> firstWritten;
+
+		@Nullable
+		private Node<V> lastWritten;
+
+		Segment(BoundedConcurrentMap<K, V> map, long segmentLimit) {
+			super(16, 0.75f);
+			this.map = map;
+			this.segmentLimit = segmentLimit;
+		}
+
+		@Nullable
+		synchronized V get(Object key, boolean recordAccess) {
+			Node<V> node = super.get(key);
+			if (node == null) {
+				return null;
+			}
+			long now = this.map.ticker.getAsLong();
+			if (isExpired(node, now)) {
+				removeNode(node);
+				this.map.expirationCount.increment();
+				return null;
+			}
+			if (recordAccess) {
+				node.accessTime = now;
+				moveToEnd(node);
+			}
+			return node.value;
+		}
+
+		@Nullable
+		synchronized V put(K key, V value, boolean onlyIfAbsent) {
+			long now = this.map.ticker.getAsLong();
+			Node<V> existing = super.get(key);
+			if (existing != null && isExpired(existing, now)) {
+				removeNode(existing);
+				this.map.expirationCount.increment();
+				existing = null;
+			}
+			if (existing != null && onlyIfAbsent) {
+				existing.accessTime = now;
+				moveToEnd(existing);
+				return existing.value;
+			}
+			Node<V> node = new Node<>(key, value, this.map.weigh(key, value), now);
+			if (existing != null) {
+				removeNode(existing);
+			}
+			addNode(node);
+			purgeExpired(now, PURGE_BATCH_SIZE);
+			evictIfNecessary();
+			return (existing != null ? existing.value : null);
+		}
+
+		@Nullable
+		synchronized V removeValue(Object key, @Nullable Object expectedValue) {
+			Node<V> node = super.get(key);
+			if (node == null || (expectedValue != null && !ObjectUtils.nullSafeEquals(node.value, expectedValue))) {
+				return null;
+			}
+			removeNode(node);
+			return (isExpired(node, this.map.ticker.getAsLong()) ? null : node.value);
+		}
+
+		@Nullable
+		synchronized V replaceValue(K key, @Nullable V expectedValue, V newValue) {
+			V existing = get(key, true);
+			if (existing == null || (expectedValue != null && !ObjectUtils.nullSafeEquals(existing, expectedValue))) {
+				return null;
+			}
+			put(key, newValue, false);
+			return existing;
+		}
+
+		@Override
+		public synchronized int size() {
+			purgeExpired(this.map.ticker.getAsLong(), Integer.MAX_VALUE);
+			return super.size();
+		}
+
+		synchronized long getWeight() {
+			purgeExpired(this.map.ticker.getAsLong(), Integer.MAX_VALUE);
+			return this.weight;
+		}
+
+		@Override
+		public synchronized void clear() {
+			super.clear();
+			this.weight = 0;
+			this.firstWritten = null;
+			this.lastWritten = null;
+		}
+
+		@SuppressWarnings("unchecked")
+		synchronized void copyTo(Map<K, V> target) {
+			long now = this.map.ticker.getAsLong();
+			for (Node<V> node : values()) {
+				if (!isExpired(node, now)) {
+					target.put((K) node.key, node.value);
+				}
+			}
+		}
+
+		private void addNode(Node<V> node) {
+			super.put(node.key, node);
+			this.weight += node.weight;
+			node.previousWritten = this.lastWritten;
+			if (this.lastWritten != null) {
+				this.lastWritten.nextWritten = node;
+			}
+			else {
+				this.firstWritten = node;
+			}
+			this.lastWritten = node;
+		}
+
+		private void removeNode(Node<V> node) {
+			super.remove(node.key);
+			this.weight -= node.weight;
+			if (node.previousWritten != null) {
+				node.previousWritten.nextWritten = node.nextWritten;
+			}
+			else {
+				this.firstWritten = node.nextWritten;
+			}
+			if (node.nextWritten != null) {
+				node.nextWritten.previousWritten = node.previousWritten;
+			}
+			else {
+				this.lastWritten = node.previousWritten;
+			}
+			node.previousWritten = null;
+			node.nextWritten = null;
+		}
+
+		private void moveToEnd(Node<V> node) {
+			super.remove(node.key);
+			super.put(node.key, node);
+		}
+
+		private boolean isExpired(Node<V> node, long now) {
+			long ttl = this.map.timeToLiveNanos;
+			long tti = this.map.timeToIdleNanos;
+			return ((ttl > 0 && now - node.writeTime >= ttl) || (tti > 0 && now - node.accessTime >= tti));
+		}
+
+		/**
+		 * Remove up to the given number of expired entries, checking the least
+		 * recently written and least recently accessed entries only: both lists
+		 * are in expiration order, so the first live entry ends the search.
+		 */
+		private void purgeExpired(long now, int maxEntries) {
+			int remaining = maxEntries;
+			long ttl = this.map.timeToLiveNanos;
+			if (ttl > 0) {
+				while (remaining > 0 && this.firstWritten != null && now - this.firstWritten.writeTime >= ttl) {
+					removeNode(this.firstWritten);
+					this.map.expirationCount.increment();
+					remaining--;
+				}
+			}
+			long tti = this.map.timeToIdleNanos;
+			if (tti > 0) {
+				while (remaining > 0 && !isEmpty()) {
+					Node<V> eldest = values().iterator().next();
+					if (now - eldest.accessTime < tti) {
+						break;
+					}
+					removeNode(eldest);
+					this.map.expirationCount.increment();
+					remaining--;
+				}
+			}
+		}
+
+		private void evictIfNecessary() {
+			// Expired entries have been purged from the heads already: evict the least recently used ones
+			while (this.weight > this.segmentLimit && !isEmpty()) {
+				removeNode(values().iterator().next());
+				this.map.evictionCount.increment();
+			}
+		}
+	}
+
+}
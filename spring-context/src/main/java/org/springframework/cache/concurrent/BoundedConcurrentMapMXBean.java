@@ -0,0 +1,77 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.concurrent;
+
+/**
+ * Management interface for a {@link BoundedConcurrentMap}, exposing its
+ * occupancy and access statistics, e.g. for registration as an MXBean.
+ *
+ * @since 5.0.11
+ * @see BoundedConcurrentMap
+ */
+public interface BoundedConcurrentMapMXBean {
+
+	/**
+	 * Return the maximum number of entries, or the maximum total weight
+	 * if a weigher has been specified.
+	 */
+	long getLimit();
+
+	/**
+	 * Return the current number of entries, including expired entries
+	 * that have not been removed yet.
+	 */
+	int getSize();
+
+	/**
+	 * Return the current total weight of all entries
+	 * (equal to the number of entries if no weigher has been specified).
+	 */
+	long getWeight();
+
+	/**
+	 * Return the number of lookups which found a value.
+	 */
+	long getHitCount();
+
+	/**
+	 * Return the number of lookups which did not find a value.
+	 */
+	long getMissCount();
+
+	/**
+	 * Return the ratio of lookups which found a value,
+	 * or 0 if there were no lookups yet.
+	 */
+	double getHitRatio();
+
+	/**
+	 * Return the number of entries removed to stay within the limit.
+	 */
+	long getEvictionCount();
+
+	/**
+	 * Return the number of entries removed because they had expired.
+	 */
+	long getExpirationCount();
+
+	/**
+	 * Reset the hit, miss, eviction and expiration counts.
+	 */
+	void resetStatistics();
+
+}
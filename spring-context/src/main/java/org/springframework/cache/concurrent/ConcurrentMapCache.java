@@ -19,9 +19,14 @@ package org.springframework.cache.concurrent;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
 
 import org.springframework.cache.support.AbstractValueAdaptingCache;
 import org.springframework.core.serializer.support.SerializationDelegate;
@@ -151,11 +156,35 @@ public class ConcurrentMapCache extends AbstractValueAdaptingCache {
 		}));
 	}
 
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(keys.size());
+		for (Object key : keys) {
+			Object storeValue = this.store.get(key);
+			if (storeValue != null) {
+				result.put(key, toValueWrapper(storeValue));
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+		return retrieveCoalesced(key, valueLoader);
+	}
+
 	@Override
 	public void put(Object key, @Nullable Object value) {
 		this.store.put(key, toStoreValue(value));
 	}
 
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		Map<Object, Object> storeEntries = new LinkedHashMap<>(entries.size());
+		entries.forEach((key, value) -> storeEntries.put(key, toStoreValue(value)));
+		this.store.putAll(storeEntries);
+	}
+
 	@Override
 	@Nullable
 	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,18 +16,21 @@
 
 package org.springframework.cache.concurrent;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToLongBiFunction;
 
 import org.springframework.beans.factory.BeanClassLoaderAware;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.core.serializer.support.SerializationDelegate;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 
 /**
  * {@link CacheManager} implementation that lazily builds {@link ConcurrentMapCache}
@@ -35,7 +38,13 @@ import org.springframework.lang.Nullable;
  * the set of cache names is pre-defined through {@link #setCacheNames}, with no
  * dynamic creation of further cache regions at runtime.
  *
- * <p>Note: This is by no means a sophisticated CacheManager; it comes with no
+ * <p>Caches are unbounded by default. A maximum size or weight as well as a
+ * time to live or idle may be specified, in which case each cache is backed by a
+ * {@link BoundedConcurrentMap} which evicts the least recently used and expired
+ * entries, and exposes its statistics via {@link ConcurrentMapCache#getNativeCache()}
+ * as a {@link BoundedConcurrentMapMXBean}.
+ *
+ * <p>Note: This is by no means a sophisticated CacheManager; it comes with few
  * cache configuration options. However, it may be useful for testing or simple
  * caching scenarios. For advanced local caching needs, consider
  * {@link org.springframework.cache.jcache.JCacheCacheManager},
@@ -56,6 +65,19 @@ public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderA
 
 	private boolean storeByValue = false;
 
+	private long maximumSize = -1;
+
+	private long maximumWeight = -1;
+
+	@Nullable
+	private ToLongBiFunction<Object, Object> weigher;
+
+	@Nullable
+	private Duration timeToLive;
+
+	@Nullable
+	private Duration timeToIdle;
+
 	@Nullable
 	private SerializationDelegate serialization;
 
@@ -146,6 +168,64 @@ public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderA
 		return this.storeByValue;
 	}
 
+	/**
+	 * Specify the maximum number of entries in each cache, evicting the least
+	 * recently used entries once the limit is exceeded.
+	 * <p>Default is none: caches are unbounded unless a maximum weight is set.
+	 * <p>Note: A change of this setting will reset all existing caches, if any.
+	 * @since 5.0.11
+	 * @see BoundedConcurrentMap#BoundedConcurrentMap(long)
+	 */
+	public void setMaximumSize(long maximumSize) {
+		Assert.isTrue(maximumSize > 0, "Maximum size must be greater than 0");
+		this.maximumSize = maximumSize;
+		this.maximumWeight = -1;
+		this.weigher = null;
+		recreateCaches();
+	}
+
+	/**
+	 * Specify the maximum total weight of the entries in each cache, as determined
+	 * by the given weigher, evicting the least recently used entries once the
+	 * limit is exceeded.
+	 * <p>The weigher is applied to the stored values, i.e. the internal holder
+	 * for {@code null} values and the serialized form in store-by-value mode.
+	 * <p>Note: A change of this setting will reset all existing caches, if any.
+	 * @since 5.0.11
+	 * @see BoundedConcurrentMap#BoundedConcurrentMap(long, ToLongBiFunction)
+	 */
+	public void setMaximumWeight(long maximumWeight, ToLongBiFunction<Object, Object> weigher) {
+		Assert.isTrue(maximumWeight > 0, "Maximum weight must be greater than 0");
+		Assert.notNull(weigher, "Weigher must not be null");
+		this.maximumWeight = maximumWeight;
+		this.weigher = weigher;
+		this.maximumSize = -1;
+		recreateCaches();
+	}
+
+	/**
+	 * Specify the time after which a cache entry expires once it has been written.
+	 * <p>Note: A change of this setting will reset all existing caches, if any.
+	 * @since 5.0.11
+	 * @see BoundedConcurrentMap#setTimeToLive
+	 */
+	public void setTimeToLive(@Nullable Duration timeToLive) {
+		this.timeToLive = timeToLive;
+		recreateCaches();
+	}
+
+	/**
+	 * Specify the time after which a cache entry expires if it has not been
+	 * read or written.
+	 * <p>Note: A change of this setting will reset all existing caches, if any.
+	 * @since 5.0.11
+	 * @see BoundedConcurrentMap#setTimeToIdle
+	 */
+	public void setTimeToIdle(@Nullable Duration timeToIdle) {
+		this.timeToIdle = timeToIdle;
+		recreateCaches();
+	}
+
 	@Override
 	public void setBeanClassLoader(ClassLoader classLoader) {
 		this.serialization = new SerializationDelegate(classLoader);
@@ -190,9 +270,23 @@ public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderA
 	 */
 	protected Cache createConcurrentMapCache(String name) {
 		SerializationDelegate actualSerialization = (isStoreByValue() ? this.serialization : null);
-		return new ConcurrentMapCache(name, new ConcurrentHashMap<>(256),
-				isAllowNullValues(), actualSerialization);
+		return new ConcurrentMapCache(name, createStore(), isAllowNullValues(), actualSerialization);
+	}
 
+	private ConcurrentMap<Object, Object> createStore() {
+		if (this.maximumSize <= 0 && this.maximumWeight <= 0 && this.timeToLive == null && this.timeToIdle == null) {
+			return new ConcurrentHashMap<>(256);
+		}
+		BoundedConcurrentMap<Object, Object> store;
+		if (this.maximumWeight > 0) {
+			store = new BoundedConcurrentMap<>(this.maximumWeight, this.weigher);
+		}
+		else {
+			store = new BoundedConcurrentMap<>(this.maximumSize > 0 ? this.maximumSize : Long.MAX_VALUE);
+		}
+		store.setTimeToLive(this.timeToLive);
+		store.setTimeToIdle(this.timeToIdle);
+		return store;
 	}
 
 }
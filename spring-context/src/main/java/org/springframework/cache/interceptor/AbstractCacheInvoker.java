@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,15 @@
 
 package org.springframework.cache.interceptor;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
 import org.springframework.cache.Cache;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -78,6 +87,94 @@ public abstract class AbstractCacheInvoker {
 		}
 	}
 
+	/**
+	 * Execute {@link Cache#getAll(Collection)} on the specified {@link Cache}
+	 * and invoke the error handler if an exception occurs. Return an empty map
+	 * if the handler does not throw any exception, which simulates a cache
+	 * miss for all keys in case of error.
+	 * @since 5.0.11
+	 * @see Cache#getAll(Collection)
+	 */
+	protected Map<Object, Cache.ValueWrapper> doGetAll(Cache cache, Collection<?> keys) {
+		try {
+			return cache.getAll(keys);
+		}
+		catch (RuntimeException ex) {
+			getErrorHandler().handleCacheGetError(ex, cache, keys);
+			return Collections.emptyMap();  // If the exception is handled, return a cache miss
+		}
+	}
+
+	/**
+	 * Execute {@link Cache#retrieve(Object)} on the specified {@link Cache} and
+	 * invoke the error handler if an exception occurs, either right away or
+	 * on completion of the returned future. The returned future completes with
+	 * {@code null} if the handler does not throw any exception, which simulates
+	 * a cache miss in case of error.
+	 * @since 5.0.11
+	 * @see Cache#retrieve(Object)
+	 */
+	protected CompletableFuture<Cache.ValueWrapper> doRetrieve(Cache cache, Object key) {
+		CompletableFuture<Cache.ValueWrapper> future;
+		try {
+			future = cache.retrieve(key);
+		}
+		catch (RuntimeException ex) {
+			getErrorHandler().handleCacheGetError(ex, cache, key);
+			return CompletableFuture.completedFuture(null);  // If the exception is handled, return a cache miss
+		}
+		return future.exceptionally(ex -> {
+			Throwable cause = (ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+			getErrorHandler().handleCacheGetError((cause instanceof RuntimeException ?
+					(RuntimeException) cause : new CompletionException(cause)), cache, key);
+			return null;
+		});
+	}
+
+	/**
+	 * Execute {@link Cache#retrieve(Object, Supplier)} on the specified
+	 * {@link Cache} and invoke the error handler if the cache fails, either
+	 * right away or on completion of the returned future. If the handler does
+	 * not throw any exception, the value is obtained from the given
+	 * {@code valueLoader} without caching it, unless it has been loaded already.
+	 * A failure of the {@code valueLoader} itself is propagated as-is.
+	 * @since 5.0.11
+	 * @see Cache#retrieve(Object, Supplier)
+	 */
+	protected <T> CompletableFuture<T> doRetrieve(Cache cache, Object key, Supplier<CompletableFuture<T>> valueLoader) {
+		AtomicReference<CompletableFuture<T>> loaded = new AtomicReference<>();
+		Supplier<CompletableFuture<T>> trackingLoader = () -> {
+			CompletableFuture<T> future = valueLoader.get();
+			loaded.set(future);
+			return future;
+		};
+		CompletableFuture<T> future;
+		try {
+			future = cache.retrieve(key, trackingLoader);
+		}
+		catch (RuntimeException ex) {
+			getErrorHandler().handleCacheGetError(ex, cache, key);
+			CompletableFuture<T> loadedFuture = loaded.get();
+			return (loadedFuture != null ? loadedFuture : valueLoader.get());
+		}
+		return future.handle((value, ex) -> {
+			if (ex == null) {
+				return CompletableFuture.completedFuture(value);
+			}
+			Throwable cause = (ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+			CompletableFuture<T> loadedFuture = loaded.get();
+			if (loadedFuture != null && loadedFuture.isCompletedExceptionally()) {
+				// Failure of the value loader rather than of the cache
+				CompletableFuture<T> failed = new CompletableFuture<>();
+				failed.completeExceptionally(cause);
+				return failed;
+			}
+			getErrorHandler().handleCacheGetError((cause instanceof RuntimeException ?
+					(RuntimeException) cause : new CompletionException(cause)), cache, key);
+			return (loadedFuture != null ? loadedFuture : valueLoader.get());
+		}).thenCompose(Function.identity());
+	}
+
 	/**
 	 * Execute {@link Cache#put(Object, Object)} on the specified {@link Cache}
 	 * and invoke the error handler if an exception occurs.
@@ -91,6 +188,20 @@ public abstract class AbstractCacheInvoker {
 		}
 	}
 
+	/**
+	 * Execute {@link Cache#putAll(Map)} on the specified {@link Cache}
+	 * and invoke the error handler if an exception occurs.
+	 * @since 5.0.11
+	 */
+	protected void doPutAll(Cache cache, Map<?, ?> entries) {
+		try {
+			cache.putAll(entries);
+		}
+		catch (RuntimeException ex) {
+			getErrorHandler().handleCachePutError(ex, cache, entries.keySet(), entries.values());
+		}
+	}
+
 	/**
 	 * Execute {@link Cache#evict(Object)} on the specified {@link Cache} and
 	 * invoke the error handler if an exception occurs.
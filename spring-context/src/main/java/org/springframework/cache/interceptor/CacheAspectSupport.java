@@ -21,14 +21,25 @@ import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.aop.support.AopUtils;
@@ -43,6 +54,8 @@ import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.core.BridgeMethodResolver;
+import org.springframework.core.ReactiveAdapter;
+import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -66,6 +79,13 @@ import org.springframework.util.StringUtils;
  * used for determining caching operations, a {@link KeyGenerator} will build the
  * cache keys, and a {@link CacheResolver} will resolve the actual cache(s) to use.
  *
+ * <p>For methods returning a {@link CompletableFuture}, a {@link CompletionStage}
+ * or a reactive type such as a Reactor {@code Mono} or {@code Flux}, the resolved
+ * value is cached rather than the future or publisher itself, using the
+ * non-blocking {@link Cache#retrieve(Object)} and
+ * {@link Cache#retrieve(Object, Supplier)} operations. Multi-value publishers
+ * are cached as a {@code List} of their elements.
+ *
  * <p>Note: A cache aspect is serializable but does not perform any actual caching
  * after deserialization.
  *
@@ -80,6 +100,10 @@ import org.springframework.util.StringUtils;
 public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		implements BeanFactoryAware, InitializingBean, SmartInitializingSingleton {
 
+	private static final boolean reactorPresent = ClassUtils.isPresent(
+			"reactor.core.publisher.Flux", CacheAspectSupport.class.getClassLoader());
+
+
 	protected final Log logger = LogFactory.getLog(getClass());
 
 	private final Map<CacheOperationCacheKey, CacheOperationMetadata> metadataCache = new ConcurrentHashMap<>(1024);
@@ -99,6 +123,9 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 	private boolean initialized = false;
 
+	@Nullable
+	private final ReactiveCachingHandler reactiveCachingHandler = (reactorPresent ? new ReactiveCachingHandler() : null);
+
 
 	/**
 	 * Set one or more cache operation sources which are used to find the cache
@@ -342,6 +369,24 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 	@Nullable
 	private Object execute(final CacheOperationInvoker invoker, Method method, CacheOperationContexts contexts) {
+		// Special handling of batch invocation
+		if (contexts.isBatch()) {
+			return executeBatch(invoker, method, contexts);
+		}
+
+		// Special handling of asynchronous and reactive return types
+		Class<?> returnType = method.getReturnType();
+		if (returnType == CompletableFuture.class || returnType == CompletionStage.class) {
+			return executeAsync(invoker, contexts, CacheAspectSupport::toFuture);
+		}
+		if (this.reactiveCachingHandler != null) {
+			ReactiveAdapter adapter = this.reactiveCachingHandler.getAdapter(returnType);
+			if (adapter != null) {
+				return this.reactiveCachingHandler.fromFuture(adapter, () -> executeAsync(invoker, contexts,
+						result -> this.reactiveCachingHandler.toFuture(adapter, result)));
+			}
+		}
+
 		// Special handling of synchronized invocation
 		if (contexts.isSynchronized()) {
 			CacheOperationContext context = contexts.get(CacheableOperation.class).iterator().next();
@@ -406,6 +451,221 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return returnValue;
 	}
 
+	/**
+	 * Execute a {@code @Cacheable(batch=true)} operation: look up all requested
+	 * keys at once, invoke the method for the missing keys only (if the invoker
+	 * {@link CacheOperationInvoker#supportsArguments() supports changed arguments},
+	 * otherwise for all keys) and store the loaded entries at once.
+	 * @param invoker the invoker handling the operation being cached
+	 * @param method the method being invoked
+	 * @param contexts the cache operation contexts
+	 * @return the (cached, loaded or merged) result
+	 */
+	@Nullable
+	private Object executeBatch(CacheOperationInvoker invoker, Method method, CacheOperationContexts contexts) {
+		CacheOperationContext context = contexts.get(CacheableOperation.class).iterator().next();
+		int parameterIndex = contexts.getBatchParameterIndex();
+		Object[] args = contexts.getArgs();
+		Object keysArg = args[parameterIndex];
+		if (!(keysArg instanceof Collection) || ((Collection<?>) keysArg).contains(null) ||
+				!isConditionPassing(context, CacheOperationExpressionEvaluator.NO_RESULT)) {
+			// No caching possible or required, only call the underlying method
+			return invokeOperation(invoker);
+		}
+
+		// Look up all keys, consulting subsequent caches for the keys missed so far
+		Collection<Object> keys = new LinkedHashSet<>((Collection<?>) keysArg);
+		Collection<Object> missingKeys = new LinkedHashSet<>(keys);
+		Map<Object, Object> values = new HashMap<>();
+		for (Cache cache : context.getCaches()) {
+			if (missingKeys.isEmpty()) {
+				break;
+			}
+			Map<Object, Cache.ValueWrapper> cached = doGetAll(cache, missingKeys);
+			cached.forEach((key, wrapper) -> {
+				if (wrapper != null && missingKeys.remove(key)) {
+					values.put(key, wrapper.get());
+				}
+			});
+		}
+		if (logger.isTraceEnabled()) {
+			logger.trace("Batch lookup found " + values.size() + " of " + keys.size() +
+					" key(s) in cache(s) " + context.getCacheNames());
+		}
+		if (missingKeys.isEmpty()) {
+			return createBatchResult(method, keys, values);
+		}
+
+		// Invoke the method for the missing keys only, if possible
+		Object returnValue = null;
+		boolean partial = false;
+		if (!values.isEmpty() && invoker.supportsArguments()) {
+			Collection<Object> missingKeysArg =
+					createBatchArgument(method.getParameterTypes()[parameterIndex], missingKeys);
+			if (missingKeysArg != null) {
+				Object[] missingArgs = args.clone();
+				missingArgs[parameterIndex] = missingKeysArg;
+				returnValue = invoker.invoke(missingArgs);
+				partial = true;
+			}
+		}
+		if (!partial) {
+			returnValue = invokeOperation(invoker);
+		}
+
+		Collection<Object> invokedKeys = (partial ? missingKeys : keys);
+		Map<?, ?> loaded = extractBatchEntries(returnValue, invokedKeys);
+		if (loaded == null) {
+			if (partial) {
+				throw new IllegalStateException("@Cacheable(batch=true) method '" + method +
+						"' must return a Map or a List with one value per requested key");
+			}
+			return returnValue;
+		}
+		for (Cache cache : context.getCaches()) {
+			doPutAll(cache, loaded);
+		}
+		if (!partial) {
+			return returnValue;
+		}
+		values.putAll(loaded);
+		return createBatchResult(method, keys, values);
+	}
+
+	/**
+	 * Create a collection of the given keys for passing them to a parameter
+	 * of the given type, or {@code null} if no suitable collection type is known.
+	 */
+	@Nullable
+	private static Collection<Object> createBatchArgument(Class<?> parameterType, Collection<Object> keys) {
+		if (parameterType.isAssignableFrom(ArrayList.class)) {
+			return new ArrayList<>(keys);
+		}
+		if (parameterType.isAssignableFrom(LinkedHashSet.class)) {
+			return new LinkedHashSet<>(keys);
+		}
+		return null;
+	}
+
+	/**
+	 * Extract the entries to cache from the given batch result: the entries
+	 * of a {@code Map}, or the elements of a {@code Collection} in the order
+	 * of the given keys.
+	 * @return the entries, or {@code null} if the result does not match the keys
+	 */
+	@Nullable
+	private static Map<?, ?> extractBatchEntries(@Nullable Object result, Collection<Object> keys) {
+		if (result instanceof Map) {
+			return (Map<?, ?>) result;
+		}
+		if (result instanceof Collection && ((Collection<?>) result).size() == keys.size()) {
+			Map<Object, Object> entries = new LinkedHashMap<>(keys.size());
+			Iterator<?> values = ((Collection<?>) result).iterator();
+			for (Object key : keys) {
+				entries.put(key, values.next());
+			}
+			return entries;
+		}
+		return null;
+	}
+
+	/**
+	 * Create a batch result in the order of the given keys, as a {@code Map}
+	 * if the method returns one and as a {@code List} otherwise.
+	 */
+	private static Object createBatchResult(Method method, Collection<Object> keys, Map<Object, Object> values) {
+		if (method.getReturnType().isAssignableFrom(LinkedHashMap.class)) {
+			Map<Object, Object> result = new LinkedHashMap<>(keys.size());
+			for (Object key : keys) {
+				if (values.containsKey(key)) {
+					result.put(key, values.get(key));
+				}
+			}
+			return result;
+		}
+		List<Object> result = new ArrayList<>(keys.size());
+		for (Object key : keys) {
+			if (values.containsKey(key)) {
+				result.add(values.get(key));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Execute the cache operations for a method with an asynchronous result,
+	 * operating on the resolved value once available.
+	 * @param invoker the invoker handling the operation being cached
+	 * @param contexts the cache operation contexts
+	 * @param resultResolver the function adapting a method result to a future
+	 * for its value
+	 * @return a future for the (cached or resolved) value
+	 */
+	private CompletableFuture<Object> executeAsync(CacheOperationInvoker invoker, CacheOperationContexts contexts,
+			Function<Object, CompletableFuture<Object>> resultResolver) {
+
+		Supplier<CompletableFuture<Object>> invocation = () -> invokeAsync(invoker, resultResolver);
+
+		// Special handling of synchronized invocation: a single in-flight computation per key
+		if (contexts.isSynchronized()) {
+			CacheOperationContext context = contexts.get(CacheableOperation.class).iterator().next();
+			if (isConditionPassing(context, CacheOperationExpressionEvaluator.NO_RESULT)) {
+				Object key = generateKey(context, CacheOperationExpressionEvaluator.NO_RESULT);
+				Cache cache = context.getCaches().iterator().next();
+				return doRetrieve(cache, key, invocation);
+			}
+			else {
+				// No caching required, only call the underlying method
+				return invocation.get();
+			}
+		}
+
+		// Process any early evictions
+		processCacheEvicts(contexts.get(CacheEvictOperation.class), true,
+				CacheOperationExpressionEvaluator.NO_RESULT);
+
+		return findCachedItemAsync(contexts.get(CacheableOperation.class)).thenCompose(cacheHit -> {
+			// Collect puts from any @Cacheable miss, if no cached item is found
+			List<CachePutRequest> cachePutRequests = new LinkedList<>();
+			if (cacheHit == null) {
+				collectPutRequests(contexts.get(CacheableOperation.class),
+						CacheOperationExpressionEvaluator.NO_RESULT, cachePutRequests);
+			}
+
+			// If there are no put requests, just use the cache hit
+			CompletableFuture<Object> result = (cacheHit != null && !hasCachePut(contexts) ?
+					CompletableFuture.completedFuture(cacheHit.get()) : invocation.get());
+
+			return result.thenApply(cacheValue -> {
+				collectPutRequests(contexts.get(CachePutOperation.class), cacheValue, cachePutRequests);
+				for (CachePutRequest cachePutRequest : cachePutRequests) {
+					cachePutRequest.apply(cacheValue);
+				}
+				processCacheEvicts(contexts.get(CacheEvictOperation.class), false, cacheValue);
+				return cacheValue;
+			});
+		});
+	}
+
+	private CompletableFuture<Object> invokeAsync(CacheOperationInvoker invoker,
+			Function<Object, CompletableFuture<Object>> resultResolver) {
+
+		try {
+			Object result = invokeOperation(invoker);
+			return (result != null ? resultResolver.apply(result) : CompletableFuture.completedFuture(null));
+		}
+		catch (CacheOperationInvoker.ThrowableWrapper ex) {
+			CompletableFuture<Object> future = new CompletableFuture<>();
+			future.completeExceptionally(ex.getOriginal());
+			return future;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static CompletableFuture<Object> toFuture(Object result) {
+		return ((CompletionStage<Object>) result).toCompletableFuture();
+	}
+
 	@Nullable
 	private Object wrapCacheValue(Method method, @Nullable Object cacheValue) {
 		if (method.getReturnType() == Optional.class &&
@@ -501,6 +761,28 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return null;
 	}
 
+	/**
+	 * Find a cached item only for {@link CacheableOperation} that passes the
+	 * condition, without blocking for the lookups.
+	 * @param contexts the cacheable operations
+	 * @return a future for a {@link Cache.ValueWrapper} holding the cached item,
+	 * completing with {@code null} if none is found
+	 */
+	private CompletableFuture<Cache.ValueWrapper> findCachedItemAsync(Collection<CacheOperationContext> contexts) {
+		CompletableFuture<Cache.ValueWrapper> result = CompletableFuture.completedFuture(null);
+		Object noResult = CacheOperationExpressionEvaluator.NO_RESULT;
+		for (CacheOperationContext context : contexts) {
+			if (isConditionPassing(context, noResult)) {
+				Object key = generateKey(context, noResult);
+				for (Cache cache : context.getCaches()) {
+					result = result.thenCompose(cached -> (cached != null ?
+							CompletableFuture.completedFuture(cached) : doRetrieve(cache, key)));
+				}
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Collect the {@link CachePutRequest} for all {@link CacheOperation} using
 	 * the specified result item.
@@ -561,6 +843,10 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		private final boolean sync;
 
+		private final Object[] args;
+
+		private final int batchParameterIndex;
+
 		public CacheOperationContexts(Collection<? extends CacheOperation> operations, Method method,
 				Object[] args, Object target, Class<?> targetClass) {
 
@@ -569,6 +855,8 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 				this.contexts.add(op.getClass(), getOperationContext(op, method, args, target, targetClass));
 			}
 			this.sync = determineSyncFlag(method);
+			this.args = args;
+			this.batchParameterIndex = determineBatchParameterIndex(method);
 		}
 
 		public Collection<CacheOperationContext> get(Class<? extends CacheOperation> operationClass) {
@@ -580,6 +868,18 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			return this.sync;
 		}
 
+		public boolean isBatch() {
+			return (this.batchParameterIndex >= 0);
+		}
+
+		public int getBatchParameterIndex() {
+			return this.batchParameterIndex;
+		}
+
+		public Object[] getArgs() {
+			return this.args;
+		}
+
 		private boolean determineSyncFlag(Method method) {
 			List<CacheOperationContext> cacheOperationContexts = this.contexts.get(CacheableOperation.class);
 			if (cacheOperationContexts == null) {  // no @Cacheable operation at all
@@ -615,6 +915,57 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			}
 			return false;
 		}
+
+		private int determineBatchParameterIndex(Method method) {
+			List<CacheOperationContext> cacheOperationContexts = this.contexts.get(CacheableOperation.class);
+			if (cacheOperationContexts == null) {  // no @Cacheable operation at all
+				return -1;
+			}
+			boolean batchEnabled = false;
+			for (CacheOperationContext cacheOperationContext : cacheOperationContexts) {
+				if (((CacheableOperation) cacheOperationContext.getOperation()).isBatch()) {
+					batchEnabled = true;
+					break;
+				}
+			}
+			if (!batchEnabled) {
+				return -1;
+			}
+			if (this.contexts.size() > 1) {
+				throw new IllegalStateException(
+						"@Cacheable(batch=true) cannot be combined with other cache operations on '" + method + "'");
+			}
+			if (cacheOperationContexts.size() > 1) {
+				throw new IllegalStateException(
+						"Only one @Cacheable(batch=true) entry is allowed on '" + method + "'");
+			}
+			CacheableOperation operation = (CacheableOperation) cacheOperationContexts.iterator().next().getOperation();
+			if (operation.isSync()) {
+				throw new IllegalStateException(
+						"@Cacheable(batch=true) cannot be combined with sync=true on '" + operation + "'");
+			}
+			if (StringUtils.hasText(operation.getKey()) || StringUtils.hasText(operation.getKeyGenerator())) {
+				throw new IllegalStateException(
+						"@Cacheable(batch=true) does not support key or keyGenerator attribute on '" + operation + "'");
+			}
+			if (StringUtils.hasText(operation.getUnless())) {
+				throw new IllegalStateException(
+						"@Cacheable(batch=true) does not support unless attribute on '" + operation + "'");
+			}
+			Class<?> returnType = method.getReturnType();
+			if (!returnType.isAssignableFrom(LinkedHashMap.class) && !returnType.isAssignableFrom(ArrayList.class)) {
+				throw new IllegalStateException(
+						"@Cacheable(batch=true) requires a Map or List return type on '" + method + "'");
+			}
+			Class<?>[] parameterTypes = method.getParameterTypes();
+			for (int i = 0; i < parameterTypes.length; i++) {
+				if (Collection.class.isAssignableFrom(parameterTypes[i])) {
+					return i;
+				}
+			}
+			throw new IllegalStateException(
+					"@Cacheable(batch=true) requires a Collection parameter on '" + method + "'");
+		}
 	}
 
 
@@ -787,6 +1138,38 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	}
 
 
+	/**
+	 * Inner class to avoid a hard dependency on Reactor at runtime.
+	 */
+	private static class ReactiveCachingHandler {
+
+		private final ReactiveAdapterRegistry registry = ReactiveAdapterRegistry.getSharedInstance();
+
+		@Nullable
+		public ReactiveAdapter getAdapter(Class<?> returnType) {
+			ReactiveAdapter adapter = this.registry.getAdapter(returnType);
+			// Nothing to cache for publishers without values
+			return (adapter != null && !adapter.isNoValue() ? adapter : null);
+		}
+
+		public CompletableFuture<Object> toFuture(ReactiveAdapter adapter, Object result) {
+			Publisher<?> publisher = adapter.toPublisher(result);
+			if (adapter.isMultiValue()) {
+				return Flux.from(publisher).collectList().<Object>map(list -> list).toFuture();
+			}
+			return Mono.<Object>from(publisher).toFuture();
+		}
+
+		public Object fromFuture(ReactiveAdapter adapter, Supplier<CompletableFuture<Object>> execution) {
+			Mono<Object> mono = Mono.defer(() -> Mono.fromFuture(execution.get()));
+			if (adapter.isMultiValue()) {
+				return adapter.fromPublisher(mono.flatMapMany(value -> Flux.fromIterable((List<?>) value)));
+			}
+			return adapter.fromPublisher(mono);
+		}
+	}
+
+
 	private static final class CacheOperationCacheKey implements Comparable<CacheOperationCacheKey> {
 
 		private final CacheOperation cacheOperation;
@@ -20,14 +20,15 @@ import java.lang.reflect.Method;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.springframework.context.expression.MethodArgumentBindings;
 import org.springframework.context.expression.MethodBasedEvaluationContext;
-import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.lang.Nullable;
 
 /**
- * Cache specific evaluation context that adds a method parameters as SpEL
- * variables, in a lazy manner. The lazy nature eliminates unneeded
- * parsing of classes byte code for parameter discovery.
+ * Cache specific evaluation context that exposes the method parameters as SpEL
+ * variables, resolved through {@link MethodArgumentBindings} which are determined
+ * once per method. This eliminates repeated parameter discovery as well as
+ * the registration of each argument as variable for every invocation.
  *
  * <p>Also define a set of "unavailable variables" (i.e. variables that should
  * lead to an exception right the way when they are accessed). This can be useful
@@ -44,13 +45,14 @@ import org.springframework.lang.Nullable;
  */
 class CacheEvaluationContext extends MethodBasedEvaluationContext {
 
-	private final Set<String> unavailableVariables = new HashSet<>(1);
+	@Nullable
+	private Set<String> unavailableVariables;
 
 
 	CacheEvaluationContext(Object rootObject, Method method, Object[] arguments,
-			ParameterNameDiscoverer parameterNameDiscoverer) {
+			MethodArgumentBindings argumentBindings) {
 
-		super(rootObject, method, arguments, parameterNameDiscoverer);
+		super(rootObject, method, arguments, argumentBindings);
 	}
 
 
@@ -62,6 +64,9 @@ class CacheEvaluationContext extends MethodBasedEvaluationContext {
 	 * trying to use that variable should therefore fail to evaluate.
 	 */
 	public void addUnavailableVariable(String name) {
+		if (this.unavailableVariables == null) {
+			this.unavailableVariables = new HashSet<>(1);
+		}
 		this.unavailableVariables.add(name);
 	}
 
@@ -72,7 +77,7 @@ class CacheEvaluationContext extends MethodBasedEvaluationContext {
 	@Override
 	@Nullable
 	public Object lookupVariable(String name) {
-		if (this.unavailableVariables.contains(name)) {
+		if (this.unavailableVariables != null && this.unavailableVariables.contains(name)) {
 			throw new VariableNotAvailableException(name);
 		}
 		return super.lookupVariable(name);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -48,12 +48,32 @@ public class CacheInterceptor extends CacheAspectSupport implements MethodInterc
 	public Object invoke(final MethodInvocation invocation) throws Throwable {
 		Method method = invocation.getMethod();
 
-		CacheOperationInvoker aopAllianceInvoker = () -> {
-			try {
-				return invocation.proceed();
+		CacheOperationInvoker aopAllianceInvoker = new CacheOperationInvoker() {
+			@Override
+			public Object invoke() {
+				try {
+					return invocation.proceed();
+				}
+				catch (Throwable ex) {
+					throw new ThrowableWrapper(ex);
+				}
 			}
-			catch (Throwable ex) {
-				throw new CacheOperationInvoker.ThrowableWrapper(ex);
+			@Override
+			public boolean supportsArguments() {
+				return true;
+			}
+			@Override
+			public Object invoke(Object[] args) {
+				// The arguments array of a MethodInvocation may be modified for proceeding
+				Object[] arguments = invocation.getArguments();
+				Object[] originalArguments = arguments.clone();
+				System.arraycopy(args, 0, arguments, 0, arguments.length);
+				try {
+					return invoke();
+				}
+				finally {
+					System.arraycopy(originalArguments, 0, arguments, 0, arguments.length);
+				}
 			}
 		};
 
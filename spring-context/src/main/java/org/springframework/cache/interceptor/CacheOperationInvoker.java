@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -38,6 +38,31 @@ public interface CacheOperationInvoker {
 	 */
 	Object invoke() throws ThrowableWrapper;
 
+	/**
+	 * Return whether this invoker supports {@link #invoke(Object[]) invoking}
+	 * the cache operation with arguments other than the original ones.
+	 * <p>The default implementation returns {@code false}.
+	 * @since 5.0.11
+	 */
+	default boolean supportsArguments() {
+		return false;
+	}
+
+	/**
+	 * Invoke the cache operation defined by this instance with the given
+	 * arguments instead of the original ones, e.g. for the missing keys of
+	 * a batch operation only.
+	 * <p>Only to be called if {@link #supportsArguments()} returns {@code true}.
+	 * The default implementation throws an {@link UnsupportedOperationException}.
+	 * @param args the arguments to use
+	 * @return the result of the operation
+	 * @throws ThrowableWrapper if an error occurred while invoking the operation
+	 * @since 5.0.11
+	 */
+	default Object invoke(Object[] args) throws ThrowableWrapper {
+		throw new UnsupportedOperationException("Invocation with different arguments not supported");
+	}
+
 
 	/**
 	 * Wrap any exception thrown while invoking {@link #invoke()}.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -33,6 +33,8 @@ public class CacheableOperation extends CacheOperation {
 
 	private final boolean sync;
 
+	private final boolean batch;
+
 
 	/**
 	 * @since 4.3
@@ -41,6 +43,7 @@ public class CacheableOperation extends CacheOperation {
 		super(b);
 		this.unless = b.unless;
 		this.sync = b.sync;
+		this.batch = b.batch;
 	}
 
 
@@ -53,6 +56,13 @@ public class CacheableOperation extends CacheOperation {
 		return this.sync;
 	}
 
+	/**
+	 * @since 5.0.11
+	 */
+	public boolean isBatch() {
+		return this.batch;
+	}
+
 
 	/**
 	 * @since 4.3
@@ -64,6 +74,8 @@ public class CacheableOperation extends CacheOperation {
 
 		private boolean sync;
 
+		private boolean batch;
+
 		public void setUnless(String unless) {
 			this.unless = unless;
 		}
@@ -72,6 +84,13 @@ public class CacheableOperation extends CacheOperation {
 			this.sync = sync;
 		}
 
+		/**
+		 * @since 5.0.11
+		 */
+		public void setBatch(boolean batch) {
+			this.batch = batch;
+		}
+
 		@Override
 		protected StringBuilder getOperationDescription() {
 			StringBuilder sb = super.getOperationDescription();
@@ -81,6 +100,9 @@ public class CacheableOperation extends CacheOperation {
 			sb.append(" | sync='");
 			sb.append(this.sync);
 			sb.append("'");
+			sb.append(" | batch='");
+			sb.append(this.batch);
+			sb.append("'");
 			return sb;
 		}
 
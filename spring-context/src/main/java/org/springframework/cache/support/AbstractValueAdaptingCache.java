@@ -16,6 +16,12 @@
 
 package org.springframework.cache.support;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
 import org.springframework.cache.Cache;
 import org.springframework.lang.Nullable;
 
@@ -35,6 +41,8 @@ public abstract class AbstractValueAdaptingCache implements Cache {
 
 	private final boolean allowNullValues;
 
+	private final ConcurrentMap<Object, CompletableFuture<Object>> pendingRetrievals = new ConcurrentHashMap<>(16);
+
 
 	/**
 	 * Create an {@code AbstractValueAdaptingCache} with the given setting.
@@ -71,6 +79,71 @@ public abstract class AbstractValueAdaptingCache implements Cache {
 		return (T) value;
 	}
 
+	/**
+	 * Retrieve the value for the given key from the underlying store, or
+	 * otherwise from the future provided by the given {@code valueLoader},
+	 * with concurrent retrievals of the same key sharing a single in-flight
+	 * loading operation. Loaded values are stored through {@link #put} once
+	 * the future has completed successfully. Each caller receives a future of
+	 * its own, so that completing or cancelling it does not affect the other
+	 * callers sharing the loading operation.
+	 * <p>This is a convenient implementation of
+	 * {@link #retrieve(Object, Supplier)} for caches which can perform
+	 * {@link #lookup} without blocking, e.g. local in-memory caches.
+	 * @param key the key whose associated value is to be returned
+	 * @param valueLoader the supplier of a future for the value to cache
+	 * @return a future for the value to which this cache maps the key
+	 * @since 5.0.11
+	 */
+	@SuppressWarnings("unchecked")
+	protected <T> CompletableFuture<T> retrieveCoalesced(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+		Object storeValue = lookup(key);
+		if (storeValue != null) {
+			return CompletableFuture.completedFuture((T) fromStoreValue(storeValue));
+		}
+		CompletableFuture<Object> future = new CompletableFuture<>();
+		CompletableFuture<Object> existing = this.pendingRetrievals.putIfAbsent(key, future);
+		if (existing != null) {
+			return (CompletableFuture<T>) existing.thenApply(Function.identity());
+		}
+		try {
+			// Possibly loaded by a retrieval which completed in the meantime
+			storeValue = lookup(key);
+			if (storeValue != null) {
+				completeRetrieval(key, future, fromStoreValue(storeValue), null, false);
+			}
+			else {
+				valueLoader.get().whenComplete((value, ex) -> completeRetrieval(key, future, value, ex, true));
+			}
+		}
+		catch (Throwable ex) {
+			completeRetrieval(key, future, null, ex, false);
+		}
+		return (CompletableFuture<T>) future.thenApply(Function.identity());
+	}
+
+	private void completeRetrieval(Object key, CompletableFuture<Object> future,
+			@Nullable Object value, @Nullable Throwable ex, boolean store) {
+
+		try {
+			if (ex == null && store && (value != null || this.allowNullValues)) {
+				put(key, value);
+			}
+		}
+		catch (Throwable putEx) {
+			ex = putEx;
+		}
+		finally {
+			this.pendingRetrievals.remove(key, future);
+		}
+		if (ex != null) {
+			future.completeExceptionally(ex);
+		}
+		else {
+			future.complete(value);
+		}
+	}
+
 	/**
 	 * Perform an actual lookup in the underlying store.
 	 * @param key the key whose associated value is to be returned
@@ -30,6 +30,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.aop.framework.autoproxy.AutoProxyUtils;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.PropertyValues;
 import org.springframework.beans.factory.BeanClassLoaderAware;
 import org.springframework.beans.factory.BeanDefinitionStoreException;
@@ -88,7 +89,7 @@ import static org.springframework.context.annotation.AnnotationConfigUtils.CONFI
 public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPostProcessor,
 		PriorityOrdered, ResourceLoaderAware, BeanClassLoaderAware, EnvironmentAware {
 
-	private static final String IMPORT_REGISTRY_BEAN_NAME =
+	static final String IMPORT_REGISTRY_BEAN_NAME =
 			ConfigurationClassPostProcessor.class.getName() + ".importRegistry";
 
 
@@ -119,6 +120,8 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 
 	private boolean localBeanNameGeneratorSet = false;
 
+	private boolean useGeneratedRegistrars = true;
+
 	/* Using short class names as default bean names */
 	private BeanNameGenerator componentScanBeanNameGenerator = new AnnotationBeanNameGenerator();
 
@@ -191,6 +194,22 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		this.importBeanNameGenerator = beanNameGenerator;
 	}
 
+	/**
+	 * Set whether to register the bean definitions from
+	 * {@link GeneratedConfigurationRegistrar generated registrars} instead of
+	 * parsing the configuration classes, provided that a registrar has been
+	 * generated for each of them. A registrar that has been generated for other
+	 * profiles than the ones in effect, or for an outdated version of its
+	 * configuration class, is ignored in favor of parsing.
+	 * <p>Default is "true". Switch this flag off in order to always parse
+	 * configuration classes at runtime, e.g. when generating registrars.
+	 * @since 5.0.11
+	 * @see ConfigurationRegistrarGenerator
+	 */
+	public void setUseGeneratedRegistrars(boolean useGeneratedRegistrars) {
+		this.useGeneratedRegistrars = useGeneratedRegistrars;
+	}
+
 	@Override
 	public void setEnvironment(Environment environment) {
 		Assert.notNull(environment, "Environment must not be null");
@@ -309,6 +328,11 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 			return Integer.compare(i1, i2);
 		});
 
+		// Register bean definitions generated ahead of time, if available for all candidates
+		if (this.useGeneratedRegistrars && registerGeneratedBeanDefinitions(configCandidates, registry)) {
+			return;
+		}
+
 		// Detect any custom bean name generation strategy supplied through the enclosing application context
 		SingletonBeanRegistry sbr = null;
 		/**
@@ -411,6 +435,84 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		}
 	}
 
+	/**
+	 * Register the bean definitions from the generated registrars for the given
+	 * configuration class candidates, if a registrar is present for each of them
+	 * and each registrar has been generated for the effective profiles and the
+	 * current version of its configuration class.
+	 * @return {@code true} if the generated bean definitions have been registered,
+	 * {@code false} if the configuration classes need to be parsed
+	 */
+	private boolean registerGeneratedBeanDefinitions(
+			List<BeanDefinitionHolder> configCandidates, BeanDefinitionRegistry registry) {
+
+		List<String> registrarClassNames = new ArrayList<>(configCandidates.size());
+		for (BeanDefinitionHolder holder : configCandidates) {
+			String className = holder.getBeanDefinition().getBeanClassName();
+			if (className == null) {
+				return false;
+			}
+			String registrarClassName = className + GeneratedConfigurationRegistrar.CLASS_NAME_SUFFIX;
+			if (!ClassUtils.isPresent(registrarClassName, this.beanClassLoader)) {
+				return false;
+			}
+			registrarClassNames.add(registrarClassName);
+		}
+
+		Environment environment = (this.environment != null ? this.environment : new StandardEnvironment());
+		Set<String> profiles = new HashSet<>(Arrays.asList(ConfigurationClassUtils.getEffectiveProfiles(environment)));
+		List<GeneratedConfigurationRegistrar> registrars = new ArrayList<>(registrarClassNames.size());
+		for (int i = 0; i < registrarClassNames.size(); i++) {
+			String registrarClassName = registrarClassNames.get(i);
+			GeneratedConfigurationRegistrar registrar;
+			try {
+				registrar = BeanUtils.instantiateClass(ClassUtils.forName(registrarClassName, this.beanClassLoader),
+						GeneratedConfigurationRegistrar.class);
+			}
+			catch (ClassNotFoundException | LinkageError ex) {
+				throw new IllegalStateException("Cannot load generated registrar class: " + registrarClassName, ex);
+			}
+			if (!profiles.equals(new HashSet<>(Arrays.asList(registrar.getProfiles())))) {
+				if (logger.isInfoEnabled()) {
+					logger.info("Ignoring generated registrar " + registrarClassName + " for profiles " +
+							Arrays.toString(registrar.getProfiles()) + " since profiles " + profiles +
+							" are in effect - parsing configuration classes instead");
+				}
+				return false;
+			}
+			String configClassName = configCandidates.get(i).getBeanDefinition().getBeanClassName();
+			Assert.state(configClassName != null, "No configuration class name");
+			if (!registrar.getConfigurationClassFingerprint().equals(
+					ConfigurationClassUtils.getClassFingerprint(configClassName, this.beanClassLoader))) {
+				if (logger.isInfoEnabled()) {
+					logger.info("Ignoring generated registrar " + registrarClassName + " since configuration class [" +
+							configClassName + "] has been changed - parsing configuration classes instead");
+				}
+				return false;
+			}
+			registrars.add(registrar);
+		}
+
+		Map<String, String> importingClasses = new LinkedHashMap<>();
+		for (GeneratedConfigurationRegistrar registrar : registrars) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Registering bean definitions from generated registrar " + registrar.getClass().getName());
+			}
+			registrar.registerBeanDefinitions(registry);
+			importingClasses.putAll(registrar.getImportingClasses());
+		}
+
+		// Register an ImportRegistry in order to support ImportAware @Configuration classes
+		if (registry instanceof SingletonBeanRegistry) {
+			SingletonBeanRegistry sbr = (SingletonBeanRegistry) registry;
+			if (!sbr.containsSingleton(IMPORT_REGISTRY_BEAN_NAME)) {
+				sbr.registerSingleton(IMPORT_REGISTRY_BEAN_NAME,
+						new GeneratedImportRegistry(importingClasses, this.beanClassLoader));
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * 说白了一句话, 加了@Configuration, 它会进行cglib代理, 如果没加, 就不会进行cglib代理
 	 * Post-processes a BeanFactory in search of Configuration class BeanDefinitions;
@@ -17,6 +17,7 @@
 package org.springframework.context.annotation;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -31,12 +32,15 @@ import org.springframework.core.Conventions;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
 import org.springframework.core.type.AnnotationMetadata;
 import org.springframework.core.type.StandardAnnotationMetadata;
 import org.springframework.core.type.classreading.MetadataReader;
 import org.springframework.core.type.classreading.MetadataReaderFactory;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.DigestUtils;
 
 /**
  * Utilities for identifying @{@link Configuration} classes.
@@ -51,7 +55,7 @@ abstract class ConfigurationClassUtils {
 
 	private static final String CONFIGURATION_CLASS_LITE = "lite";
 
-	private static final String CONFIGURATION_CLASS_ATTRIBUTE =
+	static final String CONFIGURATION_CLASS_ATTRIBUTE =
 			Conventions.getQualifiedAttributeName(ConfigurationClassPostProcessor.class, "configurationClass");
 
 	private static final String ORDER_ATTRIBUTE =
@@ -240,4 +244,40 @@ abstract class ConfigurationClassUtils {
 		return (order != null ? order : Ordered.LOWEST_PRECEDENCE);
 	}
 
+	/**
+	 * Determine a fingerprint of the class file of the given class, in order to
+	 * detect whether the class has been changed since a registrar was generated.
+	 * @param className the name of the class
+	 * @param classLoader the ClassLoader to read the class file from
+	 * @return the hex-encoded MD5 digest of the class file, or {@code null}
+	 * if the class file cannot be read
+	 * @since 5.0.11
+	 */
+	@Nullable
+	public static String getClassFingerprint(String className, @Nullable ClassLoader classLoader) {
+		ClassLoader classLoaderToUse = (classLoader != null ? classLoader : ClassUtils.getDefaultClassLoader());
+		String resourcePath = ClassUtils.convertClassNameToResourcePath(className) + ClassUtils.CLASS_FILE_SUFFIX;
+		try (InputStream is = (classLoaderToUse != null ? classLoaderToUse.getResourceAsStream(resourcePath) :
+				ClassLoader.getSystemResourceAsStream(resourcePath))) {
+			return (is != null ? DigestUtils.md5DigestAsHex(is) : null);
+		}
+		catch (IOException ex) {
+			logger.debug("Could not read class file for [" + className + "]", ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Determine the profiles that {@link Profile @Profile} conditions are
+	 * evaluated against in the given Environment: the active profiles,
+	 * or the default profiles if no profile has been activated.
+	 * @param environment the Environment to introspect
+	 * @return the effective profiles
+	 * @since 5.0.11
+	 */
+	public static String[] getEffectiveProfiles(Environment environment) {
+		String[] activeProfiles = environment.getActiveProfiles();
+		return (activeProfiles.length > 0 ? activeProfiles : environment.getDefaultProfiles());
+	}
+
 }
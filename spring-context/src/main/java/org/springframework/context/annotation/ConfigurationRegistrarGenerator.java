@@ -0,0 +1,675 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.annotation.Lookup;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanNameReference;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.AutowireCandidateQualifier;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.ManagedList;
+import org.springframework.beans.factory.support.ManagedMap;
+import org.springframework.beans.factory.support.ManagedSet;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Build-time tool that processes a {@link Configuration @Configuration} class
+ * ahead of time and generates the Java source of a {@link GeneratedConfigurationRegistrar}
+ * for it, registering the resulting bean definitions without any parsing at runtime.
+ *
+ * <p>The configuration class is processed by a regular {@link ConfigurationClassPostProcessor}
+ * against the given {@link ConfigurableEnvironment}: imports, component scanning and
+ * {@link Conditional @Conditional} evaluation are therefore all fixed at build time.
+ * Bean definitions are emitted as {@link RootBeanDefinition}s, with an instance
+ * supplier for plain classes instantiated through their public no-arg constructor.
+ * Constructs that cannot be expressed in generated code, such as scoped proxies,
+ * inner bean definitions or {@link PropertySource @PropertySource} declarations,
+ * are rejected with an {@link IllegalStateException}.
+ *
+ * <p>May be invoked from a build script through {@link #main}, passing the output
+ * directory followed by the names of the configuration classes. The generated
+ * sources need to be compiled along with the configuration classes. Each registrar
+ * records the profiles it has been generated for and a fingerprint of its
+ * configuration class, so that it is ignored at runtime for a different set of
+ * profiles or a configuration class that has been changed in the meantime.
+ *
+ * @since 5.0.11
+ * @see GeneratedConfigurationRegistrar
+ * @see ConfigurationClassPostProcessor#setUseGeneratedRegistrars
+ */
+public class ConfigurationRegistrarGenerator {
+
+	private static final String INDENT = "\t\t";
+
+
+	private final ConfigurableEnvironment environment;
+
+	@Nullable
+	private ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+
+
+	/**
+	 * Create a new generator for a {@link StandardEnvironment}.
+	 */
+	public ConfigurationRegistrarGenerator() {
+		this(new StandardEnvironment());
+	}
+
+	/**
+	 * Create a new generator for the given {@link ConfigurableEnvironment},
+	 * e.g. with specific active profiles.
+	 * @param environment the Environment to evaluate conditions against
+	 */
+	public ConfigurationRegistrarGenerator(ConfigurableEnvironment environment) {
+		Assert.notNull(environment, "Environment must not be null");
+		this.environment = environment;
+	}
+
+
+	/**
+	 * Set the ClassLoader to load bean classes and scan for components with.
+	 * <p>Default is the thread context ClassLoader.
+	 */
+	public void setClassLoader(@Nullable ClassLoader classLoader) {
+		this.classLoader = classLoader;
+	}
+
+
+	/**
+	 * Return the name of the registrar class generated for the given configuration class.
+	 * @param configClass the configuration class
+	 * @return the fully qualified name of the generated registrar class
+	 */
+	public static String getRegistrarClassName(Class<?> configClass) {
+		return configClass.getName() + GeneratedConfigurationRegistrar.CLASS_NAME_SUFFIX;
+	}
+
+	/**
+	 * Generate a registrar for the given configuration class and write its
+	 * source file into the given output directory.
+	 * @param configClass the configuration class to process
+	 * @param outputDirectory the root directory for generated sources
+	 * @return the generated source file
+	 * @throws IOException in case of I/O errors
+	 */
+	public File generateRegistrar(Class<?> configClass, File outputDirectory) throws IOException {
+		String source = generateRegistrar(configClass);
+		File file = new File(outputDirectory, getRegistrarClassName(configClass).replace('.', File.separatorChar) + ".java");
+		File parent = file.getParentFile();
+		if (parent != null) {
+			Files.createDirectories(parent.toPath());
+		}
+		Files.write(file.toPath(), source.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	/**
+	 * Generate the source of a registrar for the given configuration class.
+	 * @param configClass the configuration class to process
+	 * @return the Java source of the generated registrar class
+	 * @throws IllegalStateException if the configuration cannot be expressed
+	 * in generated code
+	 */
+	public String generateRegistrar(Class<?> configClass) {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.setBeanClassLoader(this.classLoader);
+		AnnotatedBeanDefinitionReader reader = new AnnotatedBeanDefinitionReader(beanFactory, this.environment);
+		Set<String> excludedNames = new LinkedHashSet<>(Arrays.asList(beanFactory.getBeanDefinitionNames()));
+		reader.register(configClass);
+		if (beanFactory.getBeanDefinitionCount() == excludedNames.size()) {
+			throw new IllegalStateException("Configuration class [" + configClass.getName() +
+					"] has been skipped due to its conditions");
+		}
+		excludedNames.addAll(Arrays.asList(beanFactory.getBeanDefinitionNames()));
+
+		List<String> propertySourceNames = getPropertySourceNames();
+		ConfigurationClassPostProcessor postProcessor = new ConfigurationClassPostProcessor();
+		postProcessor.setUseGeneratedRegistrars(false);
+		postProcessor.setEnvironment(this.environment);
+		postProcessor.setBeanClassLoader(this.classLoader);
+		postProcessor.setResourceLoader(new DefaultResourceLoader(this.classLoader));
+		postProcessor.processConfigBeanDefinitions(beanFactory);
+		if (!propertySourceNames.equals(getPropertySourceNames())) {
+			throw new IllegalStateException("Configuration class [" + configClass.getName() +
+					"] contributes @PropertySource declarations which cannot be processed ahead of time");
+		}
+
+		List<String> beanNames = new ArrayList<>();
+		for (String beanName : beanFactory.getBeanDefinitionNames()) {
+			if (!excludedNames.contains(beanName)) {
+				beanNames.add(beanName);
+			}
+		}
+		Map<String, String> importingClasses = new LinkedHashMap<>();
+		ImportRegistry importRegistry = (ImportRegistry) beanFactory.getSingleton(
+				ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME);
+		if (importRegistry != null) {
+			for (String beanName : beanNames) {
+				String className = beanFactory.getBeanDefinition(beanName).getBeanClassName();
+				if (className != null) {
+					AnnotationMetadata importingClass = importRegistry.getImportingClassFor(className);
+					if (importingClass != null) {
+						importingClasses.put(className, importingClass.getClassName());
+					}
+				}
+			}
+		}
+		return generateSource(configClass, beanFactory, beanNames, importingClasses);
+	}
+
+	private List<String> getPropertySourceNames() {
+		List<String> names = new ArrayList<>();
+		for (PropertySource<?> propertySource : this.environment.getPropertySources()) {
+			names.add(propertySource.getName());
+		}
+		return names;
+	}
+
+	private String generateSource(Class<?> configClass, DefaultListableBeanFactory beanFactory,
+			List<String> beanNames, Map<String, String> importingClasses) {
+
+		SourceBuilder builder = new SourceBuilder();
+		builder.addImport(BeanDefinitionRegistry.class);
+		builder.addImport(GeneratedConfigurationRegistrar.class);
+		StringBuilder methods = new StringBuilder();
+		for (int i = 0; i < beanNames.size(); i++) {
+			String beanName = beanNames.get(i);
+			BeanDefinition beanDefinition = beanFactory.getBeanDefinition(beanName);
+			methods.append("\n\tprivate static void registerBeanDefinition").append(i)
+					.append("(BeanDefinitionRegistry registry) {\n");
+			methods.append(generateBeanDefinition(builder, beanName, beanDefinition,
+					beanFactory.getAliases(beanName)));
+			methods.append("\t}\n");
+		}
+
+		String registrarClassName = getRegistrarClassName(configClass);
+		String packageName = ClassUtils.getPackageName(configClass);
+		StringBuilder source = new StringBuilder();
+		if (!packageName.isEmpty()) {
+			source.append("package ").append(packageName).append(";\n\n");
+		}
+		if (!importingClasses.isEmpty()) {
+			builder.addImport(LinkedHashMap.class);
+			builder.addImport(Map.class);
+		}
+		for (String importName : builder.imports) {
+			source.append("import ").append(importName).append(";\n");
+		}
+		source.append("\n/**\n * Bean definitions for {@link ").append(configClass.getName().replace('$', '.'))
+				.append("}, generated by {@link ").append(getClass().getName()).append("}.\n */\n");
+		source.append("public final class ").append(ClassUtils.getShortName(registrarClassName).replace('.', '$'))
+				.append(" implements GeneratedConfigurationRegistrar {\n\n");
+
+		source.append("\t@Override\n\tpublic void registerBeanDefinitions(BeanDefinitionRegistry registry) {\n");
+		for (int i = 0; i < beanNames.size(); i++) {
+			source.append(INDENT).append("registerBeanDefinition").append(i).append("(registry);\n");
+		}
+		source.append("\t}\n");
+
+		String[] profiles = ConfigurationClassUtils.getEffectiveProfiles(this.environment);
+		source.append("\n\t@Override\n\tpublic String[] getProfiles() {\n");
+		source.append(INDENT).append("return new String[] {");
+		for (int i = 0; i < profiles.length; i++) {
+			source.append(i > 0 ? ", " : "").append(literal(profiles[i]));
+		}
+		source.append("};\n\t}\n");
+
+		String fingerprint = ConfigurationClassUtils.getClassFingerprint(configClass.getName(), configClass.getClassLoader());
+		if (fingerprint == null) {
+			throw new IllegalStateException("Cannot read class file of configuration class [" +
+					configClass.getName() + "]");
+		}
+		source.append("\n\t@Override\n\tpublic String getConfigurationClassFingerprint() {\n");
+		source.append(INDENT).append("return ").append(literal(fingerprint)).append(";\n\t}\n");
+
+		if (!importingClasses.isEmpty()) {
+			source.append("\n\t@Override\n\tpublic Map<String, String> getImportingClasses() {\n");
+			source.append(INDENT).append("Map<String, String> importingClasses = new LinkedHashMap<>();\n");
+			importingClasses.forEach((imported, importing) -> source.append(INDENT)
+					.append("importingClasses.put(").append(literal(imported)).append(", ")
+					.append(literal(importing)).append(");\n"));
+			source.append(INDENT).append("return importingClasses;\n\t}\n");
+		}
+
+		source.append(methods);
+		source.append("\n}\n");
+		return source.toString();
+	}
+
+	private String generateBeanDefinition(SourceBuilder builder, String beanName,
+			BeanDefinition beanDefinition, String[] aliases) {
+
+		if (!(beanDefinition instanceof AbstractBeanDefinition)) {
+			throw unsupported(beanName, "bean definition of type " + beanDefinition.getClass().getName());
+		}
+		AbstractBeanDefinition bd = (AbstractBeanDefinition) beanDefinition;
+		if (bd.getParentName() != null) {
+			throw unsupported(beanName, "parent bean definition");
+		}
+		if (bd.isAbstract()) {
+			throw unsupported(beanName, "abstract bean definition");
+		}
+		if (bd.hasMethodOverrides()) {
+			throw unsupported(beanName, "method overrides");
+		}
+		if (bd.getInstanceSupplier() != null) {
+			throw unsupported(beanName, "programmatic instance supplier");
+		}
+		if (bd instanceof RootBeanDefinition && ((RootBeanDefinition) bd).getDecoratedDefinition() != null) {
+			throw unsupported(beanName, "decorated bean definition (e.g. scoped proxy)");
+		}
+
+		builder.addImport(RootBeanDefinition.class);
+		builder.variableCount = 0;
+		StringBuilder code = new StringBuilder();
+		code.append(INDENT).append("RootBeanDefinition bd = new RootBeanDefinition();\n");
+		String className = bd.getBeanClassName();
+		if (className != null) {
+			appendSetter(code, "setBeanClassName", literal(className));
+		}
+		if (StringUtils.hasLength(bd.getScope())) {
+			appendSetter(code, "setScope", literal(bd.getScope()));
+		}
+		if (bd.isLazyInit()) {
+			appendSetter(code, "setLazyInit", "true");
+		}
+		if (bd.getAutowireMode() != AbstractBeanDefinition.AUTOWIRE_NO) {
+			appendSetter(code, "setAutowireMode", String.valueOf(bd.getAutowireMode()));
+		}
+		if (bd.getDependencyCheck() != AbstractBeanDefinition.DEPENDENCY_CHECK_NONE) {
+			appendSetter(code, "setDependencyCheck", String.valueOf(bd.getDependencyCheck()));
+		}
+		if (!ObjectUtils.isEmpty(bd.getDependsOn())) {
+			StringBuilder dependsOn = new StringBuilder();
+			for (String name : bd.getDependsOn()) {
+				dependsOn.append(dependsOn.length() > 0 ? ", " : "").append(literal(name));
+			}
+			appendSetter(code, "setDependsOn", dependsOn.toString());
+		}
+		if (!bd.isAutowireCandidate()) {
+			appendSetter(code, "setAutowireCandidate", "false");
+		}
+		if (bd.isPrimary()) {
+			appendSetter(code, "setPrimary", "true");
+		}
+		if (!bd.isNonPublicAccessAllowed()) {
+			appendSetter(code, "setNonPublicAccessAllowed", "false");
+		}
+		if (!bd.isLenientConstructorResolution()) {
+			appendSetter(code, "setLenientConstructorResolution", "false");
+		}
+		if (bd.getFactoryBeanName() != null) {
+			appendSetter(code, "setFactoryBeanName", literal(bd.getFactoryBeanName()));
+		}
+		if (bd.getFactoryMethodName() != null) {
+			appendSetter(code, (isUniqueFactoryMethod(bd) ? "setUniqueFactoryMethodName" : "setFactoryMethodName"),
+					literal(bd.getFactoryMethodName()));
+		}
+		if (bd.getInitMethodName() != null) {
+			appendSetter(code, "setInitMethodName", literal(bd.getInitMethodName()));
+		}
+		if (!bd.isEnforceInitMethod()) {
+			appendSetter(code, "setEnforceInitMethod", "false");
+		}
+		if (bd.getDestroyMethodName() != null) {
+			appendSetter(code, "setDestroyMethodName", literal(bd.getDestroyMethodName()));
+		}
+		if (!bd.isEnforceDestroyMethod()) {
+			appendSetter(code, "setEnforceDestroyMethod", "false");
+		}
+		if (bd.isSynthetic()) {
+			appendSetter(code, "setSynthetic", "true");
+		}
+		if (bd.getRole() != BeanDefinition.ROLE_APPLICATION) {
+			appendSetter(code, "setRole", String.valueOf(bd.getRole()));
+		}
+		if (bd.getDescription() != null) {
+			appendSetter(code, "setDescription", literal(bd.getDescription()));
+		}
+
+		ConstructorArgumentValues argumentValues = bd.getConstructorArgumentValues();
+		argumentValues.getIndexedArgumentValues().forEach((index, valueHolder) -> {
+			String value = generateArgumentValue(builder, code, beanName, valueHolder);
+			code.append(INDENT).append("bd.getConstructorArgumentValues().addIndexedArgumentValue(")
+					.append(index).append(", ").append(value).append(");\n");
+		});
+		for (ConstructorArgumentValues.ValueHolder valueHolder : argumentValues.getGenericArgumentValues()) {
+			String value = generateArgumentValue(builder, code, beanName, valueHolder);
+			code.append(INDENT).append("bd.getConstructorArgumentValues().addGenericArgumentValue(")
+					.append(value).append(");\n");
+		}
+		for (PropertyValue propertyValue : bd.getPropertyValues().getPropertyValueList()) {
+			String value = generateValue(builder, code, beanName, propertyValue.getValue());
+			code.append(INDENT).append("bd.getPropertyValues().add(").append(literal(propertyValue.getName()))
+					.append(", ").append(value).append(");\n");
+		}
+		for (String attributeName : bd.attributeNames()) {
+			Object attribute = bd.getAttribute(attributeName);
+			if (!isSimpleValue(attribute)) {
+				throw unsupported(beanName, "attribute '" + attributeName + "' of type " +
+						ObjectUtils.nullSafeClassName(attribute));
+			}
+			code.append(INDENT).append("bd.setAttribute(").append(literal(attributeName)).append(", ")
+					.append(generateSimpleValue(attribute)).append(");\n");
+		}
+		for (AutowireCandidateQualifier qualifier : bd.getQualifiers()) {
+			builder.addImport(AutowireCandidateQualifier.class);
+			Object value = qualifier.getAttribute(AutowireCandidateQualifier.VALUE_KEY);
+			if (!ObjectUtils.isEmpty(qualifier.attributeNames()) &&
+					(qualifier.attributeNames().length > 1 || !(value instanceof String))) {
+				throw unsupported(beanName, "qualifier with attributes");
+			}
+			code.append(INDENT).append("bd.addQualifier(new AutowireCandidateQualifier(")
+					.append(literal(qualifier.getTypeName()))
+					.append(value != null ? ", " + literal((String) value) : "").append("));\n");
+		}
+
+		String instanceSupplier = generateInstanceSupplier(bd);
+		if (instanceSupplier != null) {
+			appendSetter(code, "setInstanceSupplier", instanceSupplier);
+		}
+
+		code.append(INDENT).append("registry.registerBeanDefinition(").append(literal(beanName)).append(", bd);\n");
+		for (String alias : aliases) {
+			code.append(INDENT).append("registry.registerAlias(").append(literal(beanName)).append(", ")
+					.append(literal(alias)).append(");\n");
+		}
+		return code.toString();
+	}
+
+	/**
+	 * Determine whether the given factory method stems from a non-static
+	 * {@code @Bean} method, for which overloading is not allowed.
+	 */
+	private boolean isUniqueFactoryMethod(AbstractBeanDefinition bd) {
+		if (bd instanceof AnnotatedBeanDefinition) {
+			MethodMetadata factoryMethodMetadata = ((AnnotatedBeanDefinition) bd).getFactoryMethodMetadata();
+			return (factoryMethodMetadata != null && !factoryMethodMetadata.isStatic());
+		}
+		return false;
+	}
+
+	/**
+	 * Generate a constructor reference for bean classes that can be instantiated
+	 * without any reflection: publicly accessible classes with nothing but a public
+	 * no-arg constructor, and neither enhanced nor subject to method injection.
+	 */
+	@Nullable
+	private String generateInstanceSupplier(AbstractBeanDefinition bd) {
+		String className = bd.getBeanClassName();
+		if (className == null || bd.getFactoryMethodName() != null || bd.hasConstructorArgumentValues() ||
+				bd.getAttribute(ConfigurationClassUtils.CONFIGURATION_CLASS_ATTRIBUTE) != null) {
+			return null;
+		}
+		Class<?> beanClass;
+		try {
+			beanClass = ClassUtils.forName(className, this.classLoader);
+		}
+		catch (ClassNotFoundException | LinkageError ex) {
+			return null;
+		}
+		if (beanClass.isInterface() || Modifier.isAbstract(beanClass.getModifiers()) ||
+				beanClass.getCanonicalName() == null) {
+			return null;
+		}
+		for (Class<?> current = beanClass; current != null; current = current.getEnclosingClass()) {
+			if (!Modifier.isPublic(current.getModifiers())) {
+				return null;
+			}
+		}
+		Constructor<?>[] constructors = beanClass.getDeclaredConstructors();
+		if (constructors.length != 1 || constructors[0].getParameterCount() != 0 ||
+				!Modifier.isPublic(constructors[0].getModifiers())) {
+			return null;
+		}
+		for (Method method : ReflectionUtils.getUniqueDeclaredMethods(beanClass)) {
+			if (AnnotationUtils.findAnnotation(method, Lookup.class) != null) {
+				return null;
+			}
+		}
+		return beanClass.getCanonicalName() + "::new";
+	}
+
+	private String generateArgumentValue(SourceBuilder builder, StringBuilder code,
+			String beanName, ConstructorArgumentValues.ValueHolder valueHolder) {
+
+		String value = generateValue(builder, code, beanName, valueHolder.getValue());
+		if (valueHolder.getType() == null && valueHolder.getName() == null) {
+			return value;
+		}
+		builder.addImport(ConstructorArgumentValues.class);
+		return "new ConstructorArgumentValues.ValueHolder(" + value + ", " +
+				literal(valueHolder.getType()) + ", " + literal(valueHolder.getName()) + ")";
+	}
+
+	/**
+	 * Generate an expression for the given bean metadata value, declaring local
+	 * variables for managed collections upfront.
+	 */
+	private String generateValue(SourceBuilder builder, StringBuilder code, String beanName, @Nullable Object value) {
+		if (isSimpleValue(value)) {
+			return generateSimpleValue(value);
+		}
+		if (value instanceof TypedStringValue) {
+			TypedStringValue typedValue = (TypedStringValue) value;
+			builder.addImport(TypedStringValue.class);
+			String targetTypeName = typedValue.getTargetTypeName();
+			return "new TypedStringValue(" + literal(typedValue.getValue()) +
+					(targetTypeName != null ? ", " + literal(targetTypeName) : "") + ")";
+		}
+		if (value instanceof RuntimeBeanReference) {
+			RuntimeBeanReference reference = (RuntimeBeanReference) value;
+			builder.addImport(RuntimeBeanReference.class);
+			return "new RuntimeBeanReference(" + literal(reference.getBeanName()) +
+					(reference.isToParent() ? ", true" : "") + ")";
+		}
+		if (value instanceof RuntimeBeanNameReference) {
+			builder.addImport(RuntimeBeanNameReference.class);
+			return "new RuntimeBeanNameReference(" +
+					literal(((RuntimeBeanNameReference) value).getBeanName()) + ")";
+		}
+		if (value instanceof ManagedList) {
+			ManagedList<?> list = (ManagedList<?>) value;
+			builder.addImport(ManagedList.class);
+			String variable = builder.nextVariable("list");
+			code.append(INDENT).append("ManagedList<Object> ").append(variable).append(" = new ManagedList<>();\n");
+			if (list.getElementTypeName() != null) {
+				code.append(INDENT).append(variable).append(".setElementTypeName(")
+						.append(literal(list.getElementTypeName())).append(");\n");
+			}
+			appendMergeEnabled(code, variable, list.isMergeEnabled());
+			for (Object element : list) {
+				String elementValue = generateValue(builder, code, beanName, element);
+				code.append(INDENT).append(variable).append(".add(").append(elementValue).append(");\n");
+			}
+			return variable;
+		}
+		if (value instanceof ManagedSet) {
+			ManagedSet<?> set = (ManagedSet<?>) value;
+			builder.addImport(ManagedSet.class);
+			String variable = builder.nextVariable("set");
+			code.append(INDENT).append("ManagedSet<Object> ").append(variable).append(" = new ManagedSet<>();\n");
+			if (set.getElementTypeName() != null) {
+				code.append(INDENT).append(variable).append(".setElementTypeName(")
+						.append(literal(set.getElementTypeName())).append(");\n");
+			}
+			appendMergeEnabled(code, variable, set.isMergeEnabled());
+			for (Object element : set) {
+				String elementValue = generateValue(builder, code, beanName, element);
+				code.append(INDENT).append(variable).append(".add(").append(elementValue).append(");\n");
+			}
+			return variable;
+		}
+		if (value instanceof ManagedMap) {
+			ManagedMap<?, ?> map = (ManagedMap<?, ?>) value;
+			builder.addImport(ManagedMap.class);
+			String variable = builder.nextVariable("map");
+			code.append(INDENT).append("ManagedMap<Object, Object> ").append(variable)
+					.append(" = new ManagedMap<>();\n");
+			if (map.getKeyTypeName() != null) {
+				code.append(INDENT).append(variable).append(".setKeyTypeName(")
+						.append(literal(map.getKeyTypeName())).append(");\n");
+			}
+			if (map.getValueTypeName() != null) {
+				code.append(INDENT).append(variable).append(".setValueTypeName(")
+						.append(literal(map.getValueTypeName())).append(");\n");
+			}
+			appendMergeEnabled(code, variable, map.isMergeEnabled());
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				String entryKey = generateValue(builder, code, beanName, entry.getKey());
+				String entryValue = generateValue(builder, code, beanName, entry.getValue());
+				code.append(INDENT).append(variable).append(".put(").append(entryKey).append(", ")
+						.append(entryValue).append(");\n");
+			}
+			return variable;
+		}
+		throw unsupported(beanName, "value of type " + value.getClass().getName());
+	}
+
+	private static boolean isSimpleValue(@Nullable Object value) {
+		return (value == null || value instanceof String || value instanceof Boolean ||
+				value instanceof Integer || value instanceof Long);
+	}
+
+	private static String generateSimpleValue(@Nullable Object value) {
+		if (value instanceof String) {
+			return literal((String) value);
+		}
+		if (value instanceof Boolean) {
+			return ((Boolean) value ? "Boolean.TRUE" : "Boolean.FALSE");
+		}
+		if (value instanceof Integer) {
+			return "Integer.valueOf(" + value + ")";
+		}
+		if (value instanceof Long) {
+			return "Long.valueOf(" + value + "L)";
+		}
+		return "null";
+	}
+
+	private static void appendSetter(StringBuilder code, String setter, String value) {
+		code.append(INDENT).append("bd.").append(setter).append("(").append(value).append(");\n");
+	}
+
+	private static void appendMergeEnabled(StringBuilder code, String variable, boolean mergeEnabled) {
+		if (mergeEnabled) {
+			code.append(INDENT).append(variable).append(".setMergeEnabled(true);\n");
+		}
+	}
+
+	private static String literal(@Nullable String value) {
+		if (value == null) {
+			return "null";
+		}
+		StringBuilder literal = new StringBuilder(value.length() + 2);
+		literal.append('"');
+		for (char ch : value.toCharArray()) {
+			if (ch == '"' || ch == '\\') {
+				literal.append('\\').append(ch);
+			}
+			else if (ch < 0x20 || ch > 0x7e) {
+				literal.append(String.format("\\u%04x", (int) ch));
+			}
+			else {
+				literal.append(ch);
+			}
+		}
+		return literal.append('"').toString();
+	}
+
+	private static IllegalStateException unsupported(String beanName, String construct) {
+		return new IllegalStateException("Cannot generate bean definition '" + beanName +
+				"' ahead of time: unsupported " + construct);
+	}
+
+
+	/**
+	 * Generate registrars for configuration classes from the command line.
+	 * @param args the output directory followed by the fully qualified names
+	 * of the configuration classes to process
+	 * @throws Exception in case of class loading or I/O errors
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length < 2) {
+			throw new IllegalArgumentException(
+					"Usage: ConfigurationRegistrarGenerator <outputDirectory> <configClass>...");
+		}
+		File outputDirectory = new File(args[0]);
+		ConfigurationRegistrarGenerator generator = new ConfigurationRegistrarGenerator();
+		for (int i = 1; i < args.length; i++) {
+			Class<?> configClass = ClassUtils.forName(args[i], generator.classLoader);
+			generator.generateRegistrar(configClass, outputDirectory);
+		}
+	}
+
+
+	/**
+	 * Holder for the imports of the generated source and the local variable
+	 * naming state of the method currently being generated.
+	 */
+	private static class SourceBuilder {
+
+		final Set<String> imports = new TreeSet<>();
+
+		int variableCount;
+
+		void addImport(Class<?> type) {
+			this.imports.add(type.getName());
+		}
+
+		String nextVariable(String prefix) {
+			return prefix + this.variableCount++;
+		}
+	}
+
+}
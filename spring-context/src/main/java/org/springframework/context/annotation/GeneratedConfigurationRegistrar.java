@@ -0,0 +1,80 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+
+/**
+ * Interface implemented by classes generated ahead of time for a
+ * {@link Configuration @Configuration} class, registering the bean definitions
+ * that parsing the configuration class would otherwise produce at runtime.
+ *
+ * <p>A generated registrar is named after its configuration class plus the
+ * {@link #CLASS_NAME_SUFFIX} and lives in the same package. If a registrar is
+ * present for each configuration class candidate, {@link ConfigurationClassPostProcessor}
+ * registers the generated bean definitions directly instead of parsing the
+ * configuration classes, evaluating their conditions and scanning for components.
+ * A registrar is only used if it has been generated for the profiles that are
+ * effective at runtime and if its configuration class has not been changed since;
+ * otherwise the configuration classes are parsed as usual.
+ *
+ * @since 5.0.11
+ * @see ConfigurationRegistrarGenerator
+ * @see ConfigurationClassPostProcessor#setUseGeneratedRegistrars
+ */
+public interface GeneratedConfigurationRegistrar {
+
+	/**
+	 * Suffix appended to the name of a configuration class in order to derive
+	 * the name of its generated registrar class.
+	 */
+	String CLASS_NAME_SUFFIX = "__BeanDefinitions";
+
+
+	/**
+	 * Return the profiles that conditions have been evaluated against when
+	 * generating this registrar: the active profiles of the Environment,
+	 * or its default profiles if no profile had been activated.
+	 */
+	String[] getProfiles();
+
+	/**
+	 * Return the fingerprint of the class file of the configuration class
+	 * that this registrar has been generated for.
+	 */
+	String getConfigurationClassFingerprint();
+
+	/**
+	 * Register the generated bean definitions with the given registry.
+	 * @param registry the bean definition registry to populate
+	 */
+	void registerBeanDefinitions(BeanDefinitionRegistry registry);
+
+	/**
+	 * Return the names of the importing classes for the imported configuration
+	 * classes among the generated bean definitions, in order to support
+	 * {@link ImportAware} configuration classes.
+	 * @return a Map from imported class name to importing class name
+	 */
+	default Map<String, String> getImportingClasses() {
+		return Collections.emptyMap();
+	}
+
+}
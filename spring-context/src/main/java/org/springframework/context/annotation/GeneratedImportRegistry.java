@@ -0,0 +1,77 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.StandardAnnotationMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+/**
+ * {@link ImportRegistry} backed by the import relationships recorded in
+ * {@link GeneratedConfigurationRegistrar generated registrars}, introspecting
+ * an importing class only once its metadata is actually requested.
+ *
+ * @since 5.0.11
+ */
+final class GeneratedImportRegistry implements ImportRegistry {
+
+	/** Map from imported class name to importing class name */
+	private final Map<String, String> importingClasses;
+
+	@Nullable
+	private final ClassLoader classLoader;
+
+	/** Cache of introspected metadata per importing class name */
+	private final Map<String, AnnotationMetadata> metadataCache = new ConcurrentHashMap<>();
+
+
+	GeneratedImportRegistry(Map<String, String> importingClasses, @Nullable ClassLoader classLoader) {
+		this.importingClasses = new ConcurrentHashMap<>(importingClasses);
+		this.classLoader = classLoader;
+	}
+
+
+	@Override
+	@Nullable
+	public AnnotationMetadata getImportingClassFor(String importedClass) {
+		String importingClass = this.importingClasses.get(importedClass);
+		if (importingClass == null) {
+			return null;
+		}
+		return this.metadataCache.computeIfAbsent(importingClass, this::introspect);
+	}
+
+	@Override
+	public void removeImportingClass(String importingClass) {
+		this.importingClasses.values().removeIf(importingClass::equals);
+	}
+
+	private AnnotationMetadata introspect(String className) {
+		try {
+			// Nested annotations as maps, consistent with ASM-based parsing
+			return new StandardAnnotationMetadata(ClassUtils.forName(className, this.classLoader), true);
+		}
+		catch (ClassNotFoundException | LinkageError ex) {
+			throw new IllegalStateException("Failed to introspect importing class [" + className + "]", ex);
+		}
+	}
+
+}
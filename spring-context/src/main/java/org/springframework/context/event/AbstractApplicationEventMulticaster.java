@@ -18,6 +18,7 @@ package org.springframework.context.event;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -362,6 +363,9 @@ public abstract class AbstractApplicationEventMulticaster
 	 * Helper class that encapsulates a specific set of target listeners,
 	 * allowing for efficient retrieval of pre-filtered listeners.
 	 * <p>An instance of this helper gets cached per event type and source type.
+	 * Once populated, a pre-filtered retriever for singleton listeners only
+	 * serves an immutable sorted list of its listeners, built on first access:
+	 * the cached retrievers get discarded whenever the listeners change anyway.
 	 */
 	private class ListenerRetriever {
 
@@ -371,11 +375,22 @@ public abstract class AbstractApplicationEventMulticaster
 
 		private final boolean preFiltered;
 
+		@Nullable
+		private volatile List<ApplicationListener<?>> preFilteredListeners;
+
 		public ListenerRetriever(boolean preFiltered) {
 			this.preFiltered = preFiltered;
 		}
 
 		public Collection<ApplicationListener<?>> getApplicationListeners() {
+			if (this.preFiltered && this.applicationListenerBeans.isEmpty()) {
+				List<ApplicationListener<?>> listeners = this.preFilteredListeners;
+				if (listeners == null) {
+					listeners = Collections.unmodifiableList(new ArrayList<>(this.applicationListeners));
+					this.preFilteredListeners = listeners;
+				}
+				return listeners;
+			}
 			List<ApplicationListener<?>> allListeners = new ArrayList<>(
 					this.applicationListeners.size() + this.applicationListenerBeans.size());
 			allListeners.addAll(this.applicationListeners);
@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.BiFunction;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -77,6 +78,8 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 
 	private final int order;
 
+	private final GeneratedListenerMethodInvoker generatedInvoker;
+
 	@Nullable
 	private ApplicationContext applicationContext;
 
@@ -95,6 +98,7 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		this.declaredEventTypes = resolveDeclaredEventTypes(method, ann);
 		this.condition = (ann != null ? ann.condition() : null);
 		this.order = resolveOrder(method);
+		this.generatedInvoker = new GeneratedListenerMethodInvoker(this.method);
 	}
 
 
@@ -237,7 +241,12 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		}
 	}
 
-	private boolean shouldHandle(ApplicationEvent event, @Nullable Object[] args) {
+	/**
+	 * Determine whether the specified event should be handled, given its resolved
+	 * method arguments, evaluating the {@link #getCondition() condition} if any.
+	 * @since 5.0.11
+	 */
+	protected boolean shouldHandle(ApplicationEvent event, @Nullable Object[] args) {
 		if (args == null) {
 			return false;
 		}
@@ -250,12 +259,40 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		return true;
 	}
 
+	/**
+	 * Evaluate the given SpEL expression for the specified event and its resolved
+	 * method arguments, exposing the same root object and variables as for the
+	 * {@link #getCondition() condition}.
+	 * @since 5.0.11
+	 */
+	@Nullable
+	protected Object evaluateExpression(String expression, ApplicationEvent event, Object[] args) {
+		Assert.notNull(this.evaluator, "EventExpressionEvaluator must not be null");
+		return this.evaluator.evaluate(
+				expression, event, this.targetMethod, this.methodKey, args, this.applicationContext);
+	}
+
 	/**
 	 * Invoke the event listener method with the given argument values.
+	 * <p>Frequently invoked public methods of public classes get called through
+	 * a generated invoker rather than through reflection.
 	 */
 	@Nullable
 	protected Object doInvoke(Object... args) {
 		Object bean = getTargetBean();
+		BiFunction<Object, Object, Object> invoker = this.generatedInvoker.getInvoker(bean, args);
+		if (invoker != null) {
+			try {
+				return invoker.apply(bean, (args.length > 0 ? args[0] : null));
+			}
+			catch (RuntimeException ex) {
+				throw ex;
+			}
+			catch (Throwable ex) {
+				String msg = getInvocationErrorMessage(bean, "Failed to invoke event listener method", args);
+				throw new UndeclaredThrowableException(ex, msg);
+			}
+		}
 		ReflectionUtils.makeAccessible(this.method);
 		try {
 			return this.method.invoke(bean, args);
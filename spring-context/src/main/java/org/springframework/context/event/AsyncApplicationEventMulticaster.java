@@ -0,0 +1,571 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.ResolvableType;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+import org.springframework.util.ErrorHandler;
+
+/**
+ * {@link ApplicationEventMulticaster} implementation which hands events over
+ * to a fixed number of bounded queues ("shards"), each of them drained by a
+ * single worker thread invoking all matching listeners. This takes the
+ * listener invocations off the publishing thread while keeping them ordered:
+ * events with the same {@link #setRoutingKeyResolver routing key} end up in
+ * the same shard and reach each listener in the order of publication.
+ *
+ * <p>Publishers are throttled once the queue of a shard is full, according to
+ * the configured {@link OverflowPolicy}. Listeners implementing
+ * {@link BatchApplicationListener} receive all events queued for them at a time
+ * in a single call. Exceptions thrown by listeners are handed to the
+ * {@link #setErrorHandler ErrorHandler}, if any, and are logged otherwise;
+ * they never stop the delivery to other listeners or reach the publisher.
+ *
+ * <p>{@link ApplicationContextEvent ApplicationContextEvents} such as
+ * {@link ContextRefreshedEvent} and {@link ContextClosedEvent} are delivered
+ * synchronously in the publishing thread, since the context lifecycle relies
+ * on their listeners having run once the event has been published.
+ *
+ * <p>The worker threads get started on the first published event. On
+ * {@link #destroy()}, typically on context close, the already queued events
+ * get delivered for up to {@link #setAwaitTerminationSeconds 10 seconds},
+ * while any subsequently published events get delivered in the calling thread.
+ *
+ * <p>Note that listener invocations will not participate in the publisher's
+ * thread context (class loader, transaction association).
+ *
+ * @since 5.0.11
+ * @see SimpleApplicationEventMulticaster
+ * @see BatchApplicationListener
+ */
+public class AsyncApplicationEventMulticaster extends SimpleApplicationEventMulticaster implements DisposableBean {
+
+	/**
+	 * Policy for events published while the queue of their shard is full.
+	 */
+	public enum OverflowPolicy {
+
+		/**
+		 * Block the publisher until the shard's queue has space again.
+		 */
+		BLOCK,
+
+		/**
+		 * Discard the event, counting it as {@link #getDroppedEventCount() dropped}.
+		 */
+		DROP,
+
+		/**
+		 * Deliver the event in the publisher's thread, along with the events
+		 * queued in the shard so far: the publisher waits for the shard's worker
+		 * to finish its current delivery and then delivers the queued events
+		 * before the new one, preserving the order per routing key.
+		 */
+		CALLER_RUNS
+	}
+
+
+	private static final long POLL_TIMEOUT_MILLIS = 100;
+
+	private static final long WORKER_START_TIMEOUT_MILLIS = 5000;
+
+	private final Log logger = LogFactory.getLog(getClass());
+
+	private int shardCount = Runtime.getRuntime().availableProcessors();
+
+	private int queueCapacity = 1024;
+
+	private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+	private Function<ApplicationEvent, Object> routingKeyResolver = ApplicationEvent::getSource;
+
+	private int maxBatchSize = 100;
+
+	private long awaitTerminationMillis = 10000;
+
+	private ThreadFactory threadFactory = createDefaultThreadFactory();
+
+	@Nullable
+	private volatile Shard[] shards;
+
+	private volatile boolean shutdown;
+
+	private final Object lifecycleMonitor = new Object();
+
+	private final LongAdder dispatchedCount = new LongAdder();
+
+	private final LongAdder droppedCount = new LongAdder();
+
+	private final LongAdder totalLatencyNanos = new LongAdder();
+
+
+	/**
+	 * Create a new AsyncApplicationEventMulticaster.
+	 */
+	public AsyncApplicationEventMulticaster() {
+	}
+
+	/**
+	 * Create a new AsyncApplicationEventMulticaster for the given BeanFactory.
+	 */
+	public AsyncApplicationEventMulticaster(BeanFactory beanFactory) {
+		super(beanFactory);
+	}
+
+
+	/**
+	 * Set the number of shards, i.e. of queues and worker threads.
+	 * <p>Default is the number of available processors.
+	 */
+	public void setShardCount(int shardCount) {
+		Assert.isTrue(shardCount > 0, "Shard count must be greater than 0");
+		this.shardCount = shardCount;
+	}
+
+	/**
+	 * Set the maximum number of events queued per shard.
+	 * <p>Default is 1024.
+	 * @see #setOverflowPolicy
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		Assert.isTrue(queueCapacity > 0, "Queue capacity must be greater than 0");
+		this.queueCapacity = queueCapacity;
+	}
+
+	/**
+	 * Set the policy for events published while the queue of their shard is full.
+	 * <p>Default is {@link OverflowPolicy#BLOCK}.
+	 */
+	public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+		Assert.notNull(overflowPolicy, "OverflowPolicy must not be null");
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	/**
+	 * Set the function determining the routing key of an event: events with
+	 * equal routing keys are delivered by the same shard, in the order of
+	 * publication. A {@code null} key routes an event to the first shard.
+	 * <p>Default is the {@link ApplicationEvent#getSource() event source}.
+	 * Note that this is the publishing {@code ApplicationContext} for events
+	 * published as plain objects, which therefore all share one shard: consider
+	 * routing by a property of the {@link org.springframework.context.PayloadApplicationEvent#getPayload()
+	 * payload} instead, e.g. the identifier of the affected entity.
+	 */
+	public void setRoutingKeyResolver(Function<ApplicationEvent, Object> routingKeyResolver) {
+		Assert.notNull(routingKeyResolver, "Routing key resolver must not be null");
+		this.routingKeyResolver = routingKeyResolver;
+	}
+
+	/**
+	 * Set the maximum number of events taken from a shard's queue at a time,
+	 * i.e. the maximum number of events handed to a
+	 * {@link BatchApplicationListener} in a single call.
+	 * <p>Default is 100.
+	 */
+	public void setMaxBatchSize(int maxBatchSize) {
+		Assert.isTrue(maxBatchSize > 0, "Max batch size must be greater than 0");
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * Set the maximum number of seconds that {@link #destroy()} waits for
+	 * already queued events to be delivered.
+	 * <p>Default is 10 seconds.
+	 */
+	public void setAwaitTerminationSeconds(int awaitTerminationSeconds) {
+		this.awaitTerminationMillis = awaitTerminationSeconds * 1000L;
+	}
+
+	/**
+	 * Set the factory for the worker threads.
+	 * <p>Default is a factory for daemon threads named "async-event-" plus
+	 * a sequence number. Alternatively, a {@link #setTaskExecutor task executor}
+	 * may be specified to run the workers on, with one thread per shard
+	 * being occupied for the lifetime of this multicaster: an executor which
+	 * does not start a worker for each shard in a separate thread within a few
+	 * seconds is rejected with an {@link IllegalStateException} on publication.
+	 */
+	public void setThreadFactory(ThreadFactory threadFactory) {
+		Assert.notNull(threadFactory, "ThreadFactory must not be null");
+		this.threadFactory = threadFactory;
+	}
+
+	private static ThreadFactory createDefaultThreadFactory() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("async-event-");
+		threadFactory.setDaemon(true);
+		return threadFactory;
+	}
+
+
+	@Override
+	public void multicastEvent(ApplicationEvent event, @Nullable ResolvableType eventType) {
+		ResolvableType type = (eventType != null ? eventType : ResolvableType.forInstance(event));
+		Collection<ApplicationListener<?>> listeners = getApplicationListeners(event, type);
+		if (listeners.isEmpty()) {
+			return;
+		}
+		EventDelivery delivery = new EventDelivery(event, listeners);
+		if (event instanceof ApplicationContextEvent) {
+			// Context lifecycle event -> deliver in the calling thread
+			dispatch(Collections.singletonList(delivery));
+			return;
+		}
+		Shard[] shards = getShards();
+		if (shards == null) {
+			// Shut down already -> deliver in the calling thread
+			dispatch(Collections.singletonList(delivery));
+			return;
+		}
+		Object routingKey = this.routingKeyResolver.apply(event);
+		int index = (routingKey != null ? Math.floorMod(routingKey.hashCode(), shards.length) : 0);
+		shards[index].submit(delivery);
+	}
+
+	@Nullable
+	private Shard[] getShards() {
+		Shard[] shards = this.shards;
+		if (shards == null && !this.shutdown) {
+			synchronized (this.lifecycleMonitor) {
+				shards = this.shards;
+				if (shards == null && !this.shutdown) {
+					shards = startShards();
+					this.shards = shards;
+				}
+			}
+		}
+		return (this.shutdown ? null : shards);
+	}
+
+	private Shard[] startShards() {
+		Shard[] shards = new Shard[this.shardCount];
+		CountDownLatch started = new CountDownLatch(shards.length);
+		Executor executor = getTaskExecutor();
+		boolean allStarted = false;
+		try {
+			for (int i = 0; i < shards.length; i++) {
+				shards[i] = new Shard(this.queueCapacity, started);
+				if (executor != null) {
+					executor.execute(shards[i]);
+				}
+				else {
+					this.threadFactory.newThread(shards[i]).start();
+				}
+			}
+			allStarted = started.await(WORKER_START_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		finally {
+			if (!allStarted) {
+				for (Shard shard : shards) {
+					if (shard != null) {
+						shard.aborted = true;
+					}
+				}
+			}
+		}
+		if (!allStarted) {
+			throw new IllegalStateException("Only " + (shards.length - started.getCount()) + " of " +
+					shards.length + " event shard workers started: the task executor needs to provide " +
+					"a separate thread per shard for the lifetime of the multicaster");
+		}
+		return shards;
+	}
+
+	/**
+	 * Deliver the given events to their listeners, handing all of the given
+	 * events for a {@link BatchApplicationListener} over at once.
+	 */
+	private void dispatch(List<EventDelivery> deliveries) {
+		long now = System.nanoTime();
+		Map<BatchApplicationListener<?>, List<ApplicationEvent>> batches = null;
+		for (EventDelivery delivery : deliveries) {
+			this.totalLatencyNanos.add(now - delivery.timestamp);
+			for (ApplicationListener<?> listener : delivery.listeners) {
+				if (listener instanceof BatchApplicationListener && deliveries.size() > 1) {
+					if (batches == null) {
+						batches = new LinkedHashMap<>();
+					}
+					batches.computeIfAbsent((BatchApplicationListener<?>) listener, key -> new ArrayList<>())
+							.add(delivery.event);
+				}
+				else {
+					try {
+						invokeListener(listener, delivery.event);
+					}
+					catch (Throwable ex) {
+						logger.error("Failed to deliver event " + delivery.event + " to listener " + listener, ex);
+					}
+				}
+			}
+		}
+		if (batches != null) {
+			batches.forEach(this::invokeBatchListener);
+		}
+		this.dispatchedCount.add(deliveries.size());
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private void invokeBatchListener(BatchApplicationListener listener, List<ApplicationEvent> events) {
+		ErrorHandler errorHandler = getErrorHandler();
+		try {
+			try {
+				listener.onApplicationEvents(events);
+			}
+			catch (Throwable ex) {
+				if (errorHandler == null) {
+					throw ex;
+				}
+				errorHandler.handleError(ex);
+			}
+		}
+		catch (Throwable ex) {
+			logger.error("Failed to deliver " + events.size() + " events to listener " + listener, ex);
+		}
+	}
+
+	/**
+	 * Stop accepting events for asynchronous delivery and wait for the
+	 * already queued events to be delivered.
+	 * @see #setAwaitTerminationSeconds
+	 */
+	@Override
+	public void destroy() throws InterruptedException {
+		Shard[] shards;
+		synchronized (this.lifecycleMonitor) {
+			this.shutdown = true;
+			shards = this.shards;
+		}
+		if (shards != null) {
+			long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.awaitTerminationMillis);
+			for (Shard shard : shards) {
+				if (!shard.terminated.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+					logger.warn("Timed out while waiting for " + getQueueDepth() + " queued events to be delivered");
+					return;
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Return the number of events currently queued across all shards.
+	 */
+	public int getQueueDepth() {
+		Shard[] shards = this.shards;
+		int depth = 0;
+		if (shards != null) {
+			for (Shard shard : shards) {
+				depth += shard.queue.size();
+			}
+		}
+		return depth;
+	}
+
+	/**
+	 * Return the number of events delivered to their listeners so far.
+	 */
+	public long getDispatchedEventCount() {
+		return this.dispatchedCount.sum();
+	}
+
+	/**
+	 * Return the number of events discarded due to {@link OverflowPolicy#DROP}
+	 * or due to the publishing thread being interrupted while blocked.
+	 */
+	public long getDroppedEventCount() {
+		return this.droppedCount.sum();
+	}
+
+	/**
+	 * Return the average time in nanoseconds between the publication of an
+	 * event and the start of its delivery to the listeners.
+	 */
+	public long getAverageLatencyNanos() {
+		long count = this.dispatchedCount.sum();
+		return (count > 0 ? this.totalLatencyNanos.sum() / count : 0);
+	}
+
+
+	/**
+	 * An event to be delivered to its pre-determined listeners.
+	 */
+	private static final class EventDelivery {
+
+		final ApplicationEvent event;
+
+		final Collection<ApplicationListener<?>> listeners;
+
+		final long timestamp = System.nanoTime();
+
+		EventDelivery(ApplicationEvent event, Collection<ApplicationListener<?>> listeners) {
+			this.event = event;
+			this.listeners = listeners;
+		}
+	}
+
+
+	/**
+	 * A bounded queue of events with a single worker delivering them.
+	 */
+	private class Shard implements Runnable {
+
+		final BlockingQueue<EventDelivery> queue;
+
+		final CountDownLatch terminated = new CountDownLatch(1);
+
+		/** Held by the thread delivering events of this shard, to keep them in order */
+		final Lock dispatchLock = new ReentrantLock();
+
+		private final CountDownLatch started;
+
+		@Nullable
+		private volatile Thread startingThread = Thread.currentThread();
+
+		volatile boolean aborted;
+
+		Shard(int capacity, CountDownLatch started) {
+			this.queue = new ArrayBlockingQueue<>(capacity);
+			this.started = started;
+		}
+
+		void submit(EventDelivery delivery) {
+			switch (overflowPolicy) {
+				case BLOCK:
+					try {
+						while (!this.queue.offer(delivery, POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+							if (shutdown) {
+								dispatch(Collections.singletonList(delivery));
+								return;
+							}
+						}
+					}
+					catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+						drop(delivery);
+						return;
+					}
+					break;
+				case DROP:
+					if (!this.queue.offer(delivery)) {
+						drop(delivery);
+						return;
+					}
+					break;
+				default:
+					if (!this.queue.offer(delivery)) {
+						// Deliver after the queued events and any delivery in progress
+						this.dispatchLock.lock();
+						try {
+							List<EventDelivery> deliveries = new ArrayList<>(this.queue.size() + 1);
+							this.queue.drainTo(deliveries);
+							deliveries.add(delivery);
+							dispatch(deliveries);
+						}
+						finally {
+							this.dispatchLock.unlock();
+						}
+						return;
+					}
+			}
+			if (shutdown && this.terminated.getCount() == 0) {
+				// Worker gone in the meantime -> deliver any leftovers in the calling thread
+				this.dispatchLock.lock();
+				try {
+					EventDelivery leftover;
+					while ((leftover = this.queue.poll()) != null) {
+						dispatch(Collections.singletonList(leftover));
+					}
+				}
+				finally {
+					this.dispatchLock.unlock();
+				}
+			}
+		}
+
+		private void drop(EventDelivery delivery) {
+			droppedCount.increment();
+			if (logger.isDebugEnabled()) {
+				logger.debug("Dropped event " + delivery.event + " due to full queue");
+			}
+		}
+
+		@Override
+		public void run() {
+			if (Thread.currentThread() == this.startingThread) {
+				throw new IllegalStateException("Event shard worker needs to run in a separate thread: " +
+						"the task executor must execute tasks asynchronously");
+			}
+			this.startingThread = null;
+			this.started.countDown();
+			List<EventDelivery> deliveries = new ArrayList<>(maxBatchSize);
+			try {
+				while (!this.aborted && (!shutdown || !this.queue.isEmpty())) {
+					// Waits for the next event with the lock held, which is only
+					// contended once the queue is full, i.e. when polling returns
+					this.dispatchLock.lockInterruptibly();
+					try {
+						EventDelivery delivery = this.queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+						if (delivery != null) {
+							deliveries.add(delivery);
+							this.queue.drainTo(deliveries, maxBatchSize - 1);
+							dispatch(deliveries);
+							deliveries.clear();
+						}
+					}
+					finally {
+						this.dispatchLock.unlock();
+					}
+				}
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			finally {
+				this.terminated.countDown();
+			}
+		}
+	}
+
+}
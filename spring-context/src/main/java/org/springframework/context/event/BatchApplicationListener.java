@@ -0,0 +1,56 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+
+/**
+ * Variant of the standard {@link ApplicationListener} interface for listeners
+ * which are able to process several events at once, e.g. for writing them
+ * to a store with a single round-trip.
+ *
+ * <p>An {@link AsyncApplicationEventMulticaster} hands all events queued for
+ * such a listener at a time over in a single call, in the order of publication.
+ * Any other multicaster simply delivers the events one by one.
+ *
+ * @since 5.0.11
+ * @param <E> the specific ApplicationEvent subclass to listen to
+ * @see AsyncApplicationEventMulticaster#setMaxBatchSize
+ */
+@FunctionalInterface
+public interface BatchApplicationListener<E extends ApplicationEvent> extends ApplicationListener<E> {
+
+	/**
+	 * Handle the given application events.
+	 * @param events the events to respond to, in the order of publication
+	 */
+	void onApplicationEvents(List<E> events);
+
+	/**
+	 * Handle a single application event, delegating to {@link #onApplicationEvents}.
+	 * @param event the event to respond to
+	 */
+	@Override
+	default void onApplicationEvent(E event) {
+		onApplicationEvents(Collections.singletonList(event));
+	}
+
+}
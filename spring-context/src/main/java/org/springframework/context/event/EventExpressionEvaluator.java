@@ -17,8 +17,6 @@
 package org.springframework.context.event;
 
 import java.lang.reflect.Method;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.context.ApplicationEvent;
@@ -26,7 +24,6 @@ import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.context.expression.BeanFactoryResolver;
 import org.springframework.context.expression.CachedExpressionEvaluator;
 import org.springframework.context.expression.MethodBasedEvaluationContext;
-import org.springframework.expression.Expression;
 import org.springframework.lang.Nullable;
 
 /**
@@ -39,24 +36,38 @@ import org.springframework.lang.Nullable;
  */
 class EventExpressionEvaluator extends CachedExpressionEvaluator {
 
-	private final Map<ExpressionKey, Expression> conditionCache = new ConcurrentHashMap<>(64);
-
-
 	/**
 	 * Specify if the condition defined by the specified expression matches.
 	 */
 	public boolean condition(String conditionExpression, ApplicationEvent event, Method targetMethod,
 			AnnotatedElementKey methodKey, Object[] args, @Nullable BeanFactory beanFactory) {
 
+		return (Boolean.TRUE.equals(getExpression(methodKey, conditionExpression).getValue(
+				createEvaluationContext(event, targetMethod, args, beanFactory), Boolean.class)));
+	}
+
+	/**
+	 * Evaluate the specified expression, e.g. for determining a key.
+	 * @since 5.0.11
+	 */
+	@Nullable
+	public Object evaluate(String expression, ApplicationEvent event, Method targetMethod,
+			AnnotatedElementKey methodKey, Object[] args, @Nullable BeanFactory beanFactory) {
+
+		return getExpression(methodKey, expression).getValue(
+				createEvaluationContext(event, targetMethod, args, beanFactory));
+	}
+
+	private MethodBasedEvaluationContext createEvaluationContext(ApplicationEvent event, Method targetMethod,
+			Object[] args, @Nullable BeanFactory beanFactory) {
+
 		EventExpressionRootObject root = new EventExpressionRootObject(event, args);
 		MethodBasedEvaluationContext evaluationContext = new MethodBasedEvaluationContext(
-				root, targetMethod, args, getParameterNameDiscoverer());
+				root, targetMethod, args, getArgumentBindings(targetMethod));
 		if (beanFactory != null) {
 			evaluationContext.setBeanResolver(new BeanFactoryResolver(beanFactory));
 		}
-
-		return (Boolean.TRUE.equals(getExpression(this.conditionCache, methodKey, conditionExpression).getValue(
-				evaluationContext, Boolean.class)));
+		return evaluationContext;
 	}
 
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.LambdaFactoryUtils;
+
+/**
+ * Direct invoker for an {@link EventListener} method, calling it through a
+ * {@link LambdaFactoryUtils generated} function instead of reflection.
+ * Held by {@link ApplicationListenerMethodAdapter}.
+ *
+ * <p>A function only gets generated once the method has been invoked reflectively
+ * {@link LambdaFactoryUtils#GENERATION_THRESHOLD} times, in order to not spend time
+ * on listeners which only receive a few events such as context lifecycle notifications.
+ *
+ * @since 5.0.11
+ * @see ApplicationListenerMethodAdapter#doInvoke
+ */
+final class GeneratedListenerMethodInvoker {
+
+	private final Method method;
+
+	@Nullable
+	private volatile BiFunction<Object, Object, Object> invoker;
+
+	private volatile boolean unsupported;
+
+	/** Racy invocation counter: an approximate count is good enough */
+	private volatile int invocationCount;
+
+
+	GeneratedListenerMethodInvoker(Method method) {
+		this.method = method;
+		this.unsupported = (method.getParameterCount() > 1 || Modifier.isStatic(method.getModifiers()));
+	}
+
+
+	/**
+	 * Return the generated invoker for the given target bean and arguments,
+	 * generating it once the method has been invoked often enough.
+	 * @param bean the target bean, which the invoker needs to be able to
+	 * operate on (e.g. not a JDK proxy which does not implement the method)
+	 * @param args the arguments, which the invoker needs to be able to accept
+	 * without a type mismatch (e.g. {@code null} for a primitive type)
+	 * @return the invoker, taking the target bean and the single argument
+	 * (or {@code null} for a method without parameters), or {@code null}
+	 * if reflection has to be used
+	 */
+	@Nullable
+	BiFunction<Object, Object, Object> getInvoker(Object bean, Object[] args) {
+		if (this.unsupported || args.length != this.method.getParameterCount() ||
+				!this.method.getDeclaringClass().isInstance(bean) ||
+				(args.length == 1 && !ClassUtils.isAssignableValue(this.method.getParameterTypes()[0], args[0]))) {
+			return null;
+		}
+		BiFunction<Object, Object, Object> invoker = this.invoker;
+		if (invoker == null && this.invocationCount++ >= LambdaFactoryUtils.GENERATION_THRESHOLD) {
+			invoker = generateInvoker();
+			if (invoker != null) {
+				this.invoker = invoker;
+			}
+			else {
+				this.unsupported = true;
+			}
+		}
+		return invoker;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Nullable
+	private BiFunction<Object, Object, Object> generateInvoker() {
+		Method method = this.method;
+		boolean hasResult = (method.getReturnType() != void.class);
+		if (method.getParameterCount() == 0) {
+			if (hasResult) {
+				Function<Object, Object> function = LambdaFactoryUtils.generateFunction(method, Function.class);
+				return (function != null ? (bean, arg) -> function.apply(bean) : null);
+			}
+			Consumer<Object> consumer = LambdaFactoryUtils.generateFunction(method, Consumer.class);
+			return (consumer != null ? (bean, arg) -> {
+				consumer.accept(bean);
+				return null;
+			} : null);
+		}
+		if (hasResult) {
+			return LambdaFactoryUtils.generateFunction(method, BiFunction.class);
+		}
+		BiConsumer<Object, Object> consumer = LambdaFactoryUtils.generateFunction(method, BiConsumer.class);
+		return (consumer != null ? (bean, arg) -> {
+			consumer.accept(bean, arg);
+			return null;
+		} : null);
+	}
+
+}
@@ -16,7 +16,9 @@
 
 package org.springframework.context.expression;
 
+import java.lang.reflect.Method;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.ParameterNameDiscoverer;
@@ -29,6 +31,11 @@ import org.springframework.util.ObjectUtils;
  * Shared utility class used to evaluate and cache SpEL expressions that
  * are defined on {@link java.lang.reflect.AnnotatedElement}.
  *
+ * <p>As of 5.0.11, expressions may be cached in a bounded {@link ExpressionCache}
+ * held by the evaluator, see {@link #getExpression(AnnotatedElementKey, String)},
+ * and {@link MethodArgumentBindings} are cached per method for the creation of
+ * {@link MethodBasedEvaluationContext} instances.
+ *
  * @author Stephane Nicoll
  * @since 4.2
  * @see AnnotatedElementKey
@@ -37,19 +44,36 @@ public abstract class CachedExpressionEvaluator {
 
 	private final SpelExpressionParser parser;
 
+	private final ExpressionCache expressionCache;
+
 	private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
 
+	private final Map<Method, MethodArgumentBindings> argumentBindingsCache = new ConcurrentHashMap<>(64);
+
 
 	/**
-	 * Create a new instance with the specified {@link SpelExpressionParser}.
+	 * Create a new instance with the specified {@link SpelExpressionParser}
+	 * and the specified {@link ExpressionCache}.
+	 * @since 5.0.11
 	 */
-	protected CachedExpressionEvaluator(SpelExpressionParser parser) {
+	protected CachedExpressionEvaluator(SpelExpressionParser parser, ExpressionCache expressionCache) {
 		Assert.notNull(parser, "SpelExpressionParser must not be null");
+		Assert.notNull(expressionCache, "ExpressionCache must not be null");
 		this.parser = parser;
+		this.expressionCache = expressionCache;
 	}
 
 	/**
-	 * Create a new instance with a default {@link SpelExpressionParser}.
+	 * Create a new instance with the specified {@link SpelExpressionParser}
+	 * and an {@link ExpressionCache} of its own.
+	 */
+	protected CachedExpressionEvaluator(SpelExpressionParser parser) {
+		this(parser, new ExpressionCache());
+	}
+
+	/**
+	 * Create a new instance with a default {@link SpelExpressionParser}
+	 * and an {@link ExpressionCache} of its own.
 	 */
 	protected CachedExpressionEvaluator() {
 		this(new SpelExpressionParser());
@@ -71,6 +95,38 @@ public abstract class CachedExpressionEvaluator {
 		return this.parameterNameDiscoverer;
 	}
 
+	/**
+	 * Return the {@link ExpressionCache} to use.
+	 * @since 5.0.11
+	 */
+	protected ExpressionCache getExpressionCache() {
+		return this.expressionCache;
+	}
+
+	/**
+	 * Return the {@link MethodArgumentBindings} for the specified method,
+	 * determining them through the {@link #getParameterNameDiscoverer()
+	 * parameter name discoverer} if not cached yet.
+	 * @param method the method to expose the arguments of
+	 * @since 5.0.11
+	 */
+	protected MethodArgumentBindings getArgumentBindings(Method method) {
+		MethodArgumentBindings bindings = this.argumentBindingsCache.get(method);
+		if (bindings == null) {
+			bindings = MethodArgumentBindings.forMethod(method, this.parameterNameDiscoverer);
+			this.argumentBindingsCache.put(method, bindings);
+		}
+		return bindings;
+	}
+
+	/**
+	 * Remove all cached {@link MethodArgumentBindings}.
+	 * @since 5.0.11
+	 */
+	protected void clearArgumentBindings() {
+		this.argumentBindingsCache.clear();
+	}
+
 
 	/**
 	 * Return the {@link Expression} for the specified SpEL value
@@ -91,6 +147,18 @@ public abstract class CachedExpressionEvaluator {
 		return expr;
 	}
 
+	/**
+	 * Return the {@link Expression} for the specified SpEL value from the
+	 * {@link #getExpressionCache() ExpressionCache}.
+	 * <p>Parse the expression if it hasn't been already.
+	 * @param elementKey the element on which the expression is defined
+	 * @param expression the expression to parse
+	 * @since 5.0.11
+	 */
+	protected Expression getExpression(AnnotatedElementKey elementKey, String expression) {
+		return this.expressionCache.getExpression(getParser(), expression, null, elementKey);
+	}
+
 	private ExpressionKey createKey(AnnotatedElementKey elementKey, String expression) {
 		return new ExpressionKey(elementKey, expression);
 	}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.expression;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.ParserContext;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Bounded cache of parsed {@link Expression Expressions}, keyed by the parser,
+ * the {@link ParserContext}, an optional scope such as the
+ * {@link AnnotatedElementKey} that an expression is declared on, and the
+ * expression String. Since parsed expressions are shared, so is the compiled
+ * form of SpEL expressions that have been compiled.
+ *
+ * <p>Once the cache limit is reached, the least recently added expressions
+ * are evicted. Hit, miss and eviction counts are available for monitoring.
+ *
+ * <p>Each {@link CachedExpressionEvaluator} and each
+ * {@link StandardBeanExpressionResolver} holds its own instance by default,
+ * so that parsed expressions (and the classes generated for compiled SpEL
+ * expressions) do not outlive the component, and thereby the ClassLoader,
+ * that they were parsed for.
+ *
+ * @since 5.0.11
+ */
+public class ExpressionCache {
+
+	/** Default maximum number of cached expressions: 4096 */
+	public static final int DEFAULT_CACHE_LIMIT = 4096;
+
+
+	private final int cacheLimit;
+
+	/** Fast access cache for expressions, returning already parsed expressions without a global lock */
+	private final Map<Key, Expression> accessCache;
+
+	/** Map from key to expression, synchronized for additions and evictions */
+	private final Map<Key, Expression> creationCache;
+
+	private final AtomicLong hitCount = new AtomicLong();
+
+	private final AtomicLong missCount = new AtomicLong();
+
+	private final AtomicLong evictionCount = new AtomicLong();
+
+
+	/**
+	 * Create a new {@code ExpressionCache} with the default cache limit.
+	 * @see #DEFAULT_CACHE_LIMIT
+	 */
+	public ExpressionCache() {
+		this(DEFAULT_CACHE_LIMIT);
+	}
+
+	/**
+	 * Create a new {@code ExpressionCache} with the given cache limit.
+	 * @param cacheLimit the maximum number of expressions to cache
+	 */
+	@SuppressWarnings("serial")
+	public ExpressionCache(int cacheLimit) {
+		Assert.isTrue(cacheLimit > 0, "Cache limit must be greater than 0");
+		this.cacheLimit = cacheLimit;
+		this.accessCache = new ConcurrentHashMap<>(Math.min(cacheLimit, 256));
+		this.creationCache = new LinkedHashMap<Key, Expression>(Math.min(cacheLimit, 256)) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Expression> eldest) {
+				if (size() > ExpressionCache.this.cacheLimit) {
+					accessCache.remove(eldest.getKey());
+					evictionCount.incrementAndGet();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+
+	/**
+	 * Return the parsed expression for the given expression String,
+	 * parsing it with the given parser if not cached yet.
+	 * @param parser the parser to use
+	 * @param expressionString the expression String
+	 * @param parserContext the parser context to use, if any
+	 * @param scope an additional key to cache the expression under, e.g. the
+	 * {@link AnnotatedElementKey} for the element that the expression is
+	 * declared on, or {@code null} to share the expression across all uses
+	 * with the same parser and parser context
+	 * @return the parsed expression
+	 */
+	public Expression getExpression(ExpressionParser parser, String expressionString,
+			@Nullable ParserContext parserContext, @Nullable Object scope) {
+
+		Key key = new Key(parser, parserContext, scope, expressionString);
+		Expression expression = this.accessCache.get(key);
+		if (expression != null) {
+			this.hitCount.incrementAndGet();
+			return expression;
+		}
+		this.missCount.incrementAndGet();
+		expression = (parserContext != null ? parser.parseExpression(expressionString, parserContext) :
+				parser.parseExpression(expressionString));
+		synchronized (this.creationCache) {
+			Expression existing = this.creationCache.get(key);
+			if (existing != null) {
+				return existing;
+			}
+			this.accessCache.put(key, expression);
+			this.creationCache.put(key, expression);
+		}
+		return expression;
+	}
+
+	/**
+	 * Return the maximum number of cached expressions.
+	 */
+	public int getCacheLimit() {
+		return this.cacheLimit;
+	}
+
+	/**
+	 * Return the number of currently cached expressions.
+	 */
+	public int size() {
+		return this.accessCache.size();
+	}
+
+	/**
+	 * Return the number of lookups which found a cached expression.
+	 */
+	public long getHitCount() {
+		return this.hitCount.get();
+	}
+
+	/**
+	 * Return the number of lookups which required an expression to be parsed.
+	 */
+	public long getMissCount() {
+		return this.missCount.get();
+	}
+
+	/**
+	 * Return the number of expressions evicted due to the cache limit.
+	 */
+	public long getEvictionCount() {
+		return this.evictionCount.get();
+	}
+
+	/**
+	 * Remove all cached expressions.
+	 */
+	public void clear() {
+		synchronized (this.creationCache) {
+			this.accessCache.clear();
+			this.creationCache.clear();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ExpressionCache: size=" + size() + ", limit=" + this.cacheLimit + ", hits=" + getHitCount() +
+				", misses=" + getMissCount() + ", evictions=" + getEvictionCount();
+	}
+
+
+	private static final class Key {
+
+		private final ExpressionParser parser;
+
+		@Nullable
+		private final ParserContext parserContext;
+
+		@Nullable
+		private final Object scope;
+
+		private final String expressionString;
+
+		private final int hashCode;
+
+		Key(ExpressionParser parser, @Nullable ParserContext parserContext,
+				@Nullable Object scope, String expressionString) {
+
+			this.parser = parser;
+			this.parserContext = parserContext;
+			this.scope = scope;
+			this.expressionString = expressionString;
+			this.hashCode = (System.identityHashCode(parser) * 31 + ObjectUtils.nullSafeHashCode(scope)) * 29 +
+					expressionString.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof Key)) {
+				return false;
+			}
+			Key otherKey = (Key) other;
+			return (this.parser == otherKey.parser && this.parserContext == otherKey.parserContext &&
+					ObjectUtils.nullSafeEquals(this.scope, otherKey.scope) &&
+					this.expressionString.equals(otherKey.expressionString));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+	}
+
+}
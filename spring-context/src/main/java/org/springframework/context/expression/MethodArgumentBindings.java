@@ -0,0 +1,117 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.expression;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Precomputed mapping from the variable names under which a
+ * {@link MethodBasedEvaluationContext} exposes method arguments to the
+ * indexes of those arguments: "aX" and "pX" for the argument at index X,
+ * as well as the parameter names as discovered by a
+ * {@link ParameterNameDiscoverer}.
+ *
+ * <p>Instances are immutable and thread-safe, and meant to be determined once
+ * per method and then reused for all invocations of it, avoiding the
+ * discovery of parameter names and the registration of each argument as
+ * variable for every evaluation context.
+ *
+ * @since 5.0.11
+ * @see MethodBasedEvaluationContext#MethodBasedEvaluationContext(Object, Method, Object[], MethodArgumentBindings)
+ */
+public final class MethodArgumentBindings {
+
+	private final Method method;
+
+	private final int parameterCount;
+
+	private final Map<String, Integer> indexes;
+
+
+	private MethodArgumentBindings(Method method, @Nullable String[] parameterNames) {
+		this.method = method;
+		this.parameterCount = (parameterNames != null ? parameterNames.length : method.getParameterCount());
+		this.indexes = new HashMap<>(this.parameterCount * 4);
+		for (int i = 0; i < this.parameterCount; i++) {
+			this.indexes.put("a" + i, i);
+			this.indexes.put("p" + i, i);
+		}
+		if (parameterNames != null) {
+			for (int i = 0; i < parameterNames.length; i++) {
+				this.indexes.put(parameterNames[i], i);
+			}
+		}
+	}
+
+
+	/**
+	 * Return the method that these bindings apply to.
+	 */
+	public Method getMethod() {
+		return this.method;
+	}
+
+	/**
+	 * Return whether the given variable name refers to a method argument.
+	 */
+	public boolean isBound(String name) {
+		return this.indexes.containsKey(name);
+	}
+
+	/**
+	 * Return the argument that the given variable name refers to. Any arguments
+	 * beyond the number of parameters are exposed as vararg array for the last
+	 * parameter, and missing arguments as {@code null}.
+	 * @param name the variable name
+	 * @param arguments the actual method arguments
+	 * @return the argument value, or {@code null} if none
+	 */
+	@Nullable
+	public Object getArgument(String name, Object[] arguments) {
+		Integer index = this.indexes.get(name);
+		if (index == null) {
+			return null;
+		}
+		int i = index;
+		if (arguments.length > this.parameterCount && i == this.parameterCount - 1) {
+			// Expose remaining arguments as vararg array for last parameter
+			return Arrays.copyOfRange(arguments, i, arguments.length);
+		}
+		return (arguments.length > i ? arguments[i] : null);
+	}
+
+
+	/**
+	 * Determine the bindings for the given method.
+	 * @param method the method
+	 * @param parameterNameDiscoverer the discoverer to determine parameter names with
+	 * @return the bindings (never {@code null})
+	 */
+	public static MethodArgumentBindings forMethod(Method method, ParameterNameDiscoverer parameterNameDiscoverer) {
+		Assert.notNull(method, "Method must not be null");
+		Assert.notNull(parameterNameDiscoverer, "ParameterNameDiscoverer must not be null");
+		return new MethodArgumentBindings(method, parameterNameDiscoverer.getParameterNames(method));
+	}
+
+}
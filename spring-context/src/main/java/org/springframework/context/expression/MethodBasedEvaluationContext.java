@@ -35,6 +35,10 @@ import org.springframework.util.ObjectUtils;
  * <li>the name of the parameter as discovered by a configurable {@link ParameterNameDiscoverer}</li>
  * </ol>
  *
+ * <p>Arguments are either registered as variables on first access, or resolved
+ * through precomputed {@link MethodArgumentBindings} which can be shared by
+ * all evaluation contexts for the same method.
+ *
  * @author Stephane Nicoll
  * @author Juergen Hoeller
  * @since 4.2
@@ -45,8 +49,12 @@ public class MethodBasedEvaluationContext extends StandardEvaluationContext {
 
 	private final Object[] arguments;
 
+	@Nullable
 	private final ParameterNameDiscoverer parameterNameDiscoverer;
 
+	@Nullable
+	private final MethodArgumentBindings argumentBindings;
+
 	private boolean argumentsLoaded = false;
 
 
@@ -57,6 +65,26 @@ public class MethodBasedEvaluationContext extends StandardEvaluationContext {
 		this.method = method;
 		this.arguments = arguments;
 		this.parameterNameDiscoverer = parameterNameDiscoverer;
+		this.argumentBindings = null;
+	}
+
+	/**
+	 * Create a new context for the given method and arguments, resolving
+	 * argument variables through the given precomputed bindings.
+	 * @param rootObject the root object
+	 * @param method the method
+	 * @param arguments the method arguments
+	 * @param argumentBindings the bindings determined for the method
+	 * @since 5.0.11
+	 */
+	public MethodBasedEvaluationContext(Object rootObject, Method method, Object[] arguments,
+			MethodArgumentBindings argumentBindings) {
+
+		super(rootObject);
+		this.method = method;
+		this.arguments = arguments;
+		this.parameterNameDiscoverer = null;
+		this.argumentBindings = argumentBindings;
 	}
 
 
@@ -67,6 +95,9 @@ public class MethodBasedEvaluationContext extends StandardEvaluationContext {
 		if (variable != null) {
 			return variable;
 		}
+		if (this.argumentBindings != null) {
+			return this.argumentBindings.getArgument(name, this.arguments);
+		}
 		if (!this.argumentsLoaded) {
 			lazyLoadArguments();
 			this.argumentsLoaded = true;
@@ -80,7 +111,7 @@ public class MethodBasedEvaluationContext extends StandardEvaluationContext {
 	 */
 	protected void lazyLoadArguments() {
 		// Shortcut if no args need to be loaded
-		if (ObjectUtils.isEmpty(this.arguments)) {
+		if (ObjectUtils.isEmpty(this.arguments) || this.parameterNameDiscoverer == null) {
 			return;
 		}
 
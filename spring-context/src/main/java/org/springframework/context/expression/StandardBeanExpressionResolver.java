@@ -62,7 +62,7 @@ public class StandardBeanExpressionResolver implements BeanExpressionResolver {
 
 	private ExpressionParser expressionParser;
 
-	private final Map<String, Expression> expressionCache = new ConcurrentHashMap<>(256);
+	private ExpressionCache expressionCache = new ExpressionCache();
 
 	private final Map<BeanExpressionContext, StandardEvaluationContext> evaluationCache = new ConcurrentHashMap<>(8);
 
@@ -129,6 +129,16 @@ public class StandardBeanExpressionResolver implements BeanExpressionResolver {
 		this.expressionParser = expressionParser;
 	}
 
+	/**
+	 * Specify the cache to hold parsed expressions in.
+	 * <p>Default is an {@link ExpressionCache} held by this resolver.
+	 * @since 5.0.11
+	 */
+	public void setExpressionCache(ExpressionCache expressionCache) {
+		Assert.notNull(expressionCache, "ExpressionCache must not be null");
+		this.expressionCache = expressionCache;
+	}
+
 
 	@Override
 	@Nullable
@@ -137,11 +147,8 @@ public class StandardBeanExpressionResolver implements BeanExpressionResolver {
 			return value;
 		}
 		try {
-			Expression expr = this.expressionCache.get(value);
-			if (expr == null) {
-				expr = this.expressionParser.parseExpression(value, this.beanExpressionParserContext);
-				this.expressionCache.put(value, expr);
-			}
+			Expression expr = this.expressionCache.getExpression(
+					this.expressionParser, value, this.beanExpressionParserContext, null);
 			StandardEvaluationContext sec = this.evaluationCache.get(evalContext);
 			if (sec == null) {
 				sec = new StandardEvaluationContext(evalContext);
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.validation;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Binding plan for a specific target class, property accessor type and
+ * allowed/disallowed field configuration, caching the per-field decisions
+ * which {@link DataBinder} would otherwise recompute for every binding process:
+ * pattern matching against allowed and disallowed fields, and the lookup of
+ * unknown fields which would just lead to a silently ignored exception.
+ *
+ * <p>Plans are shared across binder instances. Since field names typically
+ * come from request parameters, the number of cached decisions per plan is
+ * limited, keeping the decisions for the most recently bound fields.
+ *
+ * @since 5.0.11
+ * @see DataBinder#isAllowed(String)
+ * @see DataBinder#applyPropertyValues
+ */
+final class BindingPlan {
+
+	/** Maximum number of cached decisions per plan and decision type */
+	private static final int DECISION_CACHE_LIMIT = 256;
+
+	private static final Map<Key, BindingPlan> planCache = new ConcurrentReferenceHashMap<>(64);
+
+
+	private final ConcurrentLruCache<String, Decision> allowedFields =
+			new ConcurrentLruCache<>(DECISION_CACHE_LIMIT, field -> new Decision());
+
+	private final ConcurrentLruCache<String, Decision> writableFields =
+			new ConcurrentLruCache<>(DECISION_CACHE_LIMIT, field -> new Decision());
+
+
+	private BindingPlan() {
+	}
+
+
+	/**
+	 * Determine whether the given field is allowed for binding.
+	 * @param field the canonical field name
+	 * @param matcher the pattern matcher to use for an undecided field
+	 */
+	boolean isAllowed(String field, Predicate<String> matcher) {
+		return getDecision(this.allowedFields, field, matcher);
+	}
+
+	/**
+	 * Determine whether the given simple (non-nested, non-indexed) field is
+	 * writable on the target class.
+	 * @param field the field name
+	 * @param resolver the resolver to use for an undecided field
+	 */
+	boolean isWritable(String field, Predicate<String> resolver) {
+		return getDecision(this.writableFields, field, resolver);
+	}
+
+	private static boolean getDecision(ConcurrentLruCache<String, Decision> decisions,
+			String field, Predicate<String> resolver) {
+
+		Decision decision = decisions.get(field);
+		Boolean result = decision.result;
+		if (result == null) {
+			result = resolver.test(field);
+			decision.result = result;
+		}
+		return result;
+	}
+
+
+	/**
+	 * Obtain the shared binding plan for the given configuration.
+	 * @param targetClass the class of the target object
+	 * @param accessorType the type of property accessor used for binding
+	 * @param allowedFields the allowed field patterns (may be {@code null})
+	 * @param disallowedFields the disallowed field patterns (may be {@code null})
+	 * @return the binding plan (never {@code null})
+	 */
+	static BindingPlan forConfiguration(Class<?> targetClass, Class<?> accessorType,
+			@Nullable String[] allowedFields, @Nullable String[] disallowedFields) {
+
+		Key key = new Key(targetClass, accessorType, allowedFields, disallowedFields);
+		BindingPlan plan = planCache.get(key);
+		if (plan == null) {
+			plan = new BindingPlan();
+			BindingPlan existing = planCache.putIfAbsent(key, plan);
+			if (existing != null) {
+				plan = existing;
+			}
+		}
+		return plan;
+	}
+
+
+	/**
+	 * Holder for a lazily resolved decision, since the resolver
+	 * is specific to each binder invocation.
+	 */
+	private static final class Decision {
+
+		@Nullable
+		volatile Boolean result;
+	}
+
+
+	private static final class Key {
+
+		private final Class<?> targetClass;
+
+		private final Class<?> accessorType;
+
+		@Nullable
+		private final String[] allowedFields;
+
+		@Nullable
+		private final String[] disallowedFields;
+
+		Key(Class<?> targetClass, Class<?> accessorType,
+				@Nullable String[] allowedFields, @Nullable String[] disallowedFields) {
+
+			this.targetClass = targetClass;
+			this.accessorType = accessorType;
+			this.allowedFields = (allowedFields != null ? allowedFields.clone() : null);
+			this.disallowedFields = (disallowedFields != null ? disallowedFields.clone() : null);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof Key)) {
+				return false;
+			}
+			Key otherKey = (Key) other;
+			return (this.targetClass == otherKey.targetClass && this.accessorType == otherKey.accessorType &&
+					Arrays.equals(this.allowedFields, otherKey.allowedFields) &&
+					Arrays.equals(this.disallowedFields, otherKey.disallowedFields));
+		}
+
+		@Override
+		public int hashCode() {
+			int result = this.targetClass.hashCode();
+			result = 31 * result + this.accessorType.hashCode();
+			result = 31 * result + ObjectUtils.nullSafeHashCode(this.allowedFields);
+			result = 31 * result + ObjectUtils.nullSafeHashCode(this.disallowedFields);
+			return result;
+		}
+	}
+
+}
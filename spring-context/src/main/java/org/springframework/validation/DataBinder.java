@@ -24,6 +24,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -158,6 +159,9 @@ public class DataBinder implements PropertyEditorRegistry, TypeConverter {
 
 	private final List<Validator> validators = new ArrayList<>();
 
+	@Nullable
+	private BindingPlan bindingPlan;
+
 
 	/**
 	 * Create a new DataBinder instance, with default object name.
@@ -426,6 +430,7 @@ public class DataBinder implements PropertyEditorRegistry, TypeConverter {
 	 */
 	public void setAllowedFields(@Nullable String... allowedFields) {
 		this.allowedFields = PropertyAccessorUtils.canonicalPropertyNames(allowedFields);
+		this.bindingPlan = null;
 	}
 
 	/**
@@ -450,6 +455,7 @@ public class DataBinder implements PropertyEditorRegistry, TypeConverter {
 	 */
 	public void setDisallowedFields(@Nullable String... disallowedFields) {
 		this.disallowedFields = PropertyAccessorUtils.canonicalPropertyNames(disallowedFields);
+		this.bindingPlan = null;
 	}
 
 	/**
@@ -774,8 +780,14 @@ public class DataBinder implements PropertyEditorRegistry, TypeConverter {
 	protected boolean isAllowed(String field) {
 		String[] allowed = getAllowedFields();
 		String[] disallowed = getDisallowedFields();
-		return ((ObjectUtils.isEmpty(allowed) || PatternMatchUtils.simpleMatch(allowed, field)) &&
-				(ObjectUtils.isEmpty(disallowed) || !PatternMatchUtils.simpleMatch(disallowed, field)));
+		if (ObjectUtils.isEmpty(allowed) && ObjectUtils.isEmpty(disallowed)) {
+			return true;
+		}
+		Predicate<String> matcher = candidate ->
+				((ObjectUtils.isEmpty(allowed) || PatternMatchUtils.simpleMatch(allowed, candidate)) &&
+				(ObjectUtils.isEmpty(disallowed) || !PatternMatchUtils.simpleMatch(disallowed, candidate)));
+		BindingPlan plan = getBindingPlan();
+		return (plan != null ? plan.isAllowed(field, matcher) : matcher.test(field));
 	}
 
 	/**
@@ -834,6 +846,9 @@ public class DataBinder implements PropertyEditorRegistry, TypeConverter {
 	 * @see BindingErrorProcessor#processPropertyAccessException
 	 */
 	protected void applyPropertyValues(MutablePropertyValues mpvs) {
+		if (isIgnoreUnknownFields()) {
+			removeUnknownFields(mpvs);
+		}
 		try {
 			// Bind request parameters onto target object.
 			getPropertyAccessor().setPropertyValues(mpvs, isIgnoreUnknownFields(), isIgnoreInvalidFields());
@@ -846,6 +861,47 @@ public class DataBinder implements PropertyEditorRegistry, TypeConverter {
 		}
 	}
 
+	/**
+	 * Remove values for simple fields which the target object does not expose
+	 * as writable properties, according to the shared {@link BindingPlan}.
+	 * Such values would be ignored by the property accessor anyway, but only
+	 * after raising a {@code NotWritablePropertyException} for each of them.
+	 * @param mpvs the property values to be bound (can be modified)
+	 */
+	private void removeUnknownFields(MutablePropertyValues mpvs) {
+		BindingPlan plan = getBindingPlan();
+		if (plan == null) {
+			return;
+		}
+		ConfigurablePropertyAccessor accessor = getPropertyAccessor();
+		for (PropertyValue pv : mpvs.getPropertyValues()) {
+			String field = pv.getName();
+			if (!PropertyAccessorUtils.isNestedOrIndexedProperty(field) &&
+					!plan.isWritable(field, accessor::isWritableProperty)) {
+				mpvs.removePropertyValue(pv);
+			}
+		}
+	}
+
+	/**
+	 * Return the binding plan for the current target object and configuration.
+	 * @return the binding plan, or {@code null} if there is no target object
+	 */
+	@Nullable
+	private BindingPlan getBindingPlan() {
+		Object target = getTarget();
+		if (target == null) {
+			return null;
+		}
+		BindingPlan plan = this.bindingPlan;
+		if (plan == null) {
+			plan = BindingPlan.forConfiguration(target.getClass(), getPropertyAccessor().getClass(),
+					getAllowedFields(), getDisallowedFields());
+			this.bindingPlan = plan;
+		}
+		return plan;
+	}
+
 
 	/**
 	 * Invoke the specified Validators, if any.
@@ -16,9 +16,14 @@
 
 package org.springframework.cache;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.UUID;
 
@@ -211,6 +216,86 @@ public abstract class AbstractCacheTests<T extends Cache> {
 		results.forEach(r -> assertThat(r, is(1))); // Only one method got invoked
 	}
 
+	@Test
+	public void testCacheGetAll() throws Exception {
+		T cache = getCache();
+
+		String key1 = createRandomKey();
+		String key2 = createRandomKey();
+		String key3 = createRandomKey();
+		cache.put(key1, "value1");
+		cache.put(key3, null);
+
+		Map<Object, Cache.ValueWrapper> result = cache.getAll(Arrays.asList(key1, key2, key3));
+		assertEquals(2, result.size());
+		assertEquals("value1", result.get(key1).get());
+		assertFalse(result.containsKey(key2));
+		assertNull(result.get(key3).get());
+	}
+
+	@Test
+	public void testCachePutAll() throws Exception {
+		T cache = getCache();
+
+		String key1 = createRandomKey();
+		String key2 = createRandomKey();
+		Map<Object, Object> entries = new LinkedHashMap<>();
+		entries.put(key1, "value1");
+		entries.put(key2, "value2");
+		cache.putAll(entries);
+
+		assertEquals("value1", cache.get(key1).get());
+		assertEquals("value2", cache.get(key2).get());
+	}
+
+	@Test
+	public void testCacheRetrieve() throws Exception {
+		T cache = getCache();
+
+		String key = createRandomKey();
+		assertNull(cache.retrieve(key).get());
+
+		cache.put(key, "value");
+		assertEquals("value", cache.retrieve(key).get().get());
+		cache.put(key, null);
+		assertNull(cache.retrieve(key).get().get());
+	}
+
+	@Test
+	public void testCacheRetrieveWithValueLoader() throws Exception {
+		T cache = getCache();
+
+		String key = createRandomKey();
+		CompletableFuture<String> loading = new CompletableFuture<>();
+		CompletableFuture<String> result = cache.retrieve(key, () -> loading);
+		assertFalse(result.isDone());
+		assertNull(cache.get(key));
+
+		loading.complete("value");
+		assertEquals("value", result.get());
+		assertEquals("value", cache.get(key).get());
+		assertEquals("value", cache.retrieve(key, () -> {
+			throw new IllegalStateException("Should not have been invoked");
+		}).get());
+	}
+
+	@Test
+	public void testCacheRetrieveWithFailedValueLoader() throws Exception {
+		T cache = getCache();
+
+		String key = createRandomKey();
+		CompletableFuture<Object> loading = new CompletableFuture<>();
+		loading.completeExceptionally(new UnsupportedOperationException("Expected exception"));
+		try {
+			cache.retrieve(key, () -> loading).get();
+			fail("Should have thrown ExecutionException");
+		}
+		catch (ExecutionException ex) {
+			assertEquals(UnsupportedOperationException.class, ex.getCause().getClass());
+		}
+		assertNull(cache.get(key));
+	}
+
 	protected String createRandomKey() {
 		return UUID.randomUUID().toString();
 	}
@@ -0,0 +1,358 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import org.springframework.cache.Cache;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link BoundedConcurrentMap}.
+ */
+public class BoundedConcurrentMapTests {
+
+	private final AtomicLong time = new AtomicLong();
+
+
+	@Test
+	public void evictLeastRecentlyUsed() {
+		BoundedConcurrentMap<String, String> map = new BoundedConcurrentMap<>(3);
+		map.put("a", "1");
+		map.put("b", "2");
+		map.put("c", "3");
+		assertEquals("1", map.get("a"));
+		map.put("d", "4");
+
+		assertEquals(3, map.size());
+		assertFalse(map.containsKey("b"));
+		assertTrue(map.containsKey("a"));
+		assertTrue(map.containsKey("c"));
+		assertTrue(map.containsKey("d"));
+		assertEquals(1, map.getEvictionCount());
+	}
+
+	@Test
+	public void containsKeyDoesNotAffectEvictionOrder() {
+		BoundedConcurrentMap<String, String> map = new BoundedConcurrentMap<>(3);
+		map.put("a", "1");
+		map.put("b", "2");
+		map.put("c", "3");
+		assertTrue(map.containsKey("a"));
+		map.put("d", "4");
+
+		assertFalse(map.containsKey("a"));
+		assertTrue(map.containsKey("b"));
+		assertEquals(1, map.getEvictionCount());
+	}
+
+	@Test
+	public void evictByWeight() {
+		BoundedConcurrentMap<String, String> map = new BoundedConcurrentMap<>(10, (key, value) -> value.length());
+		map.put("a", "1234");
+		map.put("b", "1234");
+		assertEquals(8, map.getWeight());
+		map.put("c", "12345");
+
+		assertEquals(2, map.size());
+		assertEquals(9, map.getWeight());
+		assertNull(map.get("a"));
+
+		map.put("b", "1");
+		assertEquals(6, map.getWeight());
+	}
+
+	@Test
+	public void heavyEntryRetainedUpToMaximumWeight() {
+		BoundedConcurrentMap<Integer, String> map = new BoundedConcurrentMap<>(1000, (key, value) -> value.length());
+		for (int i = 0; i < 100; i++) {
+			map.put(i, "1");
+		}
+		map.put(100, new String(new char[900]));
+
+		assertEquals(900, map.get(100).length());
+		assertEquals(1000, map.getWeight());
+		assertEquals(0, map.getEvictionCount());
+		map.put(101, "12");
+		assertTrue(map.containsKey(100));
+		assertEquals(1000, map.getWeight());
+		assertEquals(2, map.getEvictionCount());
+	}
+
+	@Test
+	public void manySegmentsStayWithinLimit() {
+		BoundedConcurrentMap<Integer, Integer> map = new BoundedConcurrentMap<>(1000);
+		for (int i = 0; i < 10000; i++) {
+			map.put(i, i);
+		}
+		assertTrue(map.size() <= 1000);
+		assertEquals(10000 - map.size(), map.getEvictionCount());
+		assertEquals(Integer.valueOf(9999), map.get(9999));
+	}
+
+	@Test
+	public void expireAfterWrite() {
+		BoundedConcurrentMap<String, String> map = new BoundedConcurrentMap<>(10);
+		map.setTicker(this.time::get);
+		map.setTimeToLive(Duration.ofSeconds(10));
+		map.put("a", "1");
+		advance(5);
+		assertEquals("1", map.get("a"));
+		map.put("b", "2");
+		advance(5);
+
+		assertNull(map.get("a"));
+		assertEquals("2", map.get("b"));
+		assertEquals(1, map.getExpirationCount());
+		assertFalse(map.entrySet().isEmpty());
+		advance(5);
+		assertTrue(map.entrySet().isEmpty());
+	}
+
+	@Test
+	public void expireAfterAccess() {
+		BoundedConcurrentMap<String, String> map = new BoundedConcurrentMap<>(10);
+		map.setTicker(this.time::get);
+		map.setTimeToIdle(Duration.ofSeconds(10));
+		map.put("a", "1");
+		map.put("b", "2");
+		advance(5);
+		assertEquals("1", map.get("a"));
+		advance(5);
+
+		assertEquals("1", map.get("a"));
+		assertNull(map.get("b"));
+	}
+
+	@Test
+	public void expiredEntriesEvictedFirst() {
+		BoundedConcurrentMap<String, String> map = new BoundedConcurrentMap<>(2);
+		map.setTicker(this.time::get);
+		map.setTimeToLive(Duration.ofSeconds(10));
+		map.put("a", "1");
+		advance(5);
+		map.put("b", "2");
+		map.get("a");
+		advance(5);
+		map.put("c", "3");
+
+		assertEquals("2", map.get("b"));
+		assertEquals("3", map.get("c"));
+		assertEquals(0, map.getEvictionCount());
+		assertEquals(1, map.getExpirationCount());
+	}
+
+	@Test
+	public void expiredEntriesPurgedOnWrite() {
+		BoundedConcurrentMap<Integer, Integer> map = new BoundedConcurrentMap<>(Long.MAX_VALUE);
+		map.setTicker(this.time::get);
+		map.setTimeToLive(Duration.ofSeconds(10));
+		for (int i = 0; i < 100; i++) {
+			map.put(i, i);
+		}
+		advance(10);
+		for (int i = 100; i < 1100; i++) {
+			map.put(i, i);
+		}
+
+		// Purged without reading the expired keys again
+		assertEquals(100, map.getExpirationCount());
+		assertEquals(1000, map.size());
+		assertEquals(0, map.getEvictionCount());
+	}
+
+	@Test
+	public void idleEntriesPurgedOnWrite() {
+		BoundedConcurrentMap<String, String> map = new BoundedConcurrentMap<>(10);
+		map.setTicker(this.time::get);
+		map.setTimeToIdle(Duration.ofSeconds(10));
+		map.put("a", "1");
+		map.put("b", "2");
+		advance(5);
+		assertEquals("1", map.get("a"));
+		advance(5);
+		map.put("c", "3");
+
+		assertEquals(1, map.getExpirationCount());
+		assertEquals(2, map.size());
+		assertEquals("1", map.get("a"));
+	}
+
+	@Test
+	public void sizeAndWeightIgnoreExpiredEntries() {
+		BoundedConcurrentMap<String, String> map = new BoundedConcurrentMap<>(10, (key, value) -> value.length());
+		map.setTicker(this.time::get);
+		map.setTimeToLive(Duration.ofSeconds(10));
+		map.put("a", "1");
+		map.put("b", "22");
+		advance(5);
+		map.put("c", "333");
+		assertEquals(3, map.size());
+		assertEquals(6, map.getWeight());
+		advance(5);
+
+		assertEquals(1, map.size());
+		assertEquals(1, map.getSize());
+		assertEquals(3, map.getWeight());
+		assertEquals(2, map.getExpirationCount());
+	}
+
+	@Test
+	public void statistics() {
+		BoundedConcurrentMap<String, String> map = new BoundedConcurrentMap<>(10);
+		map.put("a", "1");
+		map.get("a");
+		map.get("a");
+		map.get("b");
+		map.get("c");
+
+		assertEquals(10, map.getLimit());
+		assertEquals(1, map.getSize());
+		assertEquals(2, map.getHitCount());
+		assertEquals(2, map.getMissCount());
+		assertEquals(0.5, map.getHitRatio(), 0.0);
+
+		map.resetStatistics();
+		assertEquals(0, map.getHitCount());
+		assertEquals(0, map.getMissCount());
+		assertEquals(0.0, map.getHitRatio(), 0.0);
+	}
+
+	@Test
+	public void concurrentMapOperations() {
+		BoundedConcurrentMap<String, String> map = new BoundedConcurrentMap<>(10);
+		assertNull(map.putIfAbsent("a", "1"));
+		assertEquals("1", map.putIfAbsent("a", "2"));
+		assertFalse(map.replace("a", "2", "3"));
+		assertTrue(map.replace("a", "1", "3"));
+		assertEquals("3", map.replace("a", "4"));
+		assertNull(map.replace("b", "1"));
+		assertFalse(map.remove("a", "3x"));
+		assertTrue(map.remove("a", "4"));
+		assertTrue(map.isEmpty());
+		map.put("a", "1");
+		map.clear();
+		assertEquals(0, map.getWeight());
+	}
+
+	@Test
+	public void computeIfAbsentLoadsOnce() throws Exception {
+		BoundedConcurrentMap<String, String> map = new BoundedConcurrentMap<>(10);
+		AtomicInteger invocations = new AtomicInteger();
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch proceed = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Future<String> first = executor.submit(() -> map.computeIfAbsent("a", key -> {
+				invocations.incrementAndGet();
+				loading.countDown();
+				await(proceed);
+				return "1";
+			}));
+			assertTrue(loading.await(5, TimeUnit.SECONDS));
+			Future<String> second = executor.submit(() -> map.computeIfAbsent("a", key -> {
+				invocations.incrementAndGet();
+				return "2";
+			}));
+			assertEquals("2", map.computeIfAbsent("b", key -> "2"));
+			proceed.countDown();
+
+			assertEquals("1", first.get(5, TimeUnit.SECONDS));
+			assertEquals("1", second.get(5, TimeUnit.SECONDS));
+			assertEquals(1, invocations.get());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void computeIfAbsentPropagatesException() {
+		BoundedConcurrentMap<String, String> map = new BoundedConcurrentMap<>(10);
+		try {
+			map.computeIfAbsent("a", key -> {
+				throw new IllegalStateException("Expected");
+			});
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			assertEquals("Expected", ex.getMessage());
+		}
+		assertEquals("1", map.computeIfAbsent("a", key -> "1"));
+	}
+
+	@Test
+	public void computeIfAbsentRejectsRecursiveComputation() {
+		BoundedConcurrentMap<String, String> map = new BoundedConcurrentMap<>(10);
+		try {
+			map.computeIfAbsent("a", key -> map.computeIfAbsent("a", k -> "2"));
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			assertTrue(ex.getMessage().contains("Recursive"));
+		}
+		assertEquals("1", map.computeIfAbsent("a", key -> map.computeIfAbsent("b", k -> "1")));
+		assertEquals("1", map.get("b"));
+	}
+
+	@Test
+	public void boundedConcurrentMapCache() throws Exception {
+		BoundedConcurrentMap<Object, Object> store = new BoundedConcurrentMap<>(2);
+		Cache cache = new ConcurrentMapCache("test", store, true);
+		assertEquals("1", cache.get("a", () -> "1"));
+		assertEquals("1", cache.get("a", () -> "2"));
+		assertNull(cache.get("b", () -> null));
+		cache.put("c", "3");
+
+		assertNull(cache.get("a"));
+		assertNull(cache.get("b").get());
+		try {
+			cache.get("d", () -> {
+				throw new IllegalStateException("Expected");
+			});
+			fail("Should have thrown ValueRetrievalException");
+		}
+		catch (Cache.ValueRetrievalException ex) {
+			assertTrue(ex.getCause() instanceof IllegalStateException);
+		}
+	}
+
+
+	private void advance(long seconds) {
+		this.time.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
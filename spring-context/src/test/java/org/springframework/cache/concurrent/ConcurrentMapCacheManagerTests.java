@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.cache.concurrent;
 
+import java.time.Duration;
+
 import org.junit.Test;
 
 import org.springframework.cache.Cache;
@@ -131,4 +133,36 @@ public class ConcurrentMapCacheManagerTests {
 		assertNull(cache1x.get("key"));
 	}
 
+	@Test
+	public void testBoundedCaches() {
+		ConcurrentMapCacheManager cm = new ConcurrentMapCacheManager("c1");
+		ConcurrentMapCache cache1 = (ConcurrentMapCache) cm.getCache("c1");
+		assertFalse(cache1.getNativeCache() instanceof BoundedConcurrentMap);
+
+		cm.setMaximumSize(2);
+		ConcurrentMapCache cache1x = (ConcurrentMapCache) cm.getCache("c1");
+		assertTrue(cache1x != cache1);
+		BoundedConcurrentMapMXBean stats = (BoundedConcurrentMapMXBean) cache1x.getNativeCache();
+		assertEquals(2, stats.getLimit());
+		cache1x.put("key1", "value1");
+		cache1x.put("key2", null);
+		cache1x.put("key3", "value3");
+		assertNull(cache1x.get("key1"));
+		assertNull(cache1x.get("key2").get());
+		assertEquals("value3", cache1x.get("key3").get());
+		assertEquals(2, stats.getSize());
+		assertEquals(1, stats.getEvictionCount());
+		assertEquals(2, stats.getHitCount());
+		assertEquals(1, stats.getMissCount());
+
+		cm.setMaximumWeight(10, (key, value) -> value.toString().length());
+		cm.setTimeToLive(Duration.ofMinutes(1));
+		ConcurrentMapCache cache1y = (ConcurrentMapCache) cm.getCache("c1");
+		assertEquals(10, ((BoundedConcurrentMapMXBean) cache1y.getNativeCache()).getLimit());
+		cache1y.put("key1", "value1");
+		cache1y.put("key2", "value2");
+		assertNull(cache1y.get("key1"));
+		assertEquals("value2", cache1y.get("key2").get());
+	}
+
 }
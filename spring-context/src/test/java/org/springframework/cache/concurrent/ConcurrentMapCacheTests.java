@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,8 +19,11 @@ package org.springframework.cache.concurrent;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -115,6 +118,47 @@ public class ConcurrentMapCacheTests
 		serializeCache.get(key);
 	}
 
+	@Test
+	public void testCacheRetrieveCoalesced() throws Exception {
+		ConcurrentMapCache cache = getCache();
+		String key = createRandomKey();
+		AtomicInteger invocations = new AtomicInteger();
+		CompletableFuture<String> loading = new CompletableFuture<>();
+		Supplier<CompletableFuture<String>> valueLoader = () -> {
+			invocations.incrementAndGet();
+			return loading;
+		};
+
+		CompletableFuture<String> first = cache.retrieve(key, valueLoader);
+		CompletableFuture<String> second = cache.retrieve(key, valueLoader);
+		assertEquals(1, invocations.get());
+
+		loading.complete("value");
+		assertEquals("value", first.get());
+		assertEquals("value", second.get());
+		assertEquals("value", cache.retrieve(key, valueLoader).get());
+		assertEquals(1, invocations.get());
+	}
+
+	@Test
+	public void testCacheRetrieveCoalescedWithCancellation() throws Exception {
+		ConcurrentMapCache cache = getCache();
+		String key = createRandomKey();
+		CompletableFuture<String> loading = new CompletableFuture<>();
+
+		CompletableFuture<String> first = cache.retrieve(key, () -> loading);
+		CompletableFuture<String> second = cache.retrieve(key, () -> loading);
+		assertNotSame(first, second);
+		first.cancel(true);
+		second.complete("other");
+
+		loading.complete("value");
+		assertTrue(first.isCancelled());
+		assertEquals("other", second.get());
+		assertEquals("value", cache.retrieve(key, () -> loading).get());
+		assertEquals("value", cache.get(key).get());
+	}
+
 
 	private ConcurrentMapCache createCacheWithStoreByValue() {
 		return new ConcurrentMapCache(CACHE_NAME, this.nativeCache, true,
@@ -0,0 +1,258 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for caching the resolved values of methods returning a
+ * {@link CompletableFuture} or a reactive type.
+ */
+public class CacheAsyncResultTests {
+
+	private ConfigurableApplicationContext context;
+
+	private AsyncService service;
+
+	private Cache cache;
+
+
+	@Before
+	public void setUp() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.service = this.context.getBean(AsyncService.class);
+		this.cache = this.context.getBean(CacheManager.class).getCache("testCache");
+	}
+
+	@After
+	public void closeContext() {
+		if (this.context != null) {
+			this.context.close();
+		}
+	}
+
+
+	@Test
+	public void cacheCompletableFutureValue() throws Exception {
+		assertEquals("value1", this.service.future("key").get());
+		assertEquals("value1", this.cache.get("key").get());
+		assertEquals("value1", this.service.future("key").get());
+		assertEquals(1, this.service.getInvocationCount());
+	}
+
+	@Test
+	public void cacheCompletableFutureNullValue() throws Exception {
+		assertNull(this.service.nullFuture("key").get());
+		assertNull(this.service.nullFuture("key").get());
+		assertNull(this.cache.get("key").get());
+		assertEquals(1, this.service.getInvocationCount());
+	}
+
+	@Test
+	public void cacheCompletableFutureOnCompletionOnly() throws Exception {
+		CompletableFuture<String> pending = new CompletableFuture<>();
+		this.service.setPendingResult(pending);
+		CompletableFuture<String> result = this.service.future("key");
+		assertFalse(result.isDone());
+		assertNull(this.cache.get("key"));
+
+		pending.complete("value");
+		assertEquals("value", result.get());
+		assertEquals("value", this.cache.get("key").get());
+	}
+
+	@Test
+	public void coalesceSynchronizedCompletableFuture() throws Exception {
+		CompletableFuture<String> pending = new CompletableFuture<>();
+		this.service.setPendingResult(pending);
+		CompletableFuture<String> first = this.service.syncFuture("key");
+		CompletableFuture<String> second = this.service.syncFuture("key");
+		assertEquals(1, this.service.getInvocationCount());
+
+		pending.complete("value");
+		assertEquals("value", first.get());
+		assertEquals("value", second.get());
+		assertEquals("value", this.service.syncFuture("key").get());
+		assertEquals(1, this.service.getInvocationCount());
+	}
+
+	@Test
+	public void failedCompletableFutureNotCached() throws Exception {
+		try {
+			this.service.failedFuture("key").get();
+			fail("Should have thrown ExecutionException");
+		}
+		catch (ExecutionException ex) {
+			assertEquals(IllegalStateException.class, ex.getCause().getClass());
+		}
+		assertNull(this.cache.get("key"));
+	}
+
+	@Test
+	public void unlessEvaluatedAgainstResolvedValue() throws Exception {
+		assertEquals("value1", this.service.unlessFuture("key").get());
+		assertNull(this.cache.get("key"));
+	}
+
+	@Test
+	public void cachePutAndEvictWithCompletableFuture() throws Exception {
+		assertEquals("value1", this.service.putFuture("key").get());
+		assertEquals("value1", this.cache.get("key").get());
+		this.service.evictFuture("key").get();
+		assertNull(this.cache.get("key"));
+	}
+
+	@Test
+	public void cacheMonoValue() {
+		Mono<String> mono = this.service.mono("key");
+		assertEquals(0, this.service.getInvocationCount());
+		assertEquals("value1", mono.block());
+		assertEquals("value1", this.cache.get("key").get());
+		assertEquals("value1", this.service.mono("key").block());
+		assertEquals(1, this.service.getInvocationCount());
+	}
+
+	@Test
+	public void cacheEmptyMono() {
+		assertNull(this.service.emptyMono("key").block());
+		assertNull(this.service.emptyMono("key").block());
+		assertEquals(1, this.service.getInvocationCount());
+	}
+
+	@Test
+	public void cacheFluxValues() {
+		assertEquals(Arrays.asList("a1", "b1"), this.service.flux("key").collectList().block());
+		assertEquals(Arrays.asList("a1", "b1"), this.cache.get("key").get());
+		assertEquals(Arrays.asList("a1", "b1"), this.service.flux("key").collectList().block());
+		assertEquals(1, this.service.getInvocationCount());
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class Config {
+
+		@Bean
+		public CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager("testCache");
+		}
+
+		@Bean
+		public AsyncService asyncService() {
+			return new AsyncService();
+		}
+	}
+
+
+	static class AsyncService {
+
+		private final AtomicInteger counter = new AtomicInteger();
+
+		private CompletableFuture<String> pendingResult;
+
+		public int getInvocationCount() {
+			return this.counter.get();
+		}
+
+		public void setPendingResult(CompletableFuture<String> pendingResult) {
+			this.pendingResult = pendingResult;
+		}
+
+		@Cacheable("testCache")
+		public CompletableFuture<String> future(String key) {
+			int count = this.counter.incrementAndGet();
+			return (this.pendingResult != null ? this.pendingResult : CompletableFuture.completedFuture("value" + count));
+		}
+
+		@Cacheable("testCache")
+		public CompletableFuture<String> nullFuture(String key) {
+			this.counter.incrementAndGet();
+			return CompletableFuture.completedFuture(null);
+		}
+
+		@Cacheable(cacheNames = "testCache", sync = true)
+		public CompletableFuture<String> syncFuture(String key) {
+			this.counter.incrementAndGet();
+			return this.pendingResult;
+		}
+
+		@Cacheable("testCache")
+		public CompletableFuture<String> failedFuture(String key) {
+			CompletableFuture<String> future = new CompletableFuture<>();
+			future.completeExceptionally(new IllegalStateException("Expected exception"));
+			return future;
+		}
+
+		@Cacheable(cacheNames = "testCache", unless = "#result.startsWith('value')")
+		public CompletableFuture<String> unlessFuture(String key) {
+			return CompletableFuture.completedFuture("value" + this.counter.incrementAndGet());
+		}
+
+		@CachePut("testCache")
+		public CompletableFuture<String> putFuture(String key) {
+			return CompletableFuture.completedFuture("value" + this.counter.incrementAndGet());
+		}
+
+		@CacheEvict("testCache")
+		public CompletableFuture<Void> evictFuture(String key) {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		@Cacheable("testCache")
+		public Mono<String> mono(String key) {
+			return Mono.fromSupplier(() -> "value" + this.counter.incrementAndGet());
+		}
+
+		@Cacheable("testCache")
+		public Mono<String> emptyMono(String key) {
+			this.counter.incrementAndGet();
+			return Mono.empty();
+		}
+
+		@Cacheable("testCache")
+		public Flux<String> flux(String key) {
+			int count = this.counter.incrementAndGet();
+			List<String> values = Arrays.asList("a" + count, "b" + count);
+			return Flux.fromIterable(values);
+		}
+	}
+
+}
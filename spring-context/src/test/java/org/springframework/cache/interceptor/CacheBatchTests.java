@@ -0,0 +1,265 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@code @Cacheable(batch=true)} methods.
+ */
+public class CacheBatchTests {
+
+	private ConfigurableApplicationContext context;
+
+	private BatchService service;
+
+	private Cache cache;
+
+
+	@Before
+	public void setUp() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.service = this.context.getBean(BatchService.class);
+		this.cache = this.context.getBean(CacheManager.class).getCache("testCache");
+	}
+
+	@After
+	public void closeContext() {
+		if (this.context != null) {
+			this.context.close();
+		}
+	}
+
+
+	@Test
+	public void batchMissCachesAllEntries() {
+		Map<Long, String> result = this.service.findByIds(Arrays.asList(1L, 2L));
+		assertEquals(Arrays.asList(1L, 2L), new ArrayList<>(result.keySet()));
+		assertEquals("value1", this.cache.get(1L).get());
+		assertEquals("value2", this.cache.get(2L).get());
+		assertEquals(1, this.service.getInvocationCount());
+	}
+
+	@Test
+	public void batchHitDoesNotInvokeMethod() {
+		this.cache.put(1L, "cached1");
+		this.cache.put(2L, "cached2");
+
+		Map<Long, String> result = this.service.findByIds(Arrays.asList(2L, 1L));
+		assertEquals(Arrays.asList(2L, 1L), new ArrayList<>(result.keySet()));
+		assertEquals("cached2", result.get(2L));
+		assertEquals("cached1", result.get(1L));
+		assertEquals(0, this.service.getInvocationCount());
+	}
+
+	@Test
+	public void batchPartialHitInvokesMethodForMissingKeysOnly() {
+		this.cache.put(2L, "cached2");
+
+		Map<Long, String> result = this.service.findByIds(Arrays.asList(1L, 2L, 3L, 1L));
+		assertEquals(Arrays.asList(1L, 2L, 3L), new ArrayList<>(result.keySet()));
+		assertEquals("value1", result.get(1L));
+		assertEquals("cached2", result.get(2L));
+		assertEquals("value3", result.get(3L));
+		assertEquals(1, this.service.getInvocationCount());
+		assertEquals(Arrays.asList(1L, 3L), new ArrayList<>(this.service.getLastIds()));
+		assertEquals("value3", this.cache.get(3L).get());
+	}
+
+	@Test
+	public void batchPartialHitWithSetParameter() {
+		this.cache.put(1L, "cached1");
+
+		Map<Long, String> result = this.service.findBySet(new LinkedHashSet<>(Arrays.asList(1L, 2L)));
+		assertEquals("cached1", result.get(1L));
+		assertEquals("value2", result.get(2L));
+		assertEquals(Collections.singletonList(2L), new ArrayList<>(this.service.getLastIds()));
+	}
+
+	@Test
+	public void batchMissingEntriesNotCached() {
+		Map<Long, String> result = this.service.findExisting(Arrays.asList(1L, 2L));
+		assertEquals(Collections.singletonMap(1L, "value1"), result);
+		assertNull(this.cache.get(2L));
+	}
+
+	@Test
+	public void batchWithListResult() {
+		this.cache.put(2L, "cached2");
+
+		List<String> result = this.service.findAll(Arrays.asList(1L, 2L, 3L));
+		assertEquals(Arrays.asList("value1", "cached2", "value3"), result);
+		assertEquals("value3", this.cache.get(3L).get());
+		assertEquals(Arrays.asList("value1", "cached2", "value3"), this.service.findAll(Arrays.asList(1L, 2L, 3L)));
+		assertEquals(1, this.service.getInvocationCount());
+	}
+
+	@Test
+	public void batchConditionNotPassing() {
+		this.cache.put(1L, "cached1");
+
+		assertEquals("value1", this.service.findConditionally(Arrays.asList(1L), false).get(1L));
+		assertEquals("cached1", this.service.findConditionally(Arrays.asList(1L), true).get(1L));
+	}
+
+	@Test
+	public void batchPartialHitPropagatesUnsupportedOperationException() {
+		this.cache.put(1L, "cached1");
+
+		try {
+			this.service.findUnsupported(Arrays.asList(1L, 2L));
+			fail("Should have thrown UnsupportedOperationException");
+		}
+		catch (UnsupportedOperationException ex) {
+			assertEquals("Expected", ex.getMessage());
+		}
+		assertEquals(1, this.service.getInvocationCount());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void batchWithKeyNotSupported() {
+		this.service.invalidKey(Arrays.asList(1L));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void batchCombinedWithOtherOperationNotSupported() {
+		this.service.invalidCombination(Arrays.asList(1L));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void batchWithoutCollectionParameterNotSupported() {
+		this.service.invalidParameter(1L);
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class Config {
+
+		@Bean
+		public CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager("testCache");
+		}
+
+		@Bean
+		public BatchService batchService() {
+			return new BatchService();
+		}
+	}
+
+
+	static class BatchService {
+
+		private final AtomicInteger counter = new AtomicInteger();
+
+		private Collection<Long> lastIds;
+
+		public int getInvocationCount() {
+			return this.counter.get();
+		}
+
+		public Collection<Long> getLastIds() {
+			return this.lastIds;
+		}
+
+		@Cacheable(cacheNames = "testCache", batch = true)
+		public Map<Long, String> findByIds(List<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "testCache", batch = true)
+		public Map<Long, String> findBySet(Set<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "testCache", batch = true)
+		public Map<Long, String> findExisting(List<Long> ids) {
+			Map<Long, String> result = load(ids);
+			result.keySet().retainAll(Collections.singleton(1L));
+			return result;
+		}
+
+		@Cacheable(cacheNames = "testCache", batch = true)
+		public List<String> findAll(Collection<Long> ids) {
+			return new ArrayList<>(load(ids).values());
+		}
+
+		@Cacheable(cacheNames = "testCache", batch = true, condition = "#p1")
+		public Map<Long, String> findConditionally(List<Long> ids, boolean useCache) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "testCache", batch = true)
+		public Map<Long, String> findUnsupported(List<Long> ids) {
+			this.counter.incrementAndGet();
+			throw new UnsupportedOperationException("Expected");
+		}
+
+		@Cacheable(cacheNames = "testCache", batch = true, key = "#p0")
+		public Map<Long, String> invalidKey(List<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "testCache", batch = true)
+		@CacheEvict(cacheNames = "testCache", allEntries = true)
+		public Map<Long, String> invalidCombination(List<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "testCache", batch = true)
+		public Map<Long, String> invalidParameter(Long id) {
+			return load(Collections.singletonList(id));
+		}
+
+		private Map<Long, String> load(Collection<Long> ids) {
+			this.counter.incrementAndGet();
+			this.lastIds = ids;
+			Map<Long, String> result = new LinkedHashMap<>();
+			for (Long id : ids) {
+				result.put(id, "value" + id);
+			}
+			return result;
+		}
+	}
+
+}
@@ -17,6 +17,8 @@
 package org.springframework.cache.interceptor;
 
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.Before;
@@ -104,6 +106,44 @@ public class CacheErrorHandlerTests {
 		this.simpleService.get(0L);
 	}
 
+	@Test
+	public void retrieveSyncFail() throws Exception {
+		UnsupportedOperationException exception = new UnsupportedOperationException("Test exception on retrieve");
+		willThrow(exception).given(this.cache).retrieve(eq(0L), any());
+
+		assertEquals(0L, this.simpleService.getFutureSync(0L).get());
+		verify(this.errorHandler).handleCacheGetError(exception, cache, 0L);
+	}
+
+	@Test
+	public void retrieveSyncFailedFuture() throws Exception {
+		UnsupportedOperationException exception = new UnsupportedOperationException("Test exception on retrieve");
+		CompletableFuture<Object> failed = new CompletableFuture<>();
+		failed.completeExceptionally(exception);
+		willReturn(failed).given(this.cache).retrieve(eq(0L), any());
+
+		assertEquals(0L, this.simpleService.getFutureSync(0L).get());
+		verify(this.errorHandler).handleCacheGetError(exception, cache, 0L);
+	}
+
+	@Test
+	public void retrieveSyncFailProperException() throws Exception {
+		UnsupportedOperationException exception = new UnsupportedOperationException("Test exception on retrieve");
+		CompletableFuture<Object> failed = new CompletableFuture<>();
+		failed.completeExceptionally(exception);
+		willReturn(failed).given(this.cache).retrieve(eq(0L), any());
+
+		this.cacheInterceptor.setErrorHandler(new SimpleCacheErrorHandler());
+
+		try {
+			this.simpleService.getFutureSync(0L).get();
+			fail("Should have thrown ExecutionException");
+		}
+		catch (ExecutionException ex) {
+			assertSame(exception, ex.getCause());
+		}
+	}
+
 	@Test
 	public void putFail() {
 		UnsupportedOperationException exception = new UnsupportedOperationException("Test exception on put");
@@ -205,6 +245,11 @@ public class CacheErrorHandlerTests {
 			return this.counter.getAndIncrement();
 		}
 
+		@Cacheable(sync = true)
+		public CompletableFuture<Object> getFutureSync(long id) {
+			return CompletableFuture.completedFuture(this.counter.getAndIncrement());
+		}
+
 		@CachePut
 		public Object put(long id) {
 			return this.counter.getAndIncrement();
@@ -0,0 +1,394 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.tests.sample.beans.TestBean;
+import org.springframework.util.ClassUtils;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+/**
+ * Tests for {@link ConfigurationRegistrarGenerator} and the runtime use of
+ * {@link GeneratedConfigurationRegistrar generated registrars}.
+ *
+ * @since 5.0.11
+ */
+public class ConfigurationRegistrarGeneratorTests {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private final ConfigurationRegistrarGenerator generator = new ConfigurationRegistrarGenerator();
+
+
+	@Test
+	public void registrarClassName() {
+		assertEquals(SampleConfig.class.getName() + "__BeanDefinitions",
+				ConfigurationRegistrarGenerator.getRegistrarClassName(SampleConfig.class));
+	}
+
+	@Test
+	public void generateBeanMethodDefinitions() {
+		String source = this.generator.generateRegistrar(SampleConfig.class);
+
+		assertTrue(source.startsWith("package org.springframework.context.annotation;"));
+		assertTrue(source.contains("public final class ConfigurationRegistrarGeneratorTests$SampleConfig__BeanDefinitions" +
+				" implements GeneratedConfigurationRegistrar"));
+		assertTrue(source.contains("bd.setFactoryBeanName(\"configurationRegistrarGeneratorTests.SampleConfig\");"));
+		assertTrue(source.contains("bd.setUniqueFactoryMethodName(\"testBean\");"));
+		assertTrue(source.contains("bd.setLazyInit(true);"));
+		assertTrue(source.contains("bd.setPrimary(true);"));
+		assertTrue(source.contains("bd.setDependsOn(\"staticBean\");"));
+		assertTrue(source.contains("registry.registerBeanDefinition(\"testBean\", bd);"));
+		assertTrue(source.contains("registry.registerAlias(\"testBean\", \"aliasedTestBean\");"));
+		assertTrue(source.contains("bd.setFactoryMethodName(\"staticBean\");"));
+		assertFalse(source.contains("registry.registerBeanDefinition(\"" +
+				AnnotationConfigUtils.CONFIGURATION_ANNOTATION_PROCESSOR_BEAN_NAME + "\""));
+	}
+
+	@Test
+	public void generateImportedConfigurationDefinitions() {
+		String source = this.generator.generateRegistrar(SampleConfig.class);
+
+		assertTrue(source.contains("bd.setBeanClassName(\"" + ImportedConfig.class.getName() + "\");"));
+		assertTrue(source.contains("bd.setAttribute(\"" + ConfigurationClassUtils.CONFIGURATION_CLASS_ATTRIBUTE +
+				"\", \"full\");"));
+		assertTrue(source.contains("importingClasses.put(\"" + ImportedConfig.class.getName() + "\", \"" +
+				SampleConfig.class.getName() + "\");"));
+	}
+
+	@Test
+	public void generateProfilesAndFingerprint() {
+		StandardEnvironment environment = new StandardEnvironment();
+		environment.setActiveProfiles("p1", "p2");
+		String source = new ConfigurationRegistrarGenerator(environment).generateRegistrar(SampleConfig.class);
+
+		assertTrue(source.contains("return new String[] {\"p1\", \"p2\"};"));
+		assertTrue(source.contains("return \"" + ConfigurationClassUtils.getClassFingerprint(
+				SampleConfig.class.getName(), getClass().getClassLoader()) + "\";"));
+		assertTrue(this.generator.generateRegistrar(SampleConfig.class).contains("return new String[] {\"default\"};"));
+	}
+
+	@Test
+	public void generateInstanceSupplierForPlainClass() {
+		String source = this.generator.generateRegistrar(SampleConfig.class);
+
+		assertTrue(source.contains("bd.setInstanceSupplier(" + PlainComponent.class.getCanonicalName() + "::new);"));
+		assertFalse(source.contains(ImportedConfig.class.getCanonicalName() + "::new"));
+	}
+
+	@Test
+	public void compiledRegistrarMatchesParsedConfiguration() throws Exception {
+		DefaultListableBeanFactory parsed = new DefaultListableBeanFactory();
+		AnnotatedBeanDefinitionReader reader = new AnnotatedBeanDefinitionReader(parsed);
+		Set<String> existingNames = new LinkedHashSet<>(Arrays.asList(parsed.getBeanDefinitionNames()));
+		reader.register(SampleConfig.class);
+		existingNames.addAll(Arrays.asList(parsed.getBeanDefinitionNames()));
+		ConfigurationClassPostProcessor postProcessor = new ConfigurationClassPostProcessor();
+		postProcessor.setUseGeneratedRegistrars(false);
+		postProcessor.processConfigBeanDefinitions(parsed);
+
+		DefaultListableBeanFactory generated = new DefaultListableBeanFactory();
+		GeneratedConfigurationRegistrar registrar = compileRegistrar(SampleConfig.class);
+		registrar.registerBeanDefinitions(generated);
+
+		Set<String> parsedNames = new LinkedHashSet<>(Arrays.asList(parsed.getBeanDefinitionNames()));
+		parsedNames.removeAll(existingNames);
+		assertEquals(parsedNames, new LinkedHashSet<>(Arrays.asList(generated.getBeanDefinitionNames())));
+		for (String beanName : parsedNames) {
+			assertEquivalent(beanName, parsed.getMergedBeanDefinition(beanName),
+					generated.getMergedBeanDefinition(beanName));
+			assertArrayEquals(parsed.getAliases(beanName), generated.getAliases(beanName));
+		}
+		ImportRegistry importRegistry =
+				(ImportRegistry) parsed.getSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME);
+		assertTrue(registrar.getImportingClasses().containsKey(ImportedConfig.class.getName()));
+		registrar.getImportingClasses().forEach((imported, importing) ->
+				assertEquals(importRegistry.getImportingClassFor(imported).getClassName(), importing));
+
+		AbstractBeanDefinition plainDefinition =
+				(AbstractBeanDefinition) generated.getBeanDefinition(PlainComponent.class.getName());
+		assertNotNull(plainDefinition.getInstanceSupplier());
+		assertTrue(plainDefinition.getInstanceSupplier().get() instanceof PlainComponent);
+		assertArrayEquals(new String[] {"default"}, registrar.getProfiles());
+		assertEquals(ConfigurationClassUtils.getClassFingerprint(SampleConfig.class.getName(), getClass().getClassLoader()),
+				registrar.getConfigurationClassFingerprint());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void scopedProxyNotSupported() {
+		this.generator.generateRegistrar(ScopedProxyConfig.class);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void propertySourceNotSupported() {
+		this.generator.generateRegistrar(PropertySourceConfig.class);
+	}
+
+	@Test
+	public void generatedRegistrarUsedInsteadOfParsing() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(RegistrarConfig.class);
+
+		assertTrue(ctx.containsBean("generatedBean"));
+		assertFalse(ctx.containsBean("parsedBean"));
+		assertTrue(ClassUtils.isCglibProxy(ctx.getBean(RegistrarConfig.class)));
+		assertTrue(ClassUtils.isCglibProxy(ctx.getBean(ImportAwareConfig.class)));
+		assertEquals(RegistrarConfig.class.getName(),
+				ctx.getBean(ImportAwareConfig.class).importMetadata.getClassName());
+		ctx.close();
+	}
+
+	@Test
+	public void generatedRegistrarIgnoredForOtherProfiles() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+		ctx.getEnvironment().setActiveProfiles("other");
+		ctx.register(RegistrarConfig.class);
+		ctx.refresh();
+
+		assertTrue(ctx.containsBean("parsedBean"));
+		assertFalse(ctx.containsBean("generatedBean"));
+		ctx.close();
+	}
+
+	@Test
+	public void generatedRegistrarIgnoredForChangedConfigurationClass() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(StaleRegistrarConfig.class);
+
+		assertTrue(ctx.containsBean("parsedBean"));
+		assertFalse(ctx.containsBean("generatedBean"));
+		ctx.close();
+	}
+
+	@Test
+	public void generatedRegistrarIgnoredWhenDisabled() {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerBeanDefinition("config", new RootBeanDefinition(RegistrarConfig.class));
+		ConfigurationClassPostProcessor postProcessor = new ConfigurationClassPostProcessor();
+		postProcessor.setUseGeneratedRegistrars(false);
+		postProcessor.postProcessBeanDefinitionRegistry(beanFactory);
+
+		assertTrue(beanFactory.containsBeanDefinition("parsedBean"));
+		assertFalse(beanFactory.containsBeanDefinition("generatedBean"));
+	}
+
+
+	private GeneratedConfigurationRegistrar compileRegistrar(Class<?> configClass) throws Exception {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		assumeNotNull(compiler);
+		File sourceDirectory = this.temporaryFolder.newFolder();
+		File outputDirectory = this.temporaryFolder.newFolder();
+		File sourceFile = this.generator.generateRegistrar(configClass, sourceDirectory);
+		assertEquals("Compilation of generated registrar failed", 0, compiler.run(null, null, null,
+				"-proc:none", "-d", outputDirectory.getPath(), "-classpath", System.getProperty("java.class.path"),
+				sourceFile.getPath()));
+		ClassLoader classLoader = new URLClassLoader(new URL[] {outputDirectory.toURI().toURL()}, getClass().getClassLoader());
+		Class<?> registrarClass = classLoader.loadClass(ConfigurationRegistrarGenerator.getRegistrarClassName(configClass));
+		return BeanUtils.instantiateClass(registrarClass, GeneratedConfigurationRegistrar.class);
+	}
+
+	private static void assertEquivalent(String beanName, BeanDefinition expected, BeanDefinition actual) {
+		String message = "Bean definition '" + beanName + "'";
+		assertEquals(message, expected.getBeanClassName(), actual.getBeanClassName());
+		assertEquals(message, expected.getFactoryBeanName(), actual.getFactoryBeanName());
+		assertEquals(message, expected.getFactoryMethodName(), actual.getFactoryMethodName());
+		assertEquals(message, expected.getScope(), actual.getScope());
+		assertEquals(message, expected.isLazyInit(), actual.isLazyInit());
+		assertEquals(message, expected.isPrimary(), actual.isPrimary());
+		assertEquals(message, expected.isAutowireCandidate(), actual.isAutowireCandidate());
+		assertEquals(message, expected.getRole(), actual.getRole());
+		assertArrayEquals(message, expected.getDependsOn(), actual.getDependsOn());
+		assertEquals(message, expected.getPropertyValues(), actual.getPropertyValues());
+		assertEquals(message, expected.getConstructorArgumentValues(), actual.getConstructorArgumentValues());
+		assertEquals(message, expected.getAttribute(ConfigurationClassUtils.CONFIGURATION_CLASS_ATTRIBUTE),
+				actual.getAttribute(ConfigurationClassUtils.CONFIGURATION_CLASS_ATTRIBUTE));
+		AbstractBeanDefinition expectedDefinition = (AbstractBeanDefinition) expected;
+		AbstractBeanDefinition actualDefinition = (AbstractBeanDefinition) actual;
+		assertEquals(message, expectedDefinition.getResolvedAutowireMode(), actualDefinition.getResolvedAutowireMode());
+		assertEquals(message, expectedDefinition.getInitMethodName(), actualDefinition.getInitMethodName());
+		assertEquals(message, expectedDefinition.getDestroyMethodName(), actualDefinition.getDestroyMethodName());
+		assertEquals(message, expectedDefinition.isEnforceInitMethod(), actualDefinition.isEnforceInitMethod());
+		assertEquals(message, expectedDefinition.isEnforceDestroyMethod(), actualDefinition.isEnforceDestroyMethod());
+	}
+
+
+	@Configuration
+	@Import({ImportedConfig.class, PlainComponent.class})
+	static class SampleConfig {
+
+		@Bean(name = {"testBean", "aliasedTestBean"})
+		@Lazy
+		@Primary
+		@DependsOn("staticBean")
+		public TestBean testBean() {
+			return new TestBean();
+		}
+
+		@Bean
+		public static TestBean staticBean() {
+			return new TestBean();
+		}
+	}
+
+
+	@Configuration
+	static class ImportedConfig implements ImportAware {
+
+		@Override
+		public void setImportMetadata(AnnotationMetadata importMetadata) {
+		}
+	}
+
+
+	public static class PlainComponent {
+	}
+
+
+	@Configuration
+	static class ScopedProxyConfig {
+
+		@Bean
+		@Scope(scopeName = "prototype", proxyMode = ScopedProxyMode.TARGET_CLASS)
+		public TestBean scopedBean() {
+			return new TestBean();
+		}
+	}
+
+
+	@Configuration
+	@PropertySource("classpath:org/springframework/context/annotation/p1.properties")
+	static class PropertySourceConfig {
+	}
+
+
+	@Configuration
+	@Import(ImportAwareConfig.class)
+	static class RegistrarConfig {
+
+		@Bean
+		public TestBean parsedBean() {
+			return new TestBean();
+		}
+	}
+
+
+	@Configuration
+	static class ImportAwareConfig implements ImportAware {
+
+		AnnotationMetadata importMetadata;
+
+		@Override
+		public void setImportMetadata(AnnotationMetadata importMetadata) {
+			this.importMetadata = importMetadata;
+		}
+	}
+
+
+	/**
+	 * Registrar as generated for {@link RegistrarConfig}, except for registering
+	 * a different bean in order to reveal whether it has been used.
+	 */
+	public static final class RegistrarConfig__BeanDefinitions implements GeneratedConfigurationRegistrar {
+
+		@Override
+		public void registerBeanDefinitions(BeanDefinitionRegistry registry) {
+			RootBeanDefinition bd = new RootBeanDefinition();
+			bd.setBeanClassName(ImportAwareConfig.class.getName());
+			bd.setAttribute(ConfigurationClassUtils.CONFIGURATION_CLASS_ATTRIBUTE, "full");
+			registry.registerBeanDefinition(ImportAwareConfig.class.getName(), bd);
+			bd = new RootBeanDefinition();
+			bd.setBeanClassName(TestBean.class.getName());
+			bd.setInstanceSupplier(TestBean::new);
+			registry.registerBeanDefinition("generatedBean", bd);
+		}
+
+		@Override
+		public String[] getProfiles() {
+			return new String[] {"default"};
+		}
+
+		@Override
+		public String getConfigurationClassFingerprint() {
+			return ConfigurationClassUtils.getClassFingerprint(
+					RegistrarConfig.class.getName(), RegistrarConfig.class.getClassLoader());
+		}
+
+		@Override
+		public Map<String, String> getImportingClasses() {
+			return Collections.singletonMap(ImportAwareConfig.class.getName(), RegistrarConfig.class.getName());
+		}
+	}
+
+
+	@Configuration
+	static class StaleRegistrarConfig {
+
+		@Bean
+		public TestBean parsedBean() {
+			return new TestBean();
+		}
+	}
+
+
+	/**
+	 * Registrar as generated for a previous version of {@link StaleRegistrarConfig}.
+	 */
+	public static final class StaleRegistrarConfig__BeanDefinitions implements GeneratedConfigurationRegistrar {
+
+		@Override
+		public void registerBeanDefinitions(BeanDefinitionRegistry registry) {
+			RootBeanDefinition bd = new RootBeanDefinition();
+			bd.setBeanClassName(TestBean.class.getName());
+			bd.setInstanceSupplier(TestBean::new);
+			registry.registerBeanDefinition("generatedBean", bd);
+		}
+
+		@Override
+		public String[] getProfiles() {
+			return new String[] {"default"};
+		}
+
+		@Override
+		public String getConfigurationClassFingerprint() {
+			return "00000000000000000000000000000000";
+		}
+	}
+
+}
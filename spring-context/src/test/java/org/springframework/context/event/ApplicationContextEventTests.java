@@ -16,6 +16,10 @@
 
 package org.springframework.context.event;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -204,6 +208,27 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 		assertEquals(2, listener1.seenEvents.size());
 	}
 
+	@Test
+	public void cachedListenersReusedUntilListenersChange() {
+		MyOrderedListener1 listener1 = new MyOrderedListener1();
+		MyOrderedListener2 listener2 = new MyOrderedListener2(listener1);
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.addApplicationListener(listener2);
+		smc.addApplicationListener(listener1);
+
+		MyEvent event = new MyEvent(this);
+		ResolvableType eventType = ResolvableType.forInstance(event);
+		smc.getApplicationListeners(event, eventType);
+		Collection<ApplicationListener<?>> listeners = smc.getApplicationListeners(event, eventType);
+		assertSame(listeners, smc.getApplicationListeners(event, eventType));
+		assertEquals(Arrays.asList(listener1, listener2), new ArrayList<>(listeners));
+
+		smc.removeApplicationListener(listener2);
+		assertEquals(Collections.singletonList(listener1),
+				new ArrayList<>(smc.getApplicationListeners(event, eventType)));
+	}
+
 	@Test
 	@SuppressWarnings("unchecked")
 	public void proxiedListeners() {
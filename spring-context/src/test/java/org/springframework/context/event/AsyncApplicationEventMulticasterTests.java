@@ -0,0 +1,267 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link AsyncApplicationEventMulticaster}.
+ */
+public class AsyncApplicationEventMulticasterTests {
+
+	private final AsyncApplicationEventMulticaster multicaster = new AsyncApplicationEventMulticaster();
+
+
+	@After
+	public void destroy() throws InterruptedException {
+		this.multicaster.destroy();
+	}
+
+
+	@Test
+	public void eventsDeliveredInOrderPerRoutingKey() throws InterruptedException {
+		this.multicaster.setShardCount(4);
+		this.multicaster.setRoutingKeyResolver(event -> ((String) ((PayloadApplicationEvent<?>) event).getPayload()).charAt(0));
+		RecordingListener listener = new RecordingListener();
+		this.multicaster.addApplicationListener(listener);
+
+		for (int i = 0; i < 100; i++) {
+			publish("a" + i);
+			publish("b" + i);
+		}
+		this.multicaster.destroy();
+
+		List<String> aEvents = new ArrayList<>();
+		List<String> bEvents = new ArrayList<>();
+		for (String payload : listener.payloads) {
+			(payload.startsWith("a") ? aEvents : bEvents).add(payload);
+		}
+		assertEquals(100, aEvents.size());
+		assertEquals(100, bEvents.size());
+		for (int i = 0; i < 100; i++) {
+			assertEquals("a" + i, aEvents.get(i));
+			assertEquals("b" + i, bEvents.get(i));
+		}
+		assertNotEquals(Thread.currentThread(), listener.threads.get(0));
+		assertEquals(200, this.multicaster.getDispatchedEventCount());
+		assertEquals(0, this.multicaster.getQueueDepth());
+	}
+
+	@Test
+	public void dropOnOverflow() throws InterruptedException {
+		this.multicaster.setShardCount(1);
+		this.multicaster.setQueueCapacity(1);
+		this.multicaster.setOverflowPolicy(AsyncApplicationEventMulticaster.OverflowPolicy.DROP);
+		BlockingListener listener = new BlockingListener();
+		this.multicaster.addApplicationListener(listener);
+
+		publish("first");
+		assertTrue(listener.started.await(5, TimeUnit.SECONDS));
+		publish("queued");
+		publish("dropped");
+		assertEquals(1, this.multicaster.getQueueDepth());
+		assertEquals(1, this.multicaster.getDroppedEventCount());
+
+		listener.release.countDown();
+		this.multicaster.destroy();
+		assertEquals(2, listener.payloads.size());
+		assertEquals("queued", listener.payloads.get(1));
+	}
+
+	@Test
+	public void callerRunsOnOverflow() throws InterruptedException {
+		this.multicaster.setShardCount(1);
+		this.multicaster.setQueueCapacity(1);
+		this.multicaster.setOverflowPolicy(AsyncApplicationEventMulticaster.OverflowPolicy.CALLER_RUNS);
+		BlockingListener blockingListener = new BlockingListener();
+		RecordingListener listener = new RecordingListener();
+		this.multicaster.addApplicationListener(blockingListener);
+		this.multicaster.addApplicationListener(listener);
+
+		publish("first");
+		assertTrue(blockingListener.started.await(5, TimeUnit.SECONDS));
+		publish("queued");
+		Thread publisher = new Thread(() -> publish("overflow"));
+		publisher.start();
+		publisher.join(200);
+		assertTrue("Publisher should wait for the delivery in progress", publisher.isAlive());
+
+		blockingListener.release.countDown();
+		publisher.join(5000);
+		assertEquals(Arrays.asList("first", "queued", "overflow"), listener.payloads);
+		assertEquals(publisher, listener.threads.get(1));
+		assertEquals(publisher, listener.threads.get(2));
+		this.multicaster.destroy();
+		assertEquals(0, this.multicaster.getDroppedEventCount());
+	}
+
+	@Test
+	public void contextEventsDeliveredInCallingThread() {
+		List<Thread> threads = new CopyOnWriteArrayList<>();
+		this.multicaster.addApplicationListener((ApplicationListener<ContextRefreshedEvent>) event ->
+				threads.add(Thread.currentThread()));
+
+		this.multicaster.multicastEvent(new ContextRefreshedEvent(new StaticApplicationContext()));
+		assertEquals(Collections.singletonList(Thread.currentThread()), threads);
+	}
+
+	@Test
+	public void synchronousTaskExecutorRejected() {
+		this.multicaster.setTaskExecutor(new SyncTaskExecutor());
+		this.multicaster.addApplicationListener(new RecordingListener());
+		try {
+			publish("event");
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			// expected
+		}
+	}
+
+	@Test
+	public void taskExecutorWithTooFewThreadsRejected() {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			this.multicaster.setShardCount(2);
+			this.multicaster.setTaskExecutor(executor);
+			this.multicaster.addApplicationListener(new RecordingListener());
+			try {
+				publish("event");
+				fail("Should have thrown IllegalStateException");
+			}
+			catch (IllegalStateException ex) {
+				assertTrue(ex.getMessage().contains("1 of 2"));
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void batchListenerReceivesQueuedEventsAtOnce() throws InterruptedException {
+		this.multicaster.setShardCount(1);
+		BlockingListener blockingListener = new BlockingListener();
+		List<List<ApplicationEvent>> batches = new CopyOnWriteArrayList<>();
+		this.multicaster.addApplicationListener(blockingListener);
+		this.multicaster.addApplicationListener((BatchApplicationListener<ApplicationEvent>) batches::add);
+
+		publish("first");
+		assertTrue(blockingListener.started.await(5, TimeUnit.SECONDS));
+		for (int i = 0; i < 10; i++) {
+			publish("event" + i);
+		}
+		blockingListener.release.countDown();
+		this.multicaster.destroy();
+
+		assertEquals(2, batches.size());
+		assertEquals(1, batches.get(0).size());
+		assertEquals(10, batches.get(1).size());
+		assertEquals("event9", ((PayloadApplicationEvent<?>) batches.get(1).get(9)).getPayload());
+	}
+
+	@Test
+	public void listenerExceptionDoesNotStopDelivery() throws InterruptedException {
+		List<Throwable> errors = new CopyOnWriteArrayList<>();
+		this.multicaster.setErrorHandler(errors::add);
+		RecordingListener listener = new RecordingListener();
+		this.multicaster.addApplicationListener(event -> {
+			throw new IllegalStateException("Expected exception");
+		});
+		this.multicaster.addApplicationListener(listener);
+
+		publish("event1");
+		publish("event2");
+		this.multicaster.destroy();
+
+		assertEquals(2, errors.size());
+		assertEquals(2, listener.payloads.size());
+	}
+
+	@Test
+	public void eventsDeliveredInCallingThreadAfterDestroy() throws InterruptedException {
+		RecordingListener listener = new RecordingListener();
+		this.multicaster.addApplicationListener(listener);
+		this.multicaster.destroy();
+
+		publish("event");
+		assertEquals(Collections.singletonList("event"), listener.payloads);
+		assertEquals(Thread.currentThread(), listener.threads.get(0));
+	}
+
+
+	private void publish(String payload) {
+		this.multicaster.multicastEvent(new PayloadApplicationEvent<>(this, payload));
+	}
+
+
+	private static class RecordingListener implements ApplicationListener<PayloadApplicationEvent<String>> {
+
+		final List<String> payloads = new CopyOnWriteArrayList<>();
+
+		final List<Thread> threads = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void onApplicationEvent(PayloadApplicationEvent<String> event) {
+			this.payloads.add(event.getPayload());
+			this.threads.add(Thread.currentThread());
+		}
+	}
+
+
+	private static class BlockingListener extends RecordingListener {
+
+		final CountDownLatch started = new CountDownLatch(1);
+
+		final CountDownLatch release = new CountDownLatch(1);
+
+		@Override
+		public void onApplicationEvent(PayloadApplicationEvent<String> event) {
+			super.onApplicationEvent(event);
+			if (!"first".equals(event.getPayload())) {
+				return;
+			}
+			this.started.countDown();
+			try {
+				this.release.await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import org.junit.Test;
+
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.util.LambdaFactoryUtils;
+import org.springframework.util.ReflectionUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link GeneratedListenerMethodInvoker}.
+ */
+public class GeneratedListenerMethodInvokerTests {
+
+	private final Listener listener = new Listener();
+
+
+	@Test
+	public void generatedAfterThreshold() {
+		GeneratedListenerMethodInvoker invoker = createInvoker("handle", String.class);
+		Object[] args = new Object[] {"test"};
+		for (int i = 0; i < LambdaFactoryUtils.GENERATION_THRESHOLD; i++) {
+			assertNull(invoker.getInvoker(this.listener, args));
+		}
+		BiFunction<Object, Object, Object> function = invoker.getInvoker(this.listener, args);
+		assertNotNull(function);
+		assertNull(function.apply(this.listener, "test"));
+		assertEquals("test", this.listener.received.get(0));
+	}
+
+	@Test
+	public void generatedForAllSignatures() {
+		assertEquals("result:test", generate("handleWithResult", String.class).apply(this.listener, "test"));
+		assertEquals(42, generate("handlePrimitive", int.class).apply(this.listener, 41));
+		assertNull(generate("handleWithoutParameter").apply(this.listener, null));
+		assertEquals("none", generate("handleWithoutParameterWithResult").apply(this.listener, null));
+		assertEquals(1, this.listener.received.size());
+	}
+
+	@Test
+	public void notGeneratedForMismatchingArguments() {
+		GeneratedListenerMethodInvoker invoker = createInvoker("handlePrimitive", int.class);
+		for (int i = 0; i <= LambdaFactoryUtils.GENERATION_THRESHOLD; i++) {
+			assertNull(invoker.getInvoker(this.listener, new Object[] {null}));
+			assertNull(invoker.getInvoker(this.listener, new Object[] {"test"}));
+			assertNull(invoker.getInvoker(new Object(), new Object[] {1}));
+		}
+	}
+
+	@Test
+	public void notGeneratedForNonPublicClass() {
+		Method method = ReflectionUtils.findMethod(NonPublicListener.class, "handle", String.class);
+		GeneratedListenerMethodInvoker invoker = new GeneratedListenerMethodInvoker(method);
+		Object[] args = new Object[] {"test"};
+		for (int i = 0; i <= LambdaFactoryUtils.GENERATION_THRESHOLD * 2; i++) {
+			assertNull(invoker.getInvoker(new NonPublicListener(), args));
+		}
+	}
+
+	@Test
+	public void adapterRethrowsExceptionsFromGeneratedInvoker() {
+		StaticApplicationContext context = new StaticApplicationContext();
+		context.getBeanFactory().registerSingleton("listener", this.listener);
+		Method method = ReflectionUtils.findMethod(Listener.class, "fail", String.class);
+		ApplicationListenerMethodAdapter adapter = new ApplicationListenerMethodAdapter("listener", Listener.class, method);
+		adapter.init(context, new EventExpressionEvaluator());
+
+		for (int i = 0; i <= LambdaFactoryUtils.GENERATION_THRESHOLD + 1; i++) {
+			try {
+				adapter.onApplicationEvent(new PayloadApplicationEvent<>(this, "runtime"));
+				fail("Should have thrown IllegalStateException");
+			}
+			catch (IllegalStateException ex) {
+				assertEquals("runtime", ex.getMessage());
+			}
+			try {
+				adapter.onApplicationEvent(new PayloadApplicationEvent<>(this, "checked"));
+				fail("Should have thrown UndeclaredThrowableException");
+			}
+			catch (UndeclaredThrowableException ex) {
+				assertTrue(ex.getUndeclaredThrowable() instanceof IOException);
+			}
+		}
+	}
+
+
+	private GeneratedListenerMethodInvoker createInvoker(String methodName, Class<?>... parameterTypes) {
+		return new GeneratedListenerMethodInvoker(ReflectionUtils.findMethod(Listener.class, methodName, parameterTypes));
+	}
+
+	private BiFunction<Object, Object, Object> generate(String methodName, Class<?>... parameterTypes) {
+		GeneratedListenerMethodInvoker invoker = createInvoker(methodName, parameterTypes);
+		Object[] args = (parameterTypes.length > 0 ? new Object[] {1} : new Object[0]);
+		if (parameterTypes.length > 0 && parameterTypes[0] == String.class) {
+			args[0] = "test";
+		}
+		BiFunction<Object, Object, Object> function = null;
+		for (int i = 0; i <= LambdaFactoryUtils.GENERATION_THRESHOLD; i++) {
+			function = invoker.getInvoker(this.listener, args);
+		}
+		assertNotNull(function);
+		return function;
+	}
+
+
+	public static class Listener {
+
+		public final List<Object> received = new ArrayList<>();
+
+		@EventListener
+		public void handle(String event) {
+			this.received.add(event);
+		}
+
+		@EventListener
+		public String handleWithResult(String event) {
+			return "result:" + event;
+		}
+
+		@EventListener
+		public int handlePrimitive(int event) {
+			return event + 1;
+		}
+
+		@EventListener(String.class)
+		public void handleWithoutParameter() {
+			this.received.add("none");
+		}
+
+		@EventListener(String.class)
+		public String handleWithoutParameterWithResult() {
+			return "none";
+		}
+
+		@EventListener
+		public void fail(String event) throws IOException {
+			if ("checked".equals(event)) {
+				throw new IOException(event);
+			}
+			throw new IllegalStateException(event);
+		}
+	}
+
+
+	static class NonPublicListener {
+
+		@EventListener
+		public void handle(String event) {
+		}
+	}
+
+}
@@ -64,6 +64,36 @@ public class CachedExpressionEvaluatorTests {
 		assertEquals("Cached expression should be based on type", 2, expressionEvaluator.testCache.size());
 	}
 
+	@Test
+	public void cacheExpressionInExpressionCache() {
+		Method method = ReflectionUtils.findMethod(getClass(), "toString");
+		Expression expression = expressionEvaluator.getSharedExpression("true", method, getClass());
+		assertSame(expression, expressionEvaluator.getSharedExpression("true", method, getClass()));
+		assertNotSame(expression, expressionEvaluator.getSharedExpression("true", method, Object.class));
+		hasParsedExpression("true", 2);
+		assertEquals(2, expressionEvaluator.getExpressionCache().size());
+	}
+
+	@Test
+	public void expressionCachePerEvaluator() {
+		CachedExpressionEvaluator evaluator1 = new CachedExpressionEvaluator() {};
+		CachedExpressionEvaluator evaluator2 = new CachedExpressionEvaluator() {};
+		assertNotSame(evaluator1.getParser(), evaluator2.getParser());
+		assertNotSame(evaluator1.getExpressionCache(), evaluator2.getExpressionCache());
+	}
+
+	@Test
+	public void cacheArgumentBindings() {
+		Method method = ReflectionUtils.findMethod(getClass(), "toString");
+		MethodArgumentBindings bindings = expressionEvaluator.getArgumentBindings(method);
+		assertSame(method, bindings.getMethod());
+		assertSame(bindings, expressionEvaluator.getArgumentBindings(method));
+	}
+
+	private void hasParsedExpression(String expression, int times) {
+		verify(expressionEvaluator.getParser(), times(times)).parseExpression(expression);
+	}
+
 	private void hasParsedExpression(String expression) {
 		verify(expressionEvaluator.getParser(), times(1)).parseExpression(expression);
 	}
@@ -73,13 +103,17 @@ public class CachedExpressionEvaluatorTests {
 		private final Map<ExpressionKey, Expression> testCache = new ConcurrentHashMap<>();
 
 		public TestExpressionEvaluator() {
-			super(mockSpelExpressionParser());
+			super(mockSpelExpressionParser(), new ExpressionCache());
 		}
 
 		public Expression getTestExpression(String expression, Method method, Class<?> type) {
 			return getExpression(this.testCache, new AnnotatedElementKey(method, type), expression);
 		}
 
+		public Expression getSharedExpression(String expression, Method method, Class<?> type) {
+			return getExpression(new AnnotatedElementKey(method, type), expression);
+		}
+
 		private static SpelExpressionParser mockSpelExpressionParser() {
 			SpelExpressionParser parser = new SpelExpressionParser();
 			return spy(parser);
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.expression;
+
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.ParserContext;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.util.ReflectionUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ExpressionCache}.
+ *
+ * @since 5.0.11
+ */
+public class ExpressionCacheTests {
+
+	private final SpelExpressionParser parser = new SpelExpressionParser();
+
+	private final ExpressionCache cache = new ExpressionCache(2);
+
+
+	@Test
+	public void cacheExpression() {
+		Expression expression = this.cache.getExpression(this.parser, "1 + 1", null, null);
+		assertEquals(2, expression.getValue());
+		assertSame(expression, this.cache.getExpression(this.parser, "1 + 1", null, null));
+		assertEquals(1, this.cache.size());
+		assertEquals(1, this.cache.getHitCount());
+		assertEquals(1, this.cache.getMissCount());
+	}
+
+	@Test
+	public void cacheExpressionPerParserContextAndScope() {
+		Method method = ReflectionUtils.findMethod(getClass(), "toString");
+		Expression expression = this.cache.getExpression(this.parser, "'a'", null, null);
+		Expression template = this.cache.getExpression(this.parser, "'a'", ParserContext.TEMPLATE_EXPRESSION, null);
+		assertEquals("a", expression.getValue());
+		assertEquals("'a'", template.getValue());
+
+		ExpressionCache cache = new ExpressionCache();
+		Expression scoped1 = cache.getExpression(this.parser, "true", null, new AnnotatedElementKey(method, getClass()));
+		Expression scoped2 = cache.getExpression(this.parser, "true", null, new AnnotatedElementKey(method, Object.class));
+		assertNotSame(scoped1, scoped2);
+		assertSame(scoped1, cache.getExpression(this.parser, "true", null, new AnnotatedElementKey(method, getClass())));
+		assertNotSame(scoped1, cache.getExpression(new SpelExpressionParser(), "true", null,
+				new AnnotatedElementKey(method, getClass())));
+	}
+
+	@Test
+	public void evictOldestExpressions() {
+		Expression expression1 = this.cache.getExpression(this.parser, "1", null, null);
+		this.cache.getExpression(this.parser, "2", null, null);
+		this.cache.getExpression(this.parser, "3", null, null);
+		assertEquals(2, this.cache.size());
+		assertEquals(1, this.cache.getEvictionCount());
+		assertNotSame(expression1, this.cache.getExpression(this.parser, "1", null, null));
+		assertEquals(4, this.cache.getMissCount());
+
+		this.cache.clear();
+		assertEquals(0, this.cache.size());
+	}
+
+}
@@ -125,6 +125,48 @@ public class MethodBasedEvaluationContextTests {
 		assertArrayEquals(new Object[] {"hello", "hi"}, (Object[]) context.lookupVariable("vararg"));
 	}
 
+	@Test
+	public void argumentBindings() {
+		Method method = ReflectionUtils.findMethod(SampleMethods.class, "hello", String.class, Boolean.class);
+		MethodArgumentBindings bindings = MethodArgumentBindings.forMethod(method, this.paramDiscover);
+		assertTrue(bindings.isBound("foo"));
+		assertTrue(bindings.isBound("p1"));
+		assertFalse(bindings.isBound("a2"));
+
+		MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(this, method,
+				new Object[] {"test", true}, bindings);
+		assertEquals("test", context.lookupVariable("a0"));
+		assertEquals("test", context.lookupVariable("p0"));
+		assertEquals("test", context.lookupVariable("foo"));
+		assertEquals(true, context.lookupVariable("a1"));
+		assertEquals(true, context.lookupVariable("p1"));
+		assertEquals(true, context.lookupVariable("flag"));
+		assertNull(context.lookupVariable("a2"));
+
+		context.setVariable("foo", "explicit");
+		assertEquals("explicit", context.lookupVariable("foo"));
+		assertEquals("test", context.lookupVariable("p0"));
+
+		context = new MethodBasedEvaluationContext(this, method, new Object[] {"other", false}, bindings);
+		assertEquals("other", context.lookupVariable("foo"));
+		assertEquals(false, context.lookupVariable("flag"));
+	}
+
+	@Test
+	public void argumentBindingsWithVarArgs() {
+		Method method = ReflectionUtils.findMethod(SampleMethods.class, "hello", Boolean.class, String[].class);
+		MethodArgumentBindings bindings = MethodArgumentBindings.forMethod(method, this.paramDiscover);
+
+		MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(this, method,
+				new Object[] {null, "hello", "hi"}, bindings);
+		assertNull(context.lookupVariable("flag"));
+		assertArrayEquals(new Object[] {"hello", "hi"}, (Object[]) context.lookupVariable("vararg"));
+
+		context = new MethodBasedEvaluationContext(this, method, new Object[] {null}, bindings);
+		assertNull(context.lookupVariable("p1"));
+		assertNull(context.lookupVariable("vararg"));
+	}
+
 	private MethodBasedEvaluationContext createEvaluationContext(Method method, Object... args) {
 		return new MethodBasedEvaluationContext(this, method, args, this.paramDiscover);
 	}
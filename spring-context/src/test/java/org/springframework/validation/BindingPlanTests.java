@@ -0,0 +1,148 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.validation;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import org.junit.Test;
+
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.NotWritablePropertyException;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the use of a shared {@link BindingPlan} by {@link DataBinder}.
+ *
+ * @since 5.0.11
+ */
+public class BindingPlanTests {
+
+	@Test
+	public void planSharedForSameConfiguration() {
+		BindingPlan plan = BindingPlan.forConfiguration(TestBean.class, BeanWrapperImpl.class,
+				new String[] {"name", "age"}, null);
+
+		assertSame(plan, BindingPlan.forConfiguration(TestBean.class, BeanWrapperImpl.class,
+				new String[] {"name", "age"}, null));
+		assertNotSame(plan, BindingPlan.forConfiguration(TestBean.class, BeanWrapperImpl.class,
+				new String[] {"name"}, null));
+		assertNotSame(plan, BindingPlan.forConfiguration(TestBean.class, DirectFieldAccessor.class,
+				new String[] {"name", "age"}, null));
+		assertNotSame(plan, BindingPlan.forConfiguration(Object.class, BeanWrapperImpl.class,
+				new String[] {"name", "age"}, null));
+	}
+
+	@Test
+	public void decisionsCachedForRecentlyUsedFields() {
+		BindingPlan plan = BindingPlan.forConfiguration(TestBean.class, BeanWrapperImpl.class,
+				new String[] {"field*"}, null);
+		AtomicInteger resolved = new AtomicInteger();
+		Predicate<String> matcher = field -> {
+			resolved.incrementAndGet();
+			return true;
+		};
+		for (int i = 0; i < 1000; i++) {
+			assertTrue(plan.isAllowed("field" + i, matcher));
+		}
+		assertEquals(1000, resolved.get());
+
+		// Fields bound after the cache filled up still get their decision cached
+		assertTrue(plan.isAllowed("field999", matcher));
+		assertTrue(plan.isAllowed("name", matcher));
+		assertTrue(plan.isAllowed("name", matcher));
+		assertEquals(1001, resolved.get());
+	}
+
+	@Test
+	public void repeatedBindingWithAllowedAndDisallowedFields() {
+		for (int i = 0; i < 3; i++) {
+			TestBean tb = new TestBean();
+			DataBinder binder = new DataBinder(tb, "person");
+			binder.setAllowedFields("na*", "age", "touchy");
+			binder.setDisallowedFields("touchy");
+			MutablePropertyValues pvs = new MutablePropertyValues();
+			pvs.add("name", "Rod" + i);
+			pvs.add("age", i);
+			pvs.add("touchy", "m.y");
+			pvs.add("spouse", new TestBean());
+			binder.bind(pvs);
+
+			assertEquals("Rod" + i, tb.getName());
+			assertEquals(i, tb.getAge());
+			assertNull(tb.getTouchy());
+			assertNull(tb.getSpouse());
+			String[] suppressed = binder.getBindingResult().getSuppressedFields();
+			assertEquals(2, suppressed.length);
+		}
+	}
+
+	@Test
+	public void repeatedBindingWithUnknownFields() {
+		for (int i = 0; i < 3; i++) {
+			TestBean tb = new TestBean();
+			tb.setSpouse(new TestBean());
+			DataBinder binder = new DataBinder(tb, "person");
+			MutablePropertyValues pvs = new MutablePropertyValues();
+			pvs.add("name", "Rod" + i);
+			pvs.add("unknown", "value");
+			pvs.add("spouse.name", "Kerry" + i);
+			binder.bind(pvs);
+
+			assertEquals("Rod" + i, tb.getName());
+			assertEquals("Kerry" + i, tb.getSpouse().getName());
+			assertFalse(binder.getBindingResult().hasErrors());
+		}
+	}
+
+	@Test(expected = NotWritablePropertyException.class)
+	public void unknownFieldNotIgnored() {
+		DataBinder binder = new DataBinder(new TestBean(), "person");
+		binder.bind(new MutablePropertyValues().add("unknown", "value"));
+		binder = new DataBinder(new TestBean(), "person");
+		binder.setIgnoreUnknownFields(false);
+		binder.bind(new MutablePropertyValues().add("unknown", "value"));
+	}
+
+	@Test
+	public void unknownFieldsDependOnAccessType() {
+		ReadOnlyBean bean = new ReadOnlyBean();
+		DataBinder binder = new DataBinder(bean, "bean");
+		binder.bind(new MutablePropertyValues().add("value", "bean"));
+		assertNull(bean.getValue());
+
+		binder = new DataBinder(bean, "bean");
+		binder.initDirectFieldAccess();
+		binder.bind(new MutablePropertyValues().add("value", "field"));
+		assertEquals("field", bean.getValue());
+	}
+
+
+	public static class ReadOnlyBean {
+
+		private String value;
+
+		public String getValue() {
+			return this.value;
+		}
+	}
+
+}
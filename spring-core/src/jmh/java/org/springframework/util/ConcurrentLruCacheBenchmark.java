@@ -0,0 +1,84 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Benchmarks for {@link ConcurrentLruCache} hits from many threads at once,
+ * on a small set of hot keys as typical for parsed SQL or path caches.
+ *
+ * @since 5.0.11
+ */
+@BenchmarkMode(Mode.Throughput)
+public class ConcurrentLruCacheBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class CacheState {
+
+		@Param({"8", "256"})
+		public int keyCount;
+
+		public ConcurrentLruCache<String, String> cache;
+
+		public String[] keys;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.cache = new ConcurrentLruCache<>(this.keyCount, String::toUpperCase);
+			this.keys = new String[this.keyCount];
+			for (int i = 0; i < this.keyCount; i++) {
+				this.keys[i] = "key" + i;
+				this.cache.get(this.keys[i]);
+			}
+		}
+	}
+
+
+	@State(Scope.Thread)
+	public static class ThreadState {
+
+		public int index;
+	}
+
+
+	@Benchmark
+	@Threads(1)
+	public String uncontendedHit(CacheState state, ThreadState threadState) {
+		return hit(state, threadState);
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public String contendedHit(CacheState state, ThreadState threadState) {
+		return hit(state, threadState);
+	}
+
+	private static String hit(CacheState state, ThreadState threadState) {
+		int index = threadState.index++;
+		return state.cache.get(state.keys[index & (state.keyCount - 1)]);
+	}
+
+}
@@ -0,0 +1,344 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Simple LRU (Least Recently Used) cache, bounded by a specified cache limit.
+ *
+ * <p>This implementation is backed by a {@code ConcurrentHashMap} for storing
+ * the cached values, with the entries additionally being linked in access
+ * order. Cache hits neither lock nor reorder entries: they record the entry in
+ * one of several small read buffers, selected by thread, which get replayed
+ * into the access order under the lock on the next cache miss. The buffers are
+ * lossy, overwriting older records when full, which makes the eviction order
+ * approximate for entries that are read very frequently. Inserts take the lock
+ * and evict the least recently used entries right away, so the cache never
+ * exceeds its size limit.
+ *
+ * <p>Values are generated through the given function on a cache miss, outside
+ * of the lock; two threads missing the same key at the same time may both
+ * generate a value, with the first one getting cached.
+ *
+ * @since 5.0.11
+ * @param <K> the type of the key used for cache retrieval
+ * @param <V> the type of the cached values
+ */
+public class ConcurrentLruCache<K, V> {
+
+	private static final int READ_BUFFER_COUNT = readBufferCount();
+
+	private static final int READ_BUFFER_SIZE = 16;
+
+
+	private final int sizeLimit;
+
+	private final Function<K, V> generator;
+
+	private final ConcurrentHashMap<K, Node<K, V>> cache = new ConcurrentHashMap<>();
+
+	/** Guards the access order list and all structural modifications of the cache */
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/** Least recently used entry */
+	@Nullable
+	private Node<K, V> head;
+
+	/** Most recently used entry */
+	@Nullable
+	private Node<K, V> tail;
+
+	/** Cache hits not reflected in the access order yet, striped by thread */
+	@Nullable
+	private final ReadBuffer<K, V>[] readBuffers;
+
+
+	/**
+	 * Create a new cache instance with the given limit and generator function.
+	 * @param sizeLimit the maximum number of entries in the cache
+	 * (0 indicates no caching, always generating a new value)
+	 * @param generator a function to generate a new value for a given key
+	 */
+	public ConcurrentLruCache(int sizeLimit, Function<K, V> generator) {
+		Assert.isTrue(sizeLimit >= 0, "Cache size limit must not be negative");
+		Assert.notNull(generator, "Generator function must not be null");
+		this.sizeLimit = sizeLimit;
+		this.generator = generator;
+		this.readBuffers = (sizeLimit > 0 ? createReadBuffers() : null);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <K, V> ReadBuffer<K, V>[] createReadBuffers() {
+		ReadBuffer<K, V>[] readBuffers = (ReadBuffer<K, V>[]) new ReadBuffer<?, ?>[READ_BUFFER_COUNT];
+		for (int i = 0; i < readBuffers.length; i++) {
+			readBuffers[i] = new ReadBuffer<>();
+		}
+		return readBuffers;
+	}
+
+	private static int readBufferCount() {
+		int count = 1;
+		while (count < Runtime.getRuntime().availableProcessors() && count < 64) {
+			count <<= 1;
+		}
+		return count;
+	}
+
+
+	/**
+	 * Retrieve an entry from the cache, potentially triggering generation
+	 * of the value.
+	 * @param key the key to retrieve the entry for
+	 * @return the cached or newly generated value
+	 */
+	public V get(K key) {
+		if (this.sizeLimit == 0) {
+			return this.generator.apply(key);
+		}
+		Node<K, V> node = this.cache.get(key);
+		if (node != null) {
+			recordAccess(node);
+			return node.value;
+		}
+		V value = this.generator.apply(key);
+		this.lock.lock();
+		try {
+			drainReadBuffers();
+			node = this.cache.get(key);
+			if (node != null) {
+				moveToTail(node);
+				return node.value;
+			}
+			node = new Node<>(key, value);
+			this.cache.put(key, node);
+			linkLast(node);
+			while (this.cache.size() > this.sizeLimit && this.head != null) {
+				Node<K, V> leastRecentlyUsed = this.head;
+				unlink(leastRecentlyUsed);
+				this.cache.remove(leastRecentlyUsed.key);
+			}
+			return value;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Determine whether the given key is present in this cache.
+	 * @param key the key to check for
+	 * @return {@code true} if the key is present,
+	 * {@code false} if there was no matching key
+	 */
+	public boolean contains(K key) {
+		return this.cache.containsKey(key);
+	}
+
+	/**
+	 * Immediately remove the given key and any associated value.
+	 * @param key the key to evict the entry for
+	 * @return {@code true} if the key was present before,
+	 * {@code false} if there was no matching key
+	 */
+	public boolean remove(K key) {
+		this.lock.lock();
+		try {
+			Node<K, V> node = this.cache.remove(key);
+			if (node == null) {
+				return false;
+			}
+			unlink(node);
+			return true;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Immediately remove all entries from this cache.
+	 */
+	public void clear() {
+		this.lock.lock();
+		try {
+			this.cache.clear();
+			clearReadBuffers();
+			// Detach all nodes, since concurrent hits may still hold on to them
+			while (this.head != null) {
+				unlink(this.head);
+			}
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Return the current size of the cache.
+	 * @see #sizeLimit()
+	 */
+	public int size() {
+		return this.cache.size();
+	}
+
+	/**
+	 * Return the maximum number of entries in the cache
+	 * (0 indicates no caching, always generating a new value).
+	 * @see #size()
+	 */
+	public int sizeLimit() {
+		return this.sizeLimit;
+	}
+
+
+	/**
+	 * Record a cache hit in the read buffer for the current thread,
+	 * overwriting the oldest record if the buffer is full.
+	 */
+	private void recordAccess(Node<K, V> node) {
+		ReadBuffer<K, V>[] readBuffers = this.readBuffers;
+		if (readBuffers != null) {
+			long threadId = Thread.currentThread().getId();
+			int hash = (int) (threadId ^ (threadId >>> 32)) * 0x9E3779B9;
+			readBuffers[(hash >>> 16) & (readBuffers.length - 1)].record(node);
+		}
+	}
+
+
+	// Access order list operations, to be called with the lock held
+
+	private void drainReadBuffers() {
+		if (this.readBuffers != null) {
+			for (ReadBuffer<K, V> readBuffer : this.readBuffers) {
+				readBuffer.drainTo(this);
+			}
+		}
+	}
+
+	private void clearReadBuffers() {
+		if (this.readBuffers != null) {
+			for (ReadBuffer<K, V> readBuffer : this.readBuffers) {
+				readBuffer.clear();
+			}
+		}
+	}
+
+	private void moveToTail(Node<K, V> node) {
+		if (node.linked && node != this.tail) {
+			unlink(node);
+			linkLast(node);
+		}
+	}
+
+	private void linkLast(Node<K, V> node) {
+		node.prev = this.tail;
+		node.next = null;
+		if (this.tail != null) {
+			this.tail.next = node;
+		}
+		else {
+			this.head = node;
+		}
+		this.tail = node;
+		node.linked = true;
+	}
+
+	private void unlink(Node<K, V> node) {
+		if (!node.linked) {
+			return;
+		}
+		if (node.prev != null) {
+			node.prev.next = node.next;
+		}
+		else {
+			this.head = node.next;
+		}
+		if (node.next != null) {
+			node.next.prev = node.prev;
+		}
+		else {
+			this.tail = node.prev;
+		}
+		node.prev = null;
+		node.next = null;
+		node.linked = false;
+	}
+
+
+	/**
+	 * Lossy ring buffer of recently hit entries, written without locking
+	 * and drained with the cache lock held.
+	 */
+	private static final class ReadBuffer<K, V> {
+
+		private final AtomicReferenceArray<Node<K, V>> nodes = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+
+		private final AtomicInteger writeIndex = new AtomicInteger();
+
+		void record(Node<K, V> node) {
+			this.nodes.lazySet(this.writeIndex.getAndIncrement() & (READ_BUFFER_SIZE - 1), node);
+		}
+
+		void drainTo(ConcurrentLruCache<K, V> cache) {
+			// Oldest record first, starting at the slot to be overwritten next
+			int start = this.writeIndex.get();
+			for (int i = 0; i < READ_BUFFER_SIZE; i++) {
+				int index = (start + i) & (READ_BUFFER_SIZE - 1);
+				Node<K, V> node = this.nodes.get(index);
+				if (node != null) {
+					this.nodes.compareAndSet(index, node, null);
+					cache.moveToTail(node);
+				}
+			}
+		}
+
+		void clear() {
+			for (int i = 0; i < READ_BUFFER_SIZE; i++) {
+				this.nodes.set(i, null);
+			}
+		}
+	}
+
+
+	private static final class Node<K, V> {
+
+		final K key;
+
+		final V value;
+
+		@Nullable
+		Node<K, V> prev;
+
+		@Nullable
+		Node<K, V> next;
+
+		boolean linked;
+
+		Node(K key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+	}
+
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Utility methods for invoking constructors and methods through
+ * {@link LambdaMetafactory}-generated implementations of functional
+ * interfaces such as {@link java.util.function.Function}, as a faster
+ * alternative to reflection for members that get invoked repeatedly.
+ *
+ * <p>Only public members of public classes visible to the ClassLoader of
+ * this class are supported, since the generated lambda class gets linked
+ * against them. Generation is comparatively expensive: callers typically
+ * keep using reflection until a member has been invoked
+ * {@link #GENERATION_THRESHOLD} times.
+ *
+ * <p>Only intended for internal use.
+ *
+ * @since 5.0.11
+ */
+public abstract class LambdaFactoryUtils {
+
+	/**
+	 * Recommended number of reflective invocations of a member
+	 * before generating a function for it.
+	 */
+	public static final int GENERATION_THRESHOLD = 100;
+
+	private static final Log logger = LogFactory.getLog(LambdaFactoryUtils.class);
+
+
+	/**
+	 * Generate an implementation of the given functional interface which
+	 * invokes the given constructor or method.
+	 * <p>The parameters of the functional interface method map to the receiver
+	 * (for an instance method) followed by the parameters of the given member.
+	 * Reference parameters of the interface method accept the boxed or declared
+	 * type of the corresponding member parameter, whereas primitive parameters
+	 * need to match the member parameter exactly. The result of the member gets
+	 * boxed if necessary, or dropped for a {@code void} interface method.
+	 * @param executable the constructor or method to invoke
+	 * @param functionalInterface the functional interface to implement
+	 * @return the generated function, or {@code null} if the member is not
+	 * {@link #isGenerationSupported supported} or does not match the
+	 * signature of the functional interface
+	 */
+	@Nullable
+	public static <T> T generateFunction(Executable executable, Class<T> functionalInterface) {
+		if (!isGenerationSupported(executable)) {
+			return null;
+		}
+		Method interfaceMethod = getFunctionalInterfaceMethod(functionalInterface);
+		MethodType erasedType = MethodType.methodType(
+				interfaceMethod.getReturnType(), interfaceMethod.getParameterTypes());
+		MethodType instantiatedType = getInstantiatedType(executable, erasedType);
+		if (instantiatedType == null) {
+			return null;
+		}
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			MethodHandle handle = (executable instanceof Constructor ?
+					lookup.unreflectConstructor((Constructor<?>) executable) : lookup.unreflect((Method) executable));
+			CallSite callSite = LambdaMetafactory.metafactory(lookup, interfaceMethod.getName(),
+					MethodType.methodType(functionalInterface), erasedType, handle, instantiatedType);
+			return functionalInterface.cast(callSite.getTarget().invoke());
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to generate " + functionalInterface.getSimpleName() + " for " +
+						executable + " - falling back to reflection", ex);
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Determine whether a function can be generated for the given constructor
+	 * or method: it needs to be public, declared by a public class (including
+	 * any enclosing classes), and its declaring class as well as its parameter
+	 * and return types need to be visible to the ClassLoader of this class.
+	 * @param executable the constructor or method to check
+	 */
+	public static boolean isGenerationSupported(Executable executable) {
+		if (!Modifier.isPublic(executable.getModifiers())) {
+			return false;
+		}
+		for (Class<?> current = executable.getDeclaringClass(); current != null; current = current.getEnclosingClass()) {
+			if (!Modifier.isPublic(current.getModifiers())) {
+				return false;
+			}
+		}
+		ClassLoader classLoader = LambdaFactoryUtils.class.getClassLoader();
+		if (!ClassUtils.isVisible(executable.getDeclaringClass(), classLoader)) {
+			return false;
+		}
+		for (Class<?> parameterType : executable.getParameterTypes()) {
+			if (!parameterType.isPrimitive() && !ClassUtils.isVisible(parameterType, classLoader)) {
+				return false;
+			}
+		}
+		if (executable instanceof Method) {
+			Class<?> returnType = ((Method) executable).getReturnType();
+			return (returnType.isPrimitive() || ClassUtils.isVisible(returnType, classLoader));
+		}
+		return true;
+	}
+
+	private static Method getFunctionalInterfaceMethod(Class<?> functionalInterface) {
+		Assert.isTrue(functionalInterface.isInterface(), () -> functionalInterface.getName() + " is not an interface");
+		Method interfaceMethod = null;
+		for (Method method : functionalInterface.getMethods()) {
+			if (Modifier.isAbstract(method.getModifiers())) {
+				Assert.isTrue(interfaceMethod == null,
+						() -> functionalInterface.getName() + " is not a functional interface");
+				interfaceMethod = method;
+			}
+		}
+		Assert.notNull(interfaceMethod, () -> functionalInterface.getName() + " is not a functional interface");
+		return interfaceMethod;
+	}
+
+	/**
+	 * Determine the signature of the interface method as specialized
+	 * for the given member.
+	 * @return the instantiated method type, or {@code null} if the member
+	 * does not match the erased interface method type
+	 */
+	@Nullable
+	private static MethodType getInstantiatedType(Executable executable, MethodType erasedType) {
+		boolean hasReceiver = (executable instanceof Method && !Modifier.isStatic(executable.getModifiers()));
+		Class<?>[] memberParameterTypes = executable.getParameterTypes();
+		int offset = (hasReceiver ? 1 : 0);
+		if (erasedType.parameterCount() != memberParameterTypes.length + offset) {
+			return null;
+		}
+		Class<?>[] parameterTypes = new Class<?>[erasedType.parameterCount()];
+		if (hasReceiver) {
+			if (erasedType.parameterType(0).isPrimitive()) {
+				return null;
+			}
+			parameterTypes[0] = executable.getDeclaringClass();
+		}
+		for (int i = 0; i < memberParameterTypes.length; i++) {
+			Class<?> erasedParameterType = erasedType.parameterType(i + offset);
+			Class<?> memberParameterType = memberParameterTypes[i];
+			if (erasedParameterType.isPrimitive()) {
+				if (erasedParameterType != memberParameterType) {
+					return null;
+				}
+				parameterTypes[i + offset] = memberParameterType;
+			}
+			else {
+				parameterTypes[i + offset] = ClassUtils.resolvePrimitiveIfNecessary(memberParameterType);
+			}
+		}
+		Class<?> memberReturnType = (executable instanceof Constructor ?
+				executable.getDeclaringClass() : ((Method) executable).getReturnType());
+		Class<?> returnType;
+		if (erasedType.returnType() == void.class) {
+			returnType = void.class;
+		}
+		else if (erasedType.returnType().isPrimitive()) {
+			if (erasedType.returnType() != memberReturnType) {
+				return null;
+			}
+			returnType = memberReturnType;
+		}
+		else if (memberReturnType == void.class) {
+			return null;
+		}
+		else {
+			returnType = ClassUtils.resolvePrimitiveIfNecessary(memberReturnType);
+		}
+		return MethodType.methodType(returnType, parameterTypes);
+	}
+
+}
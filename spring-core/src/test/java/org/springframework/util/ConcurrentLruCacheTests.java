@@ -0,0 +1,145 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ConcurrentLruCache}.
+ */
+public class ConcurrentLruCacheTests {
+
+	private final AtomicInteger generated = new AtomicInteger();
+
+	private final ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(2, key -> {
+		this.generated.incrementAndGet();
+		return key.toUpperCase();
+	});
+
+
+	@Test
+	public void getAndSize() {
+		assertEquals(2, this.cache.sizeLimit());
+		assertEquals(0, this.cache.size());
+		assertEquals("K1", this.cache.get("k1"));
+		assertEquals(1, this.cache.size());
+		assertTrue(this.cache.contains("k1"));
+		assertEquals("K1", this.cache.get("k1"));
+		assertEquals(1, this.generated.get());
+	}
+
+	@Test
+	public void evictsLeastRecentlyUsed() {
+		this.cache.get("k1");
+		this.cache.get("k2");
+		this.cache.get("k3");
+		assertEquals(2, this.cache.size());
+		assertFalse(this.cache.contains("k1"));
+
+		this.cache.get("k2");
+		this.cache.get("k4");
+		assertEquals(2, this.cache.size());
+		assertTrue(this.cache.contains("k2"));
+		assertFalse(this.cache.contains("k3"));
+		assertTrue(this.cache.contains("k4"));
+	}
+
+	@Test
+	public void hitsFromOtherThreadsAffectEvictionOrder() throws Exception {
+		this.cache.get("k1");
+		this.cache.get("k2");
+		Thread reader = new Thread(() -> this.cache.get("k1"));
+		reader.start();
+		reader.join();
+		this.cache.get("k3");
+
+		assertTrue(this.cache.contains("k1"));
+		assertFalse(this.cache.contains("k2"));
+		assertTrue(this.cache.contains("k3"));
+		assertEquals(3, this.generated.get());
+	}
+
+	@Test
+	public void removeAndClear() {
+		this.cache.get("k1");
+		this.cache.get("k2");
+		assertTrue(this.cache.remove("k1"));
+		assertFalse(this.cache.remove("k1"));
+		assertEquals(1, this.cache.size());
+		this.cache.clear();
+		assertEquals(0, this.cache.size());
+	}
+
+	@Test
+	public void zeroSizeLimit() {
+		ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(0, key -> key.toUpperCase());
+		assertEquals("K1", cache.get("k1"));
+		assertEquals(0, cache.size());
+		assertFalse(cache.contains("k1"));
+	}
+
+	@Test
+	public void concurrentAccessStaysBounded() throws Exception {
+		ConcurrentLruCache<Integer, String> cache = new ConcurrentLruCache<>(64, String::valueOf);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				int offset = t;
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 10000; i++) {
+						Integer key = (i * 7 + offset) % 200;
+						assertEquals(String.valueOf(key), cache.get(key));
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertTrue(cache.size() <= 64);
+		cache.get(-1);
+		assertTrue(cache.contains(-1));
+		assertTrue(cache.size() <= 64);
+	}
+
+	@Test
+	public void clearWhileInUse() {
+		this.cache.get("k1");
+		this.cache.get("k2");
+		this.cache.clear();
+		this.cache.get("k3");
+		this.cache.get("k4");
+		this.cache.get("k5");
+		assertEquals(2, this.cache.size());
+		assertFalse(this.cache.contains("k3"));
+		assertTrue(this.cache.contains("k5"));
+	}
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link LambdaFactoryUtils}.
+ */
+public class LambdaFactoryUtilsTests {
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void generateSupplierForConstructor() throws Exception {
+		Constructor<Counter> ctor = Counter.class.getConstructor();
+		Supplier<Counter> supplier = LambdaFactoryUtils.generateFunction(ctor, Supplier.class);
+		assertNotNull(supplier);
+		assertEquals(0, supplier.get().getCount());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void generateFunctionForGetter() throws Exception {
+		Method getter = Counter.class.getMethod("getCount");
+		Function<Object, Object> function = LambdaFactoryUtils.generateFunction(getter, Function.class);
+		assertNotNull(function);
+		Counter counter = new Counter();
+		counter.setCount(5);
+		assertEquals(5, function.apply(counter));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void generateBoxingSetter() throws Exception {
+		Method setter = Counter.class.getMethod("setCount", int.class);
+		BiConsumer<Object, Object> consumer = LambdaFactoryUtils.generateFunction(setter, BiConsumer.class);
+		assertNotNull(consumer);
+		Counter counter = new Counter();
+		consumer.accept(counter, 7);
+		assertEquals(7, counter.getCount());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void generatePrimitiveSetter() throws Exception {
+		Method setter = Counter.class.getMethod("setCount", int.class);
+		ObjIntConsumer<Object> consumer = LambdaFactoryUtils.generateFunction(setter, ObjIntConsumer.class);
+		assertNotNull(consumer);
+		Counter counter = new Counter();
+		consumer.accept(counter, 9);
+		assertEquals(9, counter.getCount());
+		assertNull(LambdaFactoryUtils.generateFunction(setter, ObjLongConsumer.class));
+	}
+
+	@Test
+	public void mismatchingSignature() throws Exception {
+		assertNull(LambdaFactoryUtils.generateFunction(Counter.class.getMethod("setCount", int.class), Supplier.class));
+		assertNull(LambdaFactoryUtils.generateFunction(Counter.class.getMethod("reset"), Supplier.class));
+	}
+
+	@Test
+	public void unsupportedMember() throws Exception {
+		Method method = HiddenCounter.class.getMethod("getCount");
+		assertFalse(LambdaFactoryUtils.isGenerationSupported(method));
+		assertNull(LambdaFactoryUtils.generateFunction(method, Function.class));
+	}
+
+
+	public static class Counter {
+
+		private int count;
+
+		public int getCount() {
+			return this.count;
+		}
+
+		public void setCount(int count) {
+			this.count = count;
+		}
+
+		public void reset() {
+			this.count = 0;
+		}
+	}
+
+
+	static class HiddenCounter extends Counter {
+
+		@Override
+		public int getCount() {
+			return super.getCount();
+		}
+	}
+
+}
@@ -85,9 +85,16 @@ public class CodeFlow implements Opcodes {
 
 	/**
 	 * When code generation requires an intermediate variable within a method,
-	 * this method records the next available variable (variable 0 is 'this').
+	 * this method records the next available variable (variable 0 is 'this',
+	 * followed by the target and the evaluation context).
 	 */
-	private int nextFreeVariableId = 1;
+	private int nextFreeVariableId = 3;
+
+	/**
+	 * Variables holding the current target, if different from the target passed
+	 * to the compiled expression, e.g. the element during a collection selection.
+	 */
+	private final Deque<Integer> targetVariables = new ArrayDeque<>();
 
 
 	/**
@@ -109,7 +116,28 @@ public class CodeFlow implements Opcodes {
 	 * @param mv the visitor into which the load instruction should be inserted
 	 */
 	public void loadTarget(MethodVisitor mv) {
-		mv.visitVarInsn(ALOAD, 1);
+		Integer targetVariable = this.targetVariables.peek();
+		mv.visitVarInsn(ALOAD, (targetVariable != null ? targetVariable : 1));
+	}
+
+	/**
+	 * Enter a scope in which the target is held by the given local variable,
+	 * for example the current element while a collection selection or projection
+	 * is being evaluated.
+	 * @param variableId the id of the variable holding the target
+	 * @since 5.0.11
+	 * @see #loadTarget
+	 */
+	public void enterTargetScope(int variableId) {
+		this.targetVariables.push(variableId);
+	}
+
+	/**
+	 * Exit a scope entered through {@link #enterTargetScope}.
+	 * @since 5.0.11
+	 */
+	public void exitTargetScope() {
+		this.targetVariables.pop();
 	}
 
 	/**
@@ -16,13 +16,17 @@
 
 package org.springframework.expression.spel.ast;
 
+import org.springframework.asm.MethodVisitor;
 import org.springframework.expression.AccessException;
 import org.springframework.expression.BeanResolver;
+import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.SpelMessage;
+import org.springframework.lang.Nullable;
 
 /**
  * Represents a bean reference to a type, for example <tt>@foo</tt> or <tt>@'foo.bar'</tt>.
@@ -40,24 +44,14 @@ public class BeanReference extends SpelNodeImpl {
 	public BeanReference(int pos, String beanName) {
 		super(pos);
 		this.beanName = beanName;
+		// The bean type is not known upfront and may not be public
+		this.exitTypeDescriptor = "Ljava/lang/Object";
 	}
 
 
 	@Override
 	public TypedValue getValueInternal(ExpressionState state) throws EvaluationException {
-		BeanResolver beanResolver = state.getEvaluationContext().getBeanResolver();
-		if (beanResolver == null) {
-			throw new SpelEvaluationException(
-					getStartPosition(), SpelMessage.NO_BEAN_RESOLVER_REGISTERED, this.beanName);
-		}
-
-		try {
-			return new TypedValue(beanResolver.resolve(state.getEvaluationContext(), this.beanName));
-		}
-		catch (AccessException ex) {
-			throw new SpelEvaluationException(getStartPosition(), ex, SpelMessage.EXCEPTION_DURING_BEAN_RESOLUTION,
-				this.beanName, ex.getMessage());
-		}
+		return new TypedValue(resolveBean(state.getEvaluationContext(), this.beanName, getStartPosition()));
 	}
 
 	@Override
@@ -75,4 +69,49 @@ public class BeanReference extends SpelNodeImpl {
 		return sb.toString();
 	}
 
+	@Override
+	public boolean isCompilable() {
+		return true;
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		// BeanReference.resolveBean(context, beanName, position)
+		cf.loadEvaluationContext(mv);
+		mv.visitLdcInsn(this.beanName);
+		CodeFlow.insertOptimalLoad(mv, getStartPosition());
+		mv.visitMethodInsn(INVOKESTATIC, "org/springframework/expression/spel/ast/BeanReference", "resolveBean",
+				"(Lorg/springframework/expression/EvaluationContext;Ljava/lang/String;I)Ljava/lang/Object;", false);
+		cf.pushDescriptor(this.exitTypeDescriptor);
+	}
+
+
+	/**
+	 * Resolve the given bean through the {@link BeanResolver} of the given context.
+	 * <p>This method is not just used for interpreted bean references but also
+	 * from compiled expression code, which is why it needs to be declared as
+	 * {@code public static} here.
+	 * @param context the current evaluation context
+	 * @param beanName the name of the bean to resolve
+	 * @param position the position of the bean reference in the expression
+	 * @throws SpelEvaluationException if there is no bean resolver or if the
+	 * bean resolver fails to resolve the bean
+	 * @since 5.0.11
+	 */
+	@Nullable
+	public static Object resolveBean(EvaluationContext context, String beanName, int position) {
+		BeanResolver beanResolver = context.getBeanResolver();
+		if (beanResolver == null) {
+			throw new SpelEvaluationException(position, SpelMessage.NO_BEAN_RESOLVER_REGISTERED, beanName);
+		}
+
+		try {
+			return beanResolver.resolve(context, beanName);
+		}
+		catch (AccessException ex) {
+			throw new SpelEvaluationException(position, ex, SpelMessage.EXCEPTION_DURING_BEAN_RESOLUTION,
+				beanName, ex.getMessage());
+		}
+	}
+
 }
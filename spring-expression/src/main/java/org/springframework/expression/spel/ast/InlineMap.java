@@ -20,8 +20,10 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
+import org.springframework.asm.MethodVisitor;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelNode;
 import org.springframework.lang.Nullable;
@@ -43,6 +45,7 @@ public class InlineMap extends SpelNodeImpl {
 	public InlineMap(int pos, SpelNodeImpl... args) {
 		super(pos, args);
 		checkIfConstant();
+		this.exitTypeDescriptor = "Ljava/util/Map";
 	}
 
 
@@ -164,4 +167,89 @@ public class InlineMap extends SpelNodeImpl {
 		return (Map<Object,Object>) this.constant.getValue();
 	}
 
+	@Override
+	public boolean isCompilable() {
+		if (isConstant()) {
+			return true;
+		}
+		for (int c = 0; c < getChildCount(); c++) {
+			SpelNodeImpl child = this.children[c];
+			if (!((c % 2) == 0 && child instanceof PropertyOrFieldReference) && !child.isCompilable()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		if (isConstant()) {
+			final String constantFieldName = "inlineMap$" + cf.nextFieldId();
+			final String className = cf.getClassName();
+
+			cf.registerNewField((cw, cflow) ->
+					cw.visitField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, constantFieldName, "Ljava/util/Map;", null, null));
+
+			cf.registerNewClinit((mVisitor, cflow) -> {
+				generateMapCode(mVisitor, cflow, true);
+				mVisitor.visitFieldInsn(PUTSTATIC, className, constantFieldName, "Ljava/util/Map;");
+			});
+
+			mv.visitFieldInsn(GETSTATIC, className, constantFieldName, "Ljava/util/Map;");
+		}
+		else {
+			generateMapCode(mv, cf, false);
+		}
+		cf.pushDescriptor("Ljava/util/Map");
+	}
+
+	/**
+	 * Generate the code for building this map, leaving the map on the stack.
+	 * The code for a constant map (which may be nested) is generated into the
+	 * static initializer, so nested lists and maps are built directly here
+	 * instead of through their own generateCode() which would register
+	 * further static initialization code.
+	 */
+	private void generateMapCode(MethodVisitor mv, CodeFlow cf, boolean constant) {
+		mv.visitTypeInsn(NEW, "java/util/LinkedHashMap");
+		mv.visitInsn(DUP);
+		mv.visitMethodInsn(INVOKESPECIAL, "java/util/LinkedHashMap", "<init>", "()V", false);
+		int childCount = getChildCount();
+		for (int c = 0; c < childCount; c++) {
+			mv.visitInsn(DUP);
+			SpelNodeImpl keyChild = this.children[c++];
+			if (keyChild instanceof PropertyOrFieldReference) {
+				mv.visitLdcInsn(((PropertyOrFieldReference) keyChild).getName());
+			}
+			else {
+				generateEntryCode(keyChild, mv, cf, constant);
+			}
+			generateEntryCode(this.children[c], mv, cf, constant);
+			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map", "put",
+					"(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", true);
+			mv.visitInsn(POP);
+		}
+		if (constant) {
+			mv.visitMethodInsn(INVOKESTATIC, "java/util/Collections", "unmodifiableMap",
+					"(Ljava/util/Map;)Ljava/util/Map;", false);
+		}
+	}
+
+	private void generateEntryCode(SpelNodeImpl child, MethodVisitor mv, CodeFlow cf, boolean constant) {
+		if (constant && child instanceof InlineList) {
+			((InlineList) child).generateClinitCode(cf.getClassName(), "", mv, cf, true);
+			mv.visitMethodInsn(INVOKESTATIC, "java/util/Collections", "unmodifiableList",
+					"(Ljava/util/List;)Ljava/util/List;", false);
+		}
+		else if (constant && child instanceof InlineMap) {
+			((InlineMap) child).generateMapCode(mv, cf, true);
+		}
+		else {
+			cf.enterCompilationScope();
+			child.generateCode(mv, cf);
+			CodeFlow.insertBoxIfNecessary(mv, cf.lastDescriptor());
+			cf.exitCompilationScope();
+		}
+	}
+
 }
@@ -42,17 +42,29 @@ import org.springframework.expression.spel.support.ReflectiveMethodExecutor;
 import org.springframework.expression.spel.support.ReflectiveMethodResolver;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.ObjectUtils;
 
 /**
  * Expression language AST node that represents a method reference.
  *
+ * <p>As of 5.0.11, the node records the receiver types that it has been
+ * invoked on. A call site that has seen several receiver types is compiled
+ * against a public supertype declaring the method, if all of them share one,
+ * rather than against the receiver type that happened to be seen last.
+ *
  * @author Andy Clement
  * @author Juergen Hoeller
  * @since 3.0
  */
 public class MethodReference extends SpelNodeImpl {
 
+	// Maximum number of receiver types to record before treating the site as megamorphic
+	private static final int MAX_PROFILED_RECEIVER_TYPES = 4;
+
+	private static final Class<?>[] NO_TYPES = new Class<?>[0];
+
+
 	private final String name;
 
 	private final boolean nullSafe;
@@ -63,6 +75,15 @@ public class MethodReference extends SpelNodeImpl {
 	@Nullable
 	private volatile CachedMethodExecutor cachedExecutor;
 
+	// Receiver types seen by the interpreter, in order of appearance
+	private volatile Class<?>[] receiverTypes = NO_TYPES;
+
+	private volatile boolean megamorphic;
+
+	// Public supertype to invoke a polymorphic site on, resolved lazily for the current receiver types
+	@Nullable
+	private volatile DispatchTargetResolution dispatchTargetResolution;
+
 
 	public MethodReference(boolean nullSafe, String methodName, int pos, SpelNodeImpl... arguments) {
 		super(pos, arguments);
@@ -104,6 +125,7 @@ public class MethodReference extends SpelNodeImpl {
 			throwIfNotNullSafe(argumentTypes);
 			return TypedValue.NULL;
 		}
+		recordReceiverType(value);
 
 		MethodExecutor executorToUse = getCachedExecutor(evaluationContext, value, targetType, argumentTypes);
 		if (executorToUse != null) {
@@ -242,10 +264,106 @@ public class MethodReference extends SpelNodeImpl {
 		}
 	}
 
+	private void recordReceiverType(Object value) {
+		if (value instanceof Class || this.megamorphic) {
+			return;
+		}
+		Class<?> type = value.getClass();
+		for (Class<?> receiverType : this.receiverTypes) {
+			if (receiverType == type) {
+				return;
+			}
+		}
+		synchronized (this) {
+			Class<?>[] types = this.receiverTypes;
+			if (ObjectUtils.containsElement(types, type)) {
+				return;
+			}
+			if (types.length == MAX_PROFILED_RECEIVER_TYPES) {
+				this.megamorphic = true;
+				return;
+			}
+			Class<?>[] newTypes = new Class<?>[types.length + 1];
+			System.arraycopy(types, 0, newTypes, 0, types.length);
+			newTypes[types.length] = type;
+			this.receiverTypes = newTypes;
+		}
+	}
+
+	/**
+	 * Whether this site has seen several receiver types for the given (instance) method.
+	 */
+	private boolean isPolymorphic(Method method) {
+		return ((this.megamorphic || this.receiverTypes.length > 1) && !Modifier.isStatic(method.getModifiers()));
+	}
+
+	/**
+	 * Determine the public supertype of all recorded receiver types to invoke
+	 * a polymorphic site on in compiled code.
+	 * @param method the method resolved for the most recent receiver
+	 * @return the dispatch target, or {@code null} if the site is megamorphic
+	 * or the receiver types do not share a suitable supertype
+	 */
+	@Nullable
+	private DispatchTarget getDispatchTarget(Method method) {
+		if (this.megamorphic) {
+			return null;
+		}
+		Class<?>[] types = this.receiverTypes;
+		DispatchTargetResolution resolution = this.dispatchTargetResolution;
+		if (resolution == null || resolution.receiverTypes != types) {
+			resolution = new DispatchTargetResolution(types, findDispatchTarget(method, types));
+			this.dispatchTargetResolution = resolution;
+		}
+		return resolution.target;
+	}
+
+	/**
+	 * Find the most specific public class or interface which has a public method
+	 * with the same signature as the given method and which all of the given
+	 * receiver types are assignable to.
+	 */
+	@Nullable
+	private static DispatchTarget findDispatchTarget(Method method, Class<?>[] receiverTypes) {
+		List<Class<?>> candidates = new ArrayList<>();
+		Class<?> clazz = receiverTypes[0];
+		while (clazz != null) {
+			candidates.add(clazz);
+			clazz = clazz.getSuperclass();
+		}
+		candidates.addAll(ClassUtils.getAllInterfacesForClassAsSet(receiverTypes[0]));
+		for (Class<?> candidate : candidates) {
+			if (Modifier.isPublic(candidate.getModifiers()) && isAssignableFromAll(candidate, receiverTypes)) {
+				Method candidateMethod =
+						ClassUtils.getMethodIfAvailable(candidate, method.getName(), method.getParameterTypes());
+				if (candidateMethod != null && !Modifier.isStatic(candidateMethod.getModifiers())) {
+					return new DispatchTarget(candidate, candidateMethod);
+				}
+			}
+		}
+		return null;
+	}
+
+	private static boolean isAssignableFromAll(Class<?> candidate, Class<?>[] types) {
+		for (Class<?> type : types) {
+			if (!candidate.isAssignableFrom(type)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	private void updateExitTypeDescriptor() {
 		CachedMethodExecutor executorToCheck = this.cachedExecutor;
 		if (executorToCheck != null && executorToCheck.get() instanceof ReflectiveMethodExecutor) {
 			Method method = ((ReflectiveMethodExecutor) executorToCheck.get()).getMethod();
+			if (isPolymorphic(method)) {
+				DispatchTarget target = getDispatchTarget(method);
+				if (target == null) {
+					return;
+				}
+				method = target.method;
+			}
 			String descriptor = CodeFlow.toDescriptor(method.getReturnType());
 			if (this.nullSafe && CodeFlow.isPrimitive(descriptor)) {
 				this.originalPrimitiveExitTypeDescriptor = descriptor;
@@ -293,6 +411,9 @@ public class MethodReference extends SpelNodeImpl {
 		if (executor.didArgumentConversionOccur()) {
 			return false;
 		}
+		if (isPolymorphic(executor.getMethod())) {
+			return (getDispatchTarget(executor.getMethod()) != null);
+		}
 		Class<?> clazz = executor.getMethod().getDeclaringClass();
 		if (!Modifier.isPublic(clazz.getModifiers()) && executor.getPublicDeclaringClass() == null) {
 			return false;
@@ -310,6 +431,15 @@ public class MethodReference extends SpelNodeImpl {
 
 		ReflectiveMethodExecutor methodExecutor = (ReflectiveMethodExecutor) executorToCheck.get();
 		Method method = methodExecutor.getMethod();
+		DispatchTarget dispatchTarget = null;
+		if (isPolymorphic(method)) {
+			dispatchTarget = getDispatchTarget(method);
+			if (dispatchTarget == null) {
+				throw new IllegalStateException("No common receiver type found for polymorphic method '" +
+						this.name + "'");
+			}
+			method = dispatchTarget.method;
+		}
 		boolean isStaticMethod = Modifier.isStatic(method.getModifiers());
 		String descriptor = cf.lastDescriptor();
 
@@ -337,7 +467,12 @@ public class MethodReference extends SpelNodeImpl {
 		}
 
 		String classDesc;
-		if (Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+		boolean isInterface = method.getDeclaringClass().isInterface();
+		if (dispatchTarget != null) {
+			classDesc = dispatchTarget.type.getName().replace('.', '/');
+			isInterface = dispatchTarget.type.isInterface();
+		}
+		else if (Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
 			classDesc = method.getDeclaringClass().getName().replace('.', '/');
 		}
 		else {
@@ -351,8 +486,8 @@ public class MethodReference extends SpelNodeImpl {
 		}
 
 		generateCodeForArguments(mv, cf, method, this.children);
-		mv.visitMethodInsn((isStaticMethod ? INVOKESTATIC : INVOKEVIRTUAL), classDesc, method.getName(),
-				CodeFlow.createSignatureDescriptor(method), method.getDeclaringClass().isInterface());
+		int opcode = (isStaticMethod ? INVOKESTATIC : isInterface ? INVOKEINTERFACE : INVOKEVIRTUAL);
+		mv.visitMethodInsn(opcode, classDesc, method.getName(), CodeFlow.createSignatureDescriptor(method), isInterface);
 		cf.pushDescriptor(this.exitTypeDescriptor);
 
 		if (this.originalPrimitiveExitTypeDescriptor != null) {
@@ -440,4 +575,39 @@ public class MethodReference extends SpelNodeImpl {
 		}
 	}
 
+
+	/**
+	 * The public type to invoke a polymorphic method on, along with the
+	 * corresponding method as seen from that type.
+	 */
+	private static class DispatchTarget {
+
+		private final Class<?> type;
+
+		private final Method method;
+
+		public DispatchTarget(Class<?> type, Method method) {
+			this.type = type;
+			this.method = method;
+		}
+	}
+
+
+	/**
+	 * The dispatch target resolved for a specific set of receiver types,
+	 * published as a whole so that it cannot be seen out of sync with them.
+	 */
+	private static class DispatchTargetResolution {
+
+		private final Class<?>[] receiverTypes;
+
+		@Nullable
+		private final DispatchTarget target;
+
+		public DispatchTargetResolution(Class<?>[] receiverTypes, @Nullable DispatchTarget target) {
+			this.receiverTypes = receiverTypes;
+			this.target = target;
+		}
+	}
+
 }
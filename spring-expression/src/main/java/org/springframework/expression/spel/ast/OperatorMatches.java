@@ -22,11 +22,14 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
+import org.springframework.asm.MethodVisitor;
 import org.springframework.expression.EvaluationException;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.SpelMessage;
 import org.springframework.expression.spel.support.BooleanTypedValue;
+import org.springframework.lang.Nullable;
 
 /**
  * Implements the matches operator. Matches takes two operands:
@@ -44,6 +47,10 @@ public class OperatorMatches extends Operator {
 
 	private final ConcurrentMap<String, Pattern> patternCache = new ConcurrentHashMap<>();
 
+	/** The precompiled pattern for a literal regex operand */
+	@Nullable
+	private volatile Pattern literalPattern;
+
 
 	public OperatorMatches(int pos, SpelNodeImpl... operands) {
 		super("matches", pos, operands);
@@ -76,13 +83,22 @@ public class OperatorMatches extends Operator {
 
 		try {
 			String rightString = (String) right;
-			Pattern pattern = this.patternCache.get(rightString);
+			Pattern pattern = this.literalPattern;
 			if (pattern == null) {
-				pattern = Pattern.compile(rightString);
-				this.patternCache.putIfAbsent(rightString, pattern);
+				pattern = this.patternCache.get(rightString);
+				if (pattern == null) {
+					pattern = Pattern.compile(rightString);
+					if (rightOp instanceof StringLiteral) {
+						this.literalPattern = pattern;
+					}
+					else {
+						this.patternCache.putIfAbsent(rightString, pattern);
+					}
+				}
 			}
-			Matcher matcher = pattern.matcher(new MatcherInput(left, new AccessCount()));
-			return BooleanTypedValue.forValue(matcher.matches());
+			BooleanTypedValue result = BooleanTypedValue.forValue(matchesWithinThreshold(pattern, left));
+			this.exitTypeDescriptor = "Z";
+			return result;
 		}
 		catch (PatternSyntaxException ex) {
 			throw new SpelEvaluationException(
@@ -95,6 +111,83 @@ public class OperatorMatches extends Operator {
 	}
 
 
+	@Override
+	public boolean isCompilable() {
+		SpelNodeImpl leftOp = getLeftOperand();
+		return (this.literalPattern != null && leftOp.isCompilable() &&
+				"Ljava/lang/String".equals(leftOp.exitTypeDescriptor));
+	}
+
+	/**
+	 * The literal pattern is compiled once into a static field of the
+	 * generated class, with the actual matching delegated to
+	 * {@link #matches(Pattern, String, int, int)}.
+	 */
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		Pattern pattern = this.literalPattern;
+		if (pattern == null) {
+			throw new IllegalStateException("No literal pattern");
+		}
+		final String regex = pattern.pattern();
+		final String patternFieldName = "pattern$" + cf.nextFieldId();
+		final String className = cf.getClassName();
+
+		cf.registerNewField((cw, cflow) ->
+				cw.visitField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, patternFieldName, "Ljava/util/regex/Pattern;", null, null));
+		cf.registerNewClinit((mVisitor, cflow) -> {
+			mVisitor.visitLdcInsn(regex);
+			mVisitor.visitMethodInsn(INVOKESTATIC, "java/util/regex/Pattern", "compile",
+					"(Ljava/lang/String;)Ljava/util/regex/Pattern;", false);
+			mVisitor.visitFieldInsn(PUTSTATIC, className, patternFieldName, "Ljava/util/regex/Pattern;");
+		});
+
+		mv.visitFieldInsn(GETSTATIC, className, patternFieldName, "Ljava/util/regex/Pattern;");
+		cf.enterCompilationScope();
+		getLeftOperand().generateCode(mv, cf);
+		cf.exitCompilationScope();
+		CodeFlow.insertOptimalLoad(mv, getLeftOperand().getStartPosition());
+		CodeFlow.insertOptimalLoad(mv, getRightOperand().getStartPosition());
+		mv.visitMethodInsn(INVOKESTATIC, "org/springframework/expression/spel/ast/OperatorMatches", "matches",
+				"(Ljava/util/regex/Pattern;Ljava/lang/String;II)Z", false);
+		cf.pushDescriptor(this.exitTypeDescriptor);
+	}
+
+
+	/**
+	 * Check whether the given input matches the given pattern, guarding
+	 * against patterns which take excessively long to evaluate.
+	 * <p>This method is used from compiled expression code, which is why it
+	 * needs to be declared as {@code public static} here. It raises the same
+	 * exceptions as the interpreted operator.
+	 * @param pattern the compiled pattern
+	 * @param input the input to match
+	 * @param leftPosition the position of the input operand in the expression
+	 * @param rightPosition the position of the pattern operand in the expression
+	 * @return {@code true} if the input matches the pattern
+	 * @throws SpelEvaluationException if the input is {@code null} or if the
+	 * pattern access threshold has been exceeded
+	 * @since 5.0.11
+	 */
+	public static boolean matches(Pattern pattern, @Nullable String input, int leftPosition, int rightPosition) {
+		if (input == null) {
+			throw new SpelEvaluationException(leftPosition,
+					SpelMessage.INVALID_FIRST_OPERAND_FOR_MATCHES_OPERATOR, (Object) null);
+		}
+		try {
+			return matchesWithinThreshold(pattern, input);
+		}
+		catch (IllegalStateException ex) {
+			throw new SpelEvaluationException(rightPosition, ex, SpelMessage.FLAWED_PATTERN, pattern.pattern());
+		}
+	}
+
+	private static boolean matchesWithinThreshold(Pattern pattern, String input) {
+		Matcher matcher = pattern.matcher(new MatcherInput(input, new AccessCount()));
+		return matcher.matches();
+	}
+
+
 	private static class AccessCount {
 
 		private int count;
@@ -22,8 +22,11 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.SpelMessage;
@@ -45,6 +48,12 @@ public class Projection extends SpelNodeImpl {
 
 	private final boolean nullSafe;
 
+	/** The class of all elements evaluated so far, as long as it is uniform */
+	@Nullable
+	private volatile Class<?> elementType;
+
+	private volatile boolean mixedElementTypes;
+
 
 	public Projection(boolean nullSafe, int pos, SpelNodeImpl expression) {
 		super(pos, expression);
@@ -71,6 +80,7 @@ public class Projection extends SpelNodeImpl {
 		// and value, and they can be referenced in the operation
 		// eg. {'a':'y','b':'n'}.![value=='y'?key:null]" == ['a', null]
 		if (operand instanceof Map) {
+			this.exitTypeDescriptor = null;
 			Map<?, ?> mapData = (Map<?, ?>) operand;
 			List<Object> result = new ArrayList<>();
 			for (Map.Entry<?, ?> entry : mapData.entrySet()) {
@@ -88,6 +98,8 @@ public class Projection extends SpelNodeImpl {
 		}
 
 		if (operand instanceof Iterable || operandIsArray) {
+			// Only projection of an Iterable is compilable
+			this.exitTypeDescriptor = (operandIsArray ? null : "Ljava/util/List");
 			Iterable<?> data = (operand instanceof Iterable ?
 					(Iterable<?>) operand : Arrays.asList(ObjectUtils.toObjectArray(operand)));
 
@@ -96,6 +108,7 @@ public class Projection extends SpelNodeImpl {
 			Class<?> arrayElementType = null;
 			for (Object element : data) {
 				try {
+					recordElementType(element);
 					state.pushActiveContextObject(new TypedValue(element));
 					state.enterScope("index", idx);
 					Object value = this.children[0].getValueInternal(state).getValue();
@@ -139,6 +152,110 @@ public class Projection extends SpelNodeImpl {
 		return "![" + getChild(0).toStringAST() + "]";
 	}
 
+	@Override
+	public boolean isCompilable() {
+		return (this.exitTypeDescriptor != null && this.elementType != null && !this.mixedElementTypes &&
+				this.children[0].isCompilable());
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		if (cf.lastDescriptor() == null) {
+			cf.loadTarget(mv);
+		}
+		Label endOfProjection = new Label();
+		if (this.nullSafe) {
+			Label continueLabel = new Label();
+			mv.visitInsn(DUP);
+			mv.visitJumpInsn(IFNONNULL, continueLabel);
+			CodeFlow.insertCheckCast(mv, this.exitTypeDescriptor);
+			mv.visitJumpInsn(GOTO, endOfProjection);
+			mv.visitLabel(continueLabel);
+		}
+
+		int iteratorVariable = cf.nextFreeVariableId();
+		int elementVariable = cf.nextFreeVariableId();
+		int resultVariable = cf.nextFreeVariableId();
+		CodeFlow.insertOptimalLoad(mv, getStartPosition());
+		mv.visitMethodInsn(INVOKESTATIC, "org/springframework/expression/spel/ast/Projection", "toIterable",
+				"(Ljava/lang/Object;I)Ljava/lang/Iterable;", false);
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/lang/Iterable", "iterator", "()Ljava/util/Iterator;", true);
+		mv.visitVarInsn(ASTORE, iteratorVariable);
+		mv.visitTypeInsn(NEW, "java/util/ArrayList");
+		mv.visitInsn(DUP);
+		mv.visitMethodInsn(INVOKESPECIAL, "java/util/ArrayList", "<init>", "()V", false);
+		mv.visitVarInsn(ASTORE, resultVariable);
+
+		Label nextElement = new Label();
+		Label endOfElements = new Label();
+		mv.visitLabel(nextElement);
+		mv.visitVarInsn(ALOAD, iteratorVariable);
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "hasNext", "()Z", true);
+		mv.visitJumpInsn(IFEQ, endOfElements);
+		mv.visitVarInsn(ALOAD, iteratorVariable);
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "next", "()Ljava/lang/Object;", true);
+		mv.visitVarInsn(ASTORE, elementVariable);
+
+		// The projection expression is evaluated against the current element
+		mv.visitVarInsn(ALOAD, resultVariable);
+		cf.enterCompilationScope();
+		cf.enterTargetScope(elementVariable);
+		this.children[0].generateCode(mv, cf);
+		String lastDesc = cf.lastDescriptor();
+		if ("V".equals(lastDesc)) {
+			mv.visitInsn(ACONST_NULL);
+		}
+		else {
+			CodeFlow.insertBoxIfNecessary(mv, lastDesc);
+		}
+		cf.exitTargetScope();
+		cf.exitCompilationScope();
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "add", "(Ljava/lang/Object;)Z", true);
+		mv.visitInsn(POP);
+		mv.visitJumpInsn(GOTO, nextElement);
+
+		mv.visitLabel(endOfElements);
+		mv.visitVarInsn(ALOAD, resultVariable);
+		mv.visitTypeInsn(CHECKCAST, "java/util/List");
+		mv.visitLabel(endOfProjection);
+		cf.pushDescriptor(this.exitTypeDescriptor);
+	}
+
+	/**
+	 * Keep track of the element types evaluated against: compiled code for the
+	 * nested expression is specific to the element type seen by the interpreter.
+	 */
+	private void recordElementType(@Nullable Object element) {
+		if (this.mixedElementTypes) {
+			return;
+		}
+		Class<?> type = (element != null ? element.getClass() : null);
+		Class<?> existingType = this.elementType;
+		if (type == null || (existingType != null && existingType != type)) {
+			this.mixedElementTypes = true;
+		}
+		else if (existingType == null) {
+			this.elementType = type;
+		}
+	}
+
+	/**
+	 * Return the given operand as an {@code Iterable}, raising the same exception
+	 * as the interpreted projection for a {@code null} operand.
+	 * <p>This method is used from compiled expression code, which is why it
+	 * needs to be declared as {@code public static} here.
+	 * @param operand the operand of the projection
+	 * @param position the position of the projection in the expression
+	 * @throws SpelEvaluationException if the operand is {@code null}
+	 * @since 5.0.11
+	 */
+	public static Iterable<?> toIterable(@Nullable Object operand, int position) {
+		if (operand == null) {
+			throw new SpelEvaluationException(position, SpelMessage.PROJECTION_NOT_SUPPORTED_ON_TYPE, "null");
+		}
+		return (Iterable<?>) operand;
+	}
+
 	private Class<?> determineCommonType(@Nullable Class<?> oldType, Class<?> newType) {
 		if (oldType == null) {
 			return newType;
@@ -23,12 +23,16 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.SpelMessage;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.CollectionUtils;
@@ -59,6 +63,12 @@ public class Selection extends SpelNodeImpl {
 
 	private final boolean nullSafe;
 
+	/** The class of all elements evaluated so far, as long as it is uniform */
+	@Nullable
+	private volatile Class<?> elementType;
+
+	private volatile boolean mixedElementTypes;
+
 
 	public Selection(boolean nullSafe, int variant, int pos, SpelNodeImpl expression) {
 		super(pos, expression);
@@ -79,6 +89,7 @@ public class Selection extends SpelNodeImpl {
 		SpelNodeImpl selectionCriteria = this.children[0];
 
 		if (operand instanceof Map) {
+			this.exitTypeDescriptor = null;
 			Map<?, ?> mapdata = (Map<?, ?>) operand;
 			// TODO don't lose generic info for the new map
 			Map<Object, Object> result = new HashMap<>();
@@ -126,6 +137,9 @@ public class Selection extends SpelNodeImpl {
 		}
 
 		if (operand instanceof Iterable || ObjectUtils.isArray(operand)) {
+			// Only selection over an Iterable is compilable
+			this.exitTypeDescriptor = (!(operand instanceof Iterable) ? null :
+					this.variant == ALL ? "Ljava/util/List" : "Ljava/lang/Object");
 			Iterable<?> data = (operand instanceof Iterable ?
 					(Iterable<?>) operand : Arrays.asList(ObjectUtils.toObjectArray(operand)));
 
@@ -133,6 +147,7 @@ public class Selection extends SpelNodeImpl {
 			int index = 0;
 			for (Object element : data) {
 				try {
+					recordElementType(element);
 					state.pushActiveContextObject(new TypedValue(element));
 					state.enterScope("index", index);
 					Object val = selectionCriteria.getValueInternal(state).getValue();
@@ -211,4 +226,121 @@ public class Selection extends SpelNodeImpl {
 		return sb.append(getChild(0).toStringAST()).append("]").toString();
 	}
 
+	@Override
+	public boolean isCompilable() {
+		SpelNodeImpl selectionCriteria = this.children[0];
+		return (this.exitTypeDescriptor != null && this.elementType != null && !this.mixedElementTypes &&
+				selectionCriteria.isCompilable() &&
+				CodeFlow.isBooleanCompatible(selectionCriteria.exitTypeDescriptor));
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		if (cf.lastDescriptor() == null) {
+			cf.loadTarget(mv);
+		}
+		Label endOfSelection = new Label();
+		if (this.nullSafe) {
+			Label continueLabel = new Label();
+			mv.visitInsn(DUP);
+			mv.visitJumpInsn(IFNONNULL, continueLabel);
+			CodeFlow.insertCheckCast(mv, this.exitTypeDescriptor);
+			mv.visitJumpInsn(GOTO, endOfSelection);
+			mv.visitLabel(continueLabel);
+		}
+
+		int iteratorVariable = cf.nextFreeVariableId();
+		int elementVariable = cf.nextFreeVariableId();
+		int resultVariable = cf.nextFreeVariableId();
+		CodeFlow.insertOptimalLoad(mv, getStartPosition());
+		mv.visitMethodInsn(INVOKESTATIC, "org/springframework/expression/spel/ast/Selection", "toIterable",
+				"(Ljava/lang/Object;I)Ljava/lang/Iterable;", false);
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/lang/Iterable", "iterator", "()Ljava/util/Iterator;", true);
+		mv.visitVarInsn(ASTORE, iteratorVariable);
+		if (this.variant == ALL) {
+			mv.visitTypeInsn(NEW, "java/util/ArrayList");
+			mv.visitInsn(DUP);
+			mv.visitMethodInsn(INVOKESPECIAL, "java/util/ArrayList", "<init>", "()V", false);
+		}
+		else {
+			mv.visitInsn(ACONST_NULL);
+		}
+		mv.visitVarInsn(ASTORE, resultVariable);
+
+		Label nextElement = new Label();
+		Label endOfElements = new Label();
+		mv.visitLabel(nextElement);
+		mv.visitVarInsn(ALOAD, iteratorVariable);
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "hasNext", "()Z", true);
+		mv.visitJumpInsn(IFEQ, endOfElements);
+		mv.visitVarInsn(ALOAD, iteratorVariable);
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "next", "()Ljava/lang/Object;", true);
+		mv.visitVarInsn(ASTORE, elementVariable);
+
+		// The selection criteria are evaluated against the current element
+		cf.enterCompilationScope();
+		cf.enterTargetScope(elementVariable);
+		this.children[0].generateCode(mv, cf);
+		cf.unboxBooleanIfNecessary(mv);
+		cf.exitTargetScope();
+		cf.exitCompilationScope();
+		mv.visitJumpInsn(IFEQ, nextElement);
+
+		if (this.variant == ALL) {
+			mv.visitVarInsn(ALOAD, resultVariable);
+			mv.visitVarInsn(ALOAD, elementVariable);
+			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "add", "(Ljava/lang/Object;)Z", true);
+			mv.visitInsn(POP);
+			mv.visitJumpInsn(GOTO, nextElement);
+		}
+		else {
+			mv.visitVarInsn(ALOAD, elementVariable);
+			mv.visitVarInsn(ASTORE, resultVariable);
+			mv.visitJumpInsn(GOTO, (this.variant == FIRST ? endOfElements : nextElement));
+		}
+
+		mv.visitLabel(endOfElements);
+		mv.visitVarInsn(ALOAD, resultVariable);
+		if (this.variant == ALL) {
+			mv.visitTypeInsn(CHECKCAST, "java/util/List");
+		}
+		mv.visitLabel(endOfSelection);
+		cf.pushDescriptor(this.exitTypeDescriptor);
+	}
+
+	/**
+	 * Keep track of the element types evaluated against: compiled code for the
+	 * nested expression is specific to the element type seen by the interpreter.
+	 */
+	private void recordElementType(@Nullable Object element) {
+		if (this.mixedElementTypes) {
+			return;
+		}
+		Class<?> type = (element != null ? element.getClass() : null);
+		Class<?> existingType = this.elementType;
+		if (type == null || (existingType != null && existingType != type)) {
+			this.mixedElementTypes = true;
+		}
+		else if (existingType == null) {
+			this.elementType = type;
+		}
+	}
+
+	/**
+	 * Return the given operand as an {@code Iterable}, raising the same exception
+	 * as the interpreted selection for a {@code null} operand.
+	 * <p>This method is used from compiled expression code, which is why it
+	 * needs to be declared as {@code public static} here.
+	 * @param operand the operand of the selection
+	 * @param position the position of the selection in the expression
+	 * @throws SpelEvaluationException if the operand is {@code null}
+	 * @since 5.0.11
+	 */
+	public static Iterable<?> toIterable(@Nullable Object operand, int position) {
+		if (operand == null) {
+			throw new SpelEvaluationException(position, SpelMessage.INVALID_TYPE_FOR_SELECTION, "null");
+		}
+		return (Iterable<?>) operand;
+	}
+
 }
@@ -66,7 +66,11 @@ public class VariableReference extends SpelNodeImpl {
 	@Override
 	public TypedValue getValueInternal(ExpressionState state) throws SpelEvaluationException {
 		if (this.name.equals(THIS)) {
-			return state.getActiveContextObject();
+			TypedValue result = state.getActiveContextObject();
+			Object value = result.getValue();
+			this.exitTypeDescriptor = (value == null || !Modifier.isPublic(value.getClass().getModifiers()) ?
+					"Ljava/lang/Object" : CodeFlow.toDescriptorFromObject(value));
+			return result;
 		}
 		if (this.name.equals(ROOT)) {
 			TypedValue result = state.getRootContextObject();
@@ -101,6 +105,22 @@ public class VariableReference extends SpelNodeImpl {
 
 	@Override
 	public boolean isWritable(ExpressionState expressionState) throws SpelEvaluationException {
+		return isContextVariable();
+	}
+
+	/**
+	 * Return the name of the referenced variable.
+	 * @since 5.0.11
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Whether this is a reference to a variable in the evaluation context,
+	 * as opposed to {@code #this} or {@code #root}.
+	 */
+	boolean isContextVariable() {
 		return !(this.name.equals(THIS) || this.name.equals(ROOT));
 	}
 
@@ -114,6 +134,9 @@ public class VariableReference extends SpelNodeImpl {
 		if (this.name.equals(ROOT)) {
 			mv.visitVarInsn(ALOAD,1);
 		}
+		else if (this.name.equals(THIS)) {
+			cf.loadTarget(mv);
+		}
 		else {
 			mv.visitVarInsn(ALOAD, 2);
 			mv.visitLdcInsn(name);
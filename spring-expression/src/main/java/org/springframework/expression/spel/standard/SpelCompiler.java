@@ -16,8 +16,11 @@
 
 package org.springframework.expression.spel.standard;
 
+import java.lang.reflect.Method;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -36,6 +39,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
 
 /**
  * A SpelCompiler will take a regular parsed expression and create (and load) a class
@@ -118,6 +122,46 @@ public class SpelCompiler implements Opcodes {
 		return null;
 	}
 
+	/**
+	 * Determine why the given expression cannot be compiled in its current state,
+	 * reporting the innermost AST nodes which are not compilable: either because
+	 * their type of node is not supported by the compiler at all, or because the
+	 * information required for compiling them is not available yet (typically
+	 * gathered during interpreted evaluation) or indicates unsupported types.
+	 * @param expression the expression AST to check
+	 * @return a description of the non-compilable nodes, or {@code null} if the
+	 * expression is compilable (code generation may still opt out of compilation)
+	 * @since 5.0.11
+	 */
+	@Nullable
+	public static String getNonCompilableReason(SpelNodeImpl expression) {
+		List<String> reasons = new ArrayList<>();
+		collectNonCompilableReasons(expression, reasons);
+		return (reasons.isEmpty() ? null : StringUtils.collectionToDelimitedString(reasons, "; "));
+	}
+
+	private static void collectNonCompilableReasons(SpelNodeImpl node, List<String> reasons) {
+		if (node.isCompilable()) {
+			return;
+		}
+		boolean nonCompilableChild = false;
+		for (int i = 0; i < node.getChildCount(); i++) {
+			SpelNodeImpl child = (SpelNodeImpl) node.getChild(i);
+			if (!child.isCompilable()) {
+				nonCompilableChild = true;
+				collectNonCompilableReasons(child, reasons);
+			}
+		}
+		if (!nonCompilableChild) {
+			Method isCompilable = ReflectionUtils.findMethod(node.getClass(), "isCompilable");
+			boolean supported = (isCompilable != null && isCompilable.getDeclaringClass() != SpelNodeImpl.class);
+			reasons.add(node.getClass().getSimpleName() + " '" + node.toStringAST() + "' at position " +
+					node.getStartPosition() + (supported ?
+					" is not compilable in its current state: not evaluated yet or unsupported operand types" :
+					" is not supported by the compiler"));
+		}
+	}
+
 	private int getNextSuffix() {
 		return this.suffixId.incrementAndGet();
 	}
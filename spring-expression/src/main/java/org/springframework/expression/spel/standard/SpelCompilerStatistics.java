@@ -0,0 +1,176 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel.standard;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.SpringProperties;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Central registry of {@link SpelExpressionStatistics} for SpEL expressions,
+ * showing how much time is spent interpreting expressions versus running them
+ * in compiled form, and which expressions fail to compile or keep falling
+ * back to the interpreter.
+ *
+ * <p>Statistics are collected for expressions parsed while this registry is
+ * {@link #setEnabled enabled}, which is the case by default if the
+ * "spring.expression.statistics" property is set to "true" in the
+ * {@link SpringProperties} (typically as a JVM system property). Statistics
+ * are kept per expression String and {@link SpelParserConfiguration}, so that
+ * the same String parsed with different compiler modes is tracked separately.
+ * Configurations are only referenced weakly, not preventing their compiler
+ * ClassLoader from being garbage collected once no expression uses them anymore.
+ * Only up to {@link #MAX_TRACKED_EXPRESSIONS} such expressions are tracked.
+ *
+ * <p>The shared {@link #getInstance() instance} can be registered with an
+ * MBean server as an MXBean, e.g. under {@link #OBJECT_NAME}:
+ *
+ * <pre class="code">
+ * ManagementFactory.getPlatformMBeanServer().registerMBean(
+ *     SpelCompilerStatistics.getInstance(), new ObjectName(SpelCompilerStatistics.OBJECT_NAME));
+ * </pre>
+ *
+ * @since 5.0.11
+ * @see SpelExpression#getStatistics()
+ */
+public class SpelCompilerStatistics implements SpelCompilerStatisticsMXBean {
+
+	/**
+	 * System property that determines whether statistics are collected by default.
+	 */
+	public static final String STATISTICS_PROPERTY_NAME = "spring.expression.statistics";
+
+	/**
+	 * Suggested JMX object name for the shared instance.
+	 */
+	public static final String OBJECT_NAME = "org.springframework.expression:type=SpelCompilerStatistics";
+
+	/**
+	 * Maximum number of distinct expressions to track.
+	 */
+	public static final int MAX_TRACKED_EXPRESSIONS = 1024;
+
+	private static final SpelCompilerStatistics instance = new SpelCompilerStatistics();
+
+
+	private volatile boolean enabled = SpringProperties.getFlag(STATISTICS_PROPERTY_NAME);
+
+	private final Map<SpelParserConfiguration, Map<String, SpelExpressionStatistics>> statistics =
+			new ConcurrentReferenceHashMap<>(16, ConcurrentReferenceHashMap.ReferenceType.WEAK);
+
+
+	/**
+	 * Return the shared registry that all {@link SpelExpression SpelExpressions}
+	 * report to.
+	 */
+	public static SpelCompilerStatistics getInstance() {
+		return instance;
+	}
+
+
+	@Override
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	@Override
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	@Override
+	public int getExpressionCount() {
+		int count = 0;
+		for (Map<String, SpelExpressionStatistics> configurationStatistics : this.statistics.values()) {
+			count += configurationStatistics.size();
+		}
+		return count;
+	}
+
+	@Override
+	public int getCompiledExpressionCount() {
+		int count = 0;
+		for (Map<String, SpelExpressionStatistics> configurationStatistics : this.statistics.values()) {
+			for (SpelExpressionStatistics expressionStatistics : configurationStatistics.values()) {
+				if (expressionStatistics.isCompiled()) {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public List<SpelExpressionStatistics> getExpressionStatistics() {
+		List<SpelExpressionStatistics> result = new ArrayList<>();
+		for (Map<String, SpelExpressionStatistics> configurationStatistics : this.statistics.values()) {
+			result.addAll(configurationStatistics.values());
+		}
+		result.sort(Comparator.comparingLong((SpelExpressionStatistics stats) ->
+				stats.getInterpretedInvocations() + stats.getCompiledInvocations()).reversed());
+		return result;
+	}
+
+	/**
+	 * Return the statistics for the given expression String, as parsed
+	 * with the given configuration.
+	 * @param expressionString the expression String
+	 * @param configuration the parser configuration
+	 * @return the statistics, or {@code null} if the expression is not tracked
+	 */
+	@Nullable
+	public SpelExpressionStatistics getExpressionStatistics(
+			String expressionString, SpelParserConfiguration configuration) {
+
+		Map<String, SpelExpressionStatistics> configurationStatistics = this.statistics.get(configuration);
+		return (configurationStatistics != null ? configurationStatistics.get(expressionString) : null);
+	}
+
+	@Override
+	public void reset() {
+		this.statistics.clear();
+	}
+
+	/**
+	 * Obtain the statistics to record an expression's invocations in,
+	 * if enabled.
+	 * @param expressionString the expression String
+	 * @param configuration the configuration the expression has been parsed with
+	 * @return the statistics, or {@code null} if not to be collected
+	 */
+	@Nullable
+	SpelExpressionStatistics obtainStatistics(String expressionString, SpelParserConfiguration configuration) {
+		if (!this.enabled) {
+			return null;
+		}
+		SpelExpressionStatistics expressionStatistics = getExpressionStatistics(expressionString, configuration);
+		if (expressionStatistics == null && getExpressionCount() < MAX_TRACKED_EXPRESSIONS) {
+			expressionStatistics = this.statistics
+					.computeIfAbsent(configuration, config -> new ConcurrentHashMap<>(64))
+					.computeIfAbsent(expressionString, SpelExpressionStatistics::new);
+		}
+		return expressionStatistics;
+	}
+
+}
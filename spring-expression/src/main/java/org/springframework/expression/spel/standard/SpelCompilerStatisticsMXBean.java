@@ -0,0 +1,59 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel.standard;
+
+import java.util.List;
+
+/**
+ * MXBean interface for {@link SpelCompilerStatistics}.
+ *
+ * @since 5.0.11
+ */
+public interface SpelCompilerStatisticsMXBean {
+
+	/**
+	 * Return whether statistics are collected for newly parsed expressions.
+	 */
+	boolean isEnabled();
+
+	/**
+	 * Specify whether to collect statistics for newly parsed expressions.
+	 */
+	void setEnabled(boolean enabled);
+
+	/**
+	 * Return the number of expressions that statistics are collected for.
+	 */
+	int getExpressionCount();
+
+	/**
+	 * Return the number of expressions that currently run in compiled form.
+	 */
+	int getCompiledExpressionCount();
+
+	/**
+	 * Return the statistics for all tracked expressions, ordered by
+	 * their total number of invocations.
+	 */
+	List<SpelExpressionStatistics> getExpressionStatistics();
+
+	/**
+	 * Stop tracking all expressions, discarding their statistics.
+	 */
+	void reset();
+
+}
@@ -52,6 +52,9 @@ public class SpelExpression implements Expression {
 	// Number of times to try compiling an expression before giving up
 	private static final int FAILED_ATTEMPTS_THRESHOLD = 100;
 
+	// Maximum number of times to double the interpreted count threshold after deoptimizations
+	private static final int MAX_DEOPTIMIZATION_BACKOFF = 6;
+
 
 	private final String expression;
 
@@ -75,6 +78,13 @@ public class SpelExpression implements Expression {
 	// give up trying to compile it when it just doesn't seem to be possible.
 	private volatile int failedAttempts = 0;
 
+	// The number of times the compiled form failed and was discarded in mixed mode, each
+	// of which doubles the number of interpreted invocations before compiling again
+	private volatile int deoptimizations = 0;
+
+	@Nullable
+	private final SpelExpressionStatistics statistics;
+
 
 	/**
 	 * Construct an expression, only used by the parser.
@@ -83,6 +93,7 @@ public class SpelExpression implements Expression {
 		this.expression = expression;
 		this.ast = ast;
 		this.configuration = configuration;
+		this.statistics = SpelCompilerStatistics.getInstance().obtainStatistics(expression, configuration);
 	}
 
 
@@ -124,8 +135,7 @@ public class SpelExpression implements Expression {
 			catch (Throwable ex) {
 				// If running in mixed mode, revert to interpreted
 				if (this.configuration.getCompilerMode() == SpelCompilerMode.MIXED) {
-					this.interpretedCount = 0;
-					this.compiledAst = null;
+					deoptimize();
 				}
 				else {
 					// Running in SpelCompilerMode.immediate mode - propagate exception to caller
@@ -134,9 +144,10 @@ public class SpelExpression implements Expression {
 			}
 		}
 
+		long startTime = startTiming();
 		ExpressionState expressionState = new ExpressionState(getEvaluationContext(), this.configuration);
 		Object result = this.ast.getValue(expressionState);
-		checkCompile(expressionState);
+		checkCompile(expressionState, startTime);
 		return result;
 	}
 
@@ -159,8 +170,7 @@ public class SpelExpression implements Expression {
 			catch (Throwable ex) {
 				// If running in mixed mode, revert to interpreted
 				if (this.configuration.getCompilerMode() == SpelCompilerMode.MIXED) {
-					this.interpretedCount = 0;
-					this.compiledAst = null;
+					deoptimize();
 				}
 				else {
 					// Running in SpelCompilerMode.immediate mode - propagate exception to caller
@@ -169,9 +179,10 @@ public class SpelExpression implements Expression {
 			}
 		}
 
+		long startTime = startTiming();
 		ExpressionState expressionState = new ExpressionState(getEvaluationContext(), this.configuration);
 		TypedValue typedResultValue = this.ast.getTypedValue(expressionState);
-		checkCompile(expressionState);
+		checkCompile(expressionState, startTime);
 		return ExpressionUtils.convertTypedValue(
 				expressionState.getEvaluationContext(), typedResultValue, expectedResultType);
 	}
@@ -186,8 +197,7 @@ public class SpelExpression implements Expression {
 			catch (Throwable ex) {
 				// If running in mixed mode, revert to interpreted
 				if (this.configuration.getCompilerMode() == SpelCompilerMode.MIXED) {
-					this.interpretedCount = 0;
-					this.compiledAst = null;
+					deoptimize();
 				}
 				else {
 					// Running in SpelCompilerMode.immediate mode - propagate exception to caller
@@ -196,10 +206,11 @@ public class SpelExpression implements Expression {
 			}
 		}
 
+		long startTime = startTiming();
 		ExpressionState expressionState =
 				new ExpressionState(getEvaluationContext(), toTypedValue(rootObject), this.configuration);
 		Object result = this.ast.getValue(expressionState);
-		checkCompile(expressionState);
+		checkCompile(expressionState, startTime);
 		return result;
 	}
 
@@ -221,8 +232,7 @@ public class SpelExpression implements Expression {
 			catch (Throwable ex) {
 				// If running in mixed mode, revert to interpreted
 				if (this.configuration.getCompilerMode() == SpelCompilerMode.MIXED) {
-					this.interpretedCount = 0;
-					this.compiledAst = null;
+					deoptimize();
 				}
 				else {
 					// Running in SpelCompilerMode.immediate mode - propagate exception to caller
@@ -231,10 +241,11 @@ public class SpelExpression implements Expression {
 			}
 		}
 
+		long startTime = startTiming();
 		ExpressionState expressionState =
 				new ExpressionState(getEvaluationContext(), toTypedValue(rootObject), this.configuration);
 		TypedValue typedResultValue = this.ast.getTypedValue(expressionState);
-		checkCompile(expressionState);
+		checkCompile(expressionState, startTime);
 		return ExpressionUtils.convertTypedValue(
 				expressionState.getEvaluationContext(), typedResultValue, expectedResultType);
 	}
@@ -251,8 +262,7 @@ public class SpelExpression implements Expression {
 			catch (Throwable ex) {
 				// If running in mixed mode, revert to interpreted
 				if (this.configuration.getCompilerMode() == SpelCompilerMode.MIXED) {
-					this.interpretedCount = 0;
-					this.compiledAst = null;
+					deoptimize();
 				}
 				else {
 					// Running in SpelCompilerMode.immediate mode - propagate exception to caller
@@ -261,9 +271,10 @@ public class SpelExpression implements Expression {
 			}
 		}
 
+		long startTime = startTiming();
 		ExpressionState expressionState = new ExpressionState(context, this.configuration);
 		Object result = this.ast.getValue(expressionState);
-		checkCompile(expressionState);
+		checkCompile(expressionState, startTime);
 		return result;
 	}
 
@@ -286,8 +297,7 @@ public class SpelExpression implements Expression {
 			catch (Throwable ex) {
 				// If running in mixed mode, revert to interpreted
 				if (this.configuration.getCompilerMode() == SpelCompilerMode.MIXED) {
-					this.interpretedCount = 0;
-					this.compiledAst = null;
+					deoptimize();
 				}
 				else {
 					// Running in SpelCompilerMode.immediate mode - propagate exception to caller
@@ -296,9 +306,10 @@ public class SpelExpression implements Expression {
 			}
 		}
 
+		long startTime = startTiming();
 		ExpressionState expressionState = new ExpressionState(context, this.configuration);
 		TypedValue typedResultValue = this.ast.getTypedValue(expressionState);
-		checkCompile(expressionState);
+		checkCompile(expressionState, startTime);
 		return ExpressionUtils.convertTypedValue(context, typedResultValue, expectedResultType);
 	}
 
@@ -314,8 +325,7 @@ public class SpelExpression implements Expression {
 			catch (Throwable ex) {
 				// If running in mixed mode, revert to interpreted
 				if (this.configuration.getCompilerMode() == SpelCompilerMode.MIXED) {
-					this.interpretedCount = 0;
-					this.compiledAst = null;
+					deoptimize();
 				}
 				else {
 					// Running in SpelCompilerMode.immediate mode - propagate exception to caller
@@ -324,9 +334,10 @@ public class SpelExpression implements Expression {
 			}
 		}
 
+		long startTime = startTiming();
 		ExpressionState expressionState = new ExpressionState(context, toTypedValue(rootObject), this.configuration);
 		Object result = this.ast.getValue(expressionState);
-		checkCompile(expressionState);
+		checkCompile(expressionState, startTime);
 		return result;
 	}
 
@@ -351,8 +362,7 @@ public class SpelExpression implements Expression {
 			catch (Throwable ex) {
 				// If running in mixed mode, revert to interpreted
 				if (this.configuration.getCompilerMode() == SpelCompilerMode.MIXED) {
-					this.interpretedCount = 0;
-					this.compiledAst = null;
+					deoptimize();
 				}
 				else {
 					// Running in SpelCompilerMode.immediate mode - propagate exception to caller
@@ -361,9 +371,10 @@ public class SpelExpression implements Expression {
 			}
 		}
 
+		long startTime = startTiming();
 		ExpressionState expressionState = new ExpressionState(context, toTypedValue(rootObject), this.configuration);
 		TypedValue typedResultValue = this.ast.getTypedValue(expressionState);
-		checkCompile(expressionState);
+		checkCompile(expressionState, startTime);
 		return ExpressionUtils.convertTypedValue(context, typedResultValue, expectedResultType);
 	}
 
@@ -467,12 +478,20 @@ public class SpelExpression implements Expression {
 	}
 
 
+	private long startTiming() {
+		return (this.statistics != null ? System.nanoTime() : 0);
+	}
+
 	/**
 	 * Compile the expression if it has been evaluated more than the threshold number
 	 * of times to trigger compilation.
 	 * @param expressionState the expression state used to determine compilation mode
+	 * @param startTime the start time of the interpreted evaluation, if timed
 	 */
-	private void checkCompile(ExpressionState expressionState) {
+	private void checkCompile(ExpressionState expressionState, long startTime) {
+		if (this.statistics != null) {
+			this.statistics.recordInterpretedInvocation(System.nanoTime() - startTime);
+		}
 		this.interpretedCount++;
 		SpelCompilerMode compilerMode = expressionState.getConfiguration().getCompilerMode();
 		if (compilerMode != SpelCompilerMode.OFF) {
@@ -483,7 +502,9 @@ public class SpelExpression implements Expression {
 			}
 			else {
 				// compilerMode = SpelCompilerMode.MIXED
-				if (this.interpretedCount > INTERPRETED_COUNT_THRESHOLD) {
+				int threshold = INTERPRETED_COUNT_THRESHOLD <<
+						Math.min(this.deoptimizations, MAX_DEOPTIMIZATION_BACKOFF);
+				if (this.interpretedCount > threshold) {
 					compileExpression();
 				}
 			}
@@ -508,15 +529,44 @@ public class SpelExpression implements Expression {
 					return true;
 				}
 				SpelCompiler compiler = SpelCompiler.getCompiler(this.configuration.getCompilerClassLoader());
-				this.compiledAst = compiler.compile(this.ast);
-				if (this.compiledAst == null) {
+				CompiledExpression compiled = compiler.compile(this.ast);
+				if (compiled == null) {
 					this.failedAttempts++;
 				}
+				if (this.statistics != null) {
+					this.statistics.recordCompilation(compiled != null);
+					if (compiled != null) {
+						compiled = new TimedCompiledExpression(compiled, this.statistics);
+					}
+				}
+				this.compiledAst = compiled;
 			}
 		}
 		return (this.compiledAst != null);
 	}
 
+	/**
+	 * Return a description of why this expression is not compiled and cannot
+	 * be compiled in its current state, for diagnostic purposes.
+	 * @return the reason, or {@code null} if the expression is compiled already
+	 * or is considered compilable
+	 * @since 5.0.11
+	 * @see #compileExpression()
+	 * @see SpelCompiler#getNonCompilableReason
+	 */
+	@Nullable
+	public String getNonCompilableReason() {
+		if (this.compiledAst != null) {
+			return null;
+		}
+		String reason = SpelCompiler.getNonCompilableReason(this.ast);
+		if (this.failedAttempts > FAILED_ATTEMPTS_THRESHOLD) {
+			return "Compilation not attempted anymore after " + this.failedAttempts + " failed attempts" +
+					(reason != null ? ": " + reason : "");
+		}
+		return reason;
+	}
+
 	/**
 	 * Cause an expression to revert to being interpreted if it has been using a compiled
 	 * form. It also resets the compilation attempt failure count (an expression is normally no
@@ -526,6 +576,36 @@ public class SpelExpression implements Expression {
 		this.compiledAst = null;
 		this.interpretedCount = 0;
 		this.failedAttempts = 0;
+		this.deoptimizations = 0;
+		if (this.statistics != null) {
+			this.statistics.recordReversion();
+		}
+	}
+
+	/**
+	 * Discard the compiled form of the expression after it failed in mixed mode,
+	 * backing off from recompiling it for twice as many interpreted invocations
+	 * as before. The interpreter will meanwhile refine the type information that
+	 * the next compilation is based on, e.g. for call sites with several receiver types.
+	 */
+	private void deoptimize() {
+		this.compiledAst = null;
+		this.interpretedCount = 0;
+		this.deoptimizations++;
+		if (this.statistics != null) {
+			this.statistics.recordDeoptimization();
+		}
+	}
+
+	/**
+	 * Return the runtime statistics for this expression.
+	 * @return the statistics, or {@code null} if none are collected
+	 * @since 5.0.11
+	 * @see SpelCompilerStatistics
+	 */
+	@Nullable
+	public SpelExpressionStatistics getStatistics() {
+		return this.statistics;
 	}
 
 	/**
@@ -549,4 +629,28 @@ public class SpelExpression implements Expression {
 		return (object != null ? new TypedValue(object) : TypedValue.NULL);
 	}
 
+
+	/**
+	 * Compiled expression decorator which records invocation times.
+	 */
+	private static class TimedCompiledExpression extends CompiledExpression {
+
+		private final CompiledExpression delegate;
+
+		private final SpelExpressionStatistics statistics;
+
+		public TimedCompiledExpression(CompiledExpression delegate, SpelExpressionStatistics statistics) {
+			this.delegate = delegate;
+			this.statistics = statistics;
+		}
+
+		@Override
+		public Object getValue(@Nullable Object target, @Nullable EvaluationContext context) throws EvaluationException {
+			long startTime = System.nanoTime();
+			Object result = this.delegate.getValue(target, context);
+			this.statistics.recordCompiledInvocation(System.nanoTime() - startTime);
+			return result;
+		}
+	}
+
 }
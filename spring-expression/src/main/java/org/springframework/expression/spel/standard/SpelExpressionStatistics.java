@@ -0,0 +1,169 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel.standard;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runtime statistics for a SpEL expression, aggregated over all
+ * {@link SpelExpression} instances parsed from the same expression String
+ * with the same {@link org.springframework.expression.spel.SpelParserConfiguration}:
+ * the number of interpreted and compiled invocations along with the time spent
+ * in each, the number of compilation attempts and the number of times that
+ * compiled code had to be discarded in favor of the interpreter again.
+ *
+ * <p>Collected for expressions parsed while {@link SpelCompilerStatistics}
+ * is enabled.
+ *
+ * @since 5.0.11
+ * @see SpelCompilerStatistics
+ * @see SpelExpression#getStatistics()
+ */
+public class SpelExpressionStatistics {
+
+	private final String expressionString;
+
+	private final LongAdder interpretedInvocations = new LongAdder();
+
+	private final LongAdder interpretedNanos = new LongAdder();
+
+	private final LongAdder compiledInvocations = new LongAdder();
+
+	private final LongAdder compiledNanos = new LongAdder();
+
+	private final LongAdder compilationAttempts = new LongAdder();
+
+	private final LongAdder failedCompilations = new LongAdder();
+
+	private final LongAdder deoptimizations = new LongAdder();
+
+	private volatile boolean compiled;
+
+
+	SpelExpressionStatistics(String expressionString) {
+		this.expressionString = expressionString;
+	}
+
+
+	/**
+	 * Return the expression String that these statistics apply to.
+	 */
+	public String getExpressionString() {
+		return this.expressionString;
+	}
+
+	/**
+	 * Return whether a compiled form of the expression is in use currently.
+	 */
+	public boolean isCompiled() {
+		return this.compiled;
+	}
+
+	/**
+	 * Return the number of invocations through the interpreter.
+	 */
+	public long getInterpretedInvocations() {
+		return this.interpretedInvocations.sum();
+	}
+
+	/**
+	 * Return the total time spent in the interpreter, in milliseconds.
+	 */
+	public long getInterpretedTime() {
+		return TimeUnit.NANOSECONDS.toMillis(this.interpretedNanos.sum());
+	}
+
+	/**
+	 * Return the number of invocations of compiled code.
+	 */
+	public long getCompiledInvocations() {
+		return this.compiledInvocations.sum();
+	}
+
+	/**
+	 * Return the total time spent in compiled code, in milliseconds.
+	 */
+	public long getCompiledTime() {
+		return TimeUnit.NANOSECONDS.toMillis(this.compiledNanos.sum());
+	}
+
+	/**
+	 * Return the number of attempts to compile the expression.
+	 */
+	public long getCompilationAttempts() {
+		return this.compilationAttempts.sum();
+	}
+
+	/**
+	 * Return the number of attempts to compile the expression which failed,
+	 * typically since parts of it were not compilable in their current state.
+	 */
+	public long getFailedCompilations() {
+		return this.failedCompilations.sum();
+	}
+
+	/**
+	 * Return the number of times that compiled code failed, e.g. when invoked
+	 * with a type of object it was not compiled for, and has been discarded in
+	 * favor of the interpreter.
+	 */
+	public long getDeoptimizations() {
+		return this.deoptimizations.sum();
+	}
+
+
+	void recordInterpretedInvocation(long nanos) {
+		this.interpretedInvocations.increment();
+		this.interpretedNanos.add(nanos);
+	}
+
+	void recordCompiledInvocation(long nanos) {
+		this.compiledInvocations.increment();
+		this.compiledNanos.add(nanos);
+	}
+
+	void recordCompilation(boolean success) {
+		this.compilationAttempts.increment();
+		if (success) {
+			this.compiled = true;
+		}
+		else {
+			this.failedCompilations.increment();
+		}
+	}
+
+	void recordDeoptimization() {
+		this.deoptimizations.increment();
+		this.compiled = false;
+	}
+
+	void recordReversion() {
+		this.compiled = false;
+	}
+
+
+	@Override
+	public String toString() {
+		return "'" + this.expressionString + "': compiled=" + this.compiled +
+				", interpreted invocations=" + getInterpretedInvocations() + " (" + getInterpretedTime() + " ms)" +
+				", compiled invocations=" + getCompiledInvocations() + " (" + getCompiledTime() + " ms)" +
+				", compilation attempts=" + getCompilationAttempts() + " (" + getFailedCompilations() + " failed)" +
+				", deoptimizations=" + getDeoptimizations();
+	}
+
+}
@@ -16,6 +16,7 @@
 
 package org.springframework.expression.spel;
 
+import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -104,19 +105,20 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 	 * FunctionReference
 	 * InlineList
 	 * OpModulus
+	 * InlineMap
+	 * Selection (over an Iterable)
+	 * Projection (of an Iterable)
+	 * Assign (to a variable)
+	 * BeanReference
+	 * OpMatches (with a literal pattern)
 	 *
 	 * Not yet compiled (some may never need to be):
-	 * Assign
-	 * BeanReference
 	 * Identifier
 	 * OpDec
 	 * OpBetween
-	 * OpMatches
 	 * OpPower
 	 * OpInc
-	 * Projection
 	 * QualifiedId
-	 * Selection
 	 */
 
 
@@ -1023,7 +1025,7 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 
 		expression = parser.parseExpression("#negate(#ints.?[#this<2][0])");
 		assertEquals("-1", expression.getValue(context, Integer.class).toString());
-		// Selection isn't compilable.
+		// Selection over an array isn't compilable.
 		assertFalse(((SpelNodeImpl)((SpelExpression) expression).getAST()).isCompilable());
 	}
 
@@ -5019,6 +5021,280 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 		assertIsCompiled(exp);
 	}
 
+	@Test
+	public void selection() throws Exception {
+		List<Item> items = new ArrayList<>();
+		items.add(new Item("apple", 3));
+		items.add(new Item("banana", 12));
+		items.add(new Item("cherry", 20));
+		StandardEvaluationContext context = new StandardEvaluationContext(new ItemHolder(items));
+
+		expression = parser.parseExpression("items.?[price > 10]");
+		assertEquals("banana cherry", stringify(expression.getValue(context)));
+		assertCanCompile(expression);
+		assertEquals("banana cherry", stringify(expression.getValue(context)));
+
+		expression = parser.parseExpression("items.^[price > 10].name");
+		assertEquals("banana", expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals("banana", expression.getValue(context));
+
+		expression = parser.parseExpression("items.$[price > 10].name");
+		assertEquals("cherry", expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals("cherry", expression.getValue(context));
+
+		expression = parser.parseExpression("items.^[price > 100]");
+		assertNull(expression.getValue(context));
+		assertCanCompile(expression);
+		assertNull(expression.getValue(context));
+
+		expression = parser.parseExpression("items.?[#this.price < #root.limit]");
+		assertEquals("apple", stringify(expression.getValue(context)));
+		assertCanCompile(expression);
+		assertEquals("apple", stringify(expression.getValue(context)));
+
+		expression = parser.parseExpression("{1,2,3,4}.?[#this > 2]");
+		assertEquals("3 4", stringify(expression.getValue()));
+		assertCanCompile(expression);
+		assertEquals("3 4", stringify(expression.getValue()));
+
+		// Selection over a map isn't compiled
+		expression = parser.parseExpression("{'a':1,'b':2}.?[value > 1]");
+		assertEquals(Collections.singletonMap("b", 2), expression.getValue());
+		assertCantCompile(expression);
+	}
+
+	@Test
+	public void projection() throws Exception {
+		List<Item> items = new ArrayList<>();
+		items.add(new Item("apple", 3));
+		items.add(new Item("banana", 12));
+		StandardEvaluationContext context = new StandardEvaluationContext(new ItemHolder(items));
+
+		expression = parser.parseExpression("items.![name]");
+		assertEquals("apple banana", stringify(expression.getValue(context)));
+		assertCanCompile(expression);
+		assertEquals("apple banana", stringify(expression.getValue(context)));
+
+		expression = parser.parseExpression("items.![price * 2]");
+		assertEquals("6 24", stringify(expression.getValue(context)));
+		assertCanCompile(expression);
+		assertEquals("6 24", stringify(expression.getValue(context)));
+
+		expression = parser.parseExpression("items.?[price > 10].![name.toUpperCase()]");
+		assertEquals("BANANA", stringify(expression.getValue(context)));
+		assertCanCompile(expression);
+		assertEquals("BANANA", stringify(expression.getValue(context)));
+	}
+
+	@Test
+	public void selectionAndProjectionWithMixedElementTypes() throws Exception {
+		List<Item> items = new ArrayList<>();
+		items.add(new Item("apple", 3));
+		items.add(new SaleItem("banana", 12));
+		StandardEvaluationContext context = new StandardEvaluationContext(new ItemHolder(items));
+
+		expression = parser.parseExpression("items.?[price > 10]");
+		assertEquals("banana", stringify(expression.getValue(context)));
+		assertCantCompile(expression);
+
+		expression = parser.parseExpression("items.![name]");
+		assertEquals("apple banana", stringify(expression.getValue(context)));
+		assertCantCompile(expression);
+
+		items.set(1, null);
+		expression = parser.parseExpression("items.![#this]");
+		assertEquals("apple null", stringify(expression.getValue(context)));
+		assertCantCompile(expression);
+	}
+
+	@Test
+	public void selectionAndProjectionOnNull() throws Exception {
+		List<Item> items = new ArrayList<>();
+		items.add(new Item("apple", 3));
+		items.add(new Item("banana", 12));
+		StandardEvaluationContext context = new StandardEvaluationContext(new ItemHolder(items));
+
+		expression = parser.parseExpression("items.?[price > 10]");
+		assertEquals("banana", stringify(expression.getValue(context)));
+		assertCanCompile(expression);
+		context.setRootObject(new ItemHolder(null));
+		assertCompiledGetValueFail(expression, context, SpelMessage.INVALID_TYPE_FOR_SELECTION);
+
+		context.setRootObject(new ItemHolder(items));
+		expression = parser.parseExpression("items.![name]");
+		assertEquals("apple banana", stringify(expression.getValue(context)));
+		assertCanCompile(expression);
+		context.setRootObject(new ItemHolder(null));
+		assertCompiledGetValueFail(expression, context, SpelMessage.PROJECTION_NOT_SUPPORTED_ON_TYPE);
+	}
+
+	@Test
+	public void inlineMap() throws Exception {
+		expression = parser.parseExpression("{a:'x',b:{1,2},c:{d:true}}");
+		Object constant = expression.getValue();
+		assertEquals("{a=x, b=[1, 2], c={d=true}}", constant.toString());
+		assertCanCompile(expression);
+		assertEquals("{a=x, b=[1, 2], c={d=true}}", expression.getValue().toString());
+		assertSame(expression.getValue(), expression.getValue());
+
+		expression = parser.parseExpression("{'a':1,'b':2}['b']");
+		assertEquals(2, expression.getValue());
+		assertCanCompile(expression);
+		assertEquals(2, expression.getValue());
+
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		context.setVariable("name", "x");
+		expression = parser.parseExpression("{name:#name,length:#name.length()}");
+		assertEquals("{name=x, length=1}", expression.getValue(context).toString());
+		assertCanCompile(expression);
+		context.setVariable("name", "yz");
+		assertEquals("{name=yz, length=2}", expression.getValue(context).toString());
+	}
+
+	@Test
+	public void assignToVariable() throws Exception {
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		context.setVariable("name", "x");
+
+		expression = parser.parseExpression("#copy = #name");
+		assertEquals("x", expression.getValue(context));
+		assertEquals("x", context.lookupVariable("copy"));
+		assertCanCompile(expression);
+		context.setVariable("name", "y");
+		assertEquals("y", expression.getValue(context));
+		assertEquals("y", context.lookupVariable("copy"));
+
+		expression = parser.parseExpression("#count = 1 + 2");
+		assertEquals(3, expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals(3, expression.getValue(context));
+		assertEquals(3, context.lookupVariable("count"));
+
+		// Property assignment isn't compiled
+		context.setRootObject(new Item("apple", 3));
+		expression = parser.parseExpression("name = 'pear'");
+		assertEquals("pear", expression.getValue(context));
+		assertCantCompile(expression);
+	}
+
+	@Test
+	public void beanReference() throws Exception {
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		Map<String, Object> beans = new HashMap<>();
+		beans.put("item", new Item("apple", 3));
+		beans.put("&item", new Item("factory", 1));
+		context.setBeanResolver((ctx, beanName) -> beans.get(beanName));
+
+		expression = parser.parseExpression("@item.name");
+		assertEquals("apple", expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals("apple", expression.getValue(context));
+		beans.put("item", new Item("pear", 3));
+		assertEquals("pear", expression.getValue(context));
+
+		expression = parser.parseExpression("&item.name");
+		assertEquals("factory", expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals("factory", expression.getValue(context));
+	}
+
+	@Test
+	public void operatorMatches() throws Exception {
+		StandardEvaluationContext context = new StandardEvaluationContext(new Item("apple", 3));
+
+		expression = parser.parseExpression("name matches 'a.*e'");
+		assertTrue(expression.getValue(context, Boolean.class));
+		assertCanCompile(expression);
+		assertTrue(expression.getValue(context, Boolean.class));
+		context.setRootObject(new Item("banana", 3));
+		assertFalse(expression.getValue(context, Boolean.class));
+
+		expression = parser.parseExpression("!(name matches '[0-9]+') and 'x' matches 'x'");
+		assertTrue(expression.getValue(context, Boolean.class));
+		assertCanCompile(expression);
+		assertTrue(expression.getValue(context, Boolean.class));
+
+		// Patterns not given as literal aren't compiled
+		context.setVariable("regex", "b.*");
+		expression = parser.parseExpression("name matches #regex");
+		assertTrue(expression.getValue(context, Boolean.class));
+		assertCantCompile(expression);
+	}
+
+	@Test
+	public void beanReferenceFailure() throws Exception {
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		context.setBeanResolver((ctx, beanName) -> new Item("apple", 3));
+
+		expression = parser.parseExpression("@item.name");
+		assertEquals("apple", expression.getValue(context));
+		assertCanCompile(expression);
+
+		context.setBeanResolver((ctx, beanName) -> {
+			throw new AccessException("Expected exception");
+		});
+		assertCompiledGetValueFail(expression, context, SpelMessage.EXCEPTION_DURING_BEAN_RESOLUTION);
+
+		context.setBeanResolver(null);
+		assertCompiledGetValueFail(expression, context, SpelMessage.NO_BEAN_RESOLVER_REGISTERED);
+	}
+
+	@Test
+	public void operatorMatchesFailure() throws Exception {
+		StandardEvaluationContext context = new StandardEvaluationContext(new Item("apple", 3));
+
+		expression = parser.parseExpression("name matches 'a.*e'");
+		assertTrue(expression.getValue(context, Boolean.class));
+		assertCanCompile(expression);
+		context.setRootObject(new Item(null, 3));
+		assertCompiledGetValueFail(expression, context, SpelMessage.INVALID_FIRST_OPERAND_FOR_MATCHES_OPERATOR);
+
+		context.setRootObject(new Item("abc", 3));
+		expression = parser.parseExpression("name matches '^(?=[a-z0-9-]{1,47})([a-z0-9]+[-]{0,1}){1,47}[a-z0-9]{1}$'");
+		assertTrue(expression.getValue(context, Boolean.class));
+		assertCanCompile(expression);
+		context.setRootObject(new Item("abcde-fghijklmn-o42pasdfasdfasdf.qrstuvwxyz10x.xx.yyy.zasdfasfd", 3));
+		assertCompiledGetValueFail(expression, context, SpelMessage.FLAWED_PATTERN);
+	}
+
+	@Test
+	public void nonCompilableReason() throws Exception {
+		SpelExpression expression = (SpelExpression) parser.parseExpression("{1,2}.?[#this > 1].size()");
+		assertEquals("VariableReference '#this' at position 8 is not compilable in its current state: " +
+				"not evaluated yet or unsupported operand types; MethodReference 'size()' at position 19 " +
+				"is not compilable in its current state: not evaluated yet or unsupported operand types",
+				expression.getNonCompilableReason());
+		assertEquals(1, expression.getValue());
+		assertNull(expression.getNonCompilableReason());
+		assertCanCompile(expression);
+		assertNull(expression.getNonCompilableReason());
+
+		expression = (SpelExpression) parser.parseExpression("1 between {0,2}");
+		assertEquals(true, expression.getValue());
+		assertEquals("OperatorBetween '(1 between {0,2})' at position 2 is not supported by the compiler",
+				expression.getNonCompilableReason());
+	}
+
+	@Test
+	public void polymorphicMethodReference() throws Exception {
+		expression = parser.parseExpression("length()");
+		assertEquals(3, expression.getValue("abc"));
+		assertEquals(2, expression.getValue(new StringBuilder("ab")));
+		assertCanCompile(expression);
+		assertEquals(3, expression.getValue("abc"));
+		assertEquals(2, expression.getValue(new StringBuilder("ab")));
+		assertEquals(1, expression.getValue(new StringBuffer("a")));
+
+		// No common supertype declaring getName()
+		expression = parser.parseExpression("getName()");
+		assertEquals("apple", expression.getValue(new Item("apple", 3)));
+		assertEquals("other", expression.getValue(new File("other")));
+		assertCantCompile(expression);
+		assertEquals("apple", expression.getValue(new Item("apple", 3)));
+	}
+
 	@Test
 	public void repeatedCompilation() throws Exception {
 		// Verifying that after a number of compilations, the classloaders
@@ -5098,6 +5374,18 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 		}
 	}
 
+	private void assertCompiledGetValueFail(Expression expression, EvaluationContext context, SpelMessage messageCode) {
+		try {
+			Object o = expression.getValue(context);
+			fail("Calling getValue on the expression should have failed but returned " + o);
+		}
+		catch (SpelEvaluationException ex) {
+			assertEquals(SpelMessage.EXCEPTION_RUNNING_COMPILED_EXPRESSION, ex.getMessageCode());
+			assertTrue(ex.getCause() instanceof SpelEvaluationException);
+			assertEquals(messageCode, ((SpelEvaluationException) ex.getCause()).getMessageCode());
+		}
+	}
+
 	private void assertIsCompiled(Expression expression) {
 		try {
 			Field field = SpelExpression.class.getDeclaredField("compiledAst");
@@ -6129,4 +6417,60 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 		public Long someLong = 3L;
 	}
 
+
+	public static class Item {
+
+		private String name;
+
+		private int price;
+
+		public Item(String name, int price) {
+			this.name = name;
+			this.price = price;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public int getPrice() {
+			return this.price;
+		}
+
+		@Override
+		public String toString() {
+			return this.name;
+		}
+	}
+
+
+	public static class SaleItem extends Item {
+
+		public SaleItem(String name, int price) {
+			super(name, price);
+		}
+	}
+
+
+	public static class ItemHolder {
+
+		private final List<Item> items;
+
+		public ItemHolder(List<Item> items) {
+			this.items = items;
+		}
+
+		public List<Item> getItems() {
+			return this.items;
+		}
+
+		public int getLimit() {
+			return 10;
+		}
+	}
+
 }
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel.standard;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link SpelCompilerStatistics} and the adaptive recompilation
+ * of expressions in {@link SpelCompilerMode#MIXED} mode.
+ *
+ * @since 5.0.11
+ */
+public class SpelCompilerStatisticsTests {
+
+	private final SpelCompilerStatistics registry = SpelCompilerStatistics.getInstance();
+
+	private final SpelParserConfiguration configuration =
+			new SpelParserConfiguration(SpelCompilerMode.MIXED, getClass().getClassLoader());
+
+	private final SpelExpressionParser parser = new SpelExpressionParser(this.configuration);
+
+
+	@Before
+	public void enableStatistics() {
+		this.registry.reset();
+		this.registry.setEnabled(true);
+	}
+
+	@After
+	public void disableStatistics() {
+		this.registry.setEnabled(false);
+		this.registry.reset();
+	}
+
+
+	@Test
+	public void statisticsDisabled() {
+		this.registry.setEnabled(false);
+		SpelExpression expression = this.parser.parseRaw("length()");
+		assertNull(expression.getStatistics());
+		assertEquals(0, this.registry.getExpressionCount());
+	}
+
+	@Test
+	public void interpretedAndCompiledInvocations() {
+		SpelExpression expression = this.parser.parseRaw("length()");
+		SpelExpressionStatistics statistics = expression.getStatistics();
+		assertNotNull(statistics);
+		assertSame(statistics, this.registry.getExpressionStatistics("length()", this.configuration));
+		assertSame(statistics, this.parser.parseRaw("length()").getStatistics());
+
+		for (int i = 0; i < 102; i++) {
+			assertEquals(3, expression.getValue("abc"));
+		}
+		assertTrue(statistics.isCompiled());
+		assertEquals(101, statistics.getInterpretedInvocations());
+		assertEquals(1, statistics.getCompiledInvocations());
+		assertEquals(1, statistics.getCompilationAttempts());
+		assertEquals(0, statistics.getFailedCompilations());
+		assertEquals(1, this.registry.getExpressionCount());
+		assertEquals(1, this.registry.getCompiledExpressionCount());
+
+		expression.revertToInterpreted();
+		assertFalse(statistics.isCompiled());
+		assertEquals(0, this.registry.getCompiledExpressionCount());
+	}
+
+	@Test
+	public void statisticsPerParserConfiguration() {
+		SpelExpression expression = this.parser.parseRaw("length()");
+		SpelParserConfiguration otherConfiguration = new SpelParserConfiguration();
+		SpelExpression otherExpression = new SpelExpressionParser(otherConfiguration).parseRaw("length()");
+		assertNotNull(otherExpression.getStatistics());
+		assertNotSame(expression.getStatistics(), otherExpression.getStatistics());
+		assertSame(otherExpression.getStatistics(),
+				this.registry.getExpressionStatistics("length()", otherConfiguration));
+
+		for (int i = 0; i < 102; i++) {
+			expression.getValue("abc");
+			otherExpression.getValue("abc");
+		}
+		assertTrue(expression.getStatistics().isCompiled());
+		assertFalse(otherExpression.getStatistics().isCompiled());
+		assertEquals(0, otherExpression.getStatistics().getCompilationAttempts());
+		assertEquals(2, this.registry.getExpressionCount());
+		assertEquals(1, this.registry.getCompiledExpressionCount());
+	}
+
+	@Test
+	public void configurationNotRetainedByStatistics() throws InterruptedException {
+		WeakReference<ClassLoader> classLoaderReference = parseWithOwnClassLoader();
+		for (int i = 0; i < 50 && classLoaderReference.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertNull(classLoaderReference.get());
+		assertEquals(0, this.registry.getExpressionCount());
+	}
+
+	@Test
+	public void deoptimizationAndPolymorphicRecompilation() {
+		SpelExpression expression = this.parser.parseRaw("length()");
+		SpelExpressionStatistics statistics = expression.getStatistics();
+		assertNotNull(statistics);
+		for (int i = 0; i < 101; i++) {
+			expression.getValue("abc");
+		}
+		assertTrue(statistics.isCompiled());
+
+		// Compiled for String: falls back to the interpreter for another receiver type
+		assertEquals(2, expression.getValue(new StringBuilder("ab")));
+		assertFalse(statistics.isCompiled());
+		assertEquals(1, statistics.getDeoptimizations());
+
+		// Recompiled after twice as many interpreted invocations, for both receiver types
+		for (int i = 0; i < 199; i++) {
+			expression.getValue(i % 2 == 0 ? "abc" : new StringBuilder("ab"));
+		}
+		assertFalse(statistics.isCompiled());
+		expression.getValue("abc");
+		assertTrue(statistics.isCompiled());
+		assertEquals(2, expression.getValue(new StringBuilder("ab")));
+		assertEquals(3, expression.getValue("abc"));
+		assertTrue(statistics.isCompiled());
+		assertEquals(1, statistics.getDeoptimizations());
+		assertEquals(2, statistics.getCompilationAttempts());
+	}
+
+	@Test
+	public void expressionStatisticsOrderedByInvocations() {
+		SpelExpression expression1 = this.parser.parseRaw("1 + 1");
+		SpelExpression expression2 = this.parser.parseRaw("2 + 2");
+		expression1.getValue();
+		expression2.getValue();
+		expression2.getValue();
+
+		List<SpelExpressionStatistics> statistics = this.registry.getExpressionStatistics();
+		assertEquals(2, statistics.size());
+		assertEquals("2 + 2", statistics.get(0).getExpressionString());
+		assertEquals("1 + 1", statistics.get(1).getExpressionString());
+	}
+
+	@Test
+	public void registerAsMXBean() throws Exception {
+		this.parser.parseRaw("length()").getValue("abc");
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(SpelCompilerStatistics.OBJECT_NAME);
+		server.registerMBean(this.registry, name);
+		try {
+			assertEquals(1, server.getAttribute(name, "ExpressionCount"));
+			CompositeData[] data = (CompositeData[]) server.getAttribute(name, "ExpressionStatistics");
+			assertEquals(1, data.length);
+			assertEquals("length()", data[0].get("expressionString"));
+			assertEquals(1L, data[0].get("interpretedInvocations"));
+		}
+		finally {
+			server.unregisterMBean(name);
+		}
+	}
+
+
+	private WeakReference<ClassLoader> parseWithOwnClassLoader() {
+		ClassLoader classLoader = new URLClassLoader(new URL[0], getClass().getClassLoader());
+		SpelParserConfiguration configuration = new SpelParserConfiguration(SpelCompilerMode.MIXED, classLoader);
+		SpelExpression expression = new SpelExpressionParser(configuration).parseRaw("length()");
+		assertNotNull(expression.getStatistics());
+		assertEquals(1, this.registry.getExpressionCount());
+		return new WeakReference<>(classLoader);
+	}
+
+}
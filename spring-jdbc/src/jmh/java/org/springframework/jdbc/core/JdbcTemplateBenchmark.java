@@ -0,0 +1,172 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+/**
+ * Benchmarks for {@link JdbcTemplate} row mapping against an embedded HSQL database,
+ * comparing a hand-written {@link RowMapper} with {@link BeanPropertyRowMapper}
+ * and {@link ColumnMapRowMapper}.
+ *
+ * @since 5.0.11
+ */
+@BenchmarkMode(Mode.Throughput)
+public class JdbcTemplateBenchmark {
+
+	static final String SELECT_SQL = "SELECT id, first_name, last_name, balance, active FROM customer WHERE id < ?";
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"10", "1000"})
+		public int rowCount;
+
+		public EmbeddedDatabase database;
+
+		public JdbcTemplate jdbcTemplate;
+
+		public RowMapper<Customer> customerRowMapper;
+
+		public BeanPropertyRowMapper<Customer> beanPropertyRowMapper;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.HSQL)
+					.generateUniqueName(true).build();
+			this.jdbcTemplate = new JdbcTemplate(this.database);
+			this.jdbcTemplate.execute("CREATE TABLE customer (id INTEGER PRIMARY KEY, " +
+					"first_name VARCHAR(50), last_name VARCHAR(50), balance DECIMAL(10,2), active BOOLEAN)");
+			List<Object[]> batchArgs = new ArrayList<>(this.rowCount);
+			for (int i = 0; i < this.rowCount; i++) {
+				batchArgs.add(new Object[] {i, "First" + i, "Last" + i, new BigDecimal(i + ".25"), (i % 2 == 0)});
+			}
+			this.jdbcTemplate.batchUpdate("INSERT INTO customer VALUES (?, ?, ?, ?, ?)", batchArgs);
+
+			this.customerRowMapper = (rs, rowNum) -> {
+				Customer customer = new Customer();
+				customer.setId(rs.getInt(1));
+				customer.setFirstName(rs.getString(2));
+				customer.setLastName(rs.getString(3));
+				customer.setBalance(rs.getBigDecimal(4));
+				customer.setActive(rs.getBoolean(5));
+				return customer;
+			};
+			this.beanPropertyRowMapper = new BeanPropertyRowMapper<>(Customer.class);
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			this.database.shutdown();
+		}
+	}
+
+
+	@Benchmark
+	public List<Customer> queryWithRowMapper(BenchmarkState state) {
+		return state.jdbcTemplate.query(SELECT_SQL, state.customerRowMapper, state.rowCount);
+	}
+
+	@Benchmark
+	public List<Customer> queryWithBeanPropertyRowMapper(BenchmarkState state) {
+		return state.jdbcTemplate.query(SELECT_SQL, state.beanPropertyRowMapper, state.rowCount);
+	}
+
+	@Benchmark
+	public List<Map<String, Object>> queryForList(BenchmarkState state) {
+		return state.jdbcTemplate.queryForList(SELECT_SQL, state.rowCount);
+	}
+
+	@Benchmark
+	public Integer queryForObject(BenchmarkState state) {
+		return state.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customer WHERE id < ?",
+				Integer.class, state.rowCount);
+	}
+
+
+	public static class Customer {
+
+		private int id;
+
+		private String firstName;
+
+		private String lastName;
+
+		private BigDecimal balance;
+
+		private boolean active;
+
+		public int getId() {
+			return this.id;
+		}
+
+		public void setId(int id) {
+			this.id = id;
+		}
+
+		public String getFirstName() {
+			return this.firstName;
+		}
+
+		public void setFirstName(String firstName) {
+			this.firstName = firstName;
+		}
+
+		public String getLastName() {
+			return this.lastName;
+		}
+
+		public void setLastName(String lastName) {
+			this.lastName = lastName;
+		}
+
+		public BigDecimal getBalance() {
+			return this.balance;
+		}
+
+		public void setBalance(BigDecimal balance) {
+			this.balance = balance;
+		}
+
+		public boolean isActive() {
+			return this.active;
+		}
+
+		public void setActive(boolean active) {
+			this.active = active;
+		}
+	}
+
+}
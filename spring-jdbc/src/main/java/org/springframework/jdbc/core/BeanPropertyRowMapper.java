@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -68,7 +68,8 @@ import org.springframework.util.StringUtils;
  * will have been set to the primitive's default value instead of null.
  *
  * <p>Please note that this class is designed to provide convenience rather than high performance.
- * For best performance, consider using a custom {@link RowMapper} implementation.
+ * For best performance, consider using a custom {@link RowMapper} implementation,
+ * or a {@link DataClassRowMapper} which resolves the mapping once per result set shape.
  *
  * @author Thomas Risberg
  * @author Juergen Hoeller
@@ -370,11 +371,30 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 	 * @param pd the bean property that each result object is expected to match
 	 * @return the Object value
 	 * @throws SQLException in case of extraction failure
-	 * @see org.springframework.jdbc.support.JdbcUtils#getResultSetValue(java.sql.ResultSet, int, Class)
+	 * @see #getColumnValue(java.sql.ResultSet, int, Class)
 	 */
 	@Nullable
 	protected Object getColumnValue(ResultSet rs, int index, PropertyDescriptor pd) throws SQLException {
-		return JdbcUtils.getResultSetValue(rs, index, pd.getPropertyType());
+		return getColumnValue(rs, index, pd.getPropertyType());
+	}
+
+	/**
+	 * Retrieve a JDBC object value for the specified column.
+	 * <p>The default implementation calls
+	 * {@link JdbcUtils#getResultSetValue(java.sql.ResultSet, int, Class)}.
+	 * Subclasses may override this to check specific value types upfront,
+	 * or to post-process values return from {@code getResultSetValue}.
+	 * @param rs is the ResultSet holding the data
+	 * @param index is the column index
+	 * @param paramType the target parameter type
+	 * @return the Object value
+	 * @throws SQLException in case of extraction failure
+	 * @since 5.0.11
+	 * @see org.springframework.jdbc.support.JdbcUtils#getResultSetValue(java.sql.ResultSet, int, Class)
+	 */
+	@Nullable
+	protected Object getColumnValue(ResultSet rs, int index, Class<?> paramType) throws SQLException {
+		return JdbcUtils.getResultSetValue(rs, index, paramType);
 	}
 
 
@@ -0,0 +1,606 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.beans.ConstructorProperties;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyDescriptor;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.SimpleTypeConverter;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.LambdaFactoryUtils;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * {@link RowMapper} implementation that converts a row into a new instance
+ * of the specified mapped target class, following the same column-to-property
+ * matching rules as {@link BeanPropertyRowMapper} but resolving them only once
+ * per result set shape rather than for every row and column.
+ *
+ * <p>The mapped target class may either have a default constructor, or a single
+ * public constructor (or a Kotlin primary constructor) with parameters. In the
+ * latter case, constructor parameters are bound to columns by name, with names
+ * taken from {@link ConstructorProperties @ConstructorProperties} or from the
+ * compiled class (requiring {@code -parameters} or debug information). Columns
+ * that do not match a constructor parameter are bound to bean property setters.
+ *
+ * <p>The mapping plan, i.e. the constructor argument and property to populate
+ * from each column index, gets cached per mapper class, target class and column
+ * labels, so it is shared by all mapper instances used with the same query.
+ * Values for primitive {@code int}, {@code long} and {@code double} properties
+ * are read through the corresponding typed {@code ResultSet} accessor, unless
+ * {@link #getColumnValue(ResultSet, int, PropertyDescriptor)} has been overridden. Once a plan has been applied to a
+ * number of rows, properties are set through generated setters instead of
+ * reflection. In contrast to {@link BeanPropertyRowMapper}, no
+ * {@link org.springframework.beans.BeanWrapper} is involved: values which do
+ * not match the target type are converted through the configured
+ * {@link ConversionService}, falling back to default property editors.
+ *
+ * @since 5.0.11
+ * @param <T> the result type
+ * @see BeanPropertyRowMapper
+ */
+public class DataClassRowMapper<T> extends BeanPropertyRowMapper<T> {
+
+	private static final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+
+	/** Cache of mapping plans, keyed by mapper class, mapped class and column labels */
+	private static final Map<MappingPlanKey, MappingPlan> mappingPlanCache = new ConcurrentReferenceHashMap<>(64);
+
+
+	/** The mapping plan for the most recently mapped ResultSet */
+	@Nullable
+	private volatile CurrentMappingPlan currentMappingPlan;
+
+	/** Fallback converter, lazily initialized: guarded by itself since its property editors are stateful */
+	@Nullable
+	private volatile SimpleTypeConverter typeConverter;
+
+
+	/**
+	 * Create a new {@code DataClassRowMapper} for bean-style configuration.
+	 * @see #setMappedClass
+	 * @see #setCheckFullyPopulated
+	 */
+	public DataClassRowMapper() {
+	}
+
+	/**
+	 * Create a new {@code DataClassRowMapper}, accepting unpopulated
+	 * properties in the target bean.
+	 * @param mappedClass the class that each row should be mapped to
+	 */
+	public DataClassRowMapper(Class<T> mappedClass) {
+		super(mappedClass);
+	}
+
+	/**
+	 * Create a new {@code DataClassRowMapper}.
+	 * @param mappedClass the class that each row should be mapped to
+	 * @param checkFullyPopulated whether we're strictly validating that
+	 * all constructor parameters and bean properties have been mapped
+	 * from corresponding database fields
+	 */
+	public DataClassRowMapper(Class<T> mappedClass, boolean checkFullyPopulated) {
+		super(mappedClass, checkFullyPopulated);
+	}
+
+
+	/**
+	 * Extract the values for all columns in the current row.
+	 * <p>Resolves the mapping plan for the result set meta-data on the first
+	 * row of each {@code ResultSet}, reusing it for all subsequent rows.
+	 * @see java.sql.ResultSetMetaData
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public T mapRow(ResultSet rs, int rowNumber) throws SQLException {
+		Class<T> mappedClass = getMappedClass();
+		Assert.state(mappedClass != null, "Mapped class was not specified");
+		MappingPlan plan = getMappingPlan(mappedClass, rs, rowNumber);
+		if (isCheckFullyPopulated() && !plan.isFullyPopulated()) {
+			throw new InvalidDataAccessApiUsageException("Given ResultSet does not contain all fields " +
+					"necessary to populate object of class [" + mappedClass.getName() + "]: " +
+					plan.getMappedNames());
+		}
+		return (T) plan.mapRow(this, rs, rowNumber);
+	}
+
+	private MappingPlan getMappingPlan(Class<T> mappedClass, ResultSet rs, int rowNumber) throws SQLException {
+		CurrentMappingPlan current = this.currentMappingPlan;
+		if (current != null && rowNumber > 0 && current.resultSet.get() == rs) {
+			return current.plan;
+		}
+		ResultSetMetaData rsmd = rs.getMetaData();
+		int columnCount = rsmd.getColumnCount();
+		List<String> columns = new ArrayList<>(columnCount);
+		for (int index = 1; index <= columnCount; index++) {
+			columns.add(JdbcUtils.lookupColumnName(rsmd, index));
+		}
+		MappingPlanKey key = new MappingPlanKey(getClass(), mappedClass, columns);
+		MappingPlan plan = mappingPlanCache.get(key);
+		if (plan == null) {
+			plan = new MappingPlan(this, mappedClass, columns);
+			MappingPlan existing = mappingPlanCache.putIfAbsent(key, plan);
+			if (existing != null) {
+				plan = existing;
+			}
+		}
+		this.currentMappingPlan = new CurrentMappingPlan(rs, plan);
+		return plan;
+	}
+
+	/**
+	 * Convert the given column value to the target type, if necessary.
+	 */
+	@Nullable
+	private Object convertIfNecessary(Object value, MethodParameter targetParameter, TypeDescriptor targetType) {
+		if (ClassUtils.isAssignableValue(targetType.getType(), value)) {
+			return value;
+		}
+		ConversionService cs = getConversionService();
+		TypeDescriptor sourceType = TypeDescriptor.forObject(value);
+		if (cs != null && cs.canConvert(sourceType, targetType)) {
+			return cs.convert(value, sourceType, targetType);
+		}
+		SimpleTypeConverter typeConverter = this.typeConverter;
+		if (typeConverter == null) {
+			typeConverter = new SimpleTypeConverter();
+			this.typeConverter = typeConverter;
+		}
+		synchronized (typeConverter) {
+			return typeConverter.convertIfNecessary(value, targetType.getType(), targetParameter);
+		}
+	}
+
+
+	/**
+	 * Static factory method to create a new {@code DataClassRowMapper}
+	 * (with the mapped class specified only once).
+	 * @param mappedClass the class that each row should be mapped to
+	 */
+	public static <T> DataClassRowMapper<T> newInstance(Class<T> mappedClass) {
+		return new DataClassRowMapper<>(mappedClass);
+	}
+
+
+	/**
+	 * Cache key for a mapping plan: the mapper class is part of the key since
+	 * subclasses may customize the column name matching.
+	 */
+	private static final class MappingPlanKey {
+
+		private final Class<?> mapperClass;
+
+		private final Class<?> mappedClass;
+
+		private final List<String> columns;
+
+		MappingPlanKey(Class<?> mapperClass, Class<?> mappedClass, List<String> columns) {
+			this.mapperClass = mapperClass;
+			this.mappedClass = mappedClass;
+			this.columns = columns;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof MappingPlanKey)) {
+				return false;
+			}
+			MappingPlanKey otherKey = (MappingPlanKey) other;
+			return (this.mapperClass == otherKey.mapperClass && this.mappedClass == otherKey.mappedClass &&
+					this.columns.equals(otherKey.columns));
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.mappedClass.hashCode() * 31 + this.columns.hashCode());
+		}
+	}
+
+
+	/**
+	 * Mapping plan for the most recently mapped ResultSet, holding the
+	 * ResultSet weakly in order to not keep it reachable after use.
+	 */
+	private static final class CurrentMappingPlan {
+
+		final WeakReference<ResultSet> resultSet;
+
+		final MappingPlan plan;
+
+		CurrentMappingPlan(ResultSet resultSet, MappingPlan plan) {
+			this.resultSet = new WeakReference<>(resultSet);
+			this.plan = plan;
+		}
+	}
+
+
+	/**
+	 * Resolved mapping of the columns of a given result set shape
+	 * to the constructor parameters and properties of the mapped class.
+	 */
+	private static final class MappingPlan {
+
+		private final Constructor<?> constructor;
+
+		private final int[] constructorColumns;
+
+		private final MethodParameter[] constructorParameters;
+
+		private final TypeDescriptor[] constructorParameterTypes;
+
+		@Nullable
+		private final Object[] constructorDefaults;
+
+		private final PropertyMapping[] propertyMappings;
+
+		private final Set<String> mappedNames;
+
+		private final boolean fullyPopulated;
+
+		@Nullable
+		private volatile Supplier<?> instantiator;
+
+		private volatile boolean generated;
+
+		/** Racy row counter: an approximate count is good enough */
+		private volatile int mappedRows;
+
+		MappingPlan(DataClassRowMapper<?> mapper, Class<?> mappedClass, List<String> columns) {
+			this.constructor = resolveConstructor(mappedClass);
+			ReflectionUtils.makeAccessible(this.constructor);
+			int parameterCount = this.constructor.getParameterCount();
+			this.constructorColumns = new int[parameterCount];
+			this.constructorParameters = new MethodParameter[parameterCount];
+			this.constructorParameterTypes = new TypeDescriptor[parameterCount];
+			this.constructorDefaults = (parameterCount > 0 ? new Object[parameterCount] : null);
+			this.mappedNames = new LinkedHashSet<>();
+
+			Map<String, Integer> constructorFields = new HashMap<>();
+			String[] parameterNames = (parameterCount > 0 ? resolveParameterNames(this.constructor) : new String[0]);
+			if (parameterCount > 0) {
+				for (int i = 0; i < parameterCount; i++) {
+					MethodParameter parameter = new MethodParameter(this.constructor, i);
+					this.constructorParameters[i] = parameter;
+					this.constructorParameterTypes[i] = new TypeDescriptor(parameter);
+					Class<?> parameterType = parameter.getParameterType();
+					if (parameterType.isPrimitive()) {
+						this.constructorDefaults[i] = Array.get(Array.newInstance(parameterType, 1), 0);
+					}
+					constructorFields.put(mapper.lowerCaseName(parameterNames[i]), i);
+					constructorFields.put(mapper.underscoreName(parameterNames[i]), i);
+					this.mappedNames.add(parameterNames[i]);
+				}
+			}
+
+			Map<String, PropertyDescriptor> mappedFields = new HashMap<>();
+			for (PropertyDescriptor pd : BeanUtils.getPropertyDescriptors(mappedClass)) {
+				if (pd.getWriteMethod() != null && !this.mappedNames.contains(pd.getName())) {
+					mappedFields.put(mapper.lowerCaseName(pd.getName()), pd);
+					mappedFields.put(mapper.underscoreName(pd.getName()), pd);
+				}
+			}
+			for (PropertyDescriptor pd : mappedFields.values()) {
+				this.mappedNames.add(pd.getName());
+			}
+
+			boolean typedAccess = !isColumnValueAccessCustomized(mapper.getClass());
+			Set<String> populatedNames = new LinkedHashSet<>();
+			List<PropertyMapping> propertyMappings = new ArrayList<>(columns.size());
+			for (int index = 1; index <= columns.size(); index++) {
+				String column = columns.get(index - 1);
+				String field = mapper.lowerCaseName(column.replaceAll(" ", ""));
+				Integer parameterIndex = constructorFields.get(field);
+				PropertyDescriptor pd = mappedFields.get(field);
+				if (parameterIndex != null) {
+					this.constructorColumns[parameterIndex] = index;
+					populatedNames.add(parameterNames[parameterIndex]);
+					if (mapper.logger.isDebugEnabled()) {
+						mapper.logger.debug("Mapping column '" + column + "' to constructor parameter " +
+								parameterIndex + " of type '" + ClassUtils.getQualifiedName(
+								this.constructorParameters[parameterIndex].getParameterType()) + "'");
+					}
+				}
+				else if (pd != null) {
+					propertyMappings.add(new PropertyMapping(index, column, pd, typedAccess));
+					populatedNames.add(pd.getName());
+					if (mapper.logger.isDebugEnabled()) {
+						mapper.logger.debug("Mapping column '" + column + "' to property '" + pd.getName() +
+								"' of type '" + ClassUtils.getQualifiedName(pd.getPropertyType()) + "'");
+					}
+				}
+				else if (mapper.logger.isDebugEnabled()) {
+					mapper.logger.debug("No property found for column '" + column + "' mapped to field '" + field + "'");
+				}
+			}
+			this.propertyMappings = propertyMappings.toArray(new PropertyMapping[0]);
+			this.fullyPopulated = populatedNames.containsAll(this.mappedNames);
+		}
+
+		/**
+		 * Determine whether the given mapper class overrides one of the
+		 * {@code getColumnValue} variants, in which case all property values
+		 * need to go through {@link BeanPropertyRowMapper#getColumnValue(ResultSet, int, PropertyDescriptor)}.
+		 */
+		private static boolean isColumnValueAccessCustomized(Class<?> mapperClass) {
+			Method pdVariant = ReflectionUtils.findMethod(
+					mapperClass, "getColumnValue", ResultSet.class, int.class, PropertyDescriptor.class);
+			Method typeVariant = ReflectionUtils.findMethod(
+					mapperClass, "getColumnValue", ResultSet.class, int.class, Class.class);
+			return ((pdVariant != null && pdVariant.getDeclaringClass() != BeanPropertyRowMapper.class) ||
+					(typeVariant != null && typeVariant.getDeclaringClass() != BeanPropertyRowMapper.class));
+		}
+
+		private static Constructor<?> resolveConstructor(Class<?> mappedClass) {
+			Constructor<?> ctor = BeanUtils.findPrimaryConstructor(mappedClass);
+			if (ctor != null) {
+				return ctor;
+			}
+			Constructor<?>[] ctors = mappedClass.getConstructors();
+			if (ctors.length == 1) {
+				return ctors[0];
+			}
+			try {
+				return mappedClass.getDeclaredConstructor();
+			}
+			catch (NoSuchMethodException ex) {
+				throw new InvalidDataAccessApiUsageException("Mapped class [" + mappedClass.getName() +
+						"] has neither a default constructor nor a unique public constructor", ex);
+			}
+		}
+
+		private static String[] resolveParameterNames(Constructor<?> ctor) {
+			ConstructorProperties cp = ctor.getAnnotation(ConstructorProperties.class);
+			String[] parameterNames = (cp != null ? cp.value() : parameterNameDiscoverer.getParameterNames(ctor));
+			if (parameterNames == null || parameterNames.length != ctor.getParameterCount()) {
+				throw new InvalidDataAccessApiUsageException("Cannot resolve parameter names for constructor " +
+						ctor + ": compile with '-parameters' or declare @ConstructorProperties");
+			}
+			return parameterNames;
+		}
+
+		boolean isFullyPopulated() {
+			return this.fullyPopulated;
+		}
+
+		Set<String> getMappedNames() {
+			return this.mappedNames;
+		}
+
+		Object mapRow(DataClassRowMapper<?> mapper, ResultSet rs, int rowNumber) throws SQLException {
+			if (!this.generated && this.mappedRows++ >= LambdaFactoryUtils.GENERATION_THRESHOLD) {
+				generateAccessors();
+			}
+			Object mappedObject = instantiate(mapper, rs);
+			for (PropertyMapping mapping : this.propertyMappings) {
+				mapping.write(mapper, mappedObject, rs, rowNumber);
+			}
+			return mappedObject;
+		}
+
+		private Object instantiate(DataClassRowMapper<?> mapper, ResultSet rs) throws SQLException {
+			int parameterCount = this.constructorColumns.length;
+			if (parameterCount == 0) {
+				Supplier<?> instantiator = this.instantiator;
+				return (instantiator != null ? instantiator.get() : BeanUtils.instantiateClass(this.constructor));
+			}
+			Object[] args = new Object[parameterCount];
+			for (int i = 0; i < parameterCount; i++) {
+				int index = this.constructorColumns[i];
+				MethodParameter parameter = this.constructorParameters[i];
+				Object value = (index > 0 ? mapper.getColumnValue(rs, index, parameter.getParameterType()) : null);
+				if (value != null) {
+					value = mapper.convertIfNecessary(value, parameter, this.constructorParameterTypes[i]);
+				}
+				else if (this.constructorDefaults != null && this.constructorDefaults[i] != null) {
+					if (index > 0 && !mapper.isPrimitivesDefaultedForNullValue()) {
+						throw new TypeMismatchException((Object) null, parameter.getParameterType());
+					}
+					value = this.constructorDefaults[i];
+				}
+				args[i] = value;
+			}
+			return BeanUtils.instantiateClass(this.constructor, args);
+		}
+
+		private void generateAccessors() {
+			if (this.constructor.getParameterCount() == 0) {
+				this.instantiator = LambdaFactoryUtils.generateFunction(this.constructor, Supplier.class);
+			}
+			for (PropertyMapping mapping : this.propertyMappings) {
+				mapping.generateSetter();
+			}
+			this.generated = true;
+		}
+	}
+
+
+	/**
+	 * Mapping of a column to a bean property, setting the value either
+	 * reflectively or through a generated setter.
+	 */
+	private static final class PropertyMapping {
+
+		private final int index;
+
+		private final String column;
+
+		private final PropertyDescriptor pd;
+
+		private final Method writeMethod;
+
+		private final Class<?> type;
+
+		private final MethodParameter parameter;
+
+		private final TypeDescriptor typeDescriptor;
+
+		/** Whether primitive values may be read through typed ResultSet accessors */
+		private final boolean typedAccess;
+
+		@Nullable
+		private volatile BiConsumer<Object, Object> setter;
+
+		@Nullable
+		private volatile ObjIntConsumer<Object> intSetter;
+
+		@Nullable
+		private volatile ObjLongConsumer<Object> longSetter;
+
+		@Nullable
+		private volatile ObjDoubleConsumer<Object> doubleSetter;
+
+		PropertyMapping(int index, String column, PropertyDescriptor pd, boolean typedAccess) {
+			this.index = index;
+			this.column = column;
+			this.pd = pd;
+			Method writeMethod = pd.getWriteMethod();
+			Assert.state(writeMethod != null, "No write method");
+			ReflectionUtils.makeAccessible(writeMethod);
+			this.writeMethod = writeMethod;
+			this.type = writeMethod.getParameterTypes()[0];
+			this.parameter = new MethodParameter(writeMethod, 0);
+			this.typeDescriptor = new TypeDescriptor(this.parameter);
+			this.typedAccess = typedAccess;
+		}
+
+		@SuppressWarnings("unchecked")
+		void generateSetter() {
+			if (Modifier.isStatic(this.writeMethod.getModifiers())) {
+				return;
+			}
+			if (this.typedAccess && this.type == int.class) {
+				this.intSetter = LambdaFactoryUtils.generateFunction(this.writeMethod, ObjIntConsumer.class);
+			}
+			else if (this.typedAccess && this.type == long.class) {
+				this.longSetter = LambdaFactoryUtils.generateFunction(this.writeMethod, ObjLongConsumer.class);
+			}
+			else if (this.typedAccess && this.type == double.class) {
+				this.doubleSetter = LambdaFactoryUtils.generateFunction(this.writeMethod, ObjDoubleConsumer.class);
+			}
+			else {
+				this.setter = LambdaFactoryUtils.generateFunction(this.writeMethod, BiConsumer.class);
+			}
+		}
+
+		void write(DataClassRowMapper<?> mapper, Object bean, ResultSet rs, int rowNumber) throws SQLException {
+			if (this.typedAccess && this.type == int.class) {
+				int value = rs.getInt(this.index);
+				if (!rs.wasNull()) {
+					ObjIntConsumer<Object> intSetter = this.intSetter;
+					if (intSetter != null) {
+						intSetter.accept(bean, value);
+					}
+					else {
+						ReflectionUtils.invokeMethod(this.writeMethod, bean, value);
+					}
+					return;
+				}
+			}
+			else if (this.typedAccess && this.type == long.class) {
+				long value = rs.getLong(this.index);
+				if (!rs.wasNull()) {
+					ObjLongConsumer<Object> longSetter = this.longSetter;
+					if (longSetter != null) {
+						longSetter.accept(bean, value);
+					}
+					else {
+						ReflectionUtils.invokeMethod(this.writeMethod, bean, value);
+					}
+					return;
+				}
+			}
+			else if (this.typedAccess && this.type == double.class) {
+				double value = rs.getDouble(this.index);
+				if (!rs.wasNull()) {
+					ObjDoubleConsumer<Object> doubleSetter = this.doubleSetter;
+					if (doubleSetter != null) {
+						doubleSetter.accept(bean, value);
+					}
+					else {
+						ReflectionUtils.invokeMethod(this.writeMethod, bean, value);
+					}
+					return;
+				}
+			}
+			else {
+				Object value = mapper.getColumnValue(rs, this.index, this.pd);
+				if (value != null || !this.type.isPrimitive()) {
+					if (value != null) {
+						value = mapper.convertIfNecessary(value, this.parameter, this.typeDescriptor);
+					}
+					BiConsumer<Object, Object> setter = this.setter;
+					if (setter != null) {
+						setter.accept(bean, value);
+					}
+					else {
+						ReflectionUtils.invokeMethod(this.writeMethod, bean, value);
+					}
+					return;
+				}
+			}
+
+			// Null value for a primitive property
+			if (!mapper.isPrimitivesDefaultedForNullValue()) {
+				throw new TypeMismatchException(
+						new PropertyChangeEvent(bean, this.pd.getName(), null, null), this.type);
+			}
+			if (mapper.logger.isDebugEnabled()) {
+				mapper.logger.debug("Skipping null value for row " + rowNumber + " and column '" + this.column +
+						"' when setting property '" + this.pd.getName() + "' of type '" +
+						ClassUtils.getQualifiedName(this.type) + "' on object: " + ObjectUtils.identityToString(bean));
+			}
+		}
+	}
+
+}
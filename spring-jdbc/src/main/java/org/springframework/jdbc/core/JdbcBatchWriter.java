@@ -0,0 +1,661 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * Writes a potentially large number of items through a JDBC batch statement,
+ * splitting them into chunks of a fixed {@link #setBatchSize batch size}.
+ *
+ * <p>Items are pulled from the given {@link Stream} or {@link Iterator} by the
+ * calling thread while the chunks are bound and executed by a configurable
+ * number of {@link #setConcurrency concurrent} workers, each of them using
+ * its own connection. Iterating the source therefore overlaps with the
+ * execution of previous chunks, with at most two pending chunks per worker
+ * being held in memory at any time.
+ *
+ * <p>If a partition key extractor is given, all items with the same key are
+ * written by the same worker, in source order. This allows for concurrent
+ * writes to tables where rows of different partitions do not contend for
+ * the same locks. Without a partition key, chunks are handed to whichever
+ * worker is available next. A worker that the {@link #setTaskExecutor executor}
+ * did not start in time (e.g. due to a thread pool smaller than the configured
+ * concurrency) gets taken over by the calling thread, executing the pending
+ * chunks of that worker itself.
+ *
+ * <p>Each chunk is executed through {@link JdbcTemplate#batchUpdate(String,
+ * java.util.Collection, int, ParameterizedPreparedStatementSetter)}, with
+ * the outcome being reported as a {@link ChunkResult}. Failed chunks do not
+ * throw but get reported with their translated exception; by default, no
+ * further chunks are started once a chunk failed.
+ *
+ * <p>Transactions follow {@link org.springframework.jdbc.datasource.DataSourceTransactionManager}
+ * semantics: if the writer gets invoked within an existing transaction, all
+ * chunks are executed in the calling thread through the transactional
+ * connection, since other threads cannot participate in that transaction.
+ * It is up to the caller to roll back the transaction in case of reported
+ * failures. Otherwise, each chunk is executed in a transaction of its own
+ * if a {@link #setTransactionManager transaction manager} has been specified,
+ * or in auto-commit mode else.
+ *
+ * @since 5.0.11
+ * @see JdbcTemplate#batchUpdate(String, java.util.Collection, int, ParameterizedPreparedStatementSetter)
+ */
+public class JdbcBatchWriter {
+
+	/** Default number of items per chunk */
+	public static final int DEFAULT_BATCH_SIZE = 1000;
+
+	private static final int PENDING_CHUNKS_PER_WORKER = 2;
+
+	private static final long POLL_INTERVAL_MILLIS = 100;
+
+	protected final Log logger = LogFactory.getLog(getClass());
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private int batchSize = DEFAULT_BATCH_SIZE;
+
+	private int concurrency = 1;
+
+	private boolean continueOnError = false;
+
+	@Nullable
+	private TransactionTemplate transactionTemplate;
+
+	private Executor taskExecutor = new SimpleAsyncTaskExecutor("jdbc-batch-writer-");
+
+
+	/**
+	 * Create a new JdbcBatchWriter for the given DataSource.
+	 * @param dataSource the JDBC DataSource to obtain connections from
+	 */
+	public JdbcBatchWriter(DataSource dataSource) {
+		this(new JdbcTemplate(dataSource));
+	}
+
+	/**
+	 * Create a new JdbcBatchWriter for the given JdbcTemplate,
+	 * reusing its DataSource and exception translation settings.
+	 * @param jdbcTemplate the JdbcTemplate to execute the chunks with
+	 */
+	public JdbcBatchWriter(JdbcTemplate jdbcTemplate) {
+		Assert.notNull(jdbcTemplate, "JdbcTemplate must not be null");
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+
+	/**
+	 * Return the JdbcTemplate that this writer executes the chunks with.
+	 */
+	public JdbcTemplate getJdbcTemplate() {
+		return this.jdbcTemplate;
+	}
+
+	/**
+	 * Set the number of items to be bound into each JDBC batch.
+	 * <p>Default is {@value #DEFAULT_BATCH_SIZE}.
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "Batch size must be greater than 0");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Return the number of items to be bound into each JDBC batch.
+	 */
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+
+	/**
+	 * Set the number of workers executing chunks concurrently, each of them
+	 * using a connection of its own.
+	 * <p>Default is 1, which still overlaps the iteration of the source with
+	 * the execution of chunks. This setting does not apply when invoked within
+	 * an existing transaction, with all chunks being executed in the calling
+	 * thread then.
+	 */
+	public void setConcurrency(int concurrency) {
+		Assert.isTrue(concurrency > 0, "Concurrency must be greater than 0");
+		this.concurrency = concurrency;
+	}
+
+	/**
+	 * Return the number of workers executing chunks concurrently.
+	 */
+	public int getConcurrency() {
+		return this.concurrency;
+	}
+
+	/**
+	 * Set whether to keep executing further chunks after a chunk failed.
+	 * <p>Default is "false", not starting any further chunks once a failure
+	 * has been encountered. Chunks that have never been started are not
+	 * included in the returned results. Note that chunks executed before the
+	 * failure (or concurrently with it) remain committed unless the writer
+	 * has been invoked within an existing transaction.
+	 */
+	public void setContinueOnError(boolean continueOnError) {
+		this.continueOnError = continueOnError;
+	}
+
+	/**
+	 * Return whether to keep executing further chunks after a chunk failed.
+	 */
+	public boolean isContinueOnError() {
+		return this.continueOnError;
+	}
+
+	/**
+	 * Specify a transaction manager to execute each chunk in a transaction
+	 * of its own, typically a
+	 * {@link org.springframework.jdbc.datasource.DataSourceTransactionManager}
+	 * for the same DataSource.
+	 * <p>Default is none, executing chunks in auto-commit mode unless invoked
+	 * within an existing transaction.
+	 */
+	public void setTransactionManager(@Nullable PlatformTransactionManager transactionManager) {
+		this.transactionTemplate = (transactionManager != null ? new TransactionTemplate(transactionManager) : null);
+	}
+
+	/**
+	 * Set the executor to run the workers on, with one thread per worker
+	 * being occupied for the duration of each write operation. The executor
+	 * is meant to run tasks asynchronously; workers that it does not start in time,
+	 * or that it runs in the calling thread itself (e.g. a
+	 * {@link org.springframework.core.task.SyncTaskExecutor}), are taken over
+	 * by the calling thread, and a rejected worker aborts the write operation
+	 * with the executor's exception.
+	 * <p>Default is a {@link SimpleAsyncTaskExecutor}, creating a new thread
+	 * named "jdbc-batch-writer-" plus a sequence number for each worker.
+	 */
+	public void setTaskExecutor(Executor taskExecutor) {
+		Assert.notNull(taskExecutor, "Executor must not be null");
+		this.taskExecutor = taskExecutor;
+	}
+
+
+	/**
+	 * Write the given items through the given SQL batch statement.
+	 * <p>The given stream gets closed once the write operation completed.
+	 * @param sql the SQL statement to execute for each item
+	 * @param items the items to write
+	 * @param pss the setter to bind the values of each item with
+	 * @return the results of the executed chunks, in source order
+	 */
+	public <T> List<ChunkResult> write(String sql, Stream<? extends T> items,
+			ParameterizedPreparedStatementSetter<T> pss) {
+
+		return write(sql, items, pss, null);
+	}
+
+	/**
+	 * Write the given items through the given SQL batch statement,
+	 * with items of the same partition key being written by the same worker.
+	 * <p>The given stream gets closed once the write operation completed.
+	 * @param sql the SQL statement to execute for each item
+	 * @param items the items to write
+	 * @param pss the setter to bind the values of each item with
+	 * @param partitionKeyExtractor a function returning the partition key
+	 * for each item, or {@code null} for no partitioning
+	 * @return the results of the executed chunks, in source order
+	 */
+	public <T> List<ChunkResult> write(String sql, Stream<? extends T> items,
+			ParameterizedPreparedStatementSetter<T> pss, @Nullable Function<? super T, ?> partitionKeyExtractor) {
+
+		Assert.notNull(items, "Items must not be null");
+		try {
+			return write(sql, items.iterator(), pss, partitionKeyExtractor);
+		}
+		finally {
+			items.close();
+		}
+	}
+
+	/**
+	 * Write the given items through the given SQL batch statement.
+	 * @param sql the SQL statement to execute for each item
+	 * @param items the items to write
+	 * @param pss the setter to bind the values of each item with
+	 * @return the results of the executed chunks, in source order
+	 */
+	public <T> List<ChunkResult> write(String sql, Iterator<? extends T> items,
+			ParameterizedPreparedStatementSetter<T> pss) {
+
+		return write(sql, items, pss, null);
+	}
+
+	/**
+	 * Write the given items through the given SQL batch statement,
+	 * with items of the same partition key being written by the same worker.
+	 * @param sql the SQL statement to execute for each item
+	 * @param items the items to write
+	 * @param pss the setter to bind the values of each item with
+	 * @param partitionKeyExtractor a function returning the partition key
+	 * for each item, or {@code null} for no partitioning
+	 * @return the results of the executed chunks, in source order
+	 */
+	public <T> List<ChunkResult> write(String sql, Iterator<? extends T> items,
+			ParameterizedPreparedStatementSetter<T> pss, @Nullable Function<? super T, ?> partitionKeyExtractor) {
+
+		Assert.notNull(sql, "SQL must not be null");
+		Assert.notNull(items, "Items must not be null");
+		Assert.notNull(pss, "ParameterizedPreparedStatementSetter must not be null");
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			return writeInCallingThread(sql, items, pss);
+		}
+		return new WriteOperation<>(sql, pss, partitionKeyExtractor).run(items);
+	}
+
+	private <T> List<ChunkResult> writeInCallingThread(String sql, Iterator<? extends T> items,
+			ParameterizedPreparedStatementSetter<T> pss) {
+
+		List<ChunkResult> results = new ArrayList<>();
+		List<T> chunk = new ArrayList<>(this.batchSize);
+		while (items.hasNext()) {
+			chunk.add(items.next());
+			if (chunk.size() == this.batchSize || !items.hasNext()) {
+				ChunkResult result = executeChunk(sql, results.size(), chunk, pss, false);
+				results.add(result);
+				if (!result.isSuccessful() && !this.continueOnError) {
+					break;
+				}
+				chunk = new ArrayList<>(this.batchSize);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Execute the given chunk, in a transaction of its own if demanded.
+	 */
+	private <T> ChunkResult executeChunk(String sql, int index, List<T> chunk,
+			ParameterizedPreparedStatementSetter<T> pss, boolean useTransactionTemplate) {
+
+		TransactionTemplate transactionTemplate = (useTransactionTemplate ? this.transactionTemplate : null);
+		try {
+			int[][] updateCounts = (transactionTemplate != null ?
+					transactionTemplate.execute(status -> this.jdbcTemplate.batchUpdate(sql, chunk, chunk.size(), pss)) :
+					this.jdbcTemplate.batchUpdate(sql, chunk, chunk.size(), pss));
+			Assert.state(updateCounts != null, "No update counts");
+			return new ChunkResult(index, chunk.size(), (updateCounts.length > 0 ? updateCounts[0] : new int[0]), null);
+		}
+		catch (RuntimeException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to execute chunk #" + index + " of SQL batch update [" + sql + "]", ex);
+			}
+			return new ChunkResult(index, chunk.size(), new int[0], ex);
+		}
+	}
+
+
+	/**
+	 * The outcome of executing a single chunk.
+	 */
+	public static final class ChunkResult {
+
+		private final int index;
+
+		private final int itemCount;
+
+		private final int[] updateCounts;
+
+		@Nullable
+		private final RuntimeException failure;
+
+		ChunkResult(int index, int itemCount, int[] updateCounts, @Nullable RuntimeException failure) {
+			this.index = index;
+			this.itemCount = itemCount;
+			this.updateCounts = updateCounts;
+			this.failure = failure;
+		}
+
+		/**
+		 * Return the sequence number of the chunk, starting at 0.
+		 */
+		public int getIndex() {
+			return this.index;
+		}
+
+		/**
+		 * Return the number of items in the chunk.
+		 */
+		public int getItemCount() {
+			return this.itemCount;
+		}
+
+		/**
+		 * Return the update counts as returned by the JDBC driver
+		 * (an empty array if the chunk failed).
+		 */
+		public int[] getUpdateCounts() {
+			return this.updateCounts;
+		}
+
+		/**
+		 * Return whether the chunk has been executed successfully.
+		 */
+		public boolean isSuccessful() {
+			return (this.failure == null);
+		}
+
+		/**
+		 * Return the exception that the chunk failed with, if any:
+		 * typically a {@link org.springframework.dao.DataAccessException}.
+		 */
+		@Nullable
+		public RuntimeException getFailure() {
+			return this.failure;
+		}
+
+		@Override
+		public String toString() {
+			return "ChunkResult #" + this.index + " with " + this.itemCount + " items" +
+					(this.failure != null ? ": " + this.failure : "");
+		}
+	}
+
+
+	/**
+	 * A single write operation: the calling thread reads the source and
+	 * hands chunks over to the workers through bounded queues.
+	 */
+	private class WriteOperation<T> {
+
+		private final String sql;
+
+		private final ParameterizedPreparedStatementSetter<T> pss;
+
+		@Nullable
+		private final Function<? super T, ?> partitionKeyExtractor;
+
+		private final List<BlockingQueue<Chunk<T>>> queues = new ArrayList<>();
+
+		/** Per worker: whether it has been claimed by its task or by the calling thread */
+		private final AtomicBoolean[] claimed;
+
+		/** Per worker: whether it has been taken over by the calling thread */
+		private final boolean[] claimedByCaller;
+
+		private final List<ChunkResult> results = Collections.synchronizedList(new ArrayList<>());
+
+		private final CountDownLatch workersDone;
+
+		private final AtomicInteger chunkIndex = new AtomicInteger();
+
+		private final Thread callingThread = Thread.currentThread();
+
+		private volatile boolean sourceExhausted;
+
+		private volatile boolean aborted;
+
+		@Nullable
+		private volatile Throwable workerError;
+
+		WriteOperation(String sql, ParameterizedPreparedStatementSetter<T> pss,
+				@Nullable Function<? super T, ?> partitionKeyExtractor) {
+
+			this.sql = sql;
+			this.pss = pss;
+			this.partitionKeyExtractor = partitionKeyExtractor;
+			int workerCount = getConcurrency();
+			if (partitionKeyExtractor != null) {
+				for (int i = 0; i < workerCount; i++) {
+					this.queues.add(new ArrayBlockingQueue<>(PENDING_CHUNKS_PER_WORKER));
+				}
+			}
+			else {
+				this.queues.add(new ArrayBlockingQueue<>(PENDING_CHUNKS_PER_WORKER * workerCount));
+			}
+			this.claimed = new AtomicBoolean[workerCount];
+			for (int i = 0; i < workerCount; i++) {
+				this.claimed[i] = new AtomicBoolean();
+			}
+			this.claimedByCaller = new boolean[workerCount];
+			this.workersDone = new CountDownLatch(workerCount);
+		}
+
+		public List<ChunkResult> run(Iterator<? extends T> items) {
+			boolean interrupted = false;
+			try {
+				for (int i = 0; i < this.claimed.length; i++) {
+					int worker = i;
+					taskExecutor.execute(() -> work(worker));
+				}
+				produce(items);
+			}
+			catch (InterruptedException ex) {
+				interrupted = true;
+				this.aborted = true;
+			}
+			catch (RuntimeException | Error ex) {
+				this.aborted = true;
+				throw ex;
+			}
+			finally {
+				if (finish()) {
+					interrupted = true;
+				}
+				if (interrupted) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			Throwable workerError = this.workerError;
+			if (workerError instanceof Error) {
+				throw (Error) workerError;
+			}
+			if (workerError != null) {
+				throw new IllegalStateException("JdbcBatchWriter worker failed", workerError);
+			}
+			List<ChunkResult> results = new ArrayList<>(this.results);
+			results.sort(Comparator.comparingInt(ChunkResult::getIndex));
+			return results;
+		}
+
+		private void produce(Iterator<? extends T> items) throws InterruptedException {
+			List<List<T>> buffers = new ArrayList<>(this.queues.size());
+			for (int i = 0; i < this.queues.size(); i++) {
+				buffers.add(new ArrayList<>(getBatchSize()));
+			}
+			while (items.hasNext() && !this.aborted) {
+				T item = items.next();
+				int partition = 0;
+				if (this.partitionKeyExtractor != null) {
+					Object key = this.partitionKeyExtractor.apply(item);
+					partition = (key != null ? Math.floorMod(key.hashCode(), buffers.size()) : 0);
+				}
+				List<T> buffer = buffers.get(partition);
+				buffer.add(item);
+				if (buffer.size() == getBatchSize()) {
+					submit(partition, buffer);
+					buffers.set(partition, new ArrayList<>(getBatchSize()));
+				}
+			}
+			for (int i = 0; i < buffers.size() && !this.aborted; i++) {
+				if (!buffers.get(i).isEmpty()) {
+					submit(i, buffers.get(i));
+				}
+			}
+		}
+
+		/**
+		 * Put a chunk for the given partition into its queue, waiting for space
+		 * to become available unless a worker terminated in the meantime.
+		 * <p>If the queue stays full while one of its workers has not been started
+		 * by the executor yet, the calling thread takes that worker over and
+		 * executes the oldest pending chunk itself, preserving the queue order.
+		 */
+		private void submit(int partition, List<T> items) throws InterruptedException {
+			Chunk<T> chunk = new Chunk<>(this.chunkIndex.getAndIncrement(), items);
+			BlockingQueue<Chunk<T>> queue = this.queues.get(partition);
+			boolean ownedByCaller = false;
+			while (!(ownedByCaller ? queue.offer(chunk) : queue.offer(chunk, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS))) {
+				if (this.workerError != null) {
+					throw new IllegalStateException("JdbcBatchWriter worker terminated unexpectedly");
+				}
+				ownedByCaller = claimWorkersInCallingThread(partition);
+				if (ownedByCaller) {
+					Chunk<T> pending = queue.poll();
+					if (pending != null) {
+						execute(pending);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Signal the end of the source to the workers and wait for them
+		 * to complete their pending chunks, executing the chunks of workers
+		 * that have not been started by the executor in the calling thread.
+		 * @return whether the calling thread got interrupted while waiting
+		 */
+		private boolean finish() {
+			this.sourceExhausted = true;
+			if (this.aborted) {
+				// Pending chunks would be skipped anyway
+				this.queues.forEach(BlockingQueue::clear);
+			}
+			for (int i = 0; i < this.queues.size(); i++) {
+				if (claimWorkersInCallingThread(i)) {
+					Chunk<T> pending;
+					while ((pending = this.queues.get(i).poll()) != null) {
+						execute(pending);
+					}
+				}
+			}
+			boolean interrupted = false;
+			while (true) {
+				try {
+					this.workersDone.await();
+					return interrupted;
+				}
+				catch (InterruptedException ex) {
+					// Workers finish their current chunk at most: keep waiting for them
+					interrupted = true;
+					this.aborted = true;
+				}
+			}
+		}
+
+		/**
+		 * Claim all workers of the given queue that have not been started yet
+		 * for the calling thread.
+		 * @return whether the calling thread owns any worker of that queue
+		 */
+		private boolean claimWorkersInCallingThread(int queueIndex) {
+			boolean owned = false;
+			for (int i = queueIndex; i < this.claimed.length; i += this.queues.size()) {
+				if (!this.claimedByCaller[i] && this.claimed[i].compareAndSet(false, true)) {
+					this.claimedByCaller[i] = true;
+					this.workersDone.countDown();
+				}
+				owned |= this.claimedByCaller[i];
+			}
+			return owned;
+		}
+
+		private void work(int worker) {
+			if (Thread.currentThread() == this.callingThread) {
+				// Run synchronously by the executor (e.g. a caller-runs policy):
+				// leave the worker to be taken over once its queue is full
+				return;
+			}
+			if (!this.claimed[worker].compareAndSet(false, true)) {
+				// Taken over by the calling thread already
+				return;
+			}
+			BlockingQueue<Chunk<T>> queue = this.queues.get(worker % this.queues.size());
+			try {
+				while (true) {
+					// Read the flag before polling: once set, all chunks have been queued
+					boolean sourceExhausted = this.sourceExhausted;
+					Chunk<T> chunk = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+					if (chunk == null) {
+						if (sourceExhausted) {
+							break;
+						}
+						continue;
+					}
+					execute(chunk);
+				}
+			}
+			catch (InterruptedException ex) {
+				this.aborted = true;
+				this.workerError = ex;
+				Thread.currentThread().interrupt();
+			}
+			catch (Throwable ex) {
+				this.aborted = true;
+				this.workerError = ex;
+			}
+			finally {
+				this.workersDone.countDown();
+			}
+		}
+
+		private void execute(Chunk<T> chunk) {
+			if (this.aborted) {
+				return;
+			}
+			ChunkResult result = executeChunk(this.sql, chunk.index, chunk.items, this.pss, true);
+			this.results.add(result);
+			if (!result.isSuccessful() && !isContinueOnError()) {
+				this.aborted = true;
+			}
+		}
+	}
+
+
+	private static final class Chunk<T> {
+
+		final int index;
+
+		final List<T> items;
+
+		Chunk(int index, List<T> items) {
+			this.index = index;
+			this.items = items;
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -35,6 +35,10 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javax.sql.DataSource;
 
 import org.springframework.dao.DataAccessException;
@@ -366,15 +370,33 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	@Override
 	@Nullable
 	public <T> T execute(StatementCallback<T> action) throws DataAccessException {
+		return execute(action, true);
+	}
+
+	/**
+	 * Execute a JDBC data access operation, implemented as callback action
+	 * working on a JDBC Statement.
+	 * @param action the callback object that specifies the action
+	 * @param closeResources whether to close the Statement and to release the
+	 * Connection after the action (otherwise the callback takes over both in
+	 * the case of successful completion, whereas both get released on any
+	 * kind of failure)
+	 * @return a result object returned by the action, or {@code null}
+	 * @throws DataAccessException if there is any problem
+	 */
+	@Nullable
+	private <T> T execute(StatementCallback<T> action, boolean closeResources) throws DataAccessException {
 		Assert.notNull(action, "Callback object must not be null");
 
 		Connection con = DataSourceUtils.getConnection(obtainDataSource());
 		Statement stmt = null;
+		boolean handedOver = false;
 		try {
 			stmt = con.createStatement();
 			applyStatementSettings(stmt);
 			T result = action.doInStatement(stmt);
 			handleWarnings(stmt);
+			handedOver = !closeResources;
 			return result;
 		}
 		catch (SQLException ex) {
@@ -388,8 +410,10 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 			throw translateException("StatementCallback", sql, ex);
 		}
 		finally {
-			JdbcUtils.closeStatement(stmt);
-			DataSourceUtils.releaseConnection(con, getDataSource());
+			if (!handedOver) {
+				JdbcUtils.closeStatement(stmt);
+				DataSourceUtils.releaseConnection(con, getDataSource());
+			}
 		}
 	}
 
@@ -456,6 +480,34 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return result(query(sql, new RowMapperResultSetExtractor<>(rowMapper)));
 	}
 
+	@Override
+	public <T> Stream<T> queryForStream(String sql, RowMapper<T> rowMapper) throws DataAccessException {
+		Assert.notNull(sql, "SQL must not be null");
+		Assert.notNull(rowMapper, "RowMapper must not be null");
+		if (logger.isDebugEnabled()) {
+			logger.debug("Executing SQL query [" + sql + "]");
+		}
+
+		class StreamStatementCallback implements StatementCallback<Stream<T>>, SqlProvider {
+			@Override
+			public Stream<T> doInStatement(Statement stmt) throws SQLException {
+				ResultSet rs = stmt.executeQuery(sql);
+				Connection con = stmt.getConnection();
+				return new ResultSetSpliterator<>(rs, rowMapper).stream().onClose(() -> {
+					JdbcUtils.closeResultSet(rs);
+					JdbcUtils.closeStatement(stmt);
+					DataSourceUtils.releaseConnection(con, getDataSource());
+				});
+			}
+			@Override
+			public String getSql() {
+				return sql;
+			}
+		}
+
+		return result(execute(new StreamStatementCallback(), false));
+	}
+
 	@Override
 	public Map<String, Object> queryForMap(String sql) throws DataAccessException {
 		return result(queryForObject(sql, getColumnMapRowMapper()));
@@ -590,6 +642,25 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	public <T> T execute(PreparedStatementCreator psc, PreparedStatementCallback<T> action)
 			throws DataAccessException {
 
+		return execute(psc, action, true);
+	}
+
+	/**
+	 * Execute a JDBC data access operation, implemented as callback action
+	 * working on a JDBC PreparedStatement.
+	 * @param psc object that can create a PreparedStatement given a Connection
+	 * @param action callback object that specifies the action
+	 * @param closeResources whether to close the PreparedStatement and to release
+	 * the Connection after the action (otherwise the callback takes over both in
+	 * the case of successful completion, whereas both get released on any kind
+	 * of failure)
+	 * @return a result object returned by the action, or {@code null}
+	 * @throws DataAccessException if there is any problem
+	 */
+	@Nullable
+	private <T> T execute(PreparedStatementCreator psc, PreparedStatementCallback<T> action, boolean closeResources)
+			throws DataAccessException {
+
 		Assert.notNull(psc, "PreparedStatementCreator must not be null");
 		Assert.notNull(action, "Callback object must not be null");
 		if (logger.isDebugEnabled()) {
@@ -599,11 +670,13 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 
 		Connection con = DataSourceUtils.getConnection(obtainDataSource());
 		PreparedStatement ps = null;
+		boolean handedOver = false;
 		try {
 			ps = psc.createPreparedStatement(con);
 			applyStatementSettings(ps);
 			T result = action.doInPreparedStatement(ps);
 			handleWarnings(ps);
+			handedOver = !closeResources;
 			return result;
 		}
 		catch (SQLException ex) {
@@ -620,11 +693,13 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 			throw translateException("PreparedStatementCallback", sql, ex);
 		}
 		finally {
-			if (psc instanceof ParameterDisposer) {
-				((ParameterDisposer) psc).cleanupParameters();
+			if (!handedOver) {
+				if (psc instanceof ParameterDisposer) {
+					((ParameterDisposer) psc).cleanupParameters();
+				}
+				JdbcUtils.closeStatement(ps);
+				DataSourceUtils.releaseConnection(con, getDataSource());
 			}
-			JdbcUtils.closeStatement(ps);
-			DataSourceUtils.releaseConnection(con, getDataSource());
 		}
 	}
 
@@ -756,6 +831,75 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return result(query(sql, args, new RowMapperResultSetExtractor<>(rowMapper)));
 	}
 
+	/**
+	 * Query using a prepared statement, allowing for a PreparedStatementCreator
+	 * and a PreparedStatementSetter, and turn the mapped rows into a Stream
+	 * which lazily advances the underlying ResultSet. The Statement and the
+	 * Connection are held until the returned Stream gets closed.
+	 * @param psc Callback handler that can create a PreparedStatement given a
+	 * Connection
+	 * @param pss object that knows how to set values on the prepared statement.
+	 * If this is null, the SQL will be assumed to contain no bind parameters.
+	 * @param rowMapper object that will map one object per row
+	 * @return the result Stream, containing mapped objects, needing to be
+	 * closed once fully processed
+	 * @throws DataAccessException if there is any problem
+	 * @since 5.0.11
+	 */
+	public <T> Stream<T> queryForStream(PreparedStatementCreator psc, @Nullable PreparedStatementSetter pss,
+			RowMapper<T> rowMapper) throws DataAccessException {
+
+		Assert.notNull(rowMapper, "RowMapper must not be null");
+		logger.debug("Executing prepared SQL query");
+
+		try {
+			return result(execute(psc, ps -> {
+				if (pss != null) {
+					pss.setValues(ps);
+				}
+				ResultSet rs = ps.executeQuery();
+				Connection con = ps.getConnection();
+				return new ResultSetSpliterator<>(rs, rowMapper).stream().onClose(() -> {
+					JdbcUtils.closeResultSet(rs);
+					if (pss instanceof ParameterDisposer) {
+						((ParameterDisposer) pss).cleanupParameters();
+					}
+					if (psc instanceof ParameterDisposer) {
+						((ParameterDisposer) psc).cleanupParameters();
+					}
+					JdbcUtils.closeStatement(ps);
+					DataSourceUtils.releaseConnection(con, getDataSource());
+				});
+			}, false));
+		}
+		catch (RuntimeException | Error ex) {
+			// Stream not handed out: Statement and Connection released already
+			if (pss instanceof ParameterDisposer) {
+				((ParameterDisposer) pss).cleanupParameters();
+			}
+			throw ex;
+		}
+	}
+
+	@Override
+	public <T> Stream<T> queryForStream(PreparedStatementCreator psc, RowMapper<T> rowMapper) throws DataAccessException {
+		return queryForStream(psc, null, rowMapper);
+	}
+
+	@Override
+	public <T> Stream<T> queryForStream(String sql, @Nullable PreparedStatementSetter pss, RowMapper<T> rowMapper)
+			throws DataAccessException {
+
+		return queryForStream(new SimplePreparedStatementCreator(sql), pss, rowMapper);
+	}
+
+	@Override
+	public <T> Stream<T> queryForStream(String sql, RowMapper<T> rowMapper, @Nullable Object... args)
+			throws DataAccessException {
+
+		return queryForStream(new SimplePreparedStatementCreator(sql), newArgPreparedStatementSetter(args), rowMapper);
+	}
+
 	@Override
 	@Nullable
 	public <T> T queryForObject(String sql, Object[] args, int[] argTypes, RowMapper<T> rowMapper)
@@ -1569,4 +1713,57 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		}
 	}
 
+
+	/**
+	 * Spliterator for queryForStream adaptation of a ResultSet to a Stream,
+	 * mapping one row per advance step.
+	 */
+	private class ResultSetSpliterator<T> implements Spliterator<T> {
+
+		private final ResultSet rs;
+
+		private final RowMapper<T> rowMapper;
+
+		private int rowNum = 0;
+
+		public ResultSetSpliterator(ResultSet rs, RowMapper<T> rowMapper) {
+			this.rs = rs;
+			this.rowMapper = rowMapper;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			try {
+				if (this.rs.next()) {
+					action.accept(this.rowMapper.mapRow(this.rs, this.rowNum++));
+					return true;
+				}
+				return false;
+			}
+			catch (SQLException ex) {
+				throw translateException("ResultSetSpliterator", null, ex);
+			}
+		}
+
+		@Override
+		@Nullable
+		public Spliterator<T> trySplit() {
+			return null;
+		}
+
+		@Override
+		public long estimateSize() {
+			return Long.MAX_VALUE;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.ORDERED;
+		}
+
+		public Stream<T> stream() {
+			return StreamSupport.stream(this, false);
+		}
+	}
+
 }
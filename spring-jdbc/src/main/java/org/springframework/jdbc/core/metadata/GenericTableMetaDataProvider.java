@@ -46,9 +46,27 @@ public class GenericTableMetaDataProvider implements TableMetaDataProvider {
 	/** Logger available to subclasses */
 	protected static final Log logger = LogFactory.getLog(TableMetaDataProvider.class);
 
+	/** Maximum number of rows per VALUES clause on Microsoft SQL Server */
+	private static final int SQL_SERVER_MAX_ROWS_PER_INSERT = 1000;
+
+	/** database products we know supporting multi-row inserts, with their limit of parameters per statement */
+	private static final Map<String, Integer> multiRowInsertParameterLimits = new HashMap<>(8);
+
+	static {
+		multiRowInsertParameterLimits.put("H2", 32767);
+		multiRowInsertParameterLimits.put("HSQL Database Engine", 32767);
+		multiRowInsertParameterLimits.put("Microsoft SQL Server", 2000);
+		multiRowInsertParameterLimits.put("MySQL", 65535);
+		multiRowInsertParameterLimits.put("PostgreSQL", 32767);
+	}
+
 	/** indicator whether column meta-data should be used */
 	private boolean tableColumnMetaDataUsed = false;
 
+	/** the common name of the database product */
+	@Nullable
+	private String databaseProductName;
+
 	/** the version of the database */
 	@Nullable
 	private String databaseVersion;
@@ -73,6 +91,14 @@ public class GenericTableMetaDataProvider implements TableMetaDataProvider {
 	private List<String> productsNotSupportingGeneratedKeysColumnNameArray =
 			Arrays.asList("Apache Derby", "HSQL Database Engine");
 
+	/** database products we know returning the generated keys for all rows of a multi-row insert */
+	private List<String> productsSupportingMultiRowGeneratedKeys =
+			Arrays.asList("H2", "HSQL Database Engine", "MySQL", "PostgreSQL");
+
+	/** database products we know returning the generated keys for all rows of a JDBC batch */
+	private List<String> productsSupportingBatchGeneratedKeys =
+			Arrays.asList("H2", "HSQL Database Engine", "MySQL", "PostgreSQL");
+
 	/** Collection of TableParameterMetaData objects */
 	private List<TableParameterMetaData> tableParameterMetaData = new ArrayList<>();
 
@@ -142,6 +168,32 @@ public class GenericTableMetaDataProvider implements TableMetaDataProvider {
 		return this.generatedKeysColumnNameArraySupported;
 	}
 
+	@Override
+	public int getMaxRowsPerMultiRowInsert(int parametersPerRow) {
+		Integer parameterLimit = (this.databaseProductName != null ?
+				multiRowInsertParameterLimits.get(this.databaseProductName) : null);
+		if (parameterLimit == null || parametersPerRow < 1) {
+			return 1;
+		}
+		int maxRows = Math.max(parameterLimit / parametersPerRow, 1);
+		if ("Microsoft SQL Server".equals(this.databaseProductName)) {
+			maxRows = Math.min(maxRows, SQL_SERVER_MAX_ROWS_PER_INSERT);
+		}
+		return maxRows;
+	}
+
+	@Override
+	public boolean isMultiRowGeneratedKeysSupported() {
+		return (isGetGeneratedKeysSupported() &&
+				this.productsSupportingMultiRowGeneratedKeys.contains(this.databaseProductName));
+	}
+
+	@Override
+	public boolean isBatchGeneratedKeysSupported() {
+		return (isGetGeneratedKeysSupported() &&
+				this.productsSupportingBatchGeneratedKeys.contains(this.databaseProductName));
+	}
+
 
 	@Override
 	public void initializeWithMetaData(DatabaseMetaData databaseMetaData) throws SQLException {
@@ -162,6 +214,7 @@ public class GenericTableMetaDataProvider implements TableMetaDataProvider {
 		}
 		try {
 			String databaseProductName = databaseMetaData.getDatabaseProductName();
+			this.databaseProductName = JdbcUtils.commonDatabaseName(databaseProductName);
 			if (this.productsNotSupportingGeneratedKeysColumnNameArray.contains(databaseProductName)) {
 				if (logger.isDebugEnabled()) {
 					logger.debug("GeneratedKeysColumnNameArray is not supported for " + databaseProductName);
@@ -268,6 +268,19 @@ public class TableMetaDataContext {
 	 * @return the insert string to be used
 	 */
 	public String createInsertString(String... generatedKeyNames) {
+		return createMultiRowInsertString(1, generatedKeyNames);
+	}
+
+	/**
+	 * Build an insert string for the given number of rows, with a
+	 * {@code VALUES} clause containing a parameter placeholder group per row.
+	 * @param rowCount the number of rows to insert through the statement
+	 * @return the insert string to be used
+	 * @since 5.0.11
+	 * @see #getMaxRowsPerMultiRowInsert()
+	 */
+	public String createMultiRowInsertString(int rowCount, String... generatedKeyNames) {
+		Assert.isTrue(rowCount > 0, "Row count must be greater than 0");
 		Set<String> keys = new LinkedHashSet<>(generatedKeyNames.length);
 		for (String key : generatedKeyNames) {
 			keys.add(key.toUpperCase());
@@ -303,13 +316,18 @@ public class TableMetaDataContext {
 						getTableName() + "' so an insert statement can't be generated");
 			}
 		}
-		for (int i = 0; i < columnCount; i++) {
-			if (i > 0) {
-				insertStatement.append(", ");
+		for (int row = 0; row < rowCount; row++) {
+			if (row > 0) {
+				insertStatement.append(", (");
 			}
-			insertStatement.append("?");
+			for (int i = 0; i < columnCount; i++) {
+				if (i > 0) {
+					insertStatement.append(", ");
+				}
+				insertStatement.append("?");
+			}
+			insertStatement.append(")");
 		}
-		insertStatement.append(")");
 		return insertStatement.toString();
 	}
 
@@ -383,6 +401,33 @@ public class TableMetaDataContext {
 		return obtainMetaDataProvider().getSimpleQueryForGetGeneratedKey(tableName, keyColumnName);
 	}
 
+	/**
+	 * Get the maximum number of rows to combine into a single multi-row insert
+	 * statement for the current columns, or 1 if multi-row inserts are not
+	 * supported by this database.
+	 * @since 5.0.11
+	 * @see #createMultiRowInsertString
+	 */
+	public int getMaxRowsPerMultiRowInsert() {
+		return obtainMetaDataProvider().getMaxRowsPerMultiRowInsert(getTableColumns().size());
+	}
+
+	/**
+	 * Does this database return the generated keys for all rows of a multi-row insert?
+	 * @since 5.0.11
+	 */
+	public boolean isMultiRowGeneratedKeysSupported() {
+		return obtainMetaDataProvider().isMultiRowGeneratedKeysSupported();
+	}
+
+	/**
+	 * Does this database return the generated keys for all rows of a JDBC batch?
+	 * @since 5.0.11
+	 */
+	public boolean isBatchGeneratedKeysSupported() {
+		return obtainMetaDataProvider().isBatchGeneratedKeysSupported();
+	}
+
 	/**
 	 * Is a column name String array for retrieving generated keys supported:
 	 * {@link java.sql.Connection#createStruct(String, Object[])}?
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -117,6 +117,40 @@ public interface TableMetaDataProvider {
 	 */
  	boolean isGeneratedKeysColumnNameArraySupported();
 
+	/**
+	 * Get the maximum number of rows to combine into a single multi-row
+	 * {@code INSERT ... VALUES (...), (...)} statement, based on the parameter
+	 * limits of the database.
+	 * <p>The default implementation returns 1, indicating that multi-row
+	 * inserts are not supported.
+	 * @param parametersPerRow the number of bind parameters for each row
+	 * @since 5.0.11
+	 */
+	default int getMaxRowsPerMultiRowInsert(int parametersPerRow) {
+		return 1;
+	}
+
+	/**
+	 * Does this database return the generated keys for all rows of a
+	 * multi-row insert through {@link java.sql.Statement#getGeneratedKeys()}?
+	 * <p>The default implementation returns {@code false}.
+	 * @since 5.0.11
+	 */
+	default boolean isMultiRowGeneratedKeysSupported() {
+		return false;
+	}
+
+	/**
+	 * Does this database return the generated keys for all rows of a JDBC batch
+	 * through {@link java.sql.Statement#getGeneratedKeys()} after
+	 * {@link java.sql.Statement#executeBatch()}?
+	 * <p>The default implementation returns {@code false}.
+	 * @since 5.0.11
+	 */
+	default boolean isBatchGeneratedKeysSupported() {
+		return false;
+	}
+
 	/**
 	 * Get the table parameter meta-data that is currently used.
 	 * @return List of {@link TableParameterMetaData}
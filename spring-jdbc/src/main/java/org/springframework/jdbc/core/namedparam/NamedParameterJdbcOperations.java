@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.jdbc.core.namedparam;
 
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcOperations;
@@ -226,6 +227,44 @@ public interface NamedParameterJdbcOperations {
 	 */
 	<T> List<T> query(String sql, RowMapper<T> rowMapper) throws DataAccessException;
 
+	/**
+	 * Query given SQL to create a prepared statement from SQL and a list
+	 * of arguments to bind to the query, mapping each row to a Java object
+	 * via a RowMapper, and turn it into an iterable and closeable Stream.
+	 * <p>The returned stream lazily advances the underlying {@code ResultSet}
+	 * and holds on to the JDBC Connection until it is closed: it needs to be
+	 * closed after use, e.g. through a try-with-resources clause.
+	 * @param sql SQL query to execute
+	 * @param paramSource container of arguments to bind to the query
+	 * @param rowMapper object that will map one object per row
+	 * @return the result Stream, containing mapped objects, needing to be
+	 * closed once fully processed
+	 * @throws org.springframework.dao.DataAccessException if the query fails
+	 * @since 5.0.11
+	 * @see JdbcOperations#queryForStream(org.springframework.jdbc.core.PreparedStatementCreator, RowMapper)
+	 */
+	<T> Stream<T> queryForStream(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper)
+			throws DataAccessException;
+
+	/**
+	 * Query given SQL to create a prepared statement from SQL and a list
+	 * of arguments to bind to the query, mapping each row to a Java object
+	 * via a RowMapper, and turn it into an iterable and closeable Stream.
+	 * <p>The returned stream lazily advances the underlying {@code ResultSet}
+	 * and holds on to the JDBC Connection until it is closed: it needs to be
+	 * closed after use, e.g. through a try-with-resources clause.
+	 * @param sql SQL query to execute
+	 * @param paramMap map of parameters to bind to the query
+	 * (leaving it to the PreparedStatement to guess the corresponding SQL type)
+	 * @param rowMapper object that will map one object per row
+	 * @return the result Stream, containing mapped objects, needing to be
+	 * closed once fully processed
+	 * @throws org.springframework.dao.DataAccessException if the query fails
+	 * @since 5.0.11
+	 */
+	<T> Stream<T> queryForStream(String sql, Map<String, ?> paramMap, RowMapper<T> rowMapper)
+			throws DataAccessException;
+
 	/**
 	 * Query given SQL to create a prepared statement from SQL and a list
 	 * of arguments to bind to the query, mapping a single result row to a
@@ -16,10 +16,13 @@
 
 package org.springframework.jdbc.core.namedparam;
 
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 import javax.sql.DataSource;
 
 import org.springframework.dao.DataAccessException;
@@ -35,11 +38,14 @@ import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.SingleColumnRowMapper;
 import org.springframework.jdbc.core.SqlParameter;
+import org.springframework.jdbc.core.SqlParameterValue;
 import org.springframework.jdbc.core.SqlRowSetResultSetExtractor;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.ObjectUtils;
 
 /**
  * Template class with a basic set of JDBC operations, allowing the use
@@ -71,17 +77,13 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 	/** The JdbcTemplate we are wrapping */
 	private final JdbcOperations classicJdbcTemplate;
 
-	private volatile int cacheLimit = DEFAULT_CACHE_LIMIT;
-
 	/** Cache of original SQL String to ParsedSql representation */
-	@SuppressWarnings("serial")
-	private final Map<String, ParsedSql> parsedSqlCache =
-			new LinkedHashMap<String, ParsedSql>(DEFAULT_CACHE_LIMIT, 0.75f, true) {
-				@Override
-				protected boolean removeEldestEntry(Map.Entry<String, ParsedSql> eldest) {
-					return size() > getCacheLimit();
-				}
-			};
+	private volatile ConcurrentLruCache<String, ParsedSql> parsedSqlCache =
+			new ConcurrentLruCache<>(DEFAULT_CACHE_LIMIT, NamedParameterUtils::parseSqlStatement);
+
+	/** Cache of parsed SQL and parameter shape to factory for the expanded SQL */
+	private volatile ConcurrentLruCache<StatementKey, PreparedStatementCreatorFactory> statementFactoryCache =
+			new ConcurrentLruCache<>(DEFAULT_CACHE_LIMIT, StatementKey::createPreparedStatementCreatorFactory);
 
 
 	/**
@@ -128,17 +130,21 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 
 	/**
 	 * Specify the maximum number of entries for this template's SQL cache.
-	 * Default is 256.
+	 * Default is 256. 0 indicates no caching, always parsing each statement.
+	 * <p>The same limit applies to the cache of expanded statements, which
+	 * holds an entry per SQL statement and shape of the given parameters.
 	 */
 	public void setCacheLimit(int cacheLimit) {
-		this.cacheLimit = cacheLimit;
+		this.parsedSqlCache = new ConcurrentLruCache<>(cacheLimit, NamedParameterUtils::parseSqlStatement);
+		this.statementFactoryCache =
+				new ConcurrentLruCache<>(cacheLimit, StatementKey::createPreparedStatementCreatorFactory);
 	}
 
 	/**
 	 * Return the maximum number of entries for this template's SQL cache.
 	 */
 	public int getCacheLimit() {
-		return this.cacheLimit;
+		return this.parsedSqlCache.sizeLimit();
 	}
 
 
@@ -224,6 +230,20 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 		return query(sql, EmptySqlParameterSource.INSTANCE, rowMapper);
 	}
 
+	@Override
+	public <T> Stream<T> queryForStream(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper)
+			throws DataAccessException {
+
+		return getJdbcOperations().queryForStream(getPreparedStatementCreator(sql, paramSource), rowMapper);
+	}
+
+	@Override
+	public <T> Stream<T> queryForStream(String sql, Map<String, ?> paramMap, RowMapper<T> rowMapper)
+			throws DataAccessException {
+
+		return queryForStream(sql, new MapSqlParameterSource(paramMap), rowMapper);
+	}
+
 	@Override
 	@Nullable
 	public <T> T queryForObject(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper)
@@ -389,12 +409,17 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 			@Nullable Consumer<PreparedStatementCreatorFactory> customizer) {
 
 		ParsedSql parsedSql = getParsedSql(sql);
-		String sqlToUse = NamedParameterUtils.substituteNamedParameters(parsedSql, paramSource);
-		List<SqlParameter> declaredParameters = NamedParameterUtils.buildSqlParameterList(parsedSql, paramSource);
-		PreparedStatementCreatorFactory pscf = new PreparedStatementCreatorFactory(sqlToUse, declaredParameters);
+		PreparedStatementCreatorFactory pscf;
 		if (customizer != null) {
+			String sqlToUse = NamedParameterUtils.substituteNamedParameters(parsedSql, paramSource);
+			List<SqlParameter> declaredParameters = NamedParameterUtils.buildSqlParameterList(parsedSql, paramSource);
+			pscf = new PreparedStatementCreatorFactory(sqlToUse, declaredParameters);
 			customizer.accept(pscf);
 		}
+		else {
+			// Shared factory for the expanded SQL, never to be customized
+			pscf = this.statementFactoryCache.get(new StatementKey(parsedSql, paramSource));
+		}
 		Object[] params = NamedParameterUtils.buildValueArray(parsedSql, paramSource, null);
 		return pscf.newPreparedStatementCreator(params);
 	}
@@ -406,16 +431,127 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 	 * @return a representation of the parsed SQL statement
 	 */
 	protected ParsedSql getParsedSql(String sql) {
-		if (getCacheLimit() <= 0) {
-			return NamedParameterUtils.parseSqlStatement(sql);
+		return this.parsedSqlCache.get(sql);
+	}
+
+
+	/**
+	 * Cache key for the {@link PreparedStatementCreatorFactory} of a parsed SQL
+	 * statement, capturing the shape of the given parameters: their SQL types
+	 * and type names as well as the number of placeholders each one expands to.
+	 */
+	private static final class StatementKey {
+
+		/** Shape marker for a parameter without a value */
+		private static final int NO_VALUE = -2;
+
+		/** Shape marker for a parameter (or collection entry) with a single placeholder */
+		private static final int SINGLE_VALUE = -1;
+
+		private final ParsedSql parsedSql;
+
+		/**
+		 * For each parameter, its SQL type followed by {@link #NO_VALUE},
+		 * {@link #SINGLE_VALUE} or the size of a collection value; the latter
+		 * followed by the array length of each entry or {@link #SINGLE_VALUE}.
+		 */
+		private final int[] shape;
+
+		@Nullable
+		private final String[] typeNames;
+
+		private final int hashCode;
+
+		StatementKey(ParsedSql parsedSql, SqlParameterSource paramSource) {
+			List<String> paramNames = parsedSql.getParameterNames();
+			int[] shape = new int[paramNames.size() * 2];
+			String[] typeNames = null;
+			int pos = 0;
+			for (int i = 0; i < paramNames.size(); i++) {
+				String paramName = paramNames.get(i);
+				shape[pos++] = paramSource.getSqlType(paramName);
+				String typeName = paramSource.getTypeName(paramName);
+				if (typeName != null) {
+					if (typeNames == null) {
+						typeNames = new String[paramNames.size()];
+					}
+					typeNames[i] = typeName;
+				}
+				boolean hasValue = paramSource.hasValue(paramName);
+				Object value = (hasValue ? paramSource.getValue(paramName) : null);
+				if (value instanceof SqlParameterValue) {
+					value = ((SqlParameterValue) value).getValue();
+				}
+				if (value instanceof Collection) {
+					Collection<?> entries = (Collection<?>) value;
+					int required = pos + 1 + entries.size() + (paramNames.size() - i - 1) * 2;
+					if (shape.length < required) {
+						shape = Arrays.copyOf(shape, required);
+					}
+					shape[pos++] = entries.size();
+					for (Object entry : entries) {
+						shape[pos++] = (entry instanceof Object[] ? ((Object[]) entry).length : SINGLE_VALUE);
+					}
+				}
+				else {
+					shape[pos++] = (hasValue ? SINGLE_VALUE : NO_VALUE);
+				}
+			}
+			this.parsedSql = parsedSql;
+			this.shape = (pos < shape.length ? Arrays.copyOf(shape, pos) : shape);
+			this.typeNames = typeNames;
+			this.hashCode = parsedSql.getOriginalSql().hashCode() * 31 + Arrays.hashCode(this.shape);
 		}
-		synchronized (this.parsedSqlCache) {
-			ParsedSql parsedSql = this.parsedSqlCache.get(sql);
-			if (parsedSql == null) {
-				parsedSql = NamedParameterUtils.parseSqlStatement(sql);
-				this.parsedSqlCache.put(sql, parsedSql);
+
+		/**
+		 * Build the factory for the expanded SQL, substituting placeholders
+		 * for stand-in values of the same shape as the given parameters.
+		 */
+		PreparedStatementCreatorFactory createPreparedStatementCreatorFactory() {
+			MapSqlParameterSource paramSource = new MapSqlParameterSource();
+			List<String> paramNames = this.parsedSql.getParameterNames();
+			int pos = 0;
+			for (int i = 0; i < paramNames.size(); i++) {
+				String paramName = paramNames.get(i);
+				paramSource.registerSqlType(paramName, this.shape[pos++]);
+				if (this.typeNames != null && this.typeNames[i] != null) {
+					paramSource.registerTypeName(paramName, this.typeNames[i]);
+				}
+				int size = this.shape[pos++];
+				if (size == SINGLE_VALUE) {
+					paramSource.addValue(paramName, null);
+				}
+				else if (size != NO_VALUE) {
+					List<Object> entries = new ArrayList<>(size);
+					for (int k = 0; k < size; k++) {
+						int length = this.shape[pos++];
+						entries.add(length != SINGLE_VALUE ? new Object[length] : null);
+					}
+					paramSource.addValue(paramName, entries);
+				}
+			}
+			String sqlToUse = NamedParameterUtils.substituteNamedParameters(this.parsedSql, paramSource);
+			List<SqlParameter> declaredParameters = NamedParameterUtils.buildSqlParameterList(this.parsedSql, paramSource);
+			return new PreparedStatementCreatorFactory(sqlToUse, declaredParameters);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof StatementKey)) {
+				return false;
 			}
-			return parsedSql;
+			StatementKey otherKey = (StatementKey) other;
+			return (this.parsedSql.getOriginalSql().equals(otherKey.parsedSql.getOriginalSql()) &&
+					Arrays.equals(this.shape, otherKey.shape) &&
+					ObjectUtils.nullSafeEquals(this.typeNames, otherKey.typeNames));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
 		}
 	}
 
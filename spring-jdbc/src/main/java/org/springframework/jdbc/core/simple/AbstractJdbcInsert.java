@@ -36,8 +36,10 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.dao.InvalidDataAccessResourceUsageException;
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
 import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapperResultSetExtractor;
 import org.springframework.jdbc.core.SqlTypeValue;
 import org.springframework.jdbc.core.StatementCreatorUtils;
 import org.springframework.jdbc.core.metadata.TableMetaDataContext;
@@ -87,6 +89,15 @@ public abstract class AbstractJdbcInsert {
 	/** The SQL type information for the insert columns */
 	private int[] insertTypes = new int[0];
 
+	/** Whether to combine batches into multi-row insert statements */
+	private boolean multiRowInsert = false;
+
+	/** The maximum number of rows per insert statement */
+	private int maxRowsPerInsert = 1;
+
+	/** The generated string used for a multi-row insert of {@link #maxRowsPerInsert} rows */
+	private String multiRowInsertString = "";
+
 
 	/**
 	 * Constructor to be used when initializing using a {@link DataSource}.
@@ -220,6 +231,28 @@ public abstract class AbstractJdbcInsert {
 		this.tableMetaDataContext.setOverrideIncludeSynonymsDefault(override);
 	}
 
+	/**
+	 * Specify whether batches should be combined into multi-row
+	 * {@code INSERT ... VALUES (...), (...)} statements, as far as supported by
+	 * the database, with as many rows per statement as its parameter limit allows.
+	 * <p>The default is {@code false}, executing a JDBC batch of single-row inserts.
+	 * Batches get executed as JDBC batch as well if the database is not known
+	 * to support multi-row inserts.
+	 * @since 5.0.11
+	 */
+	public void setMultiRowInsert(boolean multiRowInsert) {
+		checkIfConfigurationModificationIsAllowed();
+		this.multiRowInsert = multiRowInsert;
+	}
+
+	/**
+	 * Return whether batches should be combined into multi-row insert statements.
+	 * @since 5.0.11
+	 */
+	public boolean isMultiRowInsert() {
+		return this.multiRowInsert;
+	}
+
 	/**
 	 * Get the insert string to be used.
 	 */
@@ -279,6 +312,19 @@ public abstract class AbstractJdbcInsert {
 		if (logger.isDebugEnabled()) {
 			logger.debug("Compiled insert object: insert string is [" + this.insertString + "]");
 		}
+		if (isMultiRowInsert()) {
+			this.maxRowsPerInsert = this.tableMetaDataContext.getMaxRowsPerMultiRowInsert();
+			if (this.maxRowsPerInsert > 1) {
+				this.multiRowInsertString = this.tableMetaDataContext.createMultiRowInsertString(
+						this.maxRowsPerInsert, getGeneratedKeyNames());
+				if (logger.isDebugEnabled()) {
+					logger.debug("Using multi-row inserts with up to " + this.maxRowsPerInsert + " rows per statement");
+				}
+			}
+			else {
+				logger.debug("Multi-row inserts not supported by this database - using JDBC batch instead");
+			}
+		}
 		onCompileInternal();
 	}
 
@@ -431,7 +477,7 @@ public abstract class AbstractJdbcInsert {
 		if (this.tableMetaDataContext.isGetGeneratedKeysSupported()) {
 			getJdbcTemplate().update(
 					con -> {
-						PreparedStatement ps = prepareStatementForGeneratedKeys(con);
+						PreparedStatement ps = prepareStatementForGeneratedKeys(con, getInsertString());
 						setParameterValues(ps, values, getInsertTypes());
 						return ps;
 					},
@@ -509,9 +555,12 @@ public abstract class AbstractJdbcInsert {
 	/**
 	 * Create a PreparedStatement to be used for an insert operation with generated keys.
 	 * @param con the Connection to use
+	 * @param insertString the insert statement to prepare
 	 * @return the PreparedStatement
 	 */
-	private PreparedStatement prepareStatementForGeneratedKeys(Connection con) throws SQLException {
+	private PreparedStatement prepareStatementForGeneratedKeys(Connection con, String insertString)
+			throws SQLException {
+
 		if (getGeneratedKeyNames().length < 1) {
 			throw new InvalidDataAccessApiUsageException("Generated Key Name(s) not specified. " +
 					"Using the generated keys features requires specifying the name(s) of the generated column(s).");
@@ -521,13 +570,13 @@ public abstract class AbstractJdbcInsert {
 			if (logger.isDebugEnabled()) {
 				logger.debug("Using generated keys support with array of column names.");
 			}
-			ps = con.prepareStatement(getInsertString(), getGeneratedKeyNames());
+			ps = con.prepareStatement(insertString, getGeneratedKeyNames());
 		}
 		else {
 			if (logger.isDebugEnabled()) {
 				logger.debug("Using generated keys support with Statement.RETURN_GENERATED_KEYS.");
 			}
-			ps = con.prepareStatement(getInsertString(), Statement.RETURN_GENERATED_KEYS);
+			ps = con.prepareStatement(insertString, Statement.RETURN_GENERATED_KEYS);
 		}
 		return ps;
 	}
@@ -565,6 +614,9 @@ public abstract class AbstractJdbcInsert {
 	 * Delegate method to execute the batch insert.
 	 */
 	private int[] executeBatchInternal(final List<List<Object>> batchValues) {
+		if (this.maxRowsPerInsert > 1 && batchValues.size() > 1) {
+			return executeMultiRowBatchInternal(batchValues);
+		}
 		if (logger.isDebugEnabled()) {
 			logger.debug("Executing statement " + getInsertString() + " with batch of size: " + batchValues.size());
 		}
@@ -581,6 +633,157 @@ public abstract class AbstractJdbcInsert {
 				});
 	}
 
+	/**
+	 * Delegate method to execute the batch insert through multi-row insert statements.
+	 * <p>Each row gets reported as affecting one row if the statement reported as
+	 * many affected rows as it has inserted, or as {@link Statement#SUCCESS_NO_INFO} else.
+	 */
+	private int[] executeMultiRowBatchInternal(List<List<Object>> batchValues) {
+		int[] rowsAffected = new int[batchValues.size()];
+		for (int start = 0; start < batchValues.size(); start += this.maxRowsPerInsert) {
+			int end = Math.min(start + this.maxRowsPerInsert, batchValues.size());
+			List<List<Object>> rows = batchValues.subList(start, end);
+			String insertString = getMultiRowInsertString(rows.size());
+			if (logger.isDebugEnabled()) {
+				logger.debug("Executing multi-row insert " + insertString + " for batch rows " + start + " to " + (end - 1));
+			}
+			List<Object> values = flattenBatchValues(rows);
+			int[] insertTypes = repeatInsertTypes(rows.size());
+			int count = getJdbcTemplate().update(
+					con -> {
+						PreparedStatement ps = con.prepareStatement(insertString);
+						setParameterValues(ps, values, insertTypes);
+						return ps;
+					});
+			Arrays.fill(rowsAffected, start, end, (count == rows.size() ? 1 : Statement.SUCCESS_NO_INFO));
+		}
+		return rowsAffected;
+	}
+
+	/**
+	 * Delegate method that executes a batch insert using the passed-in Maps of parameters,
+	 * returning the generated keys for all rows.
+	 * @param batch array of Maps with parameter names and values to be used in batch insert
+	 * @return the KeyHolder containing the keys generated by the inserts, in batch order
+	 * @since 5.0.11
+	 */
+	@SuppressWarnings("unchecked")
+	protected KeyHolder doExecuteBatchAndReturnKeyHolder(Map<String, ?>... batch) {
+		checkCompiled();
+		List<List<Object>> batchValues = new ArrayList<>(batch.length);
+		for (Map<String, ?> args : batch) {
+			batchValues.add(matchInParameterValuesWithInsertColumns(args));
+		}
+		return executeBatchAndReturnKeyHolderInternal(batchValues);
+	}
+
+	/**
+	 * Delegate method that executes a batch insert using the passed-in {@link SqlParameterSource}s,
+	 * returning the generated keys for all rows.
+	 * @param batch array of SqlParameterSource with parameter names and values to be used in insert
+	 * @return the KeyHolder containing the keys generated by the inserts, in batch order
+	 * @since 5.0.11
+	 */
+	protected KeyHolder doExecuteBatchAndReturnKeyHolder(SqlParameterSource... batch) {
+		checkCompiled();
+		List<List<Object>> batchValues = new ArrayList<>(batch.length);
+		for (SqlParameterSource parameterSource : batch) {
+			batchValues.add(matchInParameterValuesWithInsertColumns(parameterSource));
+		}
+		return executeBatchAndReturnKeyHolderInternal(batchValues);
+	}
+
+	/**
+	 * Delegate method to execute the batch insert, collecting the generated keys
+	 * through multi-row inserts or a JDBC batch if supported by the database,
+	 * or through one single-row insert per batch entry else.
+	 */
+	private KeyHolder executeBatchAndReturnKeyHolderInternal(List<List<Object>> batchValues) {
+		KeyHolder keyHolder = new GeneratedKeyHolder();
+		if (this.maxRowsPerInsert > 1 && this.tableMetaDataContext.isMultiRowGeneratedKeysSupported()) {
+			for (int start = 0; start < batchValues.size(); start += this.maxRowsPerInsert) {
+				int end = Math.min(start + this.maxRowsPerInsert, batchValues.size());
+				List<List<Object>> rows = batchValues.subList(start, end);
+				String insertString = getMultiRowInsertString(rows.size());
+				List<Object> values = flattenBatchValues(rows);
+				int[] insertTypes = repeatInsertTypes(rows.size());
+				if (logger.isDebugEnabled()) {
+					logger.debug("Executing multi-row insert " + insertString + " for batch rows " + start +
+							" to " + (end - 1) + " with generated keys");
+				}
+				KeyHolder rowKeys = new GeneratedKeyHolder();
+				getJdbcTemplate().update(
+						con -> {
+							PreparedStatement ps = prepareStatementForGeneratedKeys(con, insertString);
+							setParameterValues(ps, values, insertTypes);
+							return ps;
+						},
+						rowKeys);
+				keyHolder.getKeyList().addAll(rowKeys.getKeyList());
+			}
+		}
+		else if (batchValues.size() > 1 && this.tableMetaDataContext.isBatchGeneratedKeysSupported()) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Executing statement " + getInsertString() + " with batch of size " +
+						batchValues.size() + " and generated keys");
+			}
+			getJdbcTemplate().execute(
+					(Connection con) -> prepareStatementForGeneratedKeys(con, getInsertString()),
+					ps -> {
+						for (List<Object> values : batchValues) {
+							setParameterValues(ps, values, getInsertTypes());
+							ps.addBatch();
+						}
+						ps.executeBatch();
+						ResultSet keys = ps.getGeneratedKeys();
+						if (keys != null) {
+							try {
+								RowMapperResultSetExtractor<Map<String, Object>> rse =
+										new RowMapperResultSetExtractor<>(new ColumnMapRowMapper(), batchValues.size());
+								keyHolder.getKeyList().addAll(rse.extractData(keys));
+							}
+							finally {
+								JdbcUtils.closeResultSet(keys);
+							}
+						}
+						return null;
+					});
+		}
+		else {
+			for (List<Object> values : batchValues) {
+				keyHolder.getKeyList().addAll(executeInsertAndReturnKeyHolderInternal(values).getKeyList());
+			}
+		}
+		return keyHolder;
+	}
+
+	/**
+	 * Get the insert string for a multi-row insert of the given number of rows.
+	 */
+	private String getMultiRowInsertString(int rowCount) {
+		if (rowCount == this.maxRowsPerInsert) {
+			return this.multiRowInsertString;
+		}
+		return this.tableMetaDataContext.createMultiRowInsertString(rowCount, getGeneratedKeyNames());
+	}
+
+	private List<Object> flattenBatchValues(List<List<Object>> rows) {
+		List<Object> values = new ArrayList<>(rows.size() * getInsertTypes().length);
+		for (List<Object> row : rows) {
+			values.addAll(row);
+		}
+		return values;
+	}
+
+	private int[] repeatInsertTypes(int rowCount) {
+		int[] insertTypes = getInsertTypes();
+		int[] types = new int[insertTypes.length * rowCount];
+		for (int i = 0; i < rowCount; i++) {
+			System.arraycopy(insertTypes, 0, types, i * insertTypes.length, insertTypes.length);
+		}
+		return types;
+	}
+
 	/**
 	 * Internal implementation for setting parameter values.
 	 * @param preparedStatement the PreparedStatement
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -111,6 +111,12 @@ public class SimpleJdbcInsert extends AbstractJdbcInsert implements SimpleJdbcIn
 		return this;
 	}
 
+	@Override
+	public SimpleJdbcInsertOperations usingMultiRowInserts() {
+		setMultiRowInsert(true);
+		return this;
+	}
+
 	@Override
 	public int execute(Map<String, ?> args) {
 		return doExecute(args);
@@ -152,4 +158,15 @@ public class SimpleJdbcInsert extends AbstractJdbcInsert implements SimpleJdbcIn
 		return doExecuteBatch(batch);
 	}
 
+	@Override
+	@SuppressWarnings("unchecked")
+	public KeyHolder executeBatchAndReturnKeyHolder(Map<String, ?>... batch) {
+		return doExecuteBatchAndReturnKeyHolder(batch);
+	}
+
+	@Override
+	public KeyHolder executeBatchAndReturnKeyHolder(SqlParameterSource... batch) {
+		return doExecuteBatchAndReturnKeyHolder(batch);
+	}
+
 }
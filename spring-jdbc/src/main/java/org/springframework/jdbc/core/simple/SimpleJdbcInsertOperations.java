@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -80,6 +80,17 @@ public interface SimpleJdbcInsertOperations {
 	 */
 	SimpleJdbcInsertOperations includeSynonymsForTableColumnMetaData();
 
+	/**
+	 * Combine batches into multi-row {@code INSERT ... VALUES (...), (...)} statements,
+	 * sized to the parameter limits of the database, if the database is known to
+	 * support them.
+	 * @return the instance of this SimpleJdbcInsert
+	 * @since 5.0.11
+	 * @see #executeBatch(SqlParameterSource...)
+	 * @see #executeBatchAndReturnKeyHolder(SqlParameterSource...)
+	 */
+	SimpleJdbcInsertOperations usingMultiRowInserts();
+
 
 	/**
 	 * Execute the insert using the values passed in.
@@ -150,4 +161,35 @@ public interface SimpleJdbcInsertOperations {
 	 */
 	int[] executeBatch(SqlParameterSource... batch);
 
+	/**
+	 * Execute a batch insert using the batch of values passed in and return the
+	 * generated keys for all rows.
+	 * <p>This requires that the name of the columns with auto generated keys have been specified.
+	 * With {@link #usingMultiRowInserts() multi-row inserts} on a database returning the keys
+	 * of all inserted rows, the keys get retrieved per multi-row statement. Otherwise, the rows
+	 * get inserted through a single JDBC batch if the database is known to return the keys of
+	 * all batched rows (e.g. H2, HSQL, MySQL, PostgreSQL). On other databases, each row gets
+	 * inserted through a statement of its own, i.e. one database round trip per row.
+	 * @param batch an array of Maps containing a batch of column names and corresponding value
+	 * @return the KeyHolder containing the generated keys for all rows, in batch order
+	 * @since 5.0.11
+	 */
+	@SuppressWarnings("unchecked")
+	KeyHolder executeBatchAndReturnKeyHolder(Map<String, ?>... batch);
+
+	/**
+	 * Execute a batch insert using the batch of values passed in and return the
+	 * generated keys for all rows.
+	 * <p>This requires that the name of the columns with auto generated keys have been specified.
+	 * With {@link #usingMultiRowInserts() multi-row inserts} on a database returning the keys
+	 * of all inserted rows, the keys get retrieved per multi-row statement. Otherwise, the rows
+	 * get inserted through a single JDBC batch if the database is known to return the keys of
+	 * all batched rows (e.g. H2, HSQL, MySQL, PostgreSQL). On other databases, each row gets
+	 * inserted through a statement of its own, i.e. one database round trip per row.
+	 * @param batch an array of SqlParameterSource containing values for the batch
+	 * @return the KeyHolder containing the generated keys for all rows, in batch order
+	 * @since 5.0.11
+	 */
+	KeyHolder executeBatchAndReturnKeyHolder(SqlParameterSource... batch);
+
 }
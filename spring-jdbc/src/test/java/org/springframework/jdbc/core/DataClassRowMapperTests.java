@@ -0,0 +1,214 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.beans.PropertyDescriptor;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.core.test.ConcretePerson;
+import org.springframework.jdbc.core.test.ConstructorPerson;
+import org.springframework.jdbc.core.test.DatePerson;
+import org.springframework.jdbc.core.test.ExtendedPerson;
+import org.springframework.jdbc.core.test.Person;
+import org.springframework.jdbc.core.test.SpacePerson;
+import org.springframework.util.LambdaFactoryUtils;
+
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * Tests for {@link DataClassRowMapper}.
+ */
+public class DataClassRowMapperTests extends AbstractRowMapperTests {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+
+	@Test
+	public void testStaticQueryWithRowMapper() throws Exception {
+		Mock mock = new Mock();
+		List<Person> result = mock.getJdbcTemplate().query(
+				"select name, age, birth_date, balance from people",
+				new DataClassRowMapper<>(Person.class));
+		assertEquals(1, result.size());
+		verifyPerson(result.get(0));
+		mock.verifyClosed();
+	}
+
+	@Test
+	public void testMappingWithInheritance() throws Exception {
+		Mock mock = new Mock();
+		List<ConcretePerson> result = mock.getJdbcTemplate().query(
+				"select name, age, birth_date, balance from people",
+				new DataClassRowMapper<>(ConcretePerson.class, true));
+		assertEquals(1, result.size());
+		verifyPerson(result.get(0));
+		mock.verifyClosed();
+	}
+
+	@Test
+	public void testMappingWithUnpopulatedFieldsNotChecked() throws Exception {
+		Mock mock = new Mock();
+		List<ExtendedPerson> result = mock.getJdbcTemplate().query(
+				"select name, age, birth_date, balance from people",
+				new DataClassRowMapper<>(ExtendedPerson.class));
+		assertEquals(1, result.size());
+		verifyPerson(result.get(0));
+		mock.verifyClosed();
+	}
+
+	@Test
+	public void testMappingWithUnpopulatedFieldsNotAccepted() throws Exception {
+		Mock mock = new Mock();
+		thrown.expect(InvalidDataAccessApiUsageException.class);
+		mock.getJdbcTemplate().query(
+				"select name, age, birth_date, balance from people",
+				new DataClassRowMapper<>(ExtendedPerson.class, true));
+	}
+
+	@Test
+	public void testMappingNullValue() throws Exception {
+		Mock mock = new Mock(MockType.TWO);
+		thrown.expect(TypeMismatchException.class);
+		mock.getJdbcTemplate().query(
+				"select name, null as age, birth_date, balance from people",
+				new DataClassRowMapper<>(Person.class));
+	}
+
+	@Test
+	public void testMappingNullValueWithPrimitivesDefaulted() throws Exception {
+		DataClassRowMapper<Person> mapper = new DataClassRowMapper<>(Person.class);
+		mapper.setPrimitivesDefaultedForNullValue(true);
+		Mock mock = new Mock(MockType.TWO);
+		List<Person> result = mock.getJdbcTemplate().query(
+				"select name, null as age, birth_date, balance from people", mapper);
+		assertEquals(1, result.size());
+		assertEquals(0, result.get(0).getAge());
+	}
+
+	@Test
+	public void testQueryWithSpaceInColumnNameAndLocalDateTime() throws Exception {
+		Mock mock = new Mock(MockType.THREE);
+		List<SpacePerson> result = mock.getJdbcTemplate().query(
+				"select last_name as \"Last Name\", age, birth_date, balance from people",
+				new DataClassRowMapper<>(SpacePerson.class));
+		assertEquals(1, result.size());
+		verifyPerson(result.get(0));
+		mock.verifyClosed();
+	}
+
+	@Test
+	public void testQueryWithSpaceInColumnNameAndLocalDate() throws Exception {
+		Mock mock = new Mock(MockType.THREE);
+		List<DatePerson> result = mock.getJdbcTemplate().query(
+				"select last_name as \"Last Name\", age, birth_date, balance from people",
+				new DataClassRowMapper<>(DatePerson.class));
+		assertEquals(1, result.size());
+		verifyPerson(result.get(0));
+		mock.verifyClosed();
+	}
+
+	@Test
+	public void testConstructorMapping() throws Exception {
+		Mock mock = new Mock();
+		List<ConstructorPerson> result = mock.getJdbcTemplate().query(
+				"select name, age, birth_date, balance from people",
+				new DataClassRowMapper<>(ConstructorPerson.class, true));
+		assertEquals(1, result.size());
+		ConstructorPerson person = result.get(0);
+		assertEquals("Bubba", person.name());
+		assertEquals(22L, person.age());
+		assertEquals(new java.util.Date(1221222L), person.birth_date());
+		assertEquals(new BigDecimal("1234.56"), person.getBalance());
+		mock.verifyClosed();
+	}
+
+	@Test
+	public void testMappingPlanResolvedOncePerResultSet() throws Exception {
+		int rowCount = LambdaFactoryUtils.GENERATION_THRESHOLD * 3;
+		ResultSet rs = mockResultSet(rowCount);
+		RowMapperResultSetExtractor<Person> extractor =
+				new RowMapperResultSetExtractor<>(new DataClassRowMapper<>(Person.class));
+		List<Person> result = extractor.extractData(rs);
+
+		assertEquals(rowCount, result.size());
+		for (int i = 0; i < rowCount; i++) {
+			Person person = result.get(i);
+			assertEquals("name" + i, person.getName());
+			assertEquals(i, person.getAge());
+			assertEquals(new BigDecimal(i), person.getBalance());
+		}
+		verify(rs, times(1)).getMetaData();
+	}
+
+	@Test
+	public void testMappingPlanSharedAcrossMapperInstances() throws Exception {
+		ResultSet rs = mockResultSet(3);
+		Person person1 = new DataClassRowMapper<>(Person.class).mapRow(rs, 0);
+		Person person2 = new DataClassRowMapper<>(Person.class).mapRow(rs, 0);
+		assertNotSame(person1, person2);
+		verify(rs.getMetaData(), times(2)).getColumnCount();
+	}
+
+	@Test
+	public void testCustomColumnValueForPrimitiveProperty() throws Exception {
+		int rowCount = LambdaFactoryUtils.GENERATION_THRESHOLD * 2;
+		ResultSet rs = mockResultSet(rowCount);
+		DataClassRowMapper<Person> mapper = new DataClassRowMapper<Person>(Person.class) {
+			@Override
+			protected Object getColumnValue(ResultSet rs, int index, PropertyDescriptor pd) throws SQLException {
+				return ("age".equals(pd.getName()) ? 42 : super.getColumnValue(rs, index, pd));
+			}
+		};
+		List<Person> result = new RowMapperResultSetExtractor<>(mapper).extractData(rs);
+
+		assertEquals(rowCount, result.size());
+		for (Person person : result) {
+			assertEquals(42L, person.getAge());
+		}
+		verify(rs, never()).getLong(2);
+	}
+
+
+	private ResultSet mockResultSet(int rowCount) throws SQLException {
+		ResultSet rs = mock(ResultSet.class);
+		ResultSetMetaData rsmd = mock(ResultSetMetaData.class);
+		given(rs.getMetaData()).willReturn(rsmd);
+		given(rsmd.getColumnCount()).willReturn(3);
+		given(rsmd.getColumnLabel(1)).willReturn("NAME");
+		given(rsmd.getColumnLabel(2)).willReturn("AGE");
+		given(rsmd.getColumnLabel(3)).willReturn("BALANCE");
+		int[] row = new int[] {-1};
+		given(rs.next()).willAnswer(invocation -> ++row[0] < rowCount);
+		given(rs.getString(1)).willAnswer(invocation -> "name" + row[0]);
+		given(rs.getLong(2)).willAnswer(invocation -> (long) row[0]);
+		given(rs.getBigDecimal(3)).willAnswer(invocation -> new BigDecimal(row[0]));
+		return rs;
+	}
+
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcBatchWriter.ChunkResult;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link JdbcBatchWriter}.
+ */
+public class JdbcBatchWriterTests {
+
+	private static final String INSERT_SQL = "insert into item (id, name) values (?, ?)";
+
+	private static final ParameterizedPreparedStatementSetter<Integer> SETTER = (ps, id) -> {
+		ps.setInt(1, id);
+		ps.setString(2, "item" + id);
+	};
+
+	private EmbeddedDatabase database;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private JdbcBatchWriter writer;
+
+
+	@Before
+	public void setup() {
+		this.database = new EmbeddedDatabaseBuilder().generateUniqueName(true).setType(EmbeddedDatabaseType.H2).build();
+		this.jdbcTemplate = new JdbcTemplate(this.database);
+		this.jdbcTemplate.execute("create table item (id integer primary key, name varchar(50))");
+		this.writer = new JdbcBatchWriter(this.jdbcTemplate);
+	}
+
+	@After
+	public void shutdown() {
+		this.database.shutdown();
+	}
+
+
+	@Test
+	public void writeInChunks() {
+		this.writer.setBatchSize(3);
+		List<ChunkResult> results = this.writer.write(INSERT_SQL, IntStream.range(0, 10).boxed(), SETTER);
+
+		assertEquals(4, results.size());
+		for (int i = 0; i < results.size(); i++) {
+			ChunkResult result = results.get(i);
+			assertEquals(i, result.getIndex());
+			assertTrue(result.isSuccessful());
+			assertEquals(i < 3 ? 3 : 1, result.getItemCount());
+			assertEquals(result.getItemCount(), result.getUpdateCounts().length);
+		}
+		assertEquals(10, countRows());
+	}
+
+	@Test
+	public void writeConcurrentlyWithPartitionKey() {
+		this.writer.setBatchSize(50);
+		this.writer.setConcurrency(4);
+		List<ChunkResult> results = this.writer.write(
+				INSERT_SQL, IntStream.range(0, 1000).boxed(), SETTER, id -> id % 7);
+
+		int itemCount = 0;
+		for (ChunkResult result : results) {
+			assertTrue(result.isSuccessful());
+			itemCount += result.getItemCount();
+		}
+		assertEquals(1000, itemCount);
+		assertEquals(1000, countRows());
+		assertEquals("item999", this.jdbcTemplate.queryForObject("select name from item where id = 999", String.class));
+	}
+
+	@Test
+	public void writeConcurrentlyWithoutPartitionKey() {
+		this.writer.setBatchSize(10);
+		this.writer.setConcurrency(3);
+		List<ChunkResult> results = this.writer.write(INSERT_SQL, IntStream.range(0, 95).boxed().iterator(), SETTER);
+
+		assertEquals(10, results.size());
+		assertEquals(9, results.get(9).getIndex());
+		assertEquals(95, countRows());
+	}
+
+	@Test
+	public void writeConcurrentlyWithFewerThreadsThanPartitions() {
+		ExecutorService executor = Executors.newFixedThreadPool(1);
+		try {
+			this.writer.setTaskExecutor(executor);
+			this.writer.setBatchSize(10);
+			this.writer.setConcurrency(4);
+			List<ChunkResult> results = this.writer.write(
+					INSERT_SQL, IntStream.range(0, 500).boxed(), SETTER, id -> id % 4);
+
+			assertEquals(52, results.size());
+			assertTrue(results.stream().allMatch(ChunkResult::isSuccessful));
+			assertEquals(500, countRows());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void writeWithSynchronousExecutor() {
+		this.writer.setTaskExecutor(new SyncTaskExecutor());
+		this.writer.setBatchSize(10);
+		this.writer.setConcurrency(3);
+		List<ChunkResult> results = this.writer.write(
+				INSERT_SQL, IntStream.range(0, 500).boxed(), SETTER, id -> id % 3);
+
+		assertEquals(51, results.size());
+		assertTrue(results.stream().allMatch(ChunkResult::isSuccessful));
+		assertEquals(500, countRows());
+	}
+
+	@Test
+	public void rejectedWorker() {
+		this.writer.setTaskExecutor(task -> {
+			throw new RejectedExecutionException("Expected exception");
+		});
+		AtomicBoolean closed = new AtomicBoolean();
+		Stream<Integer> items = IntStream.range(0, 10).boxed().onClose(() -> closed.set(true));
+		try {
+			this.writer.write(INSERT_SQL, items, SETTER);
+			fail("Should have thrown RejectedExecutionException");
+		}
+		catch (RejectedExecutionException ex) {
+			// expected
+		}
+		assertTrue(closed.get());
+		assertEquals(0, countRows());
+	}
+
+	@Test
+	public void closeStream() {
+		AtomicBoolean closed = new AtomicBoolean();
+		this.writer.write(INSERT_SQL, IntStream.range(0, 10).boxed().onClose(() -> closed.set(true)), SETTER);
+		assertTrue(closed.get());
+		assertEquals(10, countRows());
+	}
+
+	@Test
+	public void stopAfterFailedChunk() {
+		this.writer.setBatchSize(2);
+		List<ChunkResult> results = this.writer.write(INSERT_SQL, Arrays.asList(1, 2, 3, 1, 4, 5, 6, 7).stream(), SETTER);
+
+		assertEquals(2, results.size());
+		assertTrue(results.get(0).isSuccessful());
+		assertFalse(results.get(1).isSuccessful());
+		assertTrue(results.get(1).getFailure() instanceof DuplicateKeyException);
+		assertEquals(0, results.get(1).getUpdateCounts().length);
+		assertEquals(0, countRows("id > 4"));
+	}
+
+	@Test
+	public void continueAfterFailedChunk() {
+		this.writer.setBatchSize(2);
+		this.writer.setContinueOnError(true);
+		this.writer.setTransactionManager(new DataSourceTransactionManager(this.database));
+		List<ChunkResult> results = this.writer.write(INSERT_SQL, Arrays.asList(1, 2, 3, 1, 4, 5, 6, 7).stream(), SETTER);
+
+		assertEquals(4, results.size());
+		assertFalse(results.get(1).isSuccessful());
+		assertTrue(results.get(3).isSuccessful());
+		// Failed chunk rolled back as a whole
+		assertEquals(0, countRows("id = 3"));
+		assertEquals(6, countRows());
+	}
+
+	@Test
+	public void participateInExistingTransaction() {
+		this.writer.setConcurrency(4);
+		this.writer.setBatchSize(10);
+		TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(this.database));
+		transactionTemplate.execute(status -> {
+			List<ChunkResult> results = this.writer.write(INSERT_SQL, IntStream.range(0, 100).boxed(), SETTER);
+			assertEquals(10, results.size());
+			assertEquals(100, countRows());
+			status.setRollbackOnly();
+			return null;
+		});
+		assertEquals(0, countRows());
+	}
+
+	@Test
+	public void writeEmptySource() {
+		this.writer.setConcurrency(2);
+		assertTrue(this.writer.write(INSERT_SQL, IntStream.range(0, 0).boxed(), SETTER).isEmpty());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void propagateSourceFailure() {
+		this.writer.setBatchSize(1);
+		this.writer.write(INSERT_SQL, IntStream.range(0, 10).boxed().map(id -> {
+			if (id == 5) {
+				throw new IllegalStateException("Expected exception");
+			}
+			return id;
+		}), SETTER);
+	}
+
+
+	private int countRows() {
+		return countRows("1 = 1");
+	}
+
+	private int countRows(String condition) {
+		Integer count = this.jdbcTemplate.queryForObject("select count(*) from item where " + condition, Integer.class);
+		return (count != null ? count : 0);
+	}
+
+}
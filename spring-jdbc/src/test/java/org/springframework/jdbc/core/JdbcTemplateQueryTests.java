@@ -23,9 +23,13 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.SQLWarning;
 import java.sql.Statement;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.sql.DataSource;
 
 import org.junit.Before;
@@ -34,6 +38,9 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.SQLWarningException;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.support.SQLStateSQLExceptionTranslator;
 
 import static org.junit.Assert.*;
 import static org.mockito.BDDMockito.*;
@@ -81,6 +88,8 @@ public class JdbcTemplateQueryTests {
 		given(this.connection.prepareStatement(anyString())).willReturn(this.preparedStatement);
 		given(this.preparedStatement.executeQuery()).willReturn(this.resultSet);
 		given(this.statement.executeQuery(anyString())).willReturn(this.resultSet);
+		given(this.statement.getConnection()).willReturn(this.connection);
+		given(this.preparedStatement.getConnection()).willReturn(this.connection);
 	}
 
 
@@ -392,4 +401,121 @@ public class JdbcTemplateQueryTests {
 		verify(this.preparedStatement).close();
 	}
 
+	@Test
+	public void testQueryForStream() throws Exception {
+		String sql = "SELECT AGE FROM CUSTMR WHERE ID < 3";
+		given(this.resultSet.next()).willReturn(true, true, false);
+		given(this.resultSet.getInt(1)).willReturn(11, 12);
+		try (Stream<Integer> stream = this.template.queryForStream(sql, (rs, rowNum) -> rs.getInt(1))) {
+			verify(this.resultSet, never()).next();
+			assertEquals(Arrays.asList(11, 12), stream.collect(Collectors.toList()));
+			verify(this.resultSet, never()).close();
+			verify(this.statement, never()).close();
+			verify(this.connection, never()).close();
+		}
+		verify(this.resultSet).close();
+		verify(this.statement).close();
+		verify(this.connection).close();
+	}
+
+	@Test
+	public void testQueryForStreamWithArgs() throws Exception {
+		String sql = "SELECT AGE FROM CUSTMR WHERE ID > ?";
+		this.template.setFetchSize(100);
+		given(this.resultSet.next()).willReturn(true, true, true, false);
+		given(this.resultSet.getInt(1)).willReturn(11, 12, 13);
+		try (Stream<Integer> stream = this.template.queryForStream(sql, (rs, rowNum) -> rs.getInt(1), 3)) {
+			assertEquals(Integer.valueOf(11), stream.findFirst().get());
+		}
+		verify(this.preparedStatement).setFetchSize(100);
+		verify(this.preparedStatement).setObject(1, 3);
+		verify(this.resultSet, times(1)).next();
+		verify(this.resultSet).close();
+		verify(this.preparedStatement).close();
+		verify(this.connection).close();
+	}
+
+	@Test
+	public void testQueryForStreamWithSQLExceptionWhileAdvancing() throws Exception {
+		String sql = "SELECT AGE FROM CUSTMR WHERE ID = ?";
+		this.template.setExceptionTranslator(new SQLStateSQLExceptionTranslator());
+		SQLException sqlException = new SQLException("Connection reset");
+		given(this.resultSet.next()).willReturn(true).willThrow(sqlException);
+		given(this.resultSet.getInt(1)).willReturn(11);
+		try (Stream<Integer> stream = this.template.queryForStream(sql, (rs, rowNum) -> rs.getInt(1), 3)) {
+			stream.forEach(age -> assertEquals(11, age.intValue()));
+			fail("Should have thrown UncategorizedSQLException");
+		}
+		catch (UncategorizedSQLException ex) {
+			assertSame(sqlException, ex.getSQLException());
+		}
+		verify(this.resultSet).close();
+		verify(this.preparedStatement).close();
+		verify(this.connection).close();
+	}
+
+	@Test
+	public void testQueryForStreamWithSQLExceptionOnExecute() throws Exception {
+		String sql = "SELECT AGE FROM CUSTMR WHERE ID = ?";
+		this.template.setExceptionTranslator(new SQLStateSQLExceptionTranslator());
+		given(this.preparedStatement.executeQuery()).willThrow(new SQLException("Syntax error"));
+		try {
+			this.template.queryForStream(sql, (rs, rowNum) -> rs.getInt(1), 3);
+			fail("Should have thrown UncategorizedSQLException");
+		}
+		catch (UncategorizedSQLException ex) {
+			// expected
+		}
+		verify(this.preparedStatement).close();
+		verify(this.connection).close();
+	}
+
+	@Test
+	public void testQueryForStreamWithWarningNotIgnored() throws Exception {
+		String sql = "SELECT AGE FROM CUSTMR";
+		this.template.setIgnoreWarnings(false);
+		given(this.statement.getWarnings()).willReturn(new SQLWarning("Truncated"));
+		try {
+			this.template.queryForStream(sql, (rs, rowNum) -> rs.getInt(1));
+			fail("Should have thrown SQLWarningException");
+		}
+		catch (SQLWarningException ex) {
+			// expected
+		}
+		verify(this.statement).close();
+		verify(this.connection).close();
+	}
+
+	@Test
+	public void testQueryForStreamWithRuntimeExceptionInSetter() throws Exception {
+		String sql = "SELECT AGE FROM CUSTMR WHERE ID = ?";
+		DisposablePreparedStatementSetter pss = new DisposablePreparedStatementSetter();
+		try {
+			this.template.queryForStream(sql, pss, (rs, rowNum) -> rs.getInt(1));
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			// expected
+		}
+		assertTrue(pss.cleanedUp);
+		verify(this.preparedStatement).close();
+		verify(this.connection).close();
+	}
+
+
+	private static class DisposablePreparedStatementSetter implements PreparedStatementSetter, ParameterDisposer {
+
+		boolean cleanedUp;
+
+		@Override
+		public void setValues(PreparedStatement ps) {
+			throw new IllegalStateException("Expected exception");
+		}
+
+		@Override
+		public void cleanupParameters() {
+			this.cleanedUp = true;
+		}
+	}
+
 }
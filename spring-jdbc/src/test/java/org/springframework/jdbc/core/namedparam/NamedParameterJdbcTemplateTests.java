@@ -28,6 +28,8 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.sql.DataSource;
 
 import org.junit.Before;
@@ -210,6 +212,76 @@ public class NamedParameterJdbcTemplateTests {
 		verify(connection).close();
 	}
 
+	@Test
+	public void testUpdateWithInListsOfDifferentSizes() throws SQLException {
+		String sql = "update customer set type = 1 where id in (:ids) and country = :country";
+		Map<String, Object> params = new HashMap<>();
+		params.put("country", "UK");
+		params.put("ids", Arrays.asList(1, 2));
+		namedParameterTemplate.update(sql, params);
+		params.put("ids", Arrays.asList(3, 4, 5));
+		namedParameterTemplate.update(sql, params);
+		params.put("ids", Arrays.asList(6, 7));
+		namedParameterTemplate.update(sql, params);
+		params.put("ids", Arrays.asList(new Object[] {8, "a"}, new Object[] {9, "b"}));
+		namedParameterTemplate.update(sql, params);
+
+		verify(connection, times(2)).prepareStatement(
+				"update customer set type = 1 where id in (?, ?) and country = ?");
+		verify(connection).prepareStatement(
+				"update customer set type = 1 where id in (?, ?, ?) and country = ?");
+		verify(connection).prepareStatement(
+				"update customer set type = 1 where id in ((?, ?), (?, ?)) and country = ?");
+		verify(preparedStatement).setObject(3, 5);
+		verify(preparedStatement).setObject(2, 7);
+		verify(preparedStatement).setObject(3, 9);
+		verify(preparedStatement).setString(4, "b");
+		verify(preparedStatement, times(4)).close();
+	}
+
+	@Test
+	public void testUpdateWithNonCollectionIterableAsSingleValue() throws SQLException {
+		String sql = "update customer set type = 1 where id in (:ids)";
+		Iterable<Integer> ids = () -> Arrays.asList(1, 2, 3).iterator();
+		namedParameterTemplate.update(sql, Collections.singletonMap("ids", ids));
+		namedParameterTemplate.update(sql, Collections.singletonMap("ids", Arrays.asList(4, 5, 6)));
+
+		verify(connection).prepareStatement("update customer set type = 1 where id in (?)");
+		verify(preparedStatement).setObject(1, ids);
+		verify(connection).prepareStatement("update customer set type = 1 where id in (?, ?, ?)");
+		verify(preparedStatement).setObject(3, 6);
+		verify(preparedStatement, times(2)).close();
+	}
+
+	@Test
+	public void testUpdateWithTypedAndUntypedParametersForSameStatement() throws SQLException {
+		params.put("perfId", new SqlParameterValue(Types.DECIMAL, 1));
+		params.put("priceId", 1);
+		namedParameterTemplate.update(UPDATE_NAMED_PARAMETERS, params);
+		MapSqlParameterSource paramSource = new MapSqlParameterSource("perfId", 2);
+		paramSource.addValue("priceId", 2, Types.INTEGER);
+		namedParameterTemplate.update(UPDATE_NAMED_PARAMETERS, paramSource);
+
+		verify(connection, times(2)).prepareStatement(UPDATE_NAMED_PARAMETERS_PARSED);
+		verify(preparedStatement).setObject(1, 1, Types.DECIMAL);
+		verify(preparedStatement).setObject(2, 1);
+		verify(preparedStatement).setObject(1, 2);
+		verify(preparedStatement).setObject(2, 2, Types.INTEGER);
+	}
+
+	@Test
+	public void testUpdateWithCachingDisabled() throws SQLException {
+		namedParameterTemplate.setCacheLimit(0);
+		assertEquals(0, namedParameterTemplate.getCacheLimit());
+		params.put("perfId", 1);
+		params.put("priceId", 1);
+		namedParameterTemplate.update(UPDATE_NAMED_PARAMETERS, params);
+		namedParameterTemplate.update(UPDATE_NAMED_PARAMETERS, params);
+
+		verify(connection, times(2)).prepareStatement(UPDATE_NAMED_PARAMETERS_PARSED);
+		verify(preparedStatement, times(2)).setObject(1, 1);
+	}
+
 	@Test
 	public void testQueryWithResultSetExtractor() throws SQLException {
 		given(resultSet.next()).willReturn(true);
@@ -352,6 +424,36 @@ public class NamedParameterJdbcTemplateTests {
 		verify(connection).close();
 	}
 
+	@Test
+	public void testQueryForStreamWithRowMapper() throws SQLException {
+		given(resultSet.next()).willReturn(true, true, false);
+		given(resultSet.getInt("id")).willReturn(1, 2);
+		given(resultSet.getString("forename")).willReturn("rod", "juergen");
+
+		params.put("id", new SqlParameterValue(Types.DECIMAL, 1));
+		params.put("country", "UK");
+		List<Customer> customers;
+		try (Stream<Customer> stream = namedParameterTemplate.queryForStream(SELECT_NAMED_PARAMETERS, params,
+				(rs, rownum) -> {
+					Customer cust = new Customer();
+					cust.setId(rs.getInt(COLUMN_NAMES[0]));
+					cust.setForename(rs.getString(COLUMN_NAMES[1]));
+					return cust;
+				})) {
+			customers = stream.collect(Collectors.toList());
+			verify(preparedStatement, never()).close();
+		}
+		assertEquals(2, customers.size());
+		assertEquals("rod", customers.get(0).getForename());
+		assertEquals("juergen", customers.get(1).getForename());
+		verify(connection).prepareStatement(SELECT_NAMED_PARAMETERS_PARSED);
+		verify(preparedStatement).setObject(1, 1, Types.DECIMAL);
+		verify(preparedStatement).setString(2, "UK");
+		verify(resultSet).close();
+		verify(preparedStatement).close();
+		verify(connection).close();
+	}
+
 	@Test
 	public void testQueryForObjectWithRowMapper() throws SQLException {
 		given(resultSet.next()).willReturn(true, false);
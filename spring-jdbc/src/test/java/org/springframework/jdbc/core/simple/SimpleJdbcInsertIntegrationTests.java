@@ -0,0 +1,144 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core.simple;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.support.KeyHolder;
+
+import static org.junit.Assert.*;
+
+/**
+ * Embedded database tests for batch inserts through {@link SimpleJdbcInsert}.
+ */
+public class SimpleJdbcInsertIntegrationTests {
+
+	private EmbeddedDatabase database;
+
+	private JdbcTemplate jdbcTemplate;
+
+
+	@Before
+	public void setup() {
+		this.database = new EmbeddedDatabaseBuilder().generateUniqueName(true).setType(EmbeddedDatabaseType.H2).build();
+		this.jdbcTemplate = new JdbcTemplate(this.database);
+		this.jdbcTemplate.execute("create table customer (" +
+				"id integer auto_increment primary key, name varchar(50), version integer)");
+	}
+
+	@After
+	public void shutdown() {
+		this.database.shutdown();
+	}
+
+
+	@Test
+	public void executeBatchWithMultiRowInserts() {
+		SimpleJdbcInsert insert = new SimpleJdbcInsert(this.database).withTableName("customer")
+				.usingGeneratedKeyColumns("id");
+		insert.usingMultiRowInserts();
+		// More rows than fit into a single statement with two parameters per row
+		int[] rowsAffected = insert.executeBatch(createBatch(20000));
+
+		assertTrue(insert.getInsertString().endsWith("VALUES(?, ?)"));
+		assertEquals(20000, rowsAffected.length);
+		for (int count : rowsAffected) {
+			assertEquals(1, count);
+		}
+		assertEquals(Integer.valueOf(20000), this.jdbcTemplate.queryForObject("select count(*) from customer", Integer.class));
+		assertEquals("customer19999", this.jdbcTemplate.queryForObject(
+				"select name from customer where version = 19999", String.class));
+	}
+
+	@Test
+	public void executeBatchWithMultiRowInsertsAndCollectionValue() {
+		this.jdbcTemplate.execute("create table tagged (id integer auto_increment primary key, tags array)");
+		SimpleJdbcInsert insert = new SimpleJdbcInsert(this.database).withTableName("tagged")
+				.usingColumns("tags");
+		insert.usingMultiRowInserts();
+		int[] rowsAffected = insert.executeBatch(new MapSqlParameterSource("tags", Arrays.asList("a", "b")),
+				new MapSqlParameterSource("tags", Arrays.asList("c", "d")));
+
+		assertEquals(2, rowsAffected.length);
+		assertEquals(Integer.valueOf(2), this.jdbcTemplate.queryForObject("select count(*) from tagged", Integer.class));
+	}
+
+	@Test
+	public void executeBatchAndReturnKeyHolderWithMultiRowInserts() {
+		SimpleJdbcInsert insert = new SimpleJdbcInsert(this.database).withTableName("customer")
+				.usingGeneratedKeyColumns("id");
+		insert.usingMultiRowInserts();
+		KeyHolder keyHolder = insert.executeBatchAndReturnKeyHolder(createBatch(20000));
+
+		assertKeys(keyHolder, 20000);
+	}
+
+	@Test
+	public void executeBatchAndReturnKeyHolderWithJdbcBatch() {
+		SimpleJdbcInsert insert = new SimpleJdbcInsert(this.database).withTableName("customer")
+				.usingGeneratedKeyColumns("id");
+		KeyHolder keyHolder = insert.executeBatchAndReturnKeyHolder(createBatch(10));
+
+		assertKeys(keyHolder, 10);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void executeBatchAndReturnKeyHolderWithMaps() {
+		SimpleJdbcInsert insert = new SimpleJdbcInsert(this.database).withTableName("customer")
+				.usingColumns("name").usingGeneratedKeyColumns("id");
+		insert.usingMultiRowInserts();
+		Map<String, Object>[] batch = new Map[3];
+		for (int i = 0; i < batch.length; i++) {
+			batch[i] = new MapSqlParameterSource("name", "customer" + i).getValues();
+		}
+		KeyHolder keyHolder = insert.executeBatchAndReturnKeyHolder(batch);
+
+		assertKeys(keyHolder, 3);
+		assertEquals("customer2", this.jdbcTemplate.queryForObject("select name from customer where id = 3", String.class));
+	}
+
+
+	private SqlParameterSource[] createBatch(int size) {
+		SqlParameterSource[] batch = new SqlParameterSource[size];
+		for (int i = 0; i < size; i++) {
+			batch[i] = new MapSqlParameterSource("name", "customer" + i).addValue("version", i);
+		}
+		return batch;
+	}
+
+	private void assertKeys(KeyHolder keyHolder, int size) {
+		List<Map<String, Object>> keys = keyHolder.getKeyList();
+		assertEquals(size, keys.size());
+		for (int i = 0; i < size; i++) {
+			assertEquals(i + 1, ((Number) keys.get(i).values().iterator().next()).intValue());
+		}
+	}
+
+}
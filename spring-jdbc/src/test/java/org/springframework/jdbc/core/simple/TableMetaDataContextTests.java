@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -154,4 +154,54 @@ public class TableMetaDataContextTests  {
 		verify(columnsResultSet).close();
 	}
 
+	@Test
+	public void testMultiRowInsertStringSizedToParameterLimit() throws Exception {
+		final String TABLE = "customers";
+		final String USER = "me";
+
+		ResultSet metaDataResultSet = mock(ResultSet.class);
+		given(metaDataResultSet.next()).willReturn(true, false);
+		given(metaDataResultSet.getString("TABLE_SCHEM")).willReturn(USER);
+		given(metaDataResultSet.getString("TABLE_NAME")).willReturn(TABLE);
+		given(metaDataResultSet.getString("TABLE_TYPE")).willReturn("TABLE");
+
+		ResultSet columnsResultSet = mock(ResultSet.class);
+		given(columnsResultSet.next()).willReturn(true, true, true, false);
+		given(columnsResultSet.getString("COLUMN_NAME")).willReturn("id", "name", "version");
+		given(columnsResultSet.getInt("DATA_TYPE")).willReturn(Types.INTEGER, Types.VARCHAR, Types.NUMERIC);
+		given(columnsResultSet.getBoolean("NULLABLE")).willReturn(false, true, false);
+
+		given(databaseMetaData.getDatabaseProductName()).willReturn("Microsoft SQL Server");
+		given(databaseMetaData.getUserName()).willReturn(USER);
+		given(databaseMetaData.supportsGetGeneratedKeys()).willReturn(true);
+		given(databaseMetaData.storesLowerCaseIdentifiers()).willReturn(true);
+		given(databaseMetaData.getTables(null, null, TABLE, null)).willReturn(metaDataResultSet);
+		given(databaseMetaData.getColumns(null, USER, TABLE, null)).willReturn(columnsResultSet);
+
+		String[] keyCols = new String[] { "id" };
+		context.setTableName(TABLE);
+		context.processMetaData(dataSource, new ArrayList<>(), keyCols);
+
+		assertEquals(1000, context.getMaxRowsPerMultiRowInsert());
+		assertFalse(context.isMultiRowGeneratedKeysSupported());
+		assertEquals("INSERT INTO customers (name, version) VALUES(?, ?)", context.createInsertString(keyCols));
+		assertEquals("INSERT INTO customers (name, version) VALUES(?, ?), (?, ?), (?, ?)",
+				context.createMultiRowInsertString(3, keyCols));
+	}
+
+	@Test
+	public void testMultiRowInsertNotSupportedForUnknownDatabase() throws Exception {
+		given(databaseMetaData.getDatabaseProductName()).willReturn("MyDB");
+		given(databaseMetaData.supportsGetGeneratedKeys()).willReturn(true);
+
+		context.setTableName("customers");
+		context.setAccessTableColumnMetaData(false);
+		List<String> columns = new ArrayList<>();
+		columns.add("name");
+		context.processMetaData(dataSource, columns, new String[0]);
+
+		assertEquals(1, context.getMaxRowsPerMultiRowInsert());
+		assertFalse(context.isMultiRowGeneratedKeysSupported());
+	}
+
 }
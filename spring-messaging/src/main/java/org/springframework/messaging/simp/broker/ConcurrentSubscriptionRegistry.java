@@ -0,0 +1,450 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.messaging.simp.broker;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.SimpleEvaluationContext;
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.Assert;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.PathMatcher;
+import org.springframework.util.StringUtils;
+
+/**
+ * Implementation of {@link SubscriptionRegistry} for a high number of
+ * concurrently subscribing and unsubscribing sessions, where looking up the
+ * subscriptions for a message never blocks on subscription changes.
+ *
+ * <p>Subscriptions are indexed in a concurrent trie of destination segments,
+ * with separate child nodes for literal segments and for segments with
+ * Ant-style wildcards or URI template variables. Each node publishes its
+ * subscriptions as an immutable array which is replaced on every change to
+ * that node, so lookups only ever read a consistent snapshot while changes
+ * merely lock the affected node. Destinations are matched with the same
+ * semantics as a {@link DefaultSubscriptionRegistry} with an
+ * {@link AntPathMatcher}, without the need for a destination cache.
+ *
+ * <p>Selector expressions on subscription messages are supported as well,
+ * see {@link #setSelectorHeaderName}, with each distinct selector parsed only
+ * once and shared between subscriptions.
+ *
+ * @since 5.0.11
+ * @see SimpleBrokerMessageHandler#setSubscriptionRegistry
+ */
+public class ConcurrentSubscriptionRegistry extends AbstractSubscriptionRegistry {
+
+	/** Maximum number of parsed selector expressions shared across subscriptions */
+	private static final int SELECTOR_CACHE_LIMIT = 1024;
+
+	private static final String DOUBLE_WILDCARD = "**";
+
+	private static final String SINGLE_WILDCARD = "*";
+
+	private static final Subscription[] NO_SUBSCRIPTIONS = new Subscription[0];
+
+	/** Static evaluation context to reuse */
+	private static final EvaluationContext messageEvalContext = SimpleEvaluationContext.forPropertyAccessors(
+			new DefaultSubscriptionRegistry.SimpMessageHeaderPropertyAccessor()).build();
+
+
+	private String pathSeparator = AntPathMatcher.DEFAULT_PATH_SEPARATOR;
+
+	private PathMatcher pathMatcher = new AntPathMatcher();
+
+	@Nullable
+	private String selectorHeaderName = "selector";
+
+	private final ExpressionParser expressionParser = new SpelExpressionParser();
+
+	private final Map<String, Expression> selectorCache = new ConcurrentHashMap<>(64);
+
+	private final Node root = new Node(null, "");
+
+	/** Map from sessionId -> <subscriptionId, subscription> */
+	private final Map<String, Map<String, Subscription>> sessions = new ConcurrentHashMap<>();
+
+
+	/**
+	 * Specify the separator for destination segments, as used for Ant-style
+	 * destination patterns. To be set before any subscription is registered.
+	 * <p>Default is "/", as with a standard {@link AntPathMatcher}.
+	 */
+	public void setPathSeparator(String pathSeparator) {
+		Assert.hasLength(pathSeparator, "Path separator must not be empty");
+		this.pathSeparator = pathSeparator;
+		this.pathMatcher = new AntPathMatcher(pathSeparator);
+	}
+
+	/**
+	 * Return the configured separator for destination segments.
+	 */
+	public String getPathSeparator() {
+		return this.pathSeparator;
+	}
+
+	/**
+	 * Configure the name of a header that a subscription message can have for
+	 * the purpose of filtering messages matched to the subscription. The header
+	 * value is expected to be a Spring EL boolean expression to be applied to
+	 * the headers of messages matched to the subscription.
+	 * <p>By default this is set to "selector". You can set it to a different
+	 * name, or to {@code null} to turn off support for a selector header.
+	 * @param selectorHeaderName the name to use for a selector header
+	 * @see DefaultSubscriptionRegistry#setSelectorHeaderName
+	 */
+	public void setSelectorHeaderName(@Nullable String selectorHeaderName) {
+		this.selectorHeaderName = (StringUtils.hasText(selectorHeaderName) ? selectorHeaderName : null);
+	}
+
+	/**
+	 * Return the name for the selector header name.
+	 */
+	@Nullable
+	public String getSelectorHeaderName() {
+		return this.selectorHeaderName;
+	}
+
+
+	@Override
+	protected void addSubscriptionInternal(
+			String sessionId, String subsId, String destination, Message<?> message) {
+
+		Expression selector = getSelectorExpression(message.getHeaders());
+		Subscription subscription = new Subscription(sessionId, subsId, destination, tokenize(destination), selector);
+		Map<String, Subscription> subscriptions =
+				this.sessions.computeIfAbsent(sessionId, key -> new ConcurrentHashMap<>(4));
+		Subscription previous = subscriptions.put(subsId, subscription);
+		if (previous != null) {
+			removeFromTrie(previous);
+		}
+		addToTrie(subscription);
+	}
+
+	@Nullable
+	private Expression getSelectorExpression(MessageHeaders headers) {
+		String selectorHeaderName = getSelectorHeaderName();
+		if (selectorHeaderName == null) {
+			return null;
+		}
+		String selector = SimpMessageHeaderAccessor.getFirstNativeHeader(selectorHeaderName, headers);
+		if (selector == null) {
+			return null;
+		}
+		Expression expression = this.selectorCache.get(selector);
+		if (expression == null) {
+			try {
+				expression = this.expressionParser.parseExpression(selector);
+			}
+			catch (Throwable ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Failed to parse selector: " + selector, ex);
+				}
+				return null;
+			}
+			if (this.selectorCache.size() < SELECTOR_CACHE_LIMIT) {
+				this.selectorCache.put(selector, expression);
+			}
+		}
+		if (logger.isTraceEnabled()) {
+			logger.trace("Subscription selector: [" + selector + "]");
+		}
+		return expression;
+	}
+
+	@Override
+	protected void removeSubscriptionInternal(String sessionId, String subsId, Message<?> message) {
+		Map<String, Subscription> subscriptions = this.sessions.get(sessionId);
+		if (subscriptions != null) {
+			Subscription subscription = subscriptions.remove(subsId);
+			if (subscription != null) {
+				removeFromTrie(subscription);
+			}
+		}
+	}
+
+	@Override
+	public void unregisterAllSubscriptions(String sessionId) {
+		Map<String, Subscription> subscriptions = this.sessions.remove(sessionId);
+		if (subscriptions != null) {
+			for (Subscription subscription : subscriptions.values()) {
+				removeFromTrie(subscription);
+			}
+		}
+	}
+
+	@Override
+	protected MultiValueMap<String, String> findSubscriptionsInternal(String destination, Message<?> message) {
+		Set<Node> nodes = new LinkedHashSet<>(4);
+		collectNodes(this.root, tokenize(destination), 0, nodes);
+		MultiValueMap<String, String> result = new LinkedMultiValueMap<>();
+		for (Node node : nodes) {
+			for (Subscription subscription : node.subscriptions) {
+				if ((subscription.destination.equals(destination) ||
+						this.pathMatcher.match(subscription.destination, destination)) &&
+						matchesSelector(subscription, message)) {
+					result.add(subscription.sessionId, subscription.id);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Collect all nodes with subscriptions that may match the given destination
+	 * segments: a superset of the matching destination patterns, to be checked
+	 * against the actual destination afterwards.
+	 */
+	private void collectNodes(Node node, String[] segments, int index, Set<Node> result) {
+		if (index == segments.length) {
+			if (node.subscriptions.length > 0) {
+				result.add(node);
+			}
+		}
+		else {
+			Node child = node.literalChildren.get(segments[index]);
+			if (child != null) {
+				collectNodes(child, segments, index + 1, result);
+			}
+		}
+		if (node.patternChildren.isEmpty()) {
+			return;
+		}
+		for (Node child : node.patternChildren.values()) {
+			if (DOUBLE_WILDCARD.equals(child.segment)) {
+				for (int i = index; i <= segments.length; i++) {
+					collectNodes(child, segments, i, result);
+				}
+			}
+			else if (index < segments.length) {
+				if (this.pathMatcher.match(child.segment, segments[index])) {
+					collectNodes(child, segments, index + 1, result);
+				}
+			}
+			else if (SINGLE_WILDCARD.equals(child.segment)) {
+				// A trailing wildcard matches a destination with a trailing separator
+				collectNodes(child, segments, index, result);
+			}
+		}
+	}
+
+	private boolean matchesSelector(Subscription subscription, Message<?> message) {
+		Expression expression = subscription.selectorExpression;
+		if (expression == null) {
+			return true;
+		}
+		try {
+			return Boolean.TRUE.equals(expression.getValue(messageEvalContext, message, Boolean.class));
+		}
+		catch (SpelEvaluationException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to evaluate selector: " + ex.getMessage());
+			}
+		}
+		catch (Throwable ex) {
+			logger.debug("Failed to evaluate selector", ex);
+		}
+		return false;
+	}
+
+	private String[] tokenize(String destination) {
+		return StringUtils.tokenizeToStringArray(destination, this.pathSeparator, false, true);
+	}
+
+	private void addToTrie(Subscription subscription) {
+		while (true) {
+			Node node = this.root;
+			for (String segment : subscription.segments) {
+				node = node.getOrCreateChild(segment);
+				if (node == null) {
+					break;
+				}
+			}
+			// Retry if a node on the way has been pruned concurrently
+			if (node != null && node.addSubscription(subscription)) {
+				return;
+			}
+		}
+	}
+
+	private void removeFromTrie(Subscription subscription) {
+		Node node = this.root;
+		for (String segment : subscription.segments) {
+			node = node.getChild(segment);
+			if (node == null) {
+				return;
+			}
+		}
+		if (node.removeSubscription(subscription)) {
+			node.prune();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ConcurrentSubscriptionRegistry[" + this.sessions.size() + " sessions]";
+	}
+
+
+	private static boolean isPatternSegment(String segment) {
+		return (segment.indexOf('*') != -1 || segment.indexOf('?') != -1 || segment.indexOf('{') != -1);
+	}
+
+
+	/**
+	 * Trie node for a destination segment. Children are only added and a node
+	 * is only pruned while holding the node's monitor, and a pruned node is
+	 * marked as removed, so that concurrent registrations can start over.
+	 */
+	private static final class Node {
+
+		@Nullable
+		private final Node parent;
+
+		private final String segment;
+
+		private final Map<String, Node> literalChildren = new ConcurrentHashMap<>(4);
+
+		private final Map<String, Node> patternChildren = new ConcurrentHashMap<>(4);
+
+		private volatile Subscription[] subscriptions = NO_SUBSCRIPTIONS;
+
+		private boolean removed;
+
+		Node(@Nullable Node parent, String segment) {
+			this.parent = parent;
+			this.segment = segment;
+		}
+
+		private Map<String, Node> getChildren(String segment) {
+			return (isPatternSegment(segment) ? this.patternChildren : this.literalChildren);
+		}
+
+		@Nullable
+		Node getChild(String segment) {
+			return getChildren(segment).get(segment);
+		}
+
+		@Nullable
+		Node getOrCreateChild(String segment) {
+			Map<String, Node> children = getChildren(segment);
+			Node child = children.get(segment);
+			if (child == null) {
+				synchronized (this) {
+					if (this.removed) {
+						return null;
+					}
+					child = children.computeIfAbsent(segment, key -> new Node(this, key));
+				}
+			}
+			return child;
+		}
+
+		synchronized boolean addSubscription(Subscription subscription) {
+			if (this.removed) {
+				return false;
+			}
+			Subscription[] existing = this.subscriptions;
+			Subscription[] updated = Arrays.copyOf(existing, existing.length + 1);
+			updated[existing.length] = subscription;
+			this.subscriptions = updated;
+			return true;
+		}
+
+		synchronized boolean removeSubscription(Subscription subscription) {
+			Subscription[] existing = this.subscriptions;
+			for (int i = 0; i < existing.length; i++) {
+				if (existing[i] == subscription) {
+					Subscription[] updated = (existing.length == 1 ? NO_SUBSCRIPTIONS : new Subscription[existing.length - 1]);
+					System.arraycopy(existing, 0, updated, 0, i);
+					System.arraycopy(existing, i + 1, updated, i, existing.length - i - 1);
+					this.subscriptions = updated;
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Remove this node and any ancestors which are left without
+		 * subscriptions and children, locking parent before child.
+		 */
+		void prune() {
+			Node node = this;
+			Node parent = node.parent;
+			while (parent != null) {
+				synchronized (parent) {
+					synchronized (node) {
+						if (node.removed || node.subscriptions.length > 0 ||
+								!node.literalChildren.isEmpty() || !node.patternChildren.isEmpty()) {
+							return;
+						}
+						node.removed = true;
+					}
+					parent.getChildren(node.segment).remove(node.segment, node);
+				}
+				node = parent;
+				parent = node.parent;
+			}
+		}
+	}
+
+
+	private static final class Subscription {
+
+		private final String sessionId;
+
+		private final String id;
+
+		private final String destination;
+
+		private final String[] segments;
+
+		@Nullable
+		private final Expression selectorExpression;
+
+		Subscription(String sessionId, String id, String destination, String[] segments,
+				@Nullable Expression selectorExpression) {
+
+			this.sessionId = sessionId;
+			this.id = id;
+			this.destination = destination;
+			this.segments = segments;
+			this.selectorExpression = selectorExpression;
+		}
+
+		@Override
+		public String toString() {
+			return "subscription(id=" + this.id + ", destination=" + this.destination + ")";
+		}
+	}
+
+}
@@ -528,7 +528,7 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 	}
 
 
-	private static class SimpMessageHeaderPropertyAccessor implements PropertyAccessor {
+	static class SimpMessageHeaderPropertyAccessor implements PropertyAccessor {
 
 		@Override
 		public Class<?>[] getSpecificTargetClasses() {
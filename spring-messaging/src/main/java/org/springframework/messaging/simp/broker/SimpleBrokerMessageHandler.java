@@ -101,6 +101,7 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 	 * {@link #setPathMatcher}, if the custom registry is not an instance of
 	 * {@link DefaultSubscriptionRegistry}, the provided PathMatcher is not used
 	 * and must be configured directly on the custom registry.
+	 * @see ConcurrentSubscriptionRegistry
 	 */
 	public void setSubscriptionRegistry(SubscriptionRegistry subscriptionRegistry) {
 		Assert.notNull(subscriptionRegistry, "SubscriptionRegistry must not be null");
@@ -180,6 +181,9 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 		if (this.subscriptionRegistry instanceof DefaultSubscriptionRegistry) {
 			((DefaultSubscriptionRegistry) this.subscriptionRegistry).setSelectorHeaderName(this.selectorHeaderName);
 		}
+		else if (this.subscriptionRegistry instanceof ConcurrentSubscriptionRegistry) {
+			((ConcurrentSubscriptionRegistry) this.subscriptionRegistry).setSelectorHeaderName(this.selectorHeaderName);
+		}
 	}
 
 	/**
@@ -20,6 +20,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.SubscribableChannel;
 import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.broker.SubscriptionRegistry;
 import org.springframework.scheduling.TaskScheduler;
 
 /**
@@ -39,6 +40,9 @@ public class SimpleBrokerRegistration extends AbstractBrokerRegistration {
 	@Nullable
 	private String selectorHeaderName = "selector";
 
+	@Nullable
+	private SubscriptionRegistry subscriptionRegistry;
+
 
 	public SimpleBrokerRegistration(SubscribableChannel inChannel, MessageChannel outChannel, String[] prefixes) {
 		super(inChannel, outChannel, prefixes);
@@ -89,11 +93,29 @@ public class SimpleBrokerRegistration extends AbstractBrokerRegistration {
 		this.selectorHeaderName = selectorHeaderName;
 	}
 
+	/**
+	 * Configure a custom {@link SubscriptionRegistry} for the simple broker,
+	 * e.g. a {@link org.springframework.messaging.simp.broker.ConcurrentSubscriptionRegistry}
+	 * for a high number of concurrently subscribing and unsubscribing sessions.
+	 * <p>By default a
+	 * {@link org.springframework.messaging.simp.broker.DefaultSubscriptionRegistry} is used.
+	 * @param subscriptionRegistry the subscription registry to use
+	 * @since 5.0.11
+	 * @see SimpleBrokerMessageHandler#setSubscriptionRegistry
+	 */
+	public SimpleBrokerRegistration setSubscriptionRegistry(SubscriptionRegistry subscriptionRegistry) {
+		this.subscriptionRegistry = subscriptionRegistry;
+		return this;
+	}
+
 
 	@Override
 	protected SimpleBrokerMessageHandler getMessageHandler(SubscribableChannel brokerChannel) {
 		SimpleBrokerMessageHandler handler = new SimpleBrokerMessageHandler(getClientInboundChannel(),
 				getClientOutboundChannel(), brokerChannel, getDestinationPrefixes());
+		if (this.subscriptionRegistry != null) {
+			handler.setSubscriptionRegistry(this.subscriptionRegistry);
+		}
 		if (this.taskScheduler != null) {
 			handler.setTaskScheduler(this.taskScheduler);
 		}
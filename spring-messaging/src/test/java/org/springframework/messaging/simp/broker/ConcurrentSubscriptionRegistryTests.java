@@ -0,0 +1,243 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.messaging.simp.broker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MultiValueMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ConcurrentSubscriptionRegistry}.
+ *
+ * @since 5.0.11
+ */
+public class ConcurrentSubscriptionRegistryTests {
+
+	private final ConcurrentSubscriptionRegistry registry = new ConcurrentSubscriptionRegistry();
+
+
+	@Test
+	public void registerSubscription() {
+		this.registry.registerSubscription(subscribeMessage("sess01", "subs01", "/foo"));
+		this.registry.registerSubscription(subscribeMessage("sess01", "subs02", "/foo"));
+		this.registry.registerSubscription(subscribeMessage("sess02", "subs01", "/foo"));
+		this.registry.registerSubscription(subscribeMessage("sess02", "subs02", "/foo/bar"));
+
+		MultiValueMap<String, String> actual = this.registry.findSubscriptions(createMessage("/foo"));
+		assertEquals(2, actual.size());
+		assertEquals(Arrays.asList("subs01", "subs02"), sort(actual.get("sess01")));
+		assertEquals(Collections.singletonList("subs01"), actual.get("sess02"));
+
+		assertEquals(0, this.registry.findSubscriptions(createMessage("/foo/")).size());
+		assertEquals(0, this.registry.findSubscriptions(createMessage("/bar")).size());
+	}
+
+	@Test
+	public void registerSubscriptionWithDestinationPatterns() {
+		this.registry.registerSubscription(subscribeMessage("sess01", "subs01", "/topic/PRICE.STOCK.*.IBM"));
+		this.registry.registerSubscription(subscribeMessage("sess01", "subs02", "/topic/PRICE.STOCK.NASDAQ.IBM"));
+		this.registry.registerSubscription(subscribeMessage("sess01", "subs03", "/topic/*"));
+		this.registry.registerSubscription(subscribeMessage("sess01", "subs04", "/topic/**"));
+		this.registry.registerSubscription(subscribeMessage("sess01", "subs05", "/**/IBM"));
+		this.registry.registerSubscription(subscribeMessage("sess01", "subs06", "/topic/{name:PRICE.STOCK.*}"));
+		this.registry.registerSubscription(subscribeMessage("sess01", "subs07", "/topic/PRICE.STOCK.NYSE.IBM"));
+
+		assertEquals(Arrays.asList("subs01", "subs02", "subs03", "subs04", "subs06"),
+				sort(this.registry.findSubscriptions(createMessage("/topic/PRICE.STOCK.NASDAQ.IBM")).get("sess01")));
+		assertEquals(Arrays.asList("subs04", "subs05"),
+				sort(this.registry.findSubscriptions(createMessage("/topic/stocks/IBM")).get("sess01")));
+		assertEquals(Arrays.asList("subs03", "subs04"),
+				sort(this.registry.findSubscriptions(createMessage("/topic/")).get("sess01")));
+		assertEquals(Collections.singletonList("subs04"),
+				this.registry.findSubscriptions(createMessage("/topic")).get("sess01"));
+		assertEquals(0, this.registry.findSubscriptions(createMessage("/queue/PRICE.STOCK.NASDAQ.GOOG")).size());
+	}
+
+	@Test
+	public void registerSubscriptionWithPathSeparator() {
+		this.registry.setPathSeparator(".");
+		this.registry.registerSubscription(subscribeMessage("sess01", "subs01", "price.stock.*.IBM"));
+		this.registry.registerSubscription(subscribeMessage("sess01", "subs02", "price.**"));
+
+		assertEquals(Arrays.asList("subs01", "subs02"),
+				sort(this.registry.findSubscriptions(createMessage("price.stock.NASDAQ.IBM")).get("sess01")));
+		assertEquals(Collections.singletonList("subs02"),
+				this.registry.findSubscriptions(createMessage("price.stock.NASDAQ.GOOG")).get("sess01"));
+	}
+
+	@Test
+	public void registerSubscriptionTwice() {
+		this.registry.registerSubscription(subscribeMessage("sess01", "subs01", "/foo"));
+		this.registry.registerSubscription(subscribeMessage("sess01", "subs01", "/bar"));
+
+		assertEquals(0, this.registry.findSubscriptions(createMessage("/foo")).size());
+		assertEquals(Collections.singletonList("subs01"),
+				this.registry.findSubscriptions(createMessage("/bar")).get("sess01"));
+	}
+
+	@Test
+	public void registerSubscriptionWithSelector() {
+		this.registry.registerSubscription(subscribeMessage("sess01", "subs01", "/foo", "headers.foo == 'bar'"));
+		this.registry.registerSubscription(subscribeMessage("sess02", "subs01", "/foo", "headers.foo == 'bar'"));
+		this.registry.registerSubscription(subscribeMessage("sess03", "subs01", "/foo"));
+
+		SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+		accessor.setDestination("/foo");
+		accessor.setNativeHeader("foo", "bar");
+		Message<?> message = MessageBuilder.createMessage("", accessor.getMessageHeaders());
+		assertEquals(3, this.registry.findSubscriptions(message).size());
+
+		MultiValueMap<String, String> actual = this.registry.findSubscriptions(createMessage("/foo"));
+		assertEquals(1, actual.size());
+		assertEquals(Collections.singletonList("subs01"), actual.get("sess03"));
+	}
+
+	@Test
+	public void registerSubscriptionWithSelectorNotSupported() {
+		this.registry.setSelectorHeaderName(null);
+		this.registry.registerSubscription(subscribeMessage("sess01", "subs01", "/foo", "headers.foo == 'bar'"));
+
+		assertEquals(1, this.registry.findSubscriptions(createMessage("/foo")).size());
+	}
+
+	@Test
+	public void unregisterSubscription() {
+		this.registry.registerSubscription(subscribeMessage("sess01", "subs01", "/foo"));
+		this.registry.registerSubscription(subscribeMessage("sess01", "subs02", "/foo/*"));
+		this.registry.registerSubscription(subscribeMessage("sess02", "subs01", "/foo"));
+
+		this.registry.unregisterSubscription(unsubscribeMessage("sess01", "subs01"));
+		this.registry.unregisterSubscription(unsubscribeMessage("sess01", "subs02"));
+		this.registry.unregisterSubscription(unsubscribeMessage("sess03", "subs01"));
+
+		MultiValueMap<String, String> actual = this.registry.findSubscriptions(createMessage("/foo"));
+		assertEquals(1, actual.size());
+		assertEquals(Collections.singletonList("subs01"), actual.get("sess02"));
+		assertEquals(0, this.registry.findSubscriptions(createMessage("/foo/bar")).size());
+
+		this.registry.registerSubscription(subscribeMessage("sess01", "subs02", "/foo/*"));
+		assertEquals(1, this.registry.findSubscriptions(createMessage("/foo/bar")).size());
+	}
+
+	@Test
+	public void unregisterAllSubscriptions() {
+		this.registry.registerSubscription(subscribeMessage("sess01", "subs01", "/foo"));
+		this.registry.registerSubscription(subscribeMessage("sess01", "subs02", "/foo/**"));
+		this.registry.registerSubscription(subscribeMessage("sess02", "subs01", "/foo"));
+
+		this.registry.unregisterAllSubscriptions("sess01");
+		this.registry.unregisterAllSubscriptions("sess03");
+
+		MultiValueMap<String, String> actual = this.registry.findSubscriptions(createMessage("/foo"));
+		assertEquals(1, actual.size());
+		assertEquals(Collections.singletonList("subs01"), actual.get("sess02"));
+	}
+
+	@Test
+	public void concurrentSubscriptionChanges() throws Exception {
+		this.registry.registerSubscription(subscribeMessage("static", "subs01", "/topic/news"));
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		CountDownLatch startLatch = new CountDownLatch(1);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 3; t++) {
+				String prefix = "sess" + t + "-";
+				futures.add(executor.submit(() -> {
+					startLatch.await();
+					for (int i = 0; i < 2000; i++) {
+						String sessionId = prefix + i;
+						this.registry.registerSubscription(subscribeMessage(sessionId, "subs01", "/topic/news"));
+						this.registry.registerSubscription(subscribeMessage(sessionId, "subs02", "/topic/" + i + "/*"));
+						this.registry.unregisterSubscription(unsubscribeMessage(sessionId, "subs01"));
+						this.registry.unregisterAllSubscriptions(sessionId);
+					}
+					return null;
+				}));
+			}
+			futures.add(executor.submit(() -> {
+				startLatch.await();
+				for (int i = 0; i < 2000; i++) {
+					assertEquals(Collections.singletonList("subs01"),
+							this.registry.findSubscriptions(createMessage("/topic/news")).get("static"));
+				}
+				return null;
+			}));
+			startLatch.countDown();
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		MultiValueMap<String, String> actual = this.registry.findSubscriptions(createMessage("/topic/news"));
+		assertEquals(1, actual.size());
+		assertEquals(0, this.registry.findSubscriptions(createMessage("/topic/1/news")).size());
+	}
+
+
+	private Message<?> createMessage(String destination) {
+		SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+		accessor.setDestination(destination);
+		return MessageBuilder.createMessage("", accessor.getMessageHeaders());
+	}
+
+	private Message<?> subscribeMessage(String sessionId, String subscriptionId, String destination) {
+		return subscribeMessage(sessionId, subscriptionId, destination, null);
+	}
+
+	private Message<?> subscribeMessage(String sessionId, String subscriptionId, String dest, String selector) {
+		SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+		accessor.setSessionId(sessionId);
+		accessor.setSubscriptionId(subscriptionId);
+		accessor.setDestination(dest);
+		if (selector != null) {
+			accessor.setNativeHeader("selector", selector);
+		}
+		return MessageBuilder.createMessage("", accessor.getMessageHeaders());
+	}
+
+	private Message<?> unsubscribeMessage(String sessionId, String subscriptionId) {
+		SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.UNSUBSCRIBE);
+		accessor.setSessionId(sessionId);
+		accessor.setSubscriptionId(subscriptionId);
+		return MessageBuilder.createMessage("", accessor.getMessageHeaders());
+	}
+
+	private List<String> sort(List<String> list) {
+		Collections.sort(list);
+		return list;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,15 +17,28 @@
 package org.springframework.transaction.event;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.event.ApplicationListenerMethodAdapter;
 import org.springframework.context.event.EventListener;
 import org.springframework.context.event.GenericApplicationListener;
+import org.springframework.core.OrderComparator;
 import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.lang.Nullable;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationAdapter;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
 
 /**
  * {@link GenericApplicationListener} adapter that delegates the processing of
@@ -47,6 +60,8 @@ class ApplicationListenerMethodTransactionalAdapter extends ApplicationListenerM
 
 	private final TransactionalEventListener annotation;
 
+	private final boolean collectionParameter;
+
 
 	public ApplicationListenerMethodTransactionalAdapter(String beanName, Class<?> targetClass, Method method) {
 		super(beanName, targetClass, method);
@@ -55,20 +70,36 @@ class ApplicationListenerMethodTransactionalAdapter extends ApplicationListenerM
 			throw new IllegalStateException("No TransactionalEventListener annotation found on method: " + method);
 		}
 		this.annotation = ann;
+		this.collectionParameter = (ann.aggregate() && method.getParameterCount() == 1 &&
+				Collection.class.isAssignableFrom(method.getParameterTypes()[0]) &&
+				method.getParameterTypes()[0].isAssignableFrom(ArrayList.class));
+		if (this.collectionParameter && ann.classes().length == 0) {
+			throw new IllegalStateException("Aggregating TransactionalEventListener with a collection parameter " +
+					"needs to specify its event classes: " + method);
+		}
+		if (!ann.aggregate() && StringUtils.hasText(ann.deduplicationKey())) {
+			throw new IllegalStateException(
+					"TransactionalEventListener deduplicationKey requires aggregate=true: " + method);
+		}
 	}
 
 
 	@Override
 	public void onApplicationEvent(ApplicationEvent event) {
 		if (TransactionSynchronizationManager.isSynchronizationActive()) {
-			TransactionSynchronization transactionSynchronization = createTransactionSynchronization(event);
-			TransactionSynchronizationManager.registerSynchronization(transactionSynchronization);
+			if (this.annotation.aggregate()) {
+				aggregateEvent(event);
+			}
+			else {
+				TransactionSynchronization transactionSynchronization = createTransactionSynchronization(event);
+				TransactionSynchronizationManager.registerSynchronization(transactionSynchronization);
+			}
 		}
 		else if (this.annotation.fallbackExecution()) {
 			if (this.annotation.phase() == TransactionPhase.AFTER_ROLLBACK && logger.isWarnEnabled()) {
 				logger.warn("Processing " + event + " as a fallback execution on AFTER_ROLLBACK phase");
 			}
-			processEvent(event);
+			processEvents(Collections.singletonList(event));
 		}
 		else {
 			// No transactional event execution at all
@@ -82,6 +113,62 @@ class ApplicationListenerMethodTransactionalAdapter extends ApplicationListenerM
 		return new TransactionSynchronizationEventAdapter(this, event, this.annotation.phase());
 	}
 
+	private void aggregateEvent(ApplicationEvent event) {
+		Object key = null;
+		String deduplicationKey = this.annotation.deduplicationKey();
+		if (StringUtils.hasText(deduplicationKey)) {
+			Object[] args = resolveArguments(event);
+			if (args == null) {
+				return;
+			}
+			key = evaluateExpression(deduplicationKey, event, args);
+		}
+		TransactionSynchronizationEventAggregation.getCurrent().add(this, event, key);
+	}
+
+	/**
+	 * Process the given events collected for this listener: all at once for a
+	 * method with a collection parameter, one by one otherwise.
+	 */
+	void processEvents(List<ApplicationEvent> events) {
+		if (!this.collectionParameter) {
+			for (ApplicationEvent event : events) {
+				processEvent(event);
+			}
+			return;
+		}
+		List<Object> arguments = new ArrayList<>(events.size());
+		for (ApplicationEvent event : events) {
+			Object[] args = resolveArguments(event);
+			if (args != null && shouldHandle(event, args)) {
+				arguments.add(args[0]);
+			}
+		}
+		if (!arguments.isEmpty()) {
+			Object result = doInvoke(arguments);
+			if (result != null) {
+				handleResult(result);
+			}
+		}
+	}
+
+	TransactionPhase getTransactionPhase() {
+		return this.annotation.phase();
+	}
+
+	private static boolean isPhaseMatching(TransactionPhase phase, int status) {
+		switch (phase) {
+			case AFTER_COMMIT:
+				return (status == TransactionSynchronization.STATUS_COMMITTED);
+			case AFTER_ROLLBACK:
+				return (status == TransactionSynchronization.STATUS_ROLLED_BACK);
+			case AFTER_COMPLETION:
+				return true;
+			default:
+				return false;
+		}
+	}
+
 
 	private static class TransactionSynchronizationEventAdapter extends TransactionSynchronizationAdapter {
 
@@ -129,4 +216,112 @@ class ApplicationListenerMethodTransactionalAdapter extends ApplicationListenerM
 		}
 	}
 
+
+	/**
+	 * Single synchronization per transaction collecting the events for all
+	 * aggregating listeners, bound as a transactional resource.
+	 */
+	private static class TransactionSynchronizationEventAggregation extends TransactionSynchronizationAdapter {
+
+		private static final Log logger = LogFactory.getLog(TransactionSynchronizationEventAggregation.class);
+
+		private final Map<ApplicationListenerMethodTransactionalAdapter, EventBatch> batches = new LinkedHashMap<>();
+
+		public static TransactionSynchronizationEventAggregation getCurrent() {
+			TransactionSynchronizationEventAggregation aggregation = (TransactionSynchronizationEventAggregation)
+					TransactionSynchronizationManager.getResource(TransactionSynchronizationEventAggregation.class);
+			if (aggregation == null) {
+				aggregation = new TransactionSynchronizationEventAggregation();
+				TransactionSynchronizationManager.bindResource(TransactionSynchronizationEventAggregation.class, aggregation);
+				TransactionSynchronizationManager.registerSynchronization(aggregation);
+			}
+			return aggregation;
+		}
+
+		public void add(ApplicationListenerMethodTransactionalAdapter listener,
+				ApplicationEvent event, @Nullable Object key) {
+
+			this.batches.computeIfAbsent(listener, l -> new EventBatch()).add(event, key);
+		}
+
+		@Override
+		public void suspend() {
+			TransactionSynchronizationManager.unbindResource(TransactionSynchronizationEventAggregation.class);
+		}
+
+		@Override
+		public void resume() {
+			TransactionSynchronizationManager.bindResource(TransactionSynchronizationEventAggregation.class, this);
+		}
+
+		@Override
+		public void beforeCommit(boolean readOnly) {
+			// Listeners may publish further events while processing theirs
+			List<ApplicationListenerMethodTransactionalAdapter> listeners;
+			while (!(listeners = takeListeners(TransactionPhase.BEFORE_COMMIT, -1)).isEmpty()) {
+				for (ApplicationListenerMethodTransactionalAdapter listener : listeners) {
+					listener.processEvents(this.batches.remove(listener).events);
+				}
+			}
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+			TransactionSynchronizationManager.unbindResourceIfPossible(TransactionSynchronizationEventAggregation.class);
+			for (ApplicationListenerMethodTransactionalAdapter listener : takeListeners(null, status)) {
+				try {
+					listener.processEvents(this.batches.get(listener).events);
+				}
+				catch (Throwable ex) {
+					logger.error("Aggregating TransactionalEventListener " + listener +
+							" threw exception on transaction completion", ex);
+				}
+			}
+			this.batches.clear();
+		}
+
+		private List<ApplicationListenerMethodTransactionalAdapter> takeListeners(
+				@Nullable TransactionPhase phase, int status) {
+
+			List<ApplicationListenerMethodTransactionalAdapter> listeners = new ArrayList<>();
+			for (ApplicationListenerMethodTransactionalAdapter listener : this.batches.keySet()) {
+				TransactionPhase listenerPhase = listener.getTransactionPhase();
+				if (phase != null ? listenerPhase == phase : isPhaseMatching(listenerPhase, status)) {
+					listeners.add(listener);
+				}
+			}
+			OrderComparator.sort(listeners);
+			return listeners;
+		}
+	}
+
+
+	/**
+	 * The events collected for a listener, optionally de-duplicated by key.
+	 */
+	private static class EventBatch {
+
+		final List<ApplicationEvent> events = new ArrayList<>();
+
+		@Nullable
+		private Map<Object, Integer> positions;
+
+		void add(ApplicationEvent event, @Nullable Object key) {
+			if (key == null) {
+				this.events.add(event);
+				return;
+			}
+			if (this.positions == null) {
+				this.positions = new HashMap<>();
+			}
+			Integer position = this.positions.putIfAbsent(key, this.events.size());
+			if (position != null) {
+				this.events.set(position, event);
+			}
+			else {
+				this.events.add(event);
+			}
+		}
+	}
+
 }
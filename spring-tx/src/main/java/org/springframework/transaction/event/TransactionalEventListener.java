@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -83,4 +83,34 @@ public @interface TransactionalEventListener {
 	 */
 	String condition() default "";
 
+	/**
+	 * Whether to collect the events for this listener per transaction and to
+	 * deliver them together in the configured {@link #phase}, with a single
+	 * transaction synchronization for all aggregating listeners rather than
+	 * one per event and listener.
+	 * <p>If the annotated method declares a {@link java.util.List} or
+	 * {@link java.util.Collection} parameter, it gets invoked once with all
+	 * collected events (or payloads) in the order of publication, in which case
+	 * the event type needs to be specified through {@link #classes}. Otherwise,
+	 * the method gets invoked for each collected event in turn.
+	 * <p>The {@link #condition} is evaluated for each event on delivery.
+	 * @since 5.0.11
+	 * @see #deduplicationKey
+	 */
+	boolean aggregate() default false;
+
+	/**
+	 * Spring Expression Language (SpEL) attribute used for computing a key
+	 * to de-duplicate {@link #aggregate aggregated} events by: of several events
+	 * with the same key within a transaction, only the last one is delivered,
+	 * at the position of the first one.
+	 * <p>The expression is evaluated on publication of each event, exposing the
+	 * same variables as the {@link #condition}: {@code #root.args[0]} refers to
+	 * the individual event or payload, even for a method declaring a collection
+	 * parameter.
+	 * <p>The default is {@code ""}, meaning no de-duplication.
+	 * @since 5.0.11
+	 */
+	String deduplicationKey() default "";
+
 }
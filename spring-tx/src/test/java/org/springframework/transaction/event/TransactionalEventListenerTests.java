@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -31,6 +31,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import org.springframework.beans.factory.BeanInitializationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
@@ -306,6 +307,61 @@ public class TransactionalEventListenerTests {
 		getEventCollector().assertNoEventReceived();
 	}
 
+	@Test
+	public void aggregatedAfterCommit() {
+		load(AggregatingTestListener.class);
+		this.transactionTemplate.execute(status -> {
+			getContext().publishEvent("a1");
+			getContext().publishEvent("b1");
+			getContext().publishEvent("SKIP");
+			getContext().publishEvent("a2");
+			assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+			getEventCollector().assertNoEventReceived();
+			return null;
+		});
+		getEventCollector().assertEvents(EventCollector.AFTER_COMMIT, Arrays.asList("a1", "b1", "a2"));
+		getEventCollector().assertEvents(EventCollector.BEFORE_COMMIT, "a1", "b1", "a2");
+		getEventCollector().assertTotalEventsCount(4);
+	}
+
+	@Test
+	public void aggregatedAfterCommitWithDeduplication() {
+		load(DeduplicatingTestListener.class);
+		this.transactionTemplate.execute(status -> {
+			getContext().publishEvent("a1");
+			getContext().publishEvent("b1");
+			getContext().publishEvent("a2");
+			return null;
+		});
+		getEventCollector().assertEvents(EventCollector.AFTER_COMMIT, Arrays.asList("a2", "b1"));
+		getEventCollector().assertTotalEventsCount(1);
+	}
+
+	@Test
+	public void aggregatedAfterRollback() {
+		load(AggregatingTestListener.class);
+		this.transactionTemplate.execute(status -> {
+			getContext().publishEvent("test");
+			status.setRollbackOnly();
+			return null;
+		});
+		getEventCollector().assertNoEventReceived();
+	}
+
+	@Test
+	public void aggregatedNoTransactionWithFallbackExecution() {
+		load(DeduplicatingTestListener.class);
+		this.context.publishEvent("test");
+		getEventCollector().assertEvents(EventCollector.AFTER_COMMIT, Collections.singletonList("test"));
+	}
+
+	@Test
+	public void aggregatedWithCollectionParameterRequiresEventClasses() {
+		this.thrown.expect(BeanInitializationException.class);
+		this.thrown.expectMessage("event classes");
+		load(InvalidAggregatingTestListener.class);
+	}
+
 
 	protected EventCollector getEventCollector() {
 		return eventCollector;
@@ -515,6 +571,47 @@ public class TransactionalEventListenerTests {
 	}
 
 
+	@Component
+	static class AggregatingTestListener extends BaseTransactionalTestListener {
+
+		@Autowired
+		private EventCollector eventCollector;
+
+		@TransactionalEventListener(classes = String.class, aggregate = true, condition = "!'SKIP'.equals(#p0)")
+		public void handleAfterCommit(List<String> data) {
+			this.eventCollector.addEvent(EventCollector.AFTER_COMMIT, data);
+		}
+
+		@TransactionalEventListener(phase = BEFORE_COMMIT, aggregate = true, condition = "!'SKIP'.equals(#data)")
+		public void handleBeforeCommit(String data) {
+			handleEvent(EventCollector.BEFORE_COMMIT, data);
+		}
+	}
+
+
+	@Component
+	static class DeduplicatingTestListener {
+
+		@Autowired
+		private EventCollector eventCollector;
+
+		@TransactionalEventListener(classes = String.class, aggregate = true,
+				deduplicationKey = "#root.args[0].charAt(0)", fallbackExecution = true)
+		public void handleAfterCommit(List<String> data) {
+			this.eventCollector.addEvent(EventCollector.AFTER_COMMIT, data);
+		}
+	}
+
+
+	@Component
+	static class InvalidAggregatingTestListener {
+
+		@TransactionalEventListener(aggregate = true)
+		public void handleAfterCommit(List<String> data) {
+		}
+	}
+
+
 	@TransactionalEventListener(phase = AFTER_COMMIT, condition = "!'SKIP'.equals(#p0)")
 	@Target(ElementType.METHOD)
 	@Retention(RetentionPolicy.RUNTIME)
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.json;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+
+/**
+ * Benchmarks for {@link Jackson2JsonDecoder} decoding a JSON array that arrives
+ * as a stream of {@link DataBuffer} chunks.
+ *
+ * @since 5.0.11
+ */
+@BenchmarkMode(Mode.Throughput)
+public class Jackson2JsonDecoderBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"10", "1000"})
+		public int elementCount;
+
+		@Param({"64", "8192"})
+		public int chunkSize;
+
+		public Jackson2JsonDecoder decoder;
+
+		public DefaultDataBufferFactory bufferFactory;
+
+		public List<byte[]> chunks;
+
+		public ResolvableType elementType;
+
+		public ResolvableType listType;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.decoder = new Jackson2JsonDecoder();
+			this.bufferFactory = new DefaultDataBufferFactory();
+			this.elementType = ResolvableType.forClass(Item.class);
+			this.listType = ResolvableType.forClassWithGenerics(List.class, Item.class);
+
+			StringBuilder json = new StringBuilder("[");
+			for (int i = 0; i < this.elementCount; i++) {
+				if (i > 0) {
+					json.append(',');
+				}
+				json.append("{\"id\":").append(i).append(",\"name\":\"item-").append(i)
+						.append("\",\"price\":").append(i * 1.5d).append(",\"tags\":[\"a\",\"b\",\"c\"]}");
+			}
+			json.append(']');
+
+			byte[] bytes = json.toString().getBytes(StandardCharsets.UTF_8);
+			this.chunks = new ArrayList<>(bytes.length / this.chunkSize + 1);
+			for (int offset = 0; offset < bytes.length; offset += this.chunkSize) {
+				this.chunks.add(Arrays.copyOfRange(bytes, offset, Math.min(offset + this.chunkSize, bytes.length)));
+			}
+		}
+
+		public Flux<DataBuffer> input() {
+			return Flux.fromIterable(this.chunks).map(this.bufferFactory::wrap);
+		}
+	}
+
+
+	@Benchmark
+	public List<Object> decodeElementStream(BenchmarkState state) {
+		return state.decoder.decode(state.input(), state.elementType,
+				MediaType.APPLICATION_JSON, Collections.emptyMap()).collectList().block();
+	}
+
+	@Benchmark
+	public Object decodeToList(BenchmarkState state) {
+		return state.decoder.decodeToMono(state.input(), state.listType,
+				MediaType.APPLICATION_JSON, Collections.emptyMap()).block();
+	}
+
+
+	public static class Item {
+
+		private long id;
+
+		private String name;
+
+		private double price;
+
+		private List<String> tags;
+
+		public long getId() {
+			return this.id;
+		}
+
+		public void setId(long id) {
+			this.id = id;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public double getPrice() {
+			return this.price;
+		}
+
+		public void setPrice(double price) {
+			this.price = price;
+		}
+
+		public List<String> getTags() {
+			return this.tags;
+		}
+
+		public void setTags(List<String> tags) {
+			this.tags = tags;
+		}
+	}
+
+}
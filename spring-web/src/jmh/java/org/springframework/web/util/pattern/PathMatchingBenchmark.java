@@ -0,0 +1,136 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util.pattern;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.AntPathMatcher;
+
+/**
+ * Benchmarks comparing {@link AntPathMatcher#match} with {@link PathPattern#matches}
+ * over a set of patterns that is typical for a REST API.
+ *
+ * @since 5.0.11
+ */
+@BenchmarkMode(Mode.Throughput)
+public class PathMatchingBenchmark {
+
+	static final String[] PATTERNS = {
+			"/", "/static/**", "/api/customers", "/api/customers/{id}", "/api/customers/{id}/orders",
+			"/api/customers/{id}/orders/{orderId}", "/api/products/*.json", "/api/products/{sku:[a-z0-9]+}",
+			"/admin/**/reports", "/api/invoices/{year}/{month}/{day}", "/api/*/search", "/health"};
+
+	static final String[] PATHS = {
+			"/", "/static/css/app.css", "/api/customers", "/api/customers/42", "/api/customers/42/orders",
+			"/api/customers/42/orders/7", "/api/products/list.json", "/api/products/abc123",
+			"/admin/eu/west/reports", "/api/invoices/2018/10/18", "/api/users/search", "/not/mapped/at/all"};
+
+
+	@State(Scope.Benchmark)
+	public static class AntPathMatcherState {
+
+		public AntPathMatcher matcher;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.matcher = new AntPathMatcher();
+		}
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class PathPatternState {
+
+		public List<PathPattern> patterns;
+
+		public List<PathContainer> paths;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			PathPatternParser parser = new PathPatternParser();
+			this.patterns = new ArrayList<>(PATTERNS.length);
+			for (String pattern : PATTERNS) {
+				this.patterns.add(parser.parse(pattern));
+			}
+			this.paths = new ArrayList<>(PATHS.length);
+			for (String path : PATHS) {
+				this.paths.add(PathContainer.parsePath(path));
+			}
+		}
+	}
+
+
+	@Benchmark
+	public void antPathMatcherMatch(AntPathMatcherState state, Blackhole bh) {
+		for (String path : PATHS) {
+			for (String pattern : PATTERNS) {
+				bh.consume(state.matcher.match(pattern, path));
+			}
+		}
+	}
+
+	@Benchmark
+	public void antPathMatcherExtractVariables(AntPathMatcherState state, Blackhole bh) {
+		for (String path : PATHS) {
+			for (String pattern : PATTERNS) {
+				if (state.matcher.match(pattern, path)) {
+					bh.consume(state.matcher.extractUriTemplateVariables(pattern, path));
+				}
+			}
+		}
+	}
+
+	@Benchmark
+	public void pathPatternMatches(PathPatternState state, Blackhole bh) {
+		for (PathContainer path : state.paths) {
+			for (PathPattern pattern : state.patterns) {
+				bh.consume(pattern.matches(path));
+			}
+		}
+	}
+
+	@Benchmark
+	public void pathPatternMatchesIncludingParsing(PathPatternState state, Blackhole bh) {
+		for (String rawPath : PATHS) {
+			PathContainer path = PathContainer.parsePath(rawPath);
+			for (PathPattern pattern : state.patterns) {
+				bh.consume(pattern.matches(path));
+			}
+		}
+	}
+
+	@Benchmark
+	public void pathPatternMatchAndExtract(PathPatternState state, Blackhole bh) {
+		for (PathContainer path : state.paths) {
+			for (PathPattern pattern : state.patterns) {
+				bh.consume(pattern.matchAndExtract(path));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.ConcurrentLruCache;
+
+/**
+ * Index of request mappings by the literal leading segments of their URL
+ * patterns, organized as a trie with one node per literal segment. Used by
+ * handler mappings to narrow down the mappings that need to be checked
+ * against a request path to a small set of candidates.
+ *
+ * <p>A mapping is registered under the literal segments which every path
+ * matching its pattern has to start with (see {@link #getLiteralSegments}),
+ * or under the root node if there are none, e.g. for a pattern starting with
+ * a URI variable or for a mapping without patterns. The candidates for a path
+ * are then the mappings registered on the root node and on each node along
+ * the path's segments, which is a superset of the actually matching mappings
+ * as long as literal pattern segments are matched case-sensitively against
+ * slash-separated path segments.
+ *
+ * <p>Candidate lists are cached for the {@link #CANDIDATE_CACHE_LIMIT} most
+ * recently used paths. This class is not thread-safe for modifications: callers
+ * need to guard {@link #add} and {@link #remove} against concurrent lookups,
+ * typically through a read-write lock.
+ *
+ * @since 5.0.11
+ * @param <T> the type of mapping
+ */
+public class PathSegmentIndex<T> {
+
+	/** Maximum number of paths for which candidates are cached, in LRU order */
+	public static final int CANDIDATE_CACHE_LIMIT = 1024;
+
+	private static final String SEPARATOR = "/";
+
+
+	private final Node<T> root = new Node<>();
+
+	private final ConcurrentLruCache<String, List<T>> candidateCache =
+			new ConcurrentLruCache<>(CANDIDATE_CACHE_LIMIT, this::resolveCandidates);
+
+	private final ConcurrentLruCache<PathContainer, List<T>> parsedPathCandidateCache =
+			new ConcurrentLruCache<>(CANDIDATE_CACHE_LIMIT, this::resolveCandidates);
+
+
+	/**
+	 * Register the given mapping under the given literal segments.
+	 * @param literalSegments the leading literal segments of a pattern of the
+	 * mapping, or an empty list to register the mapping under the root node
+	 * @param mapping the mapping to register
+	 */
+	public void add(List<String> literalSegments, T mapping) {
+		Node<T> node = this.root;
+		for (String segment : literalSegments) {
+			node = node.children.computeIfAbsent(segment, key -> new Node<>());
+		}
+		node.mappings.add(mapping);
+		clearCandidateCaches();
+	}
+
+	/**
+	 * Remove the given mapping from underneath the given literal segments.
+	 * @param literalSegments the literal segments that the mapping has been
+	 * {@link #add registered} with
+	 * @param mapping the mapping to remove
+	 */
+	public void remove(List<String> literalSegments, T mapping) {
+		removeFrom(this.root, literalSegments, 0, mapping);
+		clearCandidateCaches();
+	}
+
+	private void clearCandidateCaches() {
+		this.candidateCache.clear();
+		this.parsedPathCandidateCache.clear();
+	}
+
+	private void removeFrom(Node<T> node, List<String> literalSegments, int index, T mapping) {
+		if (index == literalSegments.size()) {
+			node.mappings.remove(mapping);
+			return;
+		}
+		String segment = literalSegments.get(index);
+		Node<T> child = node.children.get(segment);
+		if (child != null) {
+			removeFrom(child, literalSegments, index + 1, mapping);
+			if (child.isEmpty()) {
+				node.children.remove(segment);
+			}
+		}
+	}
+
+	/**
+	 * Return the candidate mappings for the given slash-separated path,
+	 * ignoring empty segments.
+	 * @param path the lookup path
+	 * @return the candidate mappings, in the order of the nodes along the path
+	 */
+	public List<T> getCandidates(String path) {
+		return this.candidateCache.get(path);
+	}
+
+	/**
+	 * Return the candidate mappings for the given parsed path, matching the
+	 * {@link PathContainer.PathSegment#valueToMatch() values to match} of
+	 * its path segments.
+	 * @param path the lookup path
+	 * @return the candidate mappings, in the order of the nodes along the path
+	 */
+	public List<T> getCandidates(PathContainer path) {
+		return this.parsedPathCandidateCache.get(path);
+	}
+
+	private List<T> resolveCandidates(String path) {
+		Set<T> result = new LinkedHashSet<>(this.root.mappings);
+		Node<T> node = this.root;
+		int begin = 0;
+		while (node != null && begin < path.length()) {
+			int end = path.indexOf(SEPARATOR, begin);
+			if (end == -1) {
+				end = path.length();
+			}
+			if (end > begin) {
+				node = node.children.get(path.substring(begin, end));
+				if (node != null) {
+					result.addAll(node.mappings);
+				}
+			}
+			begin = end + SEPARATOR.length();
+		}
+		return toCandidateList(result);
+	}
+
+	private List<T> resolveCandidates(PathContainer path) {
+		Set<T> result = new LinkedHashSet<>(this.root.mappings);
+		Node<T> node = this.root;
+		for (PathContainer.Element element : path.elements()) {
+			if (element instanceof PathContainer.PathSegment) {
+				node = node.children.get(((PathContainer.PathSegment) element).valueToMatch());
+				if (node == null) {
+					break;
+				}
+				result.addAll(node.mappings);
+			}
+		}
+		return toCandidateList(result);
+	}
+
+	private List<T> toCandidateList(Set<T> result) {
+		return (result.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(result)));
+	}
+
+
+	/**
+	 * Determine the literal segments which every path matching the given
+	 * pattern starts with: all slash-separated segments up to the first one
+	 * containing a wildcard or URI variable, excluding the pattern's final
+	 * segment since that may be subject to suffix or trailing slash matching.
+	 * @param pattern the URL pattern
+	 * @return the literal segments (possibly empty)
+	 */
+	public static List<String> getLiteralSegments(String pattern) {
+		List<String> segments = new ArrayList<>();
+		int begin = 0;
+		while (begin < pattern.length()) {
+			int end = pattern.indexOf(SEPARATOR, begin);
+			if (end == -1) {
+				// Final segment
+				break;
+			}
+			if (end > begin) {
+				String segment = pattern.substring(begin, end);
+				if (!isLiteral(segment)) {
+					break;
+				}
+				segments.add(segment);
+			}
+			begin = end + SEPARATOR.length();
+		}
+		return segments;
+	}
+
+	private static boolean isLiteral(String segment) {
+		for (int i = 0; i < segment.length(); i++) {
+			char c = segment.charAt(i);
+			if (c == '*' || c == '?' || c == '{' || c == '}') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	private static class Node<T> {
+
+		private final List<T> mappings = new ArrayList<>(1);
+
+		private final Map<String, Node<T>> children = new HashMap<>(4);
+
+		boolean isEmpty() {
+			return (this.mappings.isEmpty() && this.children.isEmpty());
+		}
+	}
+
+}
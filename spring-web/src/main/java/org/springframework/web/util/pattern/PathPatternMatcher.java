@@ -0,0 +1,238 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util.pattern;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.Nullable;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.PathMatcher;
+
+/**
+ * {@link PathMatcher} implementation for URL paths which matches against
+ * precompiled {@link PathPattern PathPatterns}, making the {@code PathPattern}
+ * engine available wherever a {@code PathMatcher} can be configured, e.g. for
+ * Spring MVC handler mappings through
+ * {@code PathMatchConfigurer#setPathMatcher}.
+ *
+ * <p>Patterns are parsed once and cached, as are request paths for the
+ * repeated matching against several patterns within the same request.
+ * Pattern matching, URI template variable extraction and pattern comparison
+ * use the parsed representations, with the same results as an
+ * {@link AntPathMatcher} for the common subset of both pattern syntaxes.
+ * Patterns that are not supported by {@code PathPattern}, e.g. with a
+ * "**" wildcard in the middle, as well as the remaining operations, are
+ * delegated to an {@code AntPathMatcher}.
+ *
+ * <p>Paths are expected to be decoded already, as is the case for lookup
+ * paths determined by {@link org.springframework.web.util.UrlPathHelper}:
+ * they are matched as-is, without any further decoding or extraction of
+ * path parameters.
+ *
+ * @since 5.0.11
+ * @see PathPatternParser
+ * @see AntPathMatcher
+ */
+public class PathPatternMatcher implements PathMatcher {
+
+	private static final int CACHE_LIMIT = 65536;
+
+	private static final int PATH_CACHE_LIMIT = 1024;
+
+
+	private final PathPatternParser parser = new PathPatternParser();
+
+	private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+
+	private final Map<String, PathPattern> patternCache = new ConcurrentHashMap<>(256);
+
+	private final Set<String> unsupportedPatterns = ConcurrentHashMap.newKeySet();
+
+	private volatile boolean unsupportedPatternsFound;
+
+	private final ConcurrentLruCache<String, PathContainer> pathCache =
+			new ConcurrentLruCache<>(PATH_CACHE_LIMIT, PathPatternMatcher::parsePath);
+
+
+	public PathPatternMatcher() {
+		// Same semantics as AntPathMatcher: trailing slashes are significant
+		this.parser.setMatchOptionalTrailingSeparator(false);
+	}
+
+
+	/**
+	 * Specify whether to perform pattern matching in a case-sensitive fashion.
+	 * <p>Default is {@code true}. Switch this to {@code false} for case-insensitive matching.
+	 */
+	public void setCaseSensitive(boolean caseSensitive) {
+		this.parser.setCaseSensitive(caseSensitive);
+		this.antPathMatcher.setCaseSensitive(caseSensitive);
+		this.patternCache.clear();
+		this.unsupportedPatterns.clear();
+		this.unsupportedPatternsFound = false;
+	}
+
+
+	@Override
+	public boolean isPattern(String path) {
+		return this.antPathMatcher.isPattern(path);
+	}
+
+	@Override
+	public boolean match(String pattern, String path) {
+		PathPattern pathPattern = getPathPattern(pattern);
+		if (pathPattern == null) {
+			return this.antPathMatcher.match(pattern, path);
+		}
+		return pathPattern.matches(getPathContainer(path));
+	}
+
+	@Override
+	public boolean matchStart(String pattern, String path) {
+		return this.antPathMatcher.matchStart(pattern, path);
+	}
+
+	@Override
+	public String extractPathWithinPattern(String pattern, String path) {
+		return this.antPathMatcher.extractPathWithinPattern(pattern, path);
+	}
+
+	@Override
+	public Map<String, String> extractUriTemplateVariables(String pattern, String path) {
+		PathPattern pathPattern = getPathPattern(pattern);
+		if (pathPattern == null) {
+			return this.antPathMatcher.extractUriTemplateVariables(pattern, path);
+		}
+		PathPattern.PathMatchInfo info = pathPattern.matchAndExtract(getPathContainer(path));
+		if (info == null) {
+			throw new IllegalStateException("Pattern \"" + pattern + "\" is not a match for \"" + path + "\"");
+		}
+		return info.getUriVariables();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>The returned comparator uses the specificity of the parsed patterns,
+	 * unless a pattern not supported by {@code PathPattern} has been found
+	 * before, in which case all patterns are compared by the
+	 * {@link AntPathMatcher#getPatternComparator AntPathMatcher comparator}:
+	 * a single ordering for all patterns keeps the comparison transitive.
+	 * Patterns are expected to have been matched before they get sorted,
+	 * which is when unsupported patterns are detected; any unsupported
+	 * pattern encountered by a specificity-based comparator nevertheless
+	 * is sorted after all supported patterns.
+	 */
+	@Override
+	public Comparator<String> getPatternComparator(String path) {
+		Comparator<String> antPatternComparator = this.antPathMatcher.getPatternComparator(path);
+		if (this.unsupportedPatternsFound) {
+			return antPatternComparator;
+		}
+		return (pattern1, pattern2) -> {
+			if (pattern1 == null || pattern2 == null) {
+				return antPatternComparator.compare(pattern1, pattern2);
+			}
+			boolean pattern1EqualsPath = pattern1.equals(path);
+			boolean pattern2EqualsPath = pattern2.equals(path);
+			if (pattern1EqualsPath || pattern2EqualsPath) {
+				return (pattern1EqualsPath == pattern2EqualsPath ? 0 : pattern1EqualsPath ? -1 : 1);
+			}
+			PathPattern pathPattern1 = getPathPattern(pattern1);
+			PathPattern pathPattern2 = getPathPattern(pattern2);
+			if (pathPattern1 == null && pathPattern2 == null) {
+				return antPatternComparator.compare(pattern1, pattern2);
+			}
+			else if (pathPattern1 == null || pathPattern2 == null) {
+				return (pathPattern1 == null ? 1 : -1);
+			}
+			return PathPattern.SPECIFICITY_COMPARATOR.compare(pathPattern1, pathPattern2);
+		};
+	}
+
+	@Override
+	public String combine(String pattern1, String pattern2) {
+		return this.antPathMatcher.combine(pattern1, pattern2);
+	}
+
+
+	/**
+	 * Return the parsed representation of the given pattern.
+	 * @param pattern the pattern String
+	 * @return the parsed pattern, or {@code null} if the pattern is not
+	 * supported by {@link PathPatternParser}
+	 */
+	@Nullable
+	protected PathPattern getPathPattern(String pattern) {
+		PathPattern pathPattern = this.patternCache.get(pattern);
+		if (pathPattern == null) {
+			if (this.unsupportedPatterns.contains(pattern)) {
+				return null;
+			}
+			try {
+				pathPattern = (isSupported(pattern) ? this.parser.parse(pattern) : null);
+			}
+			catch (PatternParseException ex) {
+				// Leave it to AntPathMatcher
+			}
+			if (pathPattern == null) {
+				this.unsupportedPatternsFound = true;
+				if (this.unsupportedPatterns.size() < CACHE_LIMIT) {
+					this.unsupportedPatterns.add(pattern);
+				}
+				return null;
+			}
+			if (this.patternCache.size() < CACHE_LIMIT) {
+				this.patternCache.put(pattern, pathPattern);
+			}
+		}
+		return pathPattern;
+	}
+
+	/**
+	 * Whether the given pattern is to be matched as a {@code PathPattern}:
+	 * a "**" wildcard is only supported at the end of a {@code PathPattern},
+	 * whereas the parser would accept it elsewhere as a single-segment wildcard.
+	 */
+	private static boolean isSupported(String pattern) {
+		int index = pattern.indexOf("**");
+		return (index == -1 || index == pattern.length() - 2);
+	}
+
+	/**
+	 * Return the parsed representation of the given (decoded) path.
+	 * @param path the path String
+	 * @return the parsed path
+	 */
+	protected PathContainer getPathContainer(String path) {
+		return this.pathCache.get(path);
+	}
+
+	private static PathContainer parsePath(String path) {
+		String pathToParse = path;
+		if (path.indexOf('%') != -1 || path.indexOf(';') != -1) {
+			// Protect decoded characters from decoding and path parameter extraction
+			pathToParse = path.replace("%", "%25").replace(";", "%3B");
+		}
+		return PathContainer.parsePath(pathToParse);
+	}
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import org.springframework.http.server.PathContainer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link PathSegmentIndex}.
+ *
+ * @since 5.0.11
+ */
+public class PathSegmentIndexTests {
+
+	private final PathSegmentIndex<String> index = new PathSegmentIndex<>();
+
+
+	@Test
+	public void literalSegments() {
+		assertEquals(Collections.emptyList(), PathSegmentIndex.getLiteralSegments("/users"));
+		assertEquals(Collections.emptyList(), PathSegmentIndex.getLiteralSegments("/{id}/users"));
+		assertEquals(Collections.emptyList(), PathSegmentIndex.getLiteralSegments("/**/users"));
+		assertEquals(Arrays.asList("api", "users"), PathSegmentIndex.getLiteralSegments("/api/users/{id}"));
+		assertEquals(Arrays.asList("api", "users"), PathSegmentIndex.getLiteralSegments("/api//users/"));
+		assertEquals(Collections.singletonList("api"), PathSegmentIndex.getLiteralSegments("/api/us*/{id}"));
+		assertEquals(Collections.singletonList("api"), PathSegmentIndex.getLiteralSegments("api/users"));
+	}
+
+	@Test
+	public void candidates() {
+		add("/**", "root");
+		add("/api/users/{id}", "user");
+		add("/api/users/{id}/orders", "orders");
+		add("/api/teams/{id}", "team");
+		add("/other/{id}", "other");
+
+		assertEquals(Arrays.asList("root", "user", "orders"), this.index.getCandidates("/api/users/1"));
+		assertEquals(Arrays.asList("root", "user", "orders"), this.index.getCandidates("//api/users//1/orders"));
+		assertEquals(Arrays.asList("root", "team"), this.index.getCandidates("/api/teams/1"));
+		assertEquals(Collections.singletonList("root"), this.index.getCandidates("/api"));
+		assertEquals(Collections.singletonList("root"), this.index.getCandidates("/unknown/users/1"));
+		assertEquals(Collections.singletonList("root"), this.index.getCandidates(""));
+	}
+
+	@Test
+	public void candidatesForPathContainer() {
+		add("/api/users/{id}", "user");
+		add("/api/teams/{id}", "team");
+
+		assertEquals(Collections.singletonList("user"),
+				this.index.getCandidates(PathContainer.parsePath("/api;v=1/users/1")));
+		assertEquals(Collections.singletonList("user"),
+				this.index.getCandidates(PathContainer.parsePath("/%61pi/users/1")));
+		assertEquals(Collections.emptyList(), this.index.getCandidates(PathContainer.parsePath("/api")));
+	}
+
+	@Test
+	public void duplicateCandidates() {
+		add("/api/users/{id}", "user");
+		add("/api/users/{id}/orders", "user");
+		add("/api/{id}", "user");
+
+		assertEquals(Collections.singletonList("user"), this.index.getCandidates("/api/users/1/orders"));
+	}
+
+	@Test
+	public void remove() {
+		add("/api/users/{id}", "user");
+		add("/api/teams/{id}", "team");
+		assertEquals(Collections.singletonList("user"), this.index.getCandidates("/api/users/1"));
+
+		this.index.remove(PathSegmentIndex.getLiteralSegments("/api/users/{id}"), "user");
+		assertEquals(Collections.emptyList(), this.index.getCandidates("/api/users/1"));
+		assertEquals(Collections.singletonList("team"), this.index.getCandidates("/api/teams/1"));
+	}
+
+	@Test
+	public void candidateCacheLimit() {
+		add("/api/users/{id}", "user");
+		for (int i = 0; i < PathSegmentIndex.CANDIDATE_CACHE_LIMIT * 2; i++) {
+			assertEquals(Collections.singletonList("user"), this.index.getCandidates("/api/users/" + i));
+		}
+	}
+
+
+	private void add(String pattern, String mapping) {
+		this.index.add(PathSegmentIndex.getLiteralSegments(pattern), mapping);
+	}
+
+}
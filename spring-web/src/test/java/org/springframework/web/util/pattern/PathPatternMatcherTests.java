@@ -0,0 +1,145 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util.pattern;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.springframework.util.AntPathMatcher;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link PathPatternMatcher}.
+ *
+ * @since 5.0.11
+ */
+public class PathPatternMatcherTests {
+
+	private final PathPatternMatcher matcher = new PathPatternMatcher();
+
+
+	@Test
+	public void match() {
+		assertTrue(this.matcher.match("/hotels", "/hotels"));
+		assertFalse(this.matcher.match("/hotels", "/hotels/"));
+		assertFalse(this.matcher.match("/hotels", "/Hotels"));
+		assertTrue(this.matcher.match("/hotels/*", "/hotels/1"));
+		assertFalse(this.matcher.match("/hotels/*", "/hotels/1/bookings"));
+		assertTrue(this.matcher.match("/hotels/**", "/hotels/1/bookings"));
+		assertTrue(this.matcher.match("/hotels/{hotel}", "/hotels/1"));
+		assertTrue(this.matcher.match("/hotels/h?tel", "/hotels/hotel"));
+		assertFalse(this.matcher.match("/hotels", "hotels"));
+	}
+
+	@Test
+	public void matchWithPatternNotSupportedByParser() {
+		assertTrue(this.matcher.match("/hotels/**/bookings", "/hotels/1/2/bookings"));
+		assertFalse(this.matcher.match("/hotels/**/bookings", "/hotels/1/2/orders"));
+		assertEquals(Collections.singletonMap("booking", "3"),
+				this.matcher.extractUriTemplateVariables("/hotels/**/bookings/{booking}", "/hotels/1/bookings/3"));
+	}
+
+	@Test
+	public void matchDecodedPath() {
+		assertTrue(this.matcher.match("/files/{name}", "/files/a;b"));
+		assertTrue(this.matcher.match("/files/{name}", "/files/a%20b"));
+		assertEquals(Collections.singletonMap("name", "a;b"),
+				this.matcher.extractUriTemplateVariables("/files/{name}", "/files/a;b"));
+		assertEquals(Collections.singletonMap("name", "a%20b"),
+				this.matcher.extractUriTemplateVariables("/files/{name}", "/files/a%20b"));
+	}
+
+	@Test
+	public void caseInsensitive() {
+		this.matcher.setCaseSensitive(false);
+		assertTrue(this.matcher.match("/hotels/{hotel}", "/HOTELS/1"));
+		assertTrue(this.matcher.match("/hotels/**/bookings", "/HOTELS/1/BOOKINGS"));
+	}
+
+	@Test
+	public void extractUriTemplateVariables() {
+		Map<String, String> variables =
+				this.matcher.extractUriTemplateVariables("/hotels/{hotel}/bookings/{booking}", "/hotels/1/bookings/2");
+		assertEquals(2, variables.size());
+		assertEquals("1", variables.get("hotel"));
+		assertEquals("2", variables.get("booking"));
+
+		variables = this.matcher.extractUriTemplateVariables("/files/{name:[a-z]+}.{ext}", "/files/report.pdf");
+		assertEquals("report", variables.get("name"));
+		assertEquals("pdf", variables.get("ext"));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void extractUriTemplateVariablesWithoutMatch() {
+		this.matcher.extractUriTemplateVariables("/hotels/{hotel}", "/bookings/1");
+	}
+
+	@Test
+	public void patternComparator() {
+		Comparator<String> comparator = this.matcher.getPatternComparator("/hotels/new");
+		List<String> patterns = new ArrayList<>(Arrays.asList(
+				"/**", "/hotels/**", "/hotels/{hotel}", "/hotels/*", "/hotels/new", "/hotels/ne?"));
+		patterns.sort(comparator);
+
+		assertEquals("/hotels/new", patterns.get(0));
+		assertEquals("/**", patterns.get(patterns.size() - 1));
+		assertTrue(patterns.indexOf("/hotels/{hotel}") < patterns.indexOf("/hotels/**"));
+		assertTrue(patterns.indexOf("/hotels/ne?") < patterns.indexOf("/hotels/*"));
+		assertEquals(0, comparator.compare("/hotels/**/new", "/hotels/**/new"));
+	}
+
+	@Test
+	public void patternComparatorWithUnsupportedPattern() {
+		assertTrue(this.matcher.match("/hotels/**/bookings", "/hotels/1/bookings"));
+		Comparator<String> comparator = this.matcher.getPatternComparator("/hotels/1/bookings");
+		List<String> patterns = new ArrayList<>(Arrays.asList(
+				"/**", "/hotels/**/bookings", "/hotels/{hotel}/bookings", "/hotels/*/bookings"));
+		patterns.sort(comparator);
+
+		List<String> antSorted = new ArrayList<>(patterns);
+		antSorted.sort(new AntPathMatcher().getPatternComparator("/hotels/1/bookings"));
+		assertEquals(antSorted, patterns);
+		assertEquals("/**", patterns.get(patterns.size() - 1));
+	}
+
+	@Test
+	public void patternComparatorSortsUnmatchedUnsupportedPatternsLast() {
+		Comparator<String> comparator = this.matcher.getPatternComparator("/hotels/1/bookings");
+		List<String> patterns = new ArrayList<>(Arrays.asList(
+				"/hotels/**/bookings", "/**", "/hotels/{hotel}/bookings"));
+		patterns.sort(comparator);
+
+		assertEquals(Arrays.asList("/hotels/{hotel}/bookings", "/**", "/hotels/**/bookings"), patterns);
+	}
+
+	@Test
+	public void delegatedOperations() {
+		assertTrue(this.matcher.isPattern("/hotels/*"));
+		assertFalse(this.matcher.isPattern("/hotels"));
+		assertTrue(this.matcher.matchStart("/hotels/*/bookings", "/hotels/1"));
+		assertEquals("1/bookings", this.matcher.extractPathWithinPattern("/hotels/**", "/hotels/1/bookings"));
+		assertEquals("/hotels/{hotel}", this.matcher.combine("/hotels", "{hotel}"));
+	}
+
+}
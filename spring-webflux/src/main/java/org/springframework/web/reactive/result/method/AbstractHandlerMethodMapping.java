@@ -23,6 +23,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -34,6 +35,7 @@ import reactor.core.publisher.Mono;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.core.MethodIntrospector;
+import org.springframework.http.server.PathContainer;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
@@ -43,6 +45,9 @@ import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.reactive.HandlerMapping;
 import org.springframework.web.reactive.handler.AbstractHandlerMapping;
 import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.PathSegmentIndex;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Abstract base class for {@link HandlerMapping} implementations that define
@@ -298,7 +303,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	@Nullable
 	protected HandlerMethod lookupHandlerMethod(ServerWebExchange exchange) throws Exception {
 		List<Match> matches = new ArrayList<>();
-		addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, exchange);
+		PathContainer lookupPath = exchange.getRequest().getPath().pathWithinApplication();
+		addMatchingMappings(this.mappingRegistry.getMappingsByPath(lookupPath), matches, exchange);
 
 		if (!matches.isEmpty()) {
 			Comparator<Match> comparator = new MatchComparator(getMappingComparator(exchange));
@@ -393,6 +399,21 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	@Nullable
 	protected abstract T getMappingForMethod(Method method, Class<?> handlerType);
 
+	/**
+	 * Extract and return the URL path patterns contained in a mapping,
+	 * allowing for the mapping to be only checked for matching request paths.
+	 * <p>The default implementation returns {@code null}, in which case the
+	 * mapping is checked for every request.
+	 * @param mapping the mapping to extract the patterns from
+	 * @return the patterns (an empty set indicating that the mapping matches
+	 * any path), or {@code null} if not known
+	 * @since 5.0.11
+	 */
+	@Nullable
+	protected Set<PathPattern> getMappingPathPatterns(T mapping) {
+		return null;
+	}
+
 	/**
 	 * Check if a mapping matches the current request and return a (potentially
 	 * new) mapping with conditions relevant to the current request.
@@ -424,6 +445,10 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 		private final Map<T, HandlerMethod> mappingLookup = new LinkedHashMap<>();
 
+		private final PathSegmentIndex<T> pathIndex = new PathSegmentIndex<>();
+
+		private final PathPatternParser caseSensitiveParser = new PathPatternParser();
+
 		private final Map<HandlerMethod, CorsConfiguration> corsLookup = new ConcurrentHashMap<>();
 
 		private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
@@ -436,6 +461,14 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return this.mappingLookup;
 		}
 
+		/**
+		 * Return all mappings which may match the given lookup path. Not thread-safe.
+		 * @see #acquireReadLock()
+		 */
+		public List<T> getMappingsByPath(PathContainer lookupPath) {
+			return this.pathIndex.getCandidates(lookupPath);
+		}
+
 		/**
 		 * Return CORS configuration. Thread-safe for concurrent use.
 		 */
@@ -469,12 +502,17 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 				}
 				this.mappingLookup.put(mapping, handlerMethod);
 
+				Set<List<String>> literalSegments = getLiteralSegments(mapping);
+				for (List<String> segments : literalSegments) {
+					this.pathIndex.add(segments, mapping);
+				}
+
 				CorsConfiguration corsConfig = initCorsConfiguration(handler, method, mapping);
 				if (corsConfig != null) {
 					this.corsLookup.put(handlerMethod, corsConfig);
 				}
 
-				this.registry.put(mapping, new MappingRegistration<>(mapping, handlerMethod));
+				this.registry.put(mapping, new MappingRegistration<>(mapping, handlerMethod, literalSegments));
 			}
 			finally {
 				this.readWriteLock.writeLock().unlock();
@@ -491,6 +529,23 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			}
 		}
 
+		private Set<List<String>> getLiteralSegments(T mapping) {
+			Set<List<String>> result = new LinkedHashSet<>(1);
+			Set<PathPattern> patterns = getMappingPathPatterns(mapping);
+			if (patterns == null || patterns.isEmpty()) {
+				result.add(Collections.emptyList());
+			}
+			else {
+				for (PathPattern pattern : patterns) {
+					// Only index patterns with literal segments to be matched case-sensitively
+					String patternString = pattern.getPatternString();
+					result.add(pattern.equals(this.caseSensitiveParser.parse(patternString)) ?
+							PathSegmentIndex.getLiteralSegments(patternString) : Collections.emptyList());
+				}
+			}
+			return result;
+		}
+
 		public void unregister(T mapping) {
 			this.readWriteLock.writeLock().lock();
 			try {
@@ -500,6 +555,9 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 				}
 
 				this.mappingLookup.remove(definition.getMapping());
+				for (List<String> segments : definition.getLiteralSegments()) {
+					this.pathIndex.remove(segments, definition.getMapping());
+				}
 				this.corsLookup.remove(definition.getHandlerMethod());
 			}
 			finally {
@@ -515,11 +573,14 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 		private final HandlerMethod handlerMethod;
 
-		public MappingRegistration(T mapping, HandlerMethod handlerMethod) {
+		private final Set<List<String>> literalSegments;
+
+		public MappingRegistration(T mapping, HandlerMethod handlerMethod, Set<List<String>> literalSegments) {
 			Assert.notNull(mapping, "Mapping must not be null");
 			Assert.notNull(handlerMethod, "HandlerMethod must not be null");
 			this.mapping = mapping;
 			this.handlerMethod = handlerMethod;
+			this.literalSegments = literalSegments;
 		}
 
 		public T getMapping() {
@@ -530,6 +591,9 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return this.handlerMethod;
 		}
 
+		public Set<List<String>> getLiteralSegments() {
+			return this.literalSegments;
+		}
 	}
 
 
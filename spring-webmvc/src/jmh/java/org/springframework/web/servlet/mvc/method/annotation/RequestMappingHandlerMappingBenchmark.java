@@ -0,0 +1,116 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.mvc.method.annotation;
+
+import java.lang.reflect.Method;
+import javax.servlet.http.HttpServletRequest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.mock.web.test.MockHttpServletRequest;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+
+/**
+ * Benchmarks for {@code AbstractHandlerMethodMapping#lookupHandlerMethod} as used
+ * by {@link RequestMappingHandlerMapping}, for direct (literal) paths as well as
+ * for paths that can only be resolved through pattern matching.
+ *
+ * @since 5.0.11
+ */
+@BenchmarkMode(Mode.Throughput)
+public class RequestMappingHandlerMappingBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"100", "2500"})
+		public int mappingCount;
+
+		public BenchmarkHandlerMapping handlerMapping;
+
+		public HttpServletRequest directRequest;
+
+		public HttpServletRequest patternRequest;
+
+		public HttpServletRequest noMatchRequest;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.handlerMapping = new BenchmarkHandlerMapping();
+			this.handlerMapping.setApplicationContext(new StaticWebApplicationContext());
+
+			Handler handler = new Handler();
+			Method method = ReflectionUtils.findMethod(Handler.class, "handle");
+			for (int i = 0; i < this.mappingCount; i++) {
+				this.handlerMapping.registerMapping(RequestMappingInfo.paths("/api/static" + i)
+						.methods(RequestMethod.GET).build(), handler, method);
+				this.handlerMapping.registerMapping(RequestMappingInfo.paths("/api/resource" + i + "/{id}")
+						.methods(RequestMethod.GET, RequestMethod.POST).build(), handler, method);
+			}
+
+			int last = this.mappingCount - 1;
+			this.directRequest = new MockHttpServletRequest("GET", "/api/static" + last);
+			this.patternRequest = new MockHttpServletRequest("GET", "/api/resource" + last + "/42");
+			this.noMatchRequest = new MockHttpServletRequest("GET", "/api/unknown/42");
+		}
+	}
+
+
+	@Benchmark
+	public HandlerMethod lookupDirectPath(BenchmarkState state) throws Exception {
+		return state.handlerMapping.lookup(state.directRequest);
+	}
+
+	@Benchmark
+	public HandlerMethod lookupPatternPath(BenchmarkState state) throws Exception {
+		return state.handlerMapping.lookup(state.patternRequest);
+	}
+
+	@Benchmark
+	public HandlerMethod lookupNoMatch(BenchmarkState state) throws Exception {
+		return state.handlerMapping.lookup(state.noMatchRequest);
+	}
+
+
+	private static class BenchmarkHandlerMapping extends RequestMappingHandlerMapping {
+
+		public HandlerMethod lookup(HttpServletRequest request) throws Exception {
+			String lookupPath = getUrlPathHelper().getLookupPathForRequest(request);
+			return lookupHandlerMethod(lookupPath, request);
+		}
+	}
+
+
+	public static class Handler {
+
+		public String handle() {
+			return "handled";
+		}
+	}
+
+}
@@ -23,6 +23,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -36,14 +37,17 @@ import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.core.MethodIntrospector;
 import org.springframework.lang.Nullable;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.PathMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsUtils;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.PathSegmentIndex;
 
 /**
  * Abstract base class for {@link HandlerMapping} implementations that define
@@ -348,8 +352,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			addMatchingMappings(directPathMatches, matches, request);
 		}
 		if (matches.isEmpty()) {
-			// No choice but to go through all mappings...
-			addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, request);
+			// Go through all mappings which may match the lookup path...
+			addMatchingMappings(this.mappingRegistry.getMappingsByPath(lookupPath), matches, request);
 		}
 
 		if (!matches.isEmpty()) {
@@ -486,6 +490,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 		private final MultiValueMap<String, T> urlLookup = new LinkedMultiValueMap<>();
 
+		private final PathSegmentIndex<T> pathIndex = new PathSegmentIndex<>();
+
 		private final Map<String, List<HandlerMethod>> nameLookup = new ConcurrentHashMap<>();
 
 		private final Map<HandlerMethod, CorsConfiguration> corsLookup = new ConcurrentHashMap<>();
@@ -509,6 +515,15 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return this.urlLookup.get(urlPath);
 		}
 
+		/**
+		 * Return all mappings which may match the given lookup path,
+		 * including the ones matching it directly. Not thread-safe.
+		 * @see #acquireReadLock()
+		 */
+		public List<T> getMappingsByPath(String lookupPath) {
+			return this.pathIndex.getCandidates(lookupPath);
+		}
+
 		/**
 		 * Return handler methods by mapping name. Thread-safe for concurrent use.
 		 */
@@ -554,6 +569,11 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 					this.urlLookup.add(url, mapping);
 				}
 
+				Set<List<String>> literalSegments = getLiteralSegments(mapping);
+				for (List<String> segments : literalSegments) {
+					this.pathIndex.add(segments, mapping);
+				}
+
 				String name = null;
 				if (getNamingStrategy() != null) {
 					name = getNamingStrategy().getName(handlerMethod, mapping);
@@ -565,7 +585,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 					this.corsLookup.put(handlerMethod, corsConfig);
 				}
 
-				this.registry.put(mapping, new MappingRegistration<>(mapping, handlerMethod, directUrls, name));
+				this.registry.put(mapping,
+						new MappingRegistration<>(mapping, handlerMethod, directUrls, literalSegments, name));
 			}
 			finally {
 				this.readWriteLock.writeLock().unlock();
@@ -592,6 +613,32 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return urls;
 		}
 
+		private Set<List<String>> getLiteralSegments(T mapping) {
+			Set<List<String>> result = new LinkedHashSet<>(1);
+			Set<String> patterns = getMappingPathPatterns(mapping);
+			if (patterns.isEmpty() || !isLiteralSegmentMatcher(getPathMatcher())) {
+				result.add(Collections.emptyList());
+			}
+			else {
+				for (String pattern : patterns) {
+					result.add(PathSegmentIndex.getLiteralSegments(pattern));
+				}
+			}
+			return result;
+		}
+
+		/**
+		 * Whether the given PathMatcher matches literal pattern segments against
+		 * "/"-separated path segments by case-sensitive equality, as required
+		 * for indexing mappings by their literal segments.
+		 */
+		private boolean isLiteralSegmentMatcher(PathMatcher pathMatcher) {
+			// Rule out case-insensitive matching, trimmed tokens and a custom separator
+			return (pathMatcher.getClass() == AntPathMatcher.class &&
+					!pathMatcher.match("/a/b", "/A/b") && !pathMatcher.match("/a/b", "/a/ b") &&
+					!pathMatcher.match("/a/*", "/a/b/c"));
+		}
+
 		private void addMappingName(String name, HandlerMethod handlerMethod) {
 			List<HandlerMethod> oldList = this.nameLookup.get(name);
 			if (oldList == null) {
@@ -641,6 +688,10 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 					}
 				}
 
+				for (List<String> segments : definition.getLiteralSegments()) {
+					this.pathIndex.remove(segments, definition.getMapping());
+				}
+
 				removeMappingName(definition);
 
 				this.corsLookup.remove(definition.getHandlerMethod());
@@ -683,17 +734,20 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 		private final List<String> directUrls;
 
+		private final Set<List<String>> literalSegments;
+
 		@Nullable
 		private final String mappingName;
 
-		public MappingRegistration(T mapping, HandlerMethod handlerMethod,
-				@Nullable List<String> directUrls, @Nullable String mappingName) {
+		public MappingRegistration(T mapping, HandlerMethod handlerMethod, @Nullable List<String> directUrls,
+				Set<List<String>> literalSegments, @Nullable String mappingName) {
 
 			Assert.notNull(mapping, "Mapping must not be null");
 			Assert.notNull(handlerMethod, "HandlerMethod must not be null");
 			this.mapping = mapping;
 			this.handlerMethod = handlerMethod;
 			this.directUrls = (directUrls != null ? directUrls : Collections.emptyList());
+			this.literalSegments = literalSegments;
 			this.mappingName = mappingName;
 		}
 
@@ -709,6 +763,10 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return this.directUrls;
 		}
 
+		public Set<List<String>> getLiteralSegments() {
+			return this.literalSegments;
+		}
+
 		@Nullable
 		public String getMappingName() {
 			return this.mappingName;
@@ -102,6 +102,27 @@ public class HandlerMethodMappingTests {
 		this.mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/foo"));
 	}
 
+	@Test
+	public void patternMatchAcrossPathSegments() throws Exception {
+		this.mapping = new PatternIndexingHandlerMethodMapping();
+		this.mapping.registerMapping("/api/users/{id}", this.handler, this.method1);
+		this.mapping.registerMapping("/api/**", this.handler, this.method2);
+
+		HandlerMethod result = this.mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/api/users/1"));
+		assertEquals(method1, result.getMethod());
+		result = this.mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/api/teams/1"));
+		assertEquals(method2, result.getMethod());
+		result = this.mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/api"));
+		assertEquals(method2, result.getMethod());
+		assertNull(this.mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/other/users/1")));
+
+		this.mapping.unregisterMapping("/api/users/{id}");
+		result = this.mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/api/users/1"));
+		assertEquals(method2, result.getMethod());
+		assertEquals(Collections.singletonList("/api/**"),
+				this.mapping.getMappingRegistry().getMappingsByPath("/api/users/1"));
+	}
+
 	@Test
 	public void detectHandlerMethodsInAncestorContexts() {
 		StaticApplicationContext cxt = new StaticApplicationContext();
@@ -290,6 +311,18 @@ public class HandlerMethodMappingTests {
 
 	}
 
+	/**
+	 * Variant of {@link MyHandlerMethodMapping} exposing pattern keys as path
+	 * patterns, so that they get indexed by their literal leading segments.
+	 */
+	private static class PatternIndexingHandlerMethodMapping extends MyHandlerMethodMapping {
+
+		@Override
+		protected Set<String> getMappingPathPatterns(String key) {
+			return Collections.singleton(key);
+		}
+	}
+
 	private static class SimpleMappingNamingStrategy implements HandlerMethodMappingNamingStrategy<String> {
 
 		@Override
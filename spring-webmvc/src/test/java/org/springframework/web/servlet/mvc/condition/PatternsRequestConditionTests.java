@@ -23,6 +23,7 @@ import javax.servlet.http.HttpServletRequest;
 import org.junit.Test;
 
 import org.springframework.mock.web.test.MockHttpServletRequest;
+import org.springframework.web.util.pattern.PathPatternMatcher;
 
 import static org.junit.Assert.*;
 
@@ -175,6 +176,24 @@ public class PatternsRequestConditionTests {
 		assertNull(match);
 	}
 
+	@Test
+	public void matchWithPathPatternMatcher() {
+		PathPatternMatcher pathMatcher = new PathPatternMatcher();
+		PatternsRequestCondition condition = new PatternsRequestCondition(
+				new String[] {"/**", "/foo/bar", "/foo/*", "/foo/{id}"}, null, pathMatcher, true, true);
+
+		PatternsRequestCondition match = condition.getMatchingCondition(new MockHttpServletRequest("GET", "/foo/bar"));
+		assertEquals(new PatternsRequestCondition("/foo/bar", "/foo/{id}", "/foo/*", "/**"), match);
+
+		match = condition.getMatchingCondition(new MockHttpServletRequest("GET", "/foo/bar.html"));
+		assertNotNull(match);
+		assertEquals("/foo/bar.*", match.getPatterns().iterator().next());
+
+		match = condition.getMatchingCondition(new MockHttpServletRequest("GET", "/foo/bar/"));
+		assertNotNull(match);
+		assertEquals("/foo/bar/", match.getPatterns().iterator().next());
+	}
+
 	@Test
 	public void matchPatternContainsExtension() {
 		PatternsRequestCondition condition = new PatternsRequestCondition("/foo.jpg");